@@ -0,0 +1,36 @@
+#!/bin/sh
+# Gera o arquivo CDS (AppCDS) da aplicação com o perfil prod e processamento AOT.
+#
+# O CDS só aceita JARs no classpath, então o arquivo é gerado a partir do JAR só com as classes
+# da aplicação (o .jar.original do repackage) mais as dependências copiadas para target/cds/lib.
+# O treino sobe o contexto e sai logo após o refresh (spring.context.exit=onRefresh).
+#
+# Uso: scripts/gerar-cds.sh   (a partir da raiz do projeto; MVN=mvn para usar outro Maven)
+set -e
+
+MVN=${MVN:-./mvnw}
+DESTINO=target/cds
+MAIN=com.example.mini_bank_api.MiniBankApiApplication
+
+$MVN -B -q -Paot -DskipTests package dependency:copy-dependencies \
+    -DincludeScope=runtime -DexcludeArtifactIds=spring-boot-devtools,lombok \
+    -DoutputDirectory=$DESTINO/lib
+
+cp target/mini-bank-api-*.jar.original $DESTINO/mini-bank-api.jar
+CLASSPATH=$(ls $DESTINO/mini-bank-api.jar $DESTINO/lib/*.jar | tr '\n' ':')
+
+rm -rf $DESTINO/treino $DESTINO/application.jsa
+java -XX:ArchiveClassesAtExit=$DESTINO/application.jsa \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -cp "$CLASSPATH" $MAIN \
+    --spring.profiles.active=prod --mini-bank.dados.diretorio=./$DESTINO/treino
+
+cat > $DESTINO/iniciar.sh <<FIM
+#!/bin/sh
+cd "\$(dirname "\$0")"
+exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \\
+    -cp "$(echo "$CLASSPATH" | sed "s|$DESTINO/||g")" $MAIN --spring.profiles.active=prod "\$@"
+FIM
+chmod +x $DESTINO/iniciar.sh
+
+echo "Arquivo CDS gerado em $DESTINO/application.jsa; inicie com $DESTINO/iniciar.sh"
@@ -0,0 +1,149 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.RelatorioAgencias;
+import com.example.mini_bank_api.dto.ResumoAgencia;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.agregados.AgregadosProperties;
+import com.example.mini_bank_api.service.agregados.ReconciliacaoAgregados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Relatório de saldos por agência com 100 mil e 1 milhão de contas em AGENCIAS agências (H2 em memória):
+// - relatorioAgregados: dos agregados em memória, O(agências)
+// - relatorioGroupBy: o GROUP BY da tabela inteira, como era antes (e como a reconciliação confere)
+// - depositar / depositarSemAgregados: custo dos agregados em uma operação, com e sem o registro
+// O setup imprime a duração da carga inicial dos agregados (uma reconciliação completa).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class AgregadosAgenciasBenchmark {
+
+    private static final int AGENCIAS = 100;
+
+    private static final int INSERCOES_POR_TRANSACAO = 100_000;
+
+    private static final BigDecimal VALOR = new BigDecimal("1.00");
+
+    @Param({"100000", "1000000"})
+    public int contas;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ClienteService clienteService;
+
+    private ClienteRepository clienteRepository;
+
+    private AgregadosProperties agregadosProperties;
+
+    private TransactionTemplate somenteLeitura;
+
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:agregados;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--mini-bank.cache.habilitado=false",
+                        "--mini-bank.busca.habilitado=false",
+                        "--mini-bank.agregados.intervalo-reconciliacao=1h");
+        clienteService = contexto.getBean(ClienteService.class);
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        agregadosProperties = contexto.getBean(AgregadosProperties.class);
+        PlatformTransactionManager transactionManager = contexto.getBean(PlatformTransactionManager.class);
+        somenteLeitura = new TransactionTemplate(transactionManager);
+        somenteLeitura.setReadOnly(true);
+        carregarContas(contexto.getBean(JdbcTemplate.class), new TransactionTemplate(transactionManager));
+
+        // Contas gravadas por fora da aplicação: os agregados as conhecem pela reconciliação
+        long inicio = System.nanoTime();
+        int pendentes = contexto.getBean(ReconciliacaoAgregados.class).reconciliar();
+        System.out.printf("%nCarga dos agregados com %d contas: %d ms (%d agências pendentes)%n", contas,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), pendentes);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public RelatorioAgencias relatorioAgregados() {
+        return clienteService.relatorioAgencias();
+    }
+
+    @Benchmark
+    public List<ResumoAgencia> relatorioGroupBy() {
+        return somenteLeitura.execute(status -> clienteRepository.resumirPorAgencia());
+    }
+
+    @Benchmark
+    public Cliente depositar() {
+        return clienteService.depositar(numeroConta(proxima()), VALOR);
+    }
+
+    @Benchmark
+    public Cliente depositarSemAgregados() {
+        agregadosProperties.setHabilitado(false);
+        try {
+            return depositar();
+        } finally {
+            agregadosProperties.setHabilitado(true);
+        }
+    }
+
+    private int proxima() {
+        proxima = (proxima + 7919) % contas;
+        return proxima;
+    }
+
+    private void carregarContas(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        List<Object[]> linhas = new ArrayList<>(INSERCOES_POR_TRANSACAO);
+        for (int i = 0; i < contas; i++) {
+            linhas.add(new Object[]{"Cliente " + i, numeroConta(i), String.format("%04d", i % AGENCIAS),
+                    BigDecimal.valueOf(i % 100_000, 2)});
+            if (linhas.size() == INSERCOES_POR_TRANSACAO || i == contas - 1) {
+                List<Object[]> lote = List.copyOf(linhas);
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        "insert into clientes (id, nome, numero_conta, agencia, saldo, versao) "
+                                + "values (next value for clientes_seq, ?, ?, ?, ?, 0)", lote));
+                linhas.clear();
+            }
+        }
+    }
+
+    private static String numeroConta(int i) {
+        return String.format("%010d", i);
+    }
+}
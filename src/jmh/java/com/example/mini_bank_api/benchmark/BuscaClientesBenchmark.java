@@ -0,0 +1,212 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.PaginaClientes;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.busca.BuscaProperties;
+import com.example.mini_bank_api.service.busca.IndiceNomes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Busca de clientes com 100 mil e 1 milhão de contas (H2 em memória), primeira página de TAMANHO_PAGINA:
+// - sobrenomeComum: "silva", ~1/30 das contas; sobrenomeComumEAgencia: o mesmo em uma de 100 agências
+// - palavraRara: prefixo de 4 letras de um sobrenome gerado (poucas contas por palavra)
+// - trechoRaro: 4 letras do meio do mesmo sobrenome, pelos trigramas
+// - agencia: só a agência, pelo índice (agencia, id) do banco
+// - varreduraPalavraRara: a mesma busca sem o índice de nomes, percorrendo a tabela pelo id
+// - likeSubstring: referência com LIKE '%termo%' no banco, que lê a tabela inteira quando há poucos resultados
+// O setup imprime o tempo de reconstrução do índice de nomes e a memória retida por ele.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BuscaClientesBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    private static final int AGENCIAS = 100;
+
+    private static final int INSERCOES_POR_TRANSACAO = 100_000;
+
+    private static final String[] PRIMEIROS_NOMES = {"Ana", "João", "Maria", "José", "Antônio", "Francisca",
+            "Carlos", "Paulo", "Pedro", "Lucas", "Luiz", "Marcos", "Luís", "Gabriel", "Rafael", "Daniel",
+            "Márcia", "Juliana", "Fernanda", "Patrícia", "Aline", "Sandra", "Camila", "Amanda", "Bruna",
+            "Jéssica", "Letícia", "Júlia", "Luciana", "Vanessa"};
+
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira",
+            "Nunes", "Marques", "Machado", "Mendes", "Freitas"};
+
+    private static final String CONSOANTES = "bcdfgjklmnprstvz";
+
+    private static final String VOGAIS = "aeiou";
+
+    // Sobrenomes gerados distintos: com 1 milhão de contas, ~5 contas por sobrenome
+    private static final int SOBRENOMES_GERADOS = 200_000;
+
+    @Param({"100000", "1000000"})
+    public int contas;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ClienteService clienteService;
+
+    private BuscaProperties buscaProperties;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> palavrasRaras = new ArrayList<>();
+
+    private final List<String> trechosRaros = new ArrayList<>();
+
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:busca;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--mini-bank.cache.habilitado=false",
+                        "--mini-bank.busca.habilitado=false");
+        clienteService = contexto.getBean(ClienteService.class);
+        buscaProperties = contexto.getBean(BuscaProperties.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        carregarContas();
+
+        // Índice reconstruído aqui, e não na subida, para medir o tempo e a memória
+        buscaProperties.setHabilitado(true);
+        IndiceNomes indiceNomes = contexto.getBean(IndiceNomes.class);
+        long memoriaAntes = memoriaRetida();
+        long inicio = System.nanoTime();
+        indiceNomes.reconstruir();
+        System.out.printf("%nÍndice de nomes com %d contas: %d ms, %d MB retidos%n", contas,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio),
+                (memoriaRetida() - memoriaAntes) / (1024 * 1024));
+
+        for (int i = 0; i < 64; i++) {
+            String sobrenome = sobrenomeGerado(i * 7919 % Math.min(contas, SOBRENOMES_GERADOS));
+            palavrasRaras.add(sobrenome.substring(0, 4));
+            trechosRaros.add(sobrenome.substring(1, Math.min(5, sobrenome.length())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public PaginaClientes sobrenomeComum() {
+        return clienteService.buscar("silva", null, null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaClientes sobrenomeComumEAgencia() {
+        return clienteService.buscar("silva", agencia(proxima()), null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaClientes palavraRara() {
+        return clienteService.buscar(palavrasRaras.get(proxima() % palavrasRaras.size()), null, null,
+                TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaClientes trechoRaro() {
+        return clienteService.buscar(trechosRaros.get(proxima() % trechosRaros.size()), null, null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaClientes agencia() {
+        return clienteService.buscar(null, agencia(proxima()), null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaClientes varreduraPalavraRara() {
+        buscaProperties.setHabilitado(false);
+        try {
+            return palavraRara();
+        } finally {
+            buscaProperties.setHabilitado(true);
+        }
+    }
+
+    @Benchmark
+    public List<Long> likeSubstring() {
+        return jdbcTemplate.queryForList("select id from clientes where lower(nome) like ? order by id limit ?",
+                Long.class, "%" + palavrasRaras.get(proxima() % palavrasRaras.size()) + "%", TAMANHO_PAGINA);
+    }
+
+    private int proxima() {
+        proxima = (proxima + 1) & 0xffff;
+        return proxima;
+    }
+
+    private void carregarContas() {
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        List<Object[]> linhas = new ArrayList<>(INSERCOES_POR_TRANSACAO);
+        for (int i = 0; i < contas; i++) {
+            String nome = PRIMEIROS_NOMES[i % PRIMEIROS_NOMES.length] + " "
+                    + SOBRENOMES[(i / PRIMEIROS_NOMES.length) % SOBRENOMES.length] + " "
+                    + sobrenomeGerado(i % SOBRENOMES_GERADOS);
+            linhas.add(new Object[]{nome, String.format("%010d", i), agencia(i)});
+            if (linhas.size() == INSERCOES_POR_TRANSACAO || i == contas - 1) {
+                List<Object[]> lote = List.copyOf(linhas);
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        "insert into clientes (id, nome, numero_conta, agencia, saldo, versao) "
+                                + "values (next value for clientes_seq, ?, ?, ?, 0, 0)", lote));
+                linhas.clear();
+            }
+        }
+    }
+
+    private static String agencia(int i) {
+        return String.format("%04d", i % AGENCIAS);
+    }
+
+    // Palavra pronunciável e única para cada número: sílabas consoante + vogal, em base 80
+    private static String sobrenomeGerado(int numero) {
+        StringBuilder palavra = new StringBuilder();
+        int resto = numero;
+        do {
+            int silaba = resto % (CONSOANTES.length() * VOGAIS.length());
+            palavra.append(CONSOANTES.charAt(silaba / VOGAIS.length())).append(VOGAIS.charAt(silaba % VOGAIS.length()));
+            resto /= CONSOANTES.length() * VOGAIS.length();
+        } while (resto > 0);
+        return Character.toUpperCase(palavra.charAt(0)) + palavra.substring(1) + "ra";
+    }
+
+    private static long memoriaRetida() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.ResultadoImportacao;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ContaException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.filtro.FiltroContas;
+import com.example.mini_bank_api.service.importacao.EscritorClientes;
+import com.example.mini_bank_api.service.importacao.FormatoArquivo;
+import com.example.mini_bank_api.service.importacao.ImportacaoService;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cadastro de contas sobre o H2 em memória, com CONTAS_EXISTENTES contas já gravadas.
+// cadastrar (um INSERT, unicidade pelo índice único) x consultarECadastrar (existsByNumeroConta antes do
+// INSERT, na mesma transação, como o cadastro fazia), com número novo e com número repetido.
+// Na importação, a conferência de unicidade de um lote de números novos com e sem o filtro de contas.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CadastroBenchmark {
+
+    private static final int CONTAS_EXISTENTES = 100_000;
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final String CONTA_REPETIDA = "existente-0";
+
+    @State(Scope.Benchmark)
+    public static class Banco {
+
+        ConfigurableApplicationContext contexto;
+
+        ClienteService clienteService;
+
+        ClienteRepository clienteRepository;
+
+        ClienteValidation clienteValidation;
+
+        TransactionTemplate transactionTemplate;
+
+        final AtomicLong proximaConta = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void iniciar() throws IOException {
+            contexto = iniciarAplicacao("cadastro", true);
+            clienteService = contexto.getBean(ClienteService.class);
+            clienteRepository = contexto.getBean(ClienteRepository.class);
+            clienteValidation = contexto.getBean(ClienteValidation.class);
+            transactionTemplate = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            contexto.close();
+        }
+
+        Cliente novaConta() {
+            return new Cliente(null, "Benchmark", "nova-" + proximaConta.incrementAndGet(), "001", BigDecimal.TEN);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Importacao {
+
+        @Param({"true", "false"})
+        public boolean filtro;
+
+        ConfigurableApplicationContext contexto;
+
+        ImportacaoService importacaoService;
+
+        FiltroContas filtroContas;
+
+        ClienteRepository clienteRepository;
+
+        final AtomicLong proximoLote = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void iniciar() throws IOException {
+            contexto = iniciarAplicacao("importacao-" + filtro, filtro);
+            importacaoService = contexto.getBean(ImportacaoService.class);
+            filtroContas = contexto.getBean(FiltroContas.class);
+            clienteRepository = contexto.getBean(ClienteRepository.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            contexto.close();
+        }
+
+        List<String> numerosDoLote() {
+            long lote = proximoLote.incrementAndGet();
+            List<String> numeros = new ArrayList<>(TAMANHO_LOTE);
+            for (int i = 0; i < TAMANHO_LOTE; i++) {
+                numeros.add("lote-" + lote + "-" + i);
+            }
+            return numeros;
+        }
+    }
+
+    @Benchmark
+    public Cliente cadastrar(Banco banco) {
+        return banco.clienteService.cadastrarCliente(banco.novaConta());
+    }
+
+    // Referência: o cadastro anterior, com a consulta de unicidade antes do INSERT
+    @Benchmark
+    public Cliente consultarECadastrar(Banco banco) {
+        Cliente cliente = banco.novaConta();
+        return banco.transactionTemplate.execute(status -> {
+            banco.clienteValidation.validarNumeroContaUnico(
+                    banco.clienteRepository.existsByNumeroConta(cliente.getNumeroConta()));
+            return banco.clienteService.cadastrarCliente(cliente);
+        });
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cliente cadastrar4Threads(Banco banco) {
+        return cadastrar(banco);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cliente consultarECadastrar4Threads(Banco banco) {
+        return consultarECadastrar(banco);
+    }
+
+    // Caminho rejeitado: agora o INSERT falha no índice e a transação é desfeita
+    @Benchmark
+    public String cadastrarRepetido(Banco banco) {
+        try {
+            banco.clienteService.cadastrarCliente(
+                    new Cliente(null, "Benchmark", CONTA_REPETIDA, "001", BigDecimal.TEN));
+            throw new IllegalStateException("Conta repetida aceita");
+        } catch (ContaException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    // Caminho rejeitado de antes: a consulta encontra a conta e nada é gravado
+    @Benchmark
+    public String consultarRepetido(Banco banco) {
+        try {
+            banco.transactionTemplate.executeWithoutResult(status -> banco.clienteValidation.validarNumeroContaUnico(
+                    banco.clienteRepository.existsByNumeroConta(CONTA_REPETIDA)));
+            throw new IllegalStateException("Conta repetida aceita");
+        } catch (ContaException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    // Só a conferência de unicidade de um lote de números novos, como a importação faz antes de gravar
+    @Benchmark
+    public int conferirLote(Importacao importacao) {
+        List<String> aConferir = new ArrayList<>();
+        for (String numero : importacao.numerosDoLote()) {
+            if (importacao.filtroContas.talvezExista(numero)) {
+                aConferir.add(numero);
+            }
+        }
+        return aConferir.isEmpty() ? 0 : importacao.clienteRepository.findNumerosContaExistentes(aConferir).size();
+    }
+
+    // O lote inteiro: conferência, INSERTs em lote JDBC das contas e dos movimentos de abertura, commit
+    @Benchmark
+    public ResultadoImportacao importarLote(Importacao importacao) throws IOException {
+        ByteArrayOutputStream arquivo = new ByteArrayOutputStream(TAMANHO_LOTE * 48);
+        try (EscritorClientes escritor = FormatoArquivo.BINARIO.escritor(arquivo)) {
+            for (String numero : importacao.numerosDoLote()) {
+                escritor.escrever(new ClienteResposta(null, "Importado", numero, "001", BigDecimal.TEN, null));
+            }
+        }
+        return importacao.importacaoService.importar(new ByteArrayInputStream(arquivo.toByteArray()),
+                FormatoArquivo.BINARIO);
+    }
+
+    // Contexto com CONTAS_EXISTENTES contas importadas e o filtro reconstruído a partir delas
+    private static ConfigurableApplicationContext iniciarAplicacao(String banco, boolean filtro) throws IOException {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        // Violações do índice único são esperadas no caminho rejeitado
+                        "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                        "--spring.datasource.url=jdbc:h2:mem:" + banco + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--mini-bank.filtro-contas.habilitado=" + filtro,
+                        "--mini-bank.importacao.tamanho-lote=" + TAMANHO_LOTE);
+        ByteArrayOutputStream arquivo = new ByteArrayOutputStream();
+        try (EscritorClientes escritor = FormatoArquivo.BINARIO.escritor(arquivo)) {
+            for (int i = 0; i < CONTAS_EXISTENTES; i++) {
+                escritor.escrever(new ClienteResposta(null, "Existente", "existente-" + i, "001", BigDecimal.TEN,
+                        null));
+            }
+        }
+        contexto.getBean(ImportacaoService.class)
+                .importar(new ByteArrayInputStream(arquivo.toByteArray()), FormatoArquivo.BINARIO);
+        contexto.getBean(FiltroContas.class).reconstruir();
+        return contexto;
+    }
+}
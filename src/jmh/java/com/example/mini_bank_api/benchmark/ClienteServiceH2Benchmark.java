@@ -0,0 +1,160 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Serviço completo (proxies transacionais, retentativa, cache) sobre o H2 em memória.
+// "ContaPropria": cada thread usa as suas contas (sem disputa);
+// "ContaCompartilhada": todas as threads alteram as mesmas contas (disputa por linha).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClienteServiceH2Benchmark {
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000000.00");
+
+    private static final BigDecimal VALOR = new BigDecimal("0.01");
+
+    private static final String CONTA_COMPARTILHADA_A = "compartilhada-a";
+
+    private static final String CONTA_COMPARTILHADA_B = "compartilhada-b";
+
+    @Param({"OTIMISTA", "PESSIMISTA", "ATOMICA"})
+    public String estrategia;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ClienteService clienteService;
+
+    private ClienteRepository clienteRepository;
+
+    private final AtomicInteger proximaConta = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        // Argumentos de linha de comando têm precedência sobre o application.properties
+        contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        // Conflitos otimistas são esperados e refeitos pelo aspecto de retentativa
+                        "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                        "--mini-bank.concorrencia.estrategia=" + estrategia,
+                        "--mini-bank.concorrencia.max-tentativas=100000");
+        clienteService = contexto.getBean(ClienteService.class);
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        criarConta(CONTA_COMPARTILHADA_A);
+        criarConta(CONTA_COMPARTILHADA_B);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private void criarConta(String numeroConta) {
+        clienteRepository.save(new Cliente(null, "Benchmark", numeroConta, "001", SALDO_INICIAL));
+    }
+
+    @State(Scope.Thread)
+    public static class ContasDaThread {
+
+        String origem;
+
+        String destino;
+
+        @Setup(Level.Trial)
+        public void criar(ClienteServiceH2Benchmark benchmark) {
+            int numero = benchmark.proximaConta.getAndIncrement();
+            origem = "thread-" + numero + "-a";
+            destino = "thread-" + numero + "-b";
+            benchmark.criarConta(origem);
+            benchmark.criarConta(destino);
+        }
+    }
+
+    @Benchmark
+    public Cliente depositar(ContasDaThread contas) {
+        return clienteService.depositar(contas.origem, VALOR);
+    }
+
+    @Benchmark
+    public Cliente sacar(ContasDaThread contas) {
+        return clienteService.sacar(contas.origem, VALOR);
+    }
+
+    @Benchmark
+    public void transferir(ContasDaThread contas) {
+        clienteService.transferir(contas.origem, contas.destino, VALOR);
+    }
+
+    @Benchmark
+    public ClienteResposta buscarPorNumeroConta(ContasDaThread contas) {
+        return clienteService.buscarPorNumeroConta(contas.origem);
+    }
+
+    // Mesma consulta sem o cache, direto no repositório
+    @Benchmark
+    public Object buscarNoBanco(ContasDaThread contas) {
+        return clienteRepository.findByNumeroConta(contas.origem);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cliente depositarContaPropria4Threads(ContasDaThread contas) {
+        return clienteService.depositar(contas.origem, VALOR);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cliente depositarContaCompartilhada4Threads() {
+        return clienteService.depositar(CONTA_COMPARTILHADA_A, VALOR);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transferirContaPropria4Threads(ContasDaThread contas) {
+        clienteService.transferir(contas.origem, contas.destino, VALOR);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transferirContaCompartilhada4Threads() {
+        clienteService.transferir(CONTA_COMPARTILHADA_A, CONTA_COMPARTILHADA_B, VALOR);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ClienteResposta buscarPorNumeroContaCompartilhada4Threads() {
+        return clienteService.buscarPorNumeroConta(CONTA_COMPARTILHADA_A);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.service.ClienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Custo do serviço isolado do banco (ver ServicosSimulados)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClienteServiceMockBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("0.01");
+
+    private ClienteService clienteService;
+
+    @Setup
+    public void setup() {
+        clienteService = ServicosSimulados.clienteService(ServicosSimulados.repositorio());
+    }
+
+    @Benchmark
+    public Cliente depositar() {
+        return clienteService.depositar("11111", VALOR);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cliente depositar4Threads() {
+        return clienteService.depositar("11111", VALOR);
+    }
+
+    @Benchmark
+    public Cliente sacar() {
+        return clienteService.sacar("11111", VALOR);
+    }
+
+    @Benchmark
+    public void transferir() {
+        clienteService.transferir("11111", "22222", VALOR);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transferir4Threads() {
+        clienteService.transferir("11111", "22222", VALOR);
+    }
+
+    @Benchmark
+    public ClienteResposta buscarPorNumeroConta() {
+        return clienteService.buscarPorNumeroConta("11111");
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.cluster.AnelConsistente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Vazão do modo cluster com 1, 2 e 4 nós na mesma JVM, cada um com a sua porta e o seu H2 em memória.
+// - depositarNoDono: o cliente conhece o anel e chama direto o nó da conta
+// - depositarEmQualquerNo: nó sorteado, que encaminha ao dono quando a conta não é dele
+// - transferir: contas sorteadas; com mais de um nó a maioria das transferências cruza nós (saga)
+// Todos os nós dividem os mesmos núcleos: o ganho com mais nós só aparece com núcleos livres para eles.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class ClusterBenchmark {
+
+    private static final int CONTAS = 2_000;
+
+    @Param({"1", "2", "4"})
+    public int nos;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    private final List<ConfigurableApplicationContext> contextos = new ArrayList<>();
+
+    private final Map<String, String> urls = new LinkedHashMap<>();
+
+    private final List<String> urlsPorConta = new ArrayList<>();
+
+    private final List<String> contas = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        for (int i = 1; i <= nos; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                urls.put("no-" + i, "http://localhost:" + socket.getLocalPort());
+            }
+        }
+        List<String> argumentosNos = new ArrayList<>();
+        urls.forEach((no, url) -> argumentosNos.add("--mini-bank.cluster.nos." + no + "=" + url));
+        for (String no : urls.keySet()) {
+            List<String> argumentos = new ArrayList<>(List.of(
+                    "--server.port=" + URI.create(urls.get(no)).getPort(),
+                    "--spring.datasource.url=jdbc:h2:mem:cluster-" + nos + "-" + no
+                            + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    // Conflitos de versão entre depósitos simultâneos na mesma conta são retentados
+                    "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                    "--mini-bank.cluster.habilitado=" + (nos > 1),
+                    "--mini-bank.cluster.no=" + no,
+                    "--mini-bank.cluster.segredo=benchmark"));
+            argumentos.addAll(argumentosNos);
+            contextos.add(new SpringApplicationBuilder(MiniBankApiApplication.class)
+                    .web(WebApplicationType.SERVLET)
+                    .run(argumentos.toArray(String[]::new)));
+        }
+
+        // Cada conta gravada direto no banco do seu dono
+        AnelConsistente anel = new AnelConsistente(urls.keySet(), 128);
+        List<String> ids = new ArrayList<>(urls.keySet());
+        List<List<Cliente>> porNo = new ArrayList<>();
+        ids.forEach(no -> porNo.add(new ArrayList<>()));
+        for (int i = 0; i < CONTAS; i++) {
+            String numeroConta = String.format("%010d", i);
+            String dono = anel.dono(numeroConta);
+            porNo.get(ids.indexOf(dono)).add(new Cliente(null, "Cliente " + i, numeroConta, "0001",
+                    new BigDecimal("1000000.00")));
+            contas.add(numeroConta);
+            urlsPorConta.add(urls.get(dono));
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            contextos.get(i).getBean(ClienteRepository.class).saveAll(porNo.get(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contextos.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Benchmark
+    public int depositarNoDono() throws Exception {
+        int conta = ThreadLocalRandom.current().nextInt(CONTAS);
+        return post(urlsPorConta.get(conta), "/api/clientes/" + contas.get(conta) + "/deposito?valor=0.01");
+    }
+
+    @Benchmark
+    public int depositarEmQualquerNo() throws Exception {
+        int conta = ThreadLocalRandom.current().nextInt(CONTAS);
+        return post(sortearNo(), "/api/clientes/" + contas.get(conta) + "/deposito?valor=0.01");
+    }
+
+    @Benchmark
+    public int transferir() throws Exception {
+        int origem = ThreadLocalRandom.current().nextInt(CONTAS);
+        int destino = (origem + 1 + ThreadLocalRandom.current().nextInt(CONTAS - 1)) % CONTAS;
+        return post(urlsPorConta.get(origem), "/api/clientes/transferir?contaOrigem=" + contas.get(origem)
+                + "&contaDestino=" + contas.get(destino) + "&valor=0.01");
+    }
+
+    private String sortearNo() {
+        List<String> todas = new ArrayList<>(urls.values());
+        return todas.get(ThreadLocalRandom.current().nextInt(todas.size()));
+    }
+
+    // Conflitos de versão (409) contam como resposta: a vazão é de requisições atendidas
+    private int post(String url, String caminho) throws Exception {
+        int status = http.send(HttpRequest.newBuilder(URI.create(url + caminho))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+        if (status != 200 && status != 409) {
+            throw new IllegalStateException("Status " + status + " em " + caminho);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.service.ledger.LedgerProperties;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import com.example.mini_bank_api.util.Centavos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// BigDecimal x centavos (long) no ciclo depósito + validação + saque.
+// Para a taxa de alocação: -Djmh.args="DinheiroBenchmark -prof gc" (gc.alloc.rate.norm = bytes por operação)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DinheiroBenchmark {
+
+    private final ClienteValidation clienteValidation = new ClienteValidation();
+
+    private final BigDecimal valor = new BigDecimal("10.25");
+
+    private final long valorCentavos = 1025;
+
+    private BigDecimal saldo = new BigDecimal("1000.00");
+
+    private long saldoCentavos = 100_000;
+
+    private LedgerSaldos ledgerSaldos;
+
+    @Setup
+    public void setup() {
+        LedgerProperties ledgerProperties = new LedgerProperties();
+        ledgerProperties.setHabilitado(true);
+        ledgerSaldos = new LedgerSaldos(ledgerProperties, ServicosSimulados.repositorio(),
+                clienteValidation, ServicosSimulados.registroMovimentos(), ServicosSimulados.agregadosDesligados(),
+                ServicosSimulados.journalDesligado(), mock(PlatformTransactionManager.class));
+        ledgerSaldos.restaurar(Map.of("11111", new BigDecimal("1000.00")));
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        saldo = saldo.add(valor);
+        clienteValidation.validarSaldoSuficiente(saldo, valor);
+        saldo = saldo.subtract(valor);
+        return saldo;
+    }
+
+    @Benchmark
+    public long centavos() {
+        saldoCentavos = Centavos.somar(saldoCentavos, valorCentavos);
+        clienteValidation.validarSaldoSuficiente(saldoCentavos, valorCentavos);
+        saldoCentavos = Centavos.subtrair(saldoCentavos, valorCentavos);
+        return saldoCentavos;
+    }
+
+    // Ledger completo: conversão na entrada e Cliente de retorno em cada operação
+    @Benchmark
+    public Cliente ledgerCreditarDebitar() {
+        ledgerSaldos.creditar("11111", valor);
+        return ledgerSaldos.debitar("11111", valor);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.PaginaExtrato;
+import com.example.mini_bank_api.dto.SaldoEmInstante;
+import com.example.mini_bank_api.service.extrato.ExtratoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Extrato de um dia e saldo em um instante com históricos de tamanhos diferentes (perfil prod, H2 em arquivo).
+// Os movimentos são distribuídos entre CONTAS contas, um por segundo: cada conta recebe um a cada CONTAS
+// segundos, então um dia de extrato tem sempre ~86 movimentos, qualquer que seja o total.
+// Com as consultas na ordem dos índices por (conta, data/hora, id) o tempo deve ficar estável entre os tamanhos.
+// Só um tamanho: -Djmh.args="ExtratoBenchmark -p movimentos=30000000"
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExtratoBenchmark {
+
+    private static final int CONTAS = 1_000;
+
+    private static final int INSERCOES_POR_TRANSACAO = 500_000;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @State(Scope.Benchmark)
+    public static class Historico {
+
+        @Param({"1000000", "30000000"})
+        public long movimentos;
+
+        Path diretorio;
+
+        ConfigurableApplicationContext contexto;
+
+        ExtratoService extratoService;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            diretorio = Files.createTempDirectory("mini-bank-extrato");
+            contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.profiles.active=prod",
+                            "--spring.main.lazy-initialization=false",
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN",
+                            "--mini-bank.dados.diretorio=" + diretorio.toAbsolutePath());
+            carregarHistorico();
+            extratoService = contexto.getBean(ExtratoService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void apagar() throws IOException {
+            contexto.close();
+            try (Stream<Path> arquivos = Files.walk(diretorio)) {
+                arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+            }
+        }
+
+        // INSERT ... SELECT no próprio H2, em transações de INSERCOES_POR_TRANSACAO linhas
+        private void carregarHistorico() {
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+            List<Object[]> contas = new ArrayList<>(CONTAS);
+            for (int i = 0; i < CONTAS; i++) {
+                contas.add(new Object[]{numeroConta(i)});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate("insert into clientes "
+                    + "(nome, numero_conta, agencia, saldo, versao) values ('Benchmark', ?, '001', 0, 0)", contas));
+
+            // Linhas geradas já na ordem (conta, data/hora): cada índice cresce pelo fim
+            long porConta = movimentos / CONTAS;
+            long inicio = System.nanoTime();
+            for (long inicioLote = 0; inicioLote < movimentos; inicioLote += INSERCOES_POR_TRANSACAO) {
+                long primeiro = inicioLote;
+                long ultimo = Math.min(movimentos, primeiro + INSERCOES_POR_TRANSACAO) - 1;
+                // O H2 não infere o tipo de parâmetros na lista do SELECT: os números vão no próprio SQL
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                        "insert into movimentos (numero_conta, data_hora, tipo, valor, saldo_apos) "
+                                + "select 'extrato-' || (x / " + porConta + "), "
+                                + "dateadd('SECOND', mod(x, " + porConta + ") * " + CONTAS + " + x / " + porConta
+                                + ", timestamp '" + INICIO + "'), 'DEPOSITO', 1, mod(x, " + porConta + ") + 1 "
+                                + "from system_range(" + primeiro + ", " + ultimo + ")"));
+            }
+            System.out.printf("%n%d movimentos carregados em %d s%n", movimentos,
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio));
+        }
+
+        LocalDateTime instanteAleatorio(ThreadLocalRandom aleatorio) {
+            return INICIO.plusSeconds(aleatorio.nextLong(movimentos));
+        }
+    }
+
+    @Benchmark
+    public PaginaExtrato extratoDeUmDia(Historico historico) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        LocalDateTime de = historico.instanteAleatorio(aleatorio);
+        return historico.extratoService.buscarPagina(numeroConta(aleatorio.nextInt(CONTAS)), de, de.plusDays(1),
+                null, 100);
+    }
+
+    @Benchmark
+    public SaldoEmInstante saldoEmInstante(Historico historico) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        return historico.extratoService.buscarSaldoEm(numeroConta(aleatorio.nextInt(CONTAS)),
+                historico.instanteAleatorio(aleatorio));
+    }
+
+    private static String numeroConta(int numero) {
+        return "extrato-" + numero;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Depósitos em contas escolhidas por uma distribuição de Zipf: a conta 0 recebe a maior parte das
+// operações (conta "quente", ex.: um lojista), as demais cada vez menos.
+// PESSIMISTA e ATOMICA aplicam cada depósito em sua própria transação; FILAS usa as filas por conta,
+// que juntam os depósitos pendentes de uma conta em um único UPDATE.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilasContasBenchmark {
+
+    private static final int CONTAS = 1_000;
+
+    private static final BigDecimal VALOR = new BigDecimal("0.01");
+
+    @Param({"PESSIMISTA", "ATOMICA", "FILAS"})
+    public String modo;
+
+    // Expoente da distribuição: quanto maior, mais concentrado na conta quente
+    @Param({"1.2"})
+    public double expoente;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ClienteService clienteService;
+
+    private boolean filas;
+
+    private String[] numerosConta;
+
+    private double[] acumulada;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        filas = modo.equals("FILAS");
+        contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                        // Na conta quente a espera por bloqueio de linha é longa: mede vazão, não rejeição
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-filas;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;"
+                                + "LOCK_TIMEOUT=30000",
+                        "--spring.datasource.hikari.maximum-pool-size=64",
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        "--mini-bank.concorrencia.estrategia=" + (filas ? "ATOMICA" : modo),
+                        "--mini-bank.filas.habilitado=" + filas);
+        clienteService = contexto.getBean(ClienteService.class);
+
+        ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+        numerosConta = new String[CONTAS];
+        List<Cliente> clientes = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            numerosConta[i] = "zipf-" + i;
+            clientes.add(new Cliente(null, "Benchmark", numerosConta[i], "001", BigDecimal.ZERO));
+        }
+        clienteRepository.saveAll(clientes);
+
+        // Distribuição acumulada: P(conta k) proporcional a 1 / (k + 1)^expoente
+        acumulada = new double[CONTAS];
+        double soma = 0;
+        for (int k = 0; k < CONTAS; k++) {
+            soma += 1 / Math.pow(k + 1, expoente);
+            acumulada[k] = soma;
+        }
+        for (int k = 0; k < CONTAS; k++) {
+            acumulada[k] /= soma;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Cliente depositarZipf16Threads(Sorteio sorteio) {
+        return depositar(sorteio);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Cliente depositarZipf64Threads(Sorteio sorteio) {
+        return depositar(sorteio);
+    }
+
+    private Cliente depositar(Sorteio sorteio) {
+        String numeroConta = numerosConta[sortear(sorteio.random.nextDouble())];
+        if (filas) {
+            return clienteService.depositarAssincrono(numeroConta, VALOR).join();
+        }
+        return clienteService.depositar(numeroConta, VALOR);
+    }
+
+    private int sortear(double u) {
+        int indice = Arrays.binarySearch(acumulada, u);
+        return Math.min(indice >= 0 ? indice : -indice - 1, CONTAS - 1);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.ResultadoImportacao;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.importacao.EscritorClientes;
+import com.example.mini_bank_api.service.importacao.FormatoArquivo;
+import com.example.mini_bank_api.service.importacao.ImportacaoService;
+import com.example.mini_bank_api.service.importacao.LeitorClientes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Importação e exportação de um arquivo de contas (perfil prod, H2 em arquivo), uma execução por iteração.
+// Heap limitado a 512 MB: com memória proporcional ao arquivo, 10 milhões de linhas não caberiam.
+// Além do tempo, cada iteração imprime linhas/s, o tamanho do arquivo e o pico de heap usado.
+// cadastrarUmPorVez é a referência: o mesmo arquivo cadastrado conta a conta, como por POST /api/clientes.
+// Só 10 milhões: -Djmh.args="ImportacaoBenchmark -p linhas=10000000"
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 2)
+// O JMH conta o setup do estado (a carga do banco, na exportação) no tempo limite da iteração
+@Timeout(time = 90, timeUnit = TimeUnit.MINUTES)
+public class ImportacaoBenchmark {
+
+    private static final int LINHAS_UM_POR_VEZ = 100_000;
+
+    @State(Scope.Benchmark)
+    public static class Arquivo {
+
+        @Param({"100000", "10000000"})
+        public int linhas;
+
+        @Param({"CSV", "BINARIO"})
+        public FormatoArquivo formato;
+
+        Path caminho;
+
+        @Setup(Level.Trial)
+        public void gerar() throws IOException {
+            caminho = Files.createTempFile("mini-bank-importacao", "." + formato.name().toLowerCase());
+            try (EscritorClientes escritor = formato.escritor(Files.newOutputStream(caminho))) {
+                for (int i = 0; i < linhas; i++) {
+                    escritor.escrever(new ClienteResposta(null, "Cliente Importado " + i,
+                            String.format("%010d", i), String.format("%04d", i % 500),
+                            BigDecimal.valueOf(i % 1_000_000, 2), null));
+                }
+            }
+            System.out.printf("%n%s: %d linhas, %d MB (%d bytes por linha)%n", formato, linhas,
+                    Files.size(caminho) >> 20, Files.size(caminho) / linhas);
+        }
+
+        @TearDown(Level.Trial)
+        public void apagar() throws IOException {
+            Files.deleteIfExists(caminho);
+        }
+    }
+
+    // Banco vazio a cada iteração: a importação medida sempre cadastra todas as linhas
+    @State(Scope.Benchmark)
+    public static class BancoVazio {
+
+        Path diretorio;
+
+        ConfigurableApplicationContext contexto;
+
+        long inicio;
+
+        long linhasImportadas;
+
+        @Setup(Level.Iteration)
+        public void iniciar() throws IOException {
+            diretorio = Files.createTempDirectory("mini-bank-importacao");
+            contexto = iniciarAplicacao(diretorio);
+            System.gc();
+            zerarPicoDeHeap();
+            inicio = System.nanoTime();
+        }
+
+        @TearDown(Level.Iteration)
+        public void encerrar() throws IOException {
+            relatar("importação/cadastro", linhasImportadas, inicio);
+            contexto.close();
+            apagarDiretorio(diretorio);
+        }
+    }
+
+    // Banco carregado uma vez com o arquivo, para medir a exportação
+    @State(Scope.Benchmark)
+    public static class BancoCarregado {
+
+        Path diretorio;
+
+        ConfigurableApplicationContext contexto;
+
+        ImportacaoService importacaoService;
+
+        long inicio;
+
+        long linhasExportadas;
+
+        @Setup(Level.Trial)
+        public void carregar(Arquivo arquivo) throws IOException {
+            diretorio = Files.createTempDirectory("mini-bank-exportacao");
+            contexto = iniciarAplicacao(diretorio);
+            importacaoService = contexto.getBean(ImportacaoService.class);
+            try (InputStream entrada = Files.newInputStream(arquivo.caminho)) {
+                importacaoService.importar(entrada, arquivo.formato);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            System.gc();
+            zerarPicoDeHeap();
+            inicio = System.nanoTime();
+        }
+
+        @TearDown(Level.Iteration)
+        public void relatarIteracao() {
+            relatar("exportação", linhasExportadas, inicio);
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() throws IOException {
+            contexto.close();
+            apagarDiretorio(diretorio);
+        }
+    }
+
+    @Benchmark
+    public ResultadoImportacao importar(Arquivo arquivo, BancoVazio banco) throws IOException {
+        try (InputStream entrada = Files.newInputStream(arquivo.caminho)) {
+            ResultadoImportacao resultado = banco.contexto.getBean(ImportacaoService.class)
+                    .importar(entrada, arquivo.formato);
+            banco.linhasImportadas = resultado.getTotalImportado();
+            return resultado;
+        }
+    }
+
+    // Referência: o caminho de POST /api/clientes, uma conta por transação (consulta de unicidade + INSERT).
+    // Limitado às primeiras LINHAS_UM_POR_VEZ contas; compare pelas linhas/s impressas.
+    @Benchmark
+    public long cadastrarUmPorVez(Arquivo arquivo, BancoVazio banco) throws IOException {
+        ClienteService clienteService = banco.contexto.getBean(ClienteService.class);
+        try (LeitorClientes leitor = arquivo.formato.leitor(Files.newInputStream(arquivo.caminho))) {
+            Cliente cliente;
+            long cadastrados = 0;
+            while (cadastrados < LINHAS_UM_POR_VEZ && (cliente = leitor.ler()) != null) {
+                clienteService.cadastrarCliente(cliente);
+                cadastrados++;
+            }
+            banco.linhasImportadas = cadastrados;
+            return cadastrados;
+        }
+    }
+
+    @Benchmark
+    public long exportar(Arquivo arquivo, BancoCarregado banco) {
+        banco.linhasExportadas = banco.importacaoService.exportar(OutputStream.nullOutputStream(), arquivo.formato);
+        return banco.linhasExportadas;
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacao(Path diretorio) {
+        return new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=prod",
+                        "--spring.main.lazy-initialization=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--mini-bank.dados.diretorio=" + diretorio.toAbsolutePath());
+    }
+
+    private static void zerarPicoDeHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // Soma dos picos de cada região do heap: um limite superior para o pico do heap inteiro
+    private static void relatar(String operacao, long linhas, long inicio) {
+        long nanos = System.nanoTime() - inicio;
+        long picoHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                picoHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("%n%s: %d linhas, %.0f linhas/s, pico de heap %d MB%n", operacao, linhas,
+                linhas / (nanos / 1e9), picoHeap >> 20);
+    }
+
+    private static void apagarDiretorio(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.metricas.MetricasAspect;
+import com.example.mini_bank_api.service.metricas.MetricasOperacoes;
+import com.example.mini_bank_api.service.metricas.Operacao;
+import com.example.mini_bank_api.service.metricas.TempoBancoAspect;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Sobrecusto das métricas: o registro isolado e a mesma chamada do serviço com e sem os aspectos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricasBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("0.01");
+
+    private MetricasOperacoes metricasOperacoes;
+
+    private ClienteService semMetricas;
+
+    private ClienteService comMetricas;
+
+    @Setup
+    public void setup() {
+        metricasOperacoes = new MetricasOperacoes(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+
+        ClienteRepository repositorio = ServicosSimulados.repositorio();
+        semMetricas = ServicosSimulados.clienteService(repositorio);
+
+        AspectJProxyFactory fabricaRepositorio = new AspectJProxyFactory(repositorio);
+        fabricaRepositorio.addAspect(new TempoBancoAspect(metricasOperacoes));
+        ClienteRepository repositorioMedido = fabricaRepositorio.getProxy();
+
+        AspectJProxyFactory fabricaServico = new AspectJProxyFactory(ServicosSimulados.clienteService(repositorioMedido));
+        fabricaServico.setProxyTargetClass(true);
+        fabricaServico.addAspect(new MetricasAspect(metricasOperacoes));
+        comMetricas = fabricaServico.getProxy();
+    }
+
+    @Benchmark
+    public void registrarSucesso() {
+        metricasOperacoes.registrarSucesso(Operacao.DEPOSITO, 150_000, 100_000);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void registrarSucesso4Threads() {
+        metricasOperacoes.registrarSucesso(Operacao.DEPOSITO, 150_000, 100_000);
+    }
+
+    @Benchmark
+    public Cliente depositarSemMetricas() {
+        return semMetricas.depositar("11111", VALOR);
+    }
+
+    @Benchmark
+    public Cliente depositarComMetricas() {
+        return comMetricas.depositar("11111", VALOR);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.service.ClienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Perfil padrão (H2 em memória, create-drop, log de SQL) x perfil prod (H2 em arquivo, Flyway, sem log de SQL).
+// - reiniciar: subida da aplicação até atender uma consulta com os CONTAS clientes disponíveis.
+//   No perfil prod eles já estão no arquivo; no padrão o banco volta vazio e precisa ser recarregado.
+// - depositar / buscarPorNumeroConta: vazão com a aplicação já em execução.
+@Fork(1)
+public class PerfilBenchmark {
+
+    private static final int CONTAS = 20_000;
+
+    private static final BigDecimal VALOR = new BigDecimal("0.01");
+
+    @State(Scope.Benchmark)
+    public static class Perfil {
+
+        @Param({"padrao", "prod"})
+        public String perfil;
+
+        Path diretorio;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            diretorio = Files.createTempDirectory("mini-bank-perfil");
+            if (isProd()) {
+                // Grava os clientes no arquivo uma vez; cada reinício medido os encontra lá
+                try (ConfigurableApplicationContext contexto = iniciar()) {
+                    carregarClientes(contexto);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void apagar() throws IOException {
+            try (Stream<Path> arquivos = Files.walk(diretorio)) {
+                arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+            }
+        }
+
+        boolean isProd() {
+            return perfil.equals("prod");
+        }
+
+        ConfigurableApplicationContext iniciar() {
+            List<String> argumentos = new ArrayList<>(List.of(
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--mini-bank.dados.diretorio=" + diretorio.toAbsolutePath()));
+            if (isProd()) {
+                argumentos.add("--spring.profiles.active=prod");
+            } else {
+                argumentos.add("--spring.datasource.url=jdbc:h2:mem:perfil;DB_CLOSE_ON_EXIT=FALSE");
+            }
+            return new SpringApplicationBuilder(MiniBankApiApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(argumentos.toArray(String[]::new));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class AplicacaoEmExecucao {
+
+        ConfigurableApplicationContext contexto;
+
+        ClienteService clienteService;
+
+        @Setup(Level.Trial)
+        public void iniciar(Perfil perfil) {
+            contexto = perfil.iniciar();
+            if (!perfil.isProd()) {
+                carregarClientes(contexto);
+            } else if (contexto.getBean(JdbcTemplate.class)
+                    .queryForObject("select count(*) from clientes", Integer.class) == 0) {
+                carregarClientes(contexto);
+            }
+            clienteService = contexto.getBean(ClienteService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            contexto.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public ClienteResposta reiniciar(Perfil perfil) {
+        try (ConfigurableApplicationContext contexto = perfil.iniciar()) {
+            if (!perfil.isProd()) {
+                carregarClientes(contexto);
+            }
+            return contexto.getBean(ClienteService.class).buscarPorNumeroConta(numeroConta(CONTAS - 1));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Cliente depositar(AplicacaoEmExecucao aplicacao) {
+        return aplicacao.clienteService.depositar(numeroConta(0), VALOR);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public ClienteResposta buscarPorNumeroConta(AplicacaoEmExecucao aplicacao) {
+        return aplicacao.clienteService.buscarPorNumeroConta(numeroConta(1));
+    }
+
+    private static void carregarClientes(ConfigurableApplicationContext contexto) {
+        List<Object[]> linhas = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            linhas.add(new Object[]{numeroConta(i)});
+        }
+        // Em transação: no perfil prod o pool tem auto-commit desligado.
+        // O id vem da sequência: no perfil padrão a coluna não tem default
+        new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+                contexto.getBean(JdbcTemplate.class).batchUpdate("insert into clientes "
+                        + "(id, nome, numero_conta, agencia, saldo, versao) "
+                        + "values (next value for clientes_seq, 'Benchmark', ?, '001', 0, 0)", linhas));
+    }
+
+    private static String numeroConta(int numero) {
+        return "perfil-" + numero;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.controller.ClienteController;
+import com.example.mini_bank_api.controller.DepositoSaqueController;
+import com.example.mini_bank_api.controller.ExecucaoIdempotente;
+import com.example.mini_bank_api.dto.ErroResposta;
+import com.example.mini_bank_api.exception.GlobalExceptionHandler;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.cluster.ClienteCluster;
+import com.example.mini_bank_api.service.cluster.ParticoesCluster;
+import com.example.mini_bank_api.service.cluster.TransferenciaDistribuida;
+import com.example.mini_bank_api.service.idempotencia.RegistroIdempotencia;
+import com.example.mini_bank_api.service.lote.LoteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Caminho rejeitado: saque sem saldo (400) e conta inexistente (404).
+// sacarSemSaldo/buscarInexistente passam pelo controller, pelo GlobalExceptionHandler e pela escrita do JSON
+// (MockMvc, serviço sobre o repositório simulado, sem banco). lancar* isola o custo de criar e lançar a exceção
+// a "profundidade" quadros da chamada, como acontece abaixo do Tomcat, dos filtros e dos proxies do Spring.
+// corpo* compara só a montagem e a escrita do corpo de erro: o mapa de antes x o record ErroResposta.
+// Com -prof gc mostra os bytes alocados por rejeição.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejeicaoBenchmark {
+
+    private MockMvc mockMvc;
+
+    private ObjectMapper objectMapper;
+
+    @State(Scope.Benchmark)
+    public static class Pilha {
+
+        @Param({"20", "150"})
+        public int profundidade;
+    }
+
+    @Setup
+    public void setup() {
+        ClienteService clienteService = ServicosSimulados.clienteService(ServicosSimulados.repositorio());
+        objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        ExecucaoIdempotente execucaoIdempotente = new ExecucaoIdempotente(
+                mock(RegistroIdempotencia.class, withSettings().stubOnly()));
+        ClienteController controller = new ClienteController(clienteService,
+                mock(LoteService.class, withSettings().stubOnly()), objectMapper, execucaoIdempotente,
+                mock(ParticoesCluster.class, withSettings().stubOnly()),
+                mock(ClienteCluster.class, withSettings().stubOnly()),
+                mock(TransferenciaDistribuida.class, withSettings().stubOnly()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller,
+                        new DepositoSaqueController(clienteService, execucaoIdempotente))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 10, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public MvcResult sacarSemSaldo() throws Exception {
+        return verificar(mockMvc.perform(post("/api/clientes/11111/saque").param("valor", "5000.00")).andReturn(),
+                400);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = 10, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public MvcResult sacarSemSaldo4Threads() throws Exception {
+        return sacarSemSaldo();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 10, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public MvcResult buscarInexistente() throws Exception {
+        return verificar(mockMvc.perform(get("/api/clientes/conta/99999")).andReturn(), 404);
+    }
+
+    @Benchmark
+    public Object lancarComPilha(Pilha pilha) {
+        try {
+            return descer(pilha.profundidade, true);
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object lancarExcecaoDeNegocio(Pilha pilha) {
+        try {
+            return descer(pilha.profundidade, false);
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
+    // Referência: o corpo de antes, um LinkedHashMap novo por erro
+    @Benchmark
+    public byte[] corpoMapa() throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", HttpStatus.BAD_REQUEST.getReasonPhrase());
+        body.put("message", "Saldo insuficiente");
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] corpoRecord() throws Exception {
+        return objectMapper.writeValueAsBytes(ErroResposta.de(HttpStatus.BAD_REQUEST, "Saldo insuficiente"));
+    }
+
+    private static Object descer(int quadros, boolean comPilha) {
+        if (quadros == 0) {
+            throw comPilha ? new ExcecaoComPilha("Saldo insuficiente")
+                    : new SaldoInsuficienteException("Saldo insuficiente");
+        }
+        return descer(quadros - 1, comPilha);
+    }
+
+    private static MvcResult verificar(MvcResult resultado, int status) {
+        if (resultado.getResponse().getStatus() != status) {
+            throw new IllegalStateException("Status " + resultado.getResponse().getStatus());
+        }
+        return resultado;
+    }
+
+    // Referência: uma exceção comum, que preenche a pilha inteira ao ser criada
+    private static final class ExcecaoComPilha extends RuntimeException {
+
+        ExcecaoComPilha(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latência de uma resposta inteira (consulta no H2 + JSON) na mesma transação somente leitura:
+// entidade gerenciada serializada pelo ObjectMapper de antes x projeção ClienteResposta pelo ObjectMapper
+// da aplicação (Blackbird e o serializador próprio). Uma conta por número e uma página de TAMANHO_PAGINA contas.
+// Com -prof gc mostra os bytes alocados por resposta.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RespostaClienteBenchmark {
+
+    private static final int CONTAS = 10_000;
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ClienteRepository clienteRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate somenteLeitura;
+
+    private ObjectMapper objectMapper;
+
+    // Mesmas configurações do mapper do Spring Boot, sem os módulos registrados pela aplicação
+    private final ObjectMapper objectMapperAnterior = Jackson2ObjectMapperBuilder.json().build();
+
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:resposta;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--mini-bank.cache.habilitado=false");
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        entityManager = contexto.getBean(EntityManager.class);
+        objectMapper = contexto.getBean(ObjectMapper.class);
+        somenteLeitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        somenteLeitura.setReadOnly(true);
+        List<Cliente> clientes = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            clientes.add(new Cliente(null, "Cliente " + i, numeroConta(i), "0001", BigDecimal.valueOf(i * 137L, 2)));
+        }
+        clienteRepository.saveAll(clientes);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    // Referência: a busca de antes, que carregava a entidade no contexto de persistência
+    @Benchmark
+    public byte[] buscarEntidade() throws Exception {
+        String numeroConta = numeroConta(proximaConta());
+        Cliente cliente = somenteLeitura.execute(status -> clienteRepository.findByNumeroConta(numeroConta)
+                .orElseThrow());
+        return objectMapperAnterior.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public byte[] buscarResposta() throws Exception {
+        String numeroConta = numeroConta(proximaConta());
+        ClienteResposta cliente = somenteLeitura.execute(status -> clienteRepository
+                .findRespostaByNumeroConta(numeroConta).orElseThrow());
+        return objectMapper.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public byte[] paginaEntidades() throws Exception {
+        long aposId = proximaConta();
+        List<Cliente> pagina = somenteLeitura.execute(status -> entityManager
+                .createQuery("select c from Cliente c where c.id > :id order by c.id", Cliente.class)
+                .setParameter("id", aposId)
+                .setMaxResults(TAMANHO_PAGINA)
+                .getResultList());
+        return objectMapperAnterior.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] paginaRespostas() throws Exception {
+        long aposId = proximaConta();
+        List<ClienteResposta> pagina = somenteLeitura.execute(status -> clienteRepository
+                .findRespostasAposId(aposId, TAMANHO_PAGINA));
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    // Com uma thread não há disputa pelo contador
+    private int proximaConta() {
+        proxima = (proxima + 1) % (CONTAS - TAMANHO_PAGINA);
+        return proxima;
+    }
+
+    private static String numeroConta(int i) {
+        return String.format("%010d", i);
+    }
+}
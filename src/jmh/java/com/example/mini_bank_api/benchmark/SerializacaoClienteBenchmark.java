@@ -0,0 +1,103 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização JSON de uma conta e de uma página de TAMANHO_PAGINA contas:
+// entidade com o ObjectMapper padrão, entidade com Blackbird e ClienteResposta com o serializador próprio.
+// Com -prof gc mostra os bytes alocados por resposta.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoClienteBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ObjectMapper objectMapperBlackbird = JsonMapper.builder().addModule(new BlackbirdModule()).build();
+
+    private Cliente cliente;
+
+    private ClienteResposta resposta;
+
+    private List<Cliente> pagina;
+
+    private List<ClienteResposta> paginaResposta;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        cliente = new Cliente(1L, "João Silva", "12345", "001", new BigDecimal("1000.00"), 3L);
+        resposta = ClienteResposta.de(cliente);
+        pagina = new ArrayList<>(TAMANHO_PAGINA);
+        for (int i = 0; i < TAMANHO_PAGINA; i++) {
+            pagina.add(new Cliente((long) i, "Cliente " + i, String.format("%010d", i), "0001",
+                    BigDecimal.valueOf(i * 137L, 2), 0L));
+        }
+        paginaResposta = pagina.stream().map(ClienteResposta::de).toList();
+        json = objectMapper.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws Exception {
+        return objectMapper.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public byte[] serializarBlackbird() throws Exception {
+        return objectMapperBlackbird.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public byte[] serializarResposta() throws Exception {
+        return objectMapperBlackbird.writeValueAsBytes(resposta);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaBlackbird() throws Exception {
+        return objectMapperBlackbird.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaResposta() throws Exception {
+        return objectMapperBlackbird.writeValueAsBytes(paginaResposta);
+    }
+
+    @Benchmark
+    public Cliente desserializar() throws Exception {
+        return objectMapper.readValue(json, Cliente.class);
+    }
+
+    @Benchmark
+    public Cliente desserializarBlackbird() throws Exception {
+        return objectMapperBlackbird.readValue(json, Cliente.class);
+    }
+}
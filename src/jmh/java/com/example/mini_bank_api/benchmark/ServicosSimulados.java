@@ -0,0 +1,111 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.repository.MovimentoRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.TransferenciaService;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.agregados.AgregadosProperties;
+import com.example.mini_bank_api.service.busca.BuscaProperties;
+import com.example.mini_bank_api.service.busca.IndiceNomes;
+import com.example.mini_bank_api.service.cache.CacheClientes;
+import com.example.mini_bank_api.service.cache.CacheClientesProperties;
+import com.example.mini_bank_api.service.extrato.ExtratoProperties;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.fila.FilasContas;
+import com.example.mini_bank_api.service.fila.FilasContasProperties;
+import com.example.mini_bank_api.service.filtro.FiltroContas;
+import com.example.mini_bank_api.service.filtro.FiltroContasProperties;
+import com.example.mini_bank_api.service.idempotencia.IdempotenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.journal.JournalProperties;
+import com.example.mini_bank_api.service.journal.JournalTransacoes;
+import com.example.mini_bank_api.service.ledger.LedgerProperties;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Monta o ClienteService sem Spring, sobre um repositório simulado, sem transação nem cache
+final class ServicosSimulados {
+
+    private ServicosSimulados() {
+    }
+
+    static ClienteRepository repositorio() {
+        // stubOnly: o mock não guarda as chamadas, senão a memória cresce durante a medição
+        ClienteRepository clienteRepository = mock(ClienteRepository.class, withSettings().stubOnly());
+        when(clienteRepository.findByNumeroConta(anyString()))
+                .thenAnswer(invocacao -> Optional.of(novaConta(1L, invocacao.getArgument(0))));
+        when(clienteRepository.findAllByNumeroContaIn(anyCollection()))
+                .thenAnswer(invocacao -> List.of(novaConta(1L, "11111"), novaConta(2L, "22222")));
+        when(clienteRepository.save(any(Cliente.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+        return clienteRepository;
+    }
+
+    static ClienteService clienteService(ClienteRepository clienteRepository) {
+        ClienteValidation clienteValidation = new ClienteValidation();
+        ConcorrenciaProperties concorrenciaProperties = new ConcorrenciaProperties();
+        RegistroMovimentos registroMovimentos = registroMovimentos();
+        AgregadosAgencias agregadosAgencias = agregadosDesligados();
+        LedgerSaldos ledgerSaldos = new LedgerSaldos(new LedgerProperties(), clienteRepository,
+                clienteValidation, registroMovimentos, agregadosAgencias, journalDesligado(),
+                mock(PlatformTransactionManager.class));
+        CacheClientesProperties cacheProperties = new CacheClientesProperties();
+        cacheProperties.setHabilitado(false);
+
+        TransferenciaService transferenciaService = new TransferenciaService(clienteRepository,
+                clienteValidation, concorrenciaProperties, ledgerSaldos, registroMovimentos, agregadosAgencias);
+        CacheClientes cacheClientes = new CacheClientes(cacheProperties);
+        FilasContas filasContas = new FilasContas(new FilasContasProperties(), clienteRepository,
+                clienteValidation, cacheClientes, registroMovimentos, agregadosAgencias, journalDesligado(),
+                new IdempotenciaProperties(), new LedgerProperties(), mock(PlatformTransactionManager.class));
+        FiltroContasProperties filtroProperties = new FiltroContasProperties();
+        filtroProperties.setHabilitado(false);
+        FiltroContas filtroContas = new FiltroContas(filtroProperties, clienteRepository,
+                mock(PlatformTransactionManager.class));
+        BuscaProperties buscaProperties = new BuscaProperties();
+        buscaProperties.setHabilitado(false);
+        IndiceNomes indiceNomes = new IndiceNomes(buscaProperties, clienteRepository,
+                mock(PlatformTransactionManager.class));
+        return new ClienteService(clienteRepository, clienteValidation, concorrenciaProperties,
+                transferenciaService, ledgerSaldos, cacheClientes, filasContas, registroMovimentos, filtroContas,
+                indiceNomes, agregadosAgencias);
+    }
+
+    static AgregadosAgencias agregadosDesligados() {
+        AgregadosProperties agregadosProperties = new AgregadosProperties();
+        agregadosProperties.setHabilitado(false);
+        return new AgregadosAgencias(agregadosProperties);
+    }
+
+    // Journal desligado: o fsync em disco dominaria a medição
+    static JournalTransacoes journalDesligado() {
+        JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setHabilitado(false);
+        return new JournalTransacoes(journalProperties);
+    }
+
+    // Extrato desligado: sem flush, os movimentos adiados pelo ledger se acumulariam durante a medição
+    static RegistroMovimentos registroMovimentos() {
+        ExtratoProperties extratoProperties = new ExtratoProperties();
+        extratoProperties.setHabilitado(false);
+        return new RegistroMovimentos(extratoProperties, mock(MovimentoRepository.class),
+                mock(PlatformTransactionManager.class));
+    }
+
+    private static Cliente novaConta(Long id, String numeroConta) {
+        return new Cliente(id, "Benchmark", numeroConta, "001", new BigDecimal("1000.00"), 0L);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mini_bank_api.benchmark;
+
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Regras de ClienteValidation: caminho aceito e caminho rejeitado (exceção)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+    private final ClienteValidation clienteValidation = new ClienteValidation();
+
+    private final BigDecimal saldo = new BigDecimal("1000.00");
+
+    private final BigDecimal valor = new BigDecimal("10.00");
+
+    private final BigDecimal valorAcimaDoSaldo = new BigDecimal("5000.00");
+
+    @Benchmark
+    public void validarValorPositivo() {
+        clienteValidation.validarValorPositivo(valor);
+    }
+
+    @Benchmark
+    public void validarSaldoSuficiente() {
+        clienteValidation.validarSaldoSuficiente(saldo, valor);
+    }
+
+    @Benchmark
+    public Object validarSaldoInsuficiente() {
+        try {
+            clienteValidation.validarSaldoSuficiente(saldo, valorAcimaDoSaldo);
+            return null;
+        } catch (SaldoInsuficienteException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public void validarContasDiferentes() {
+        clienteValidation.validarContasDiferentes("12345", "67890");
+    }
+}
@@ -2,8 +2,10 @@ package com.example.mini_bank_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class MiniBankApiApplication {
 
 	public static void main(String[] args) {
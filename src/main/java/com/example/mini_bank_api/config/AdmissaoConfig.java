@@ -0,0 +1,26 @@
+package com.example.mini_bank_api.config;
+
+import com.example.mini_bank_api.controller.AdmissaoInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Primeiro interceptor da cadeia: a recusa acontece antes de qualquer trabalho, inclusive o encaminhamento
+// a outro nó do cluster. As chamadas entre nós (/api/interno) não passam por aqui.
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "mini-bank.admissao", name = "habilitado", havingValue = "true")
+public class AdmissaoConfig implements WebMvcConfigurer {
+
+    private final AdmissaoInterceptor admissaoInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissaoInterceptor)
+                .addPathPatterns("/api/clientes/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
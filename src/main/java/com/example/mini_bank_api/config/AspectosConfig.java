@@ -0,0 +1,22 @@
+package com.example.mini_bank_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+// Ordem dos aspectos em volta do ClienteService, de fora para dentro:
+// métricas -> retentativa otimista -> journal -> transação.
+// O tempo medido inclui retentativas e commit, cada tentativa roda em uma transação nova e o journal só
+// registra depois que a transação da tentativa bem-sucedida terminou.
+@Configuration
+@EnableTransactionManagement(proxyTargetClass = true, order = AspectosConfig.ORDEM_TRANSACAO)
+public class AspectosConfig {
+
+    public static final int ORDEM_METRICAS = Ordered.HIGHEST_PRECEDENCE;
+
+    public static final int ORDEM_RETENTATIVA = ORDEM_METRICAS + 1;
+
+    public static final int ORDEM_JOURNAL = ORDEM_RETENTATIVA + 1;
+
+    public static final int ORDEM_TRANSACAO = ORDEM_JOURNAL + 1;
+}
@@ -0,0 +1,26 @@
+package com.example.mini_bank_api.config;
+
+import com.example.mini_bank_api.controller.AutenticacaoNosInterceptor;
+import com.example.mini_bank_api.controller.EncaminhamentoInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Fora do modo cluster o interceptor nem é registrado: nenhum custo por requisição
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "mini-bank.cluster", name = "habilitado", havingValue = "true")
+public class ClusterConfig implements WebMvcConfigurer {
+
+    private final EncaminhamentoInterceptor encaminhamentoInterceptor;
+
+    private final AutenticacaoNosInterceptor autenticacaoNosInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(encaminhamentoInterceptor).addPathPatterns("/api/clientes/**");
+        registry.addInterceptor(autenticacaoNosInterceptor).addPathPatterns("/api/interno/**");
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.mini_bank_api.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// O Spring Boot registra no ObjectMapper todo Module declarado como bean.
+// Blackbird troca a reflexão nos getters, setters e construtores por lambdas geradas (LambdaMetafactory)
+// para os tipos sem serializador próprio (lote, extrato, importação e os corpos das requisições).
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
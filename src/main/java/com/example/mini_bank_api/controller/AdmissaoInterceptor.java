@@ -0,0 +1,81 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.service.admissao.ControleAdmissao;
+import com.example.mini_bank_api.service.cluster.ParticoesCluster;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+
+// Aplica o ControleAdmissao às requisições de /api/clientes. Nos endpoints assíncronos (modo filas) o
+// DispatcherServlet passa pelo interceptor de novo quando o resultado fica pronto: a admissão feita na
+// primeira passagem fica em um atributo da requisição e só é concluída no afterCompletion da última.
+@Component
+@RequiredArgsConstructor
+public class AdmissaoInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO_ADMITIDA_EM = AdmissaoInterceptor.class.getName() + ".admitidaEm";
+
+    // Operações que alteram saldo, limitadas também por conta: método HTTP e padrão da rota, não o nome do
+    // handler, que muda conforme o modo (depósito e saque síncronos ou pelas filas)
+    private static final Set<String> OPERACOES_CONTA = Set.of(
+            "POST /api/clientes/{numeroConta}/deposito",
+            "POST /api/clientes/{numeroConta}/saque",
+            "POST /api/clientes/transferir");
+
+    private final ControleAdmissao controleAdmissao;
+
+    private final ParticoesCluster particoesCluster;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(ATRIBUTO_ADMITIDA_EM) != null) {
+            return true;
+        }
+        long admitidaEm = controleAdmissao.admitir();
+        String numeroConta = numeroContaLimitada(request);
+        // Conta de outro nó: o balde que vale é o do dono, para onde a requisição será encaminhada.
+        // A ficha só é gasta depois da admissão global, para não ser consumida por requisição recusada.
+        if (numeroConta != null && !particoesCluster.isRemota(numeroConta)) {
+            try {
+                controleAdmissao.consumirConta(numeroConta);
+            } catch (RuntimeException ex) {
+                controleAdmissao.desistir();
+                throw ex;
+            }
+        }
+        request.setAttribute(ATRIBUTO_ADMITIDA_EM, admitidaEm);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object admitidaEm = request.getAttribute(ATRIBUTO_ADMITIDA_EM);
+        if (admitidaEm != null) {
+            request.removeAttribute(ATRIBUTO_ADMITIDA_EM);
+            controleAdmissao.concluir((Long) admitidaEm,
+                    response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String numeroContaLimitada(HttpServletRequest request) {
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (rota == null || !OPERACOES_CONTA.contains(request.getMethod() + " " + rota)) {
+            return null;
+        }
+        Map<String, String> variaveis = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variaveis != null && variaveis.containsKey("numeroConta")) {
+            return variaveis.get("numeroConta");
+        }
+        return request.getParameter("contaOrigem");
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.exception.NoNaoAutorizadoException;
+import com.example.mini_bank_api.service.cluster.ClienteCluster;
+import com.example.mini_bank_api.service.cluster.ClusterProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Modo cluster: as rotas /api/interno creditam contas sem débito correspondente neste nó, então só os outros
+// nós podem chamá-las. Eles se identificam pelo segredo compartilhado (mini-bank.cluster.segredo), comparado
+// em tempo constante.
+@Component
+public class AutenticacaoNosInterceptor implements HandlerInterceptor {
+
+    private final byte[] segredo;
+
+    public AutenticacaoNosInterceptor(ClusterProperties clusterProperties) {
+        String configurado = clusterProperties.getSegredo();
+        this.segredo = configurado == null ? null : configurado.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String recebido = request.getHeader(ClienteCluster.CABECALHO_SEGREDO);
+        if (segredo == null || recebido == null
+                || !MessageDigest.isEqual(segredo, recebido.getBytes(StandardCharsets.UTF_8))) {
+            throw new NoNaoAutorizadoException("Rota restrita aos nós do cluster");
+        }
+        return true;
+    }
+}
@@ -1,18 +1,37 @@
 package com.example.mini_bank_api.controller;
 
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.OperacaoLote;
+import com.example.mini_bank_api.dto.PaginaClientes;
+import com.example.mini_bank_api.dto.ResultadoLote;
 import com.example.mini_bank_api.entity.Cliente;
 import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.cluster.ClienteCluster;
+import com.example.mini_bank_api.service.cluster.ParticoesCluster;
+import com.example.mini_bank_api.service.cluster.TransferenciaDistribuida;
+import com.example.mini_bank_api.service.lote.LoteService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -22,8 +41,23 @@ import java.util.List;
 @Tag(name = "Clientes", description = "API para gerenciamento de clientes e suas operações bancárias")
 public class ClienteController {
 
+    private static final String CABECALHO_PROXIMO_ID = "X-Proximo-Id";
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     private final ClienteService clienteService;
 
+    private final LoteService loteService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ExecucaoIdempotente execucaoIdempotente;
+
+    private final ParticoesCluster particoesCluster;
+
+    private final ClienteCluster clienteCluster;
+
+    private final TransferenciaDistribuida transferenciaDistribuida;
+
     @Operation(
             summary = "Cadastrar novo cliente",
             description = "Cria um novo cliente com conta bancária no sistema"
@@ -32,7 +66,7 @@ public class ClienteController {
             @ApiResponse(
                     responseCode = "200",
                     description = "Cliente cadastrado com sucesso",
-                    content = @Content(schema = @Schema(implementation = Cliente.class))
+                    content = @Content(schema = @Schema(implementation = ClienteResposta.class))
             ),
             @ApiResponse(
                     responseCode = "400",
@@ -40,109 +74,139 @@ public class ClienteController {
             )
     })
     @PostMapping
-    public ResponseEntity<Cliente> cadastrar(
+    public ResponseEntity<ClienteResposta> cadastrar(
             @Parameter(description = "Dados do cliente a ser cadastrado", required = true)
             @RequestBody Cliente cliente) {
+        // Modo cluster: a conta é cadastrada no nó dono do número (o número vem no corpo, não no caminho)
+        if (cliente.getNumeroConta() != null && particoesCluster.isRemota(cliente.getNumeroConta())) {
+            return ResponseEntity.ok(clienteCluster.cadastrar(particoesCluster.dono(cliente.getNumeroConta()),
+                    cliente));
+        }
         Cliente clienteSalvo = clienteService.cadastrarCliente(cliente);
-        return ResponseEntity.ok(clienteSalvo);
+        return ResponseEntity.ok(ClienteResposta.de(clienteSalvo));
     }
 
     @Operation(
-            summary = "Listar todos os clientes",
-            description = "Retorna uma lista com todos os clientes cadastrados no sistema"
+            summary = "Listar clientes",
+            description = "Retorna uma página de clientes ordenada por ID. Para a próxima página, " +
+                    "envie em aposId o valor do cabeçalho X-Proximo-Id (ausente na última página)"
     )
     @ApiResponse(
             responseCode = "200",
-            description = "Lista de clientes recuperada com sucesso",
-            content = @Content(schema = @Schema(implementation = Cliente[].class))
+            description = "Página de clientes recuperada com sucesso",
+            content = @Content(schema = @Schema(implementation = ClienteResposta[].class))
     )
     @GetMapping
-    public ResponseEntity<List<Cliente>> listarTodos() {
-        List<Cliente> clientes = clienteService.buscarTodos();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<ClienteResposta>> listarTodos(
+            @Parameter(description = "Retorna clientes com ID maior que este", example = "0")
+            @RequestParam(required = false) Long aposId,
+
+            @Parameter(description = "Quantidade de clientes por página (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "100") int tamanho) {
+        PaginaClientes pagina = clienteService.buscarPagina(aposId, tamanho);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.getProximoId() != null) {
+            resposta.header(CABECALHO_PROXIMO_ID, pagina.getProximoId().toString());
+        }
+        return resposta.body(pagina.getClientes());
     }
 
     @Operation(
-            summary = "Buscar cliente por ID",
-            description = "Recupera os dados de um cliente específico através do seu ID"
+            summary = "Buscar clientes por nome e/ou agência",
+            description = "Clientes com nome em que cada palavra de nome é trecho (início, meio ou fim) de " +
+                    "alguma palavra, sem diferenciar maiúsculas e acentos, e/ou da agência informada, " +
+                    "ordenados por ID. Um trecho não atravessa o espaço entre duas palavras. Para a " +
+                    "próxima página, envie em aposId o valor do cabeçalho X-Proximo-Id (ausente na última página)"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "Cliente encontrado com sucesso",
-                    content = @Content(schema = @Schema(implementation = Cliente.class))
+                    description = "Página de clientes encontrados",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ClienteResposta.class)))
             ),
             @ApiResponse(
-                    responseCode = "404",
-                    description = "Cliente não encontrado"
+                    responseCode = "400",
+                    description = "Nem nome nem agência informados"
             )
     })
-    @GetMapping("/{id}")
-    public ResponseEntity<Cliente> buscarPorId(
-            @Parameter(description = "ID do cliente", example = "1", required = true)
-            @PathVariable Long id) {
-        Cliente cliente = clienteService.buscarPorId(id);
-        return ResponseEntity.ok(cliente);
+    @GetMapping("/busca")
+    public ResponseEntity<List<ClienteResposta>> buscar(
+            @Parameter(description = "Trechos de palavras do nome", example = "joão ilva")
+            @RequestParam(required = false) String nome,
+
+            @Parameter(description = "Agência", example = "001")
+            @RequestParam(required = false) String agencia,
+
+            @Parameter(description = "Retorna clientes com ID maior que este", example = "0")
+            @RequestParam(required = false) Long aposId,
+
+            @Parameter(description = "Quantidade de clientes por página (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "100") int tamanho) {
+        PaginaClientes pagina = clienteService.buscar(nome, agencia, aposId, tamanho);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.getProximoId() != null) {
+            resposta.header(CABECALHO_PROXIMO_ID, pagina.getProximoId().toString());
+        }
+        return resposta.body(pagina.getClientes());
     }
 
     @Operation(
-            summary = "Realizar depósito",
-            description = "Adiciona um valor ao saldo da conta do cliente"
+            summary = "Exportar todos os clientes em streaming",
+            description = "Escreve todos os clientes, um JSON por linha (NDJSON), lidos do banco por cursor " +
+                    "com memória constante"
     )
-    @ApiResponses({
-            @ApiResponse(
-                    responseCode = "200",
-                    description = "Depósito realizado com sucesso",
-                    content = @Content(schema = @Schema(implementation = Cliente.class))
-            ),
-            @ApiResponse(
-                    responseCode = "400",
-                    description = "Valor inválido para depósito"
-            ),
-            @ApiResponse(
-                    responseCode = "404",
-                    description = "Conta não encontrada"
-            )
-    })
-    @PostMapping("/{numeroConta}/deposito")
-    public ResponseEntity<Cliente> depositar(
-            @Parameter(description = "Número da conta para depósito", example = "12345", required = true)
-            @PathVariable String numeroConta,
-
-            @Parameter(description = "Valor a ser depositado", example = "100.50", required = true)
-            @RequestParam BigDecimal valor) {
-        Cliente cliente = clienteService.depositar(numeroConta, valor);
-        return ResponseEntity.ok(cliente);
+    @ApiResponse(
+            responseCode = "200",
+            description = "Clientes em NDJSON",
+            content = @Content(mediaType = MEDIA_TYPE_NDJSON)
+    )
+    @GetMapping(value = "/stream", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> transmitirTodos() {
+        StreamingResponseBody corpo = saida -> {
+            // Sem flush a cada cliente: o buffer do gerador só é descarregado quando enche
+            ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                clienteService.percorrerTodos(cliente -> {
+                    try {
+                        escritor.writeValue(gerador, cliente);
+                        gerador.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(corpo);
     }
 
     @Operation(
-            summary = "Realizar saque",
-            description = "Remove um valor do saldo da conta do cliente, desde que haja saldo suficiente"
+            summary = "Buscar cliente por ID",
+            description = "Recupera os dados de um cliente específico através do seu ID, com ETag como na " +
+                    "busca por número da conta"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "Saque realizado com sucesso",
-                    content = @Content(schema = @Schema(implementation = Cliente.class))
+                    description = "Cliente encontrado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ClienteResposta.class))
             ),
             @ApiResponse(
-                    responseCode = "400",
-                    description = "Valor inválido ou saldo insuficiente"
+                    responseCode = "304",
+                    description = "Conta sem alteração desde a ETag enviada em If-None-Match"
             ),
             @ApiResponse(
                     responseCode = "404",
-                    description = "Conta não encontrada"
+                    description = "Cliente não encontrado"
             )
     })
-    @PostMapping("/{numeroConta}/saque")
-    public ResponseEntity<Cliente> sacar(
-            @Parameter(description = "Número da conta para saque", example = "12345", required = true)
-            @PathVariable String numeroConta,
-
-            @Parameter(description = "Valor a ser sacado", example = "50.00", required = true)
-            @RequestParam BigDecimal valor) {
-        Cliente cliente = clienteService.sacar(numeroConta, valor);
-        return ResponseEntity.ok(cliente);
+    @GetMapping("/{id}")
+    public ResponseEntity<ClienteResposta> buscarPorId(
+            @Parameter(description = "ID do cliente", example = "1", required = true)
+            @PathVariable Long id) {
+        ClienteResposta cliente = clienteService.buscarPorId(id);
+        return comEtag(cliente);
     }
 
     @Operation(
@@ -161,6 +225,18 @@ public class ClienteController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Conta de origem ou destino não encontrada"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Requisição com a mesma Idempotency-Key ainda em andamento"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key já usada em outra requisição"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Modo cluster: nó da conta de destino indisponível, transferência desfeita"
             )
     })
     @PostMapping("/transferir")
@@ -172,20 +248,40 @@ public class ClienteController {
             @RequestParam String contaDestino,
 
             @Parameter(description = "Valor a ser transferido", example = "75.25", required = true)
-            @RequestParam BigDecimal valor) {
-        clienteService.transferir(contaOrigem, contaDestino, valor);
-        return ResponseEntity.ok("Transferência realizada com sucesso");
+            @RequestParam BigDecimal valor,
+
+            @Parameter(description = ExecucaoIdempotente.DESCRICAO_IDEMPOTENCIA, example = "3f1c9a2e-transferencia")
+            @RequestHeader(value = ExecucaoIdempotente.CABECALHO_IDEMPOTENCIA, required = false)
+            String chaveIdempotencia) {
+        String assinatura = ExecucaoIdempotente.assinatura("transferencia", contaOrigem + ":" + contaDestino,
+                valor);
+        return execucaoIdempotente.executar(chaveIdempotencia, assinatura, String.class, () -> {
+            // A conta de origem é deste nó (EncaminhamentoInterceptor); a de destino pode ser de outro
+            if (particoesCluster.isRemota(contaDestino)) {
+                return transferenciaDistribuida.transferir(contaOrigem, contaDestino, valor)
+                        ? "Transferência realizada com sucesso"
+                        : "Transferência em processamento: o crédito na conta de destino será confirmado";
+            }
+            clienteService.transferir(contaOrigem, contaDestino, valor);
+            return "Transferência realizada com sucesso";
+        });
     }
 
     @Operation(
             summary = "Buscar cliente por número da conta",
-            description = "Recupera os dados de um cliente através do número da conta bancária"
+            description = "Recupera os dados de um cliente através do número da conta bancária. A resposta traz " +
+                    "uma ETag: para consultar de novo, envie-a em If-None-Match e receba 304, sem corpo, enquanto " +
+                    "a conta não mudar"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Cliente encontrado com sucesso",
-                    content = @Content(schema = @Schema(implementation = Cliente.class))
+                    content = @Content(schema = @Schema(implementation = ClienteResposta.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Conta sem alteração desde a ETag enviada em If-None-Match"
             ),
             @ApiResponse(
                     responseCode = "404",
@@ -193,10 +289,53 @@ public class ClienteController {
             )
     })
     @GetMapping("/conta/{numeroConta}")
-    public ResponseEntity<Cliente> buscarPorNumeroConta(
+    public ResponseEntity<ClienteResposta> buscarPorNumeroConta(
             @Parameter(description = "Número da conta bancária", example = "12345", required = true)
             @PathVariable String numeroConta) {
-        Cliente cliente = clienteService.buscarPorNumeroConta(numeroConta);
-        return ResponseEntity.ok(cliente);
+        ClienteResposta cliente = clienteService.buscarPorNumeroConta(numeroConta);
+        return comEtag(cliente);
+    }
+
+    @Operation(
+            summary = "Processar lote de operações",
+            description = "Recebe um array JSON de depósitos, saques e transferências, lido em streaming e " +
+                    "gravado em lotes JDBC. Com atomico=true o lote é tudo-ou-nada; caso contrário cada item " +
+                    "é aplicado ou rejeitado individualmente"
+    )
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Operações do lote",
+            required = true,
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = OperacaoLote.class)))
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote processado; o resultado de cada item vem na resposta",
+                    content = @Content(schema = @Schema(implementation = ResultadoLote.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote inválido ou lote tudo-ou-nada desfeito por um item rejeitado"
+            )
+    })
+    @PostMapping(value = "/lote", consumes = "application/json")
+    public ResponseEntity<ResultadoLote> processarLote(
+            @Parameter(description = "Tudo-ou-nada: desfaz o lote inteiro se um item falhar", example = "false")
+            @RequestParam(defaultValue = "false") boolean atomico,
+            HttpServletRequest request) throws IOException {
+        ResultadoLote resultado = loteService.processar(request.getInputStream(), atomico);
+        if (!resultado.isConfirmado()) {
+            return ResponseEntity.badRequest().body(resultado);
+        }
+        return ResponseEntity.ok(resultado);
+    }
+
+    // Consulta condicional: com If-None-Match igual à ETag, o Spring responde 304 sem corpo e o record nem chega
+    // a ser serializado. no-cache: o cliente pode guardar a resposta, mas confirma a ETag a cada uso.
+    private static ResponseEntity<ClienteResposta> comEtag(ClienteResposta cliente) {
+        return ResponseEntity.ok()
+                .eTag(cliente.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(cliente);
     }
-}
\ No newline at end of file
+}
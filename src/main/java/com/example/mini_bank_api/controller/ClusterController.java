@@ -0,0 +1,68 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.service.cluster.EstadoTransferencia;
+import com.example.mini_bank_api.service.cluster.ParticipanteTransferencias;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+// Chamado pelos outros nós, nunca encaminhado, com o segredo compartilhado (AutenticacaoNosInterceptor).
+// Um crédito para uma conta que não é deste nó é recusado.
+@RestController
+@RequestMapping("/api/interno/transferencias")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "mini-bank.cluster", name = "habilitado", havingValue = "true")
+@Tag(name = "Cluster", description = "Transferências entre contas de nós diferentes (uso entre os nós)")
+public class ClusterController {
+
+    private final ParticipanteTransferencias participanteTransferencias;
+
+    @Operation(
+            summary = "Creditar transferência vinda de outro nó",
+            description = "Credita a conta de destino uma única vez por id; repetições devolvem CREDITADA"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Transferência creditada"),
+            @ApiResponse(responseCode = "401", description = "Chamada sem o segredo dos nós do cluster"),
+            @ApiResponse(responseCode = "404", description = "Conta de destino não encontrada"),
+            @ApiResponse(responseCode = "410", description = "Transferência já desfeita pela origem"),
+            @ApiResponse(responseCode = "503", description = "Conta de destino pertence a outro nó")
+    })
+    @PostMapping("/{id}/credito")
+    public ResponseEntity<EstadoTransferencia> creditar(
+            @Parameter(description = "Id da transferência, gerado pela origem", required = true)
+            @PathVariable String id,
+            @RequestParam String contaOrigem,
+            @RequestParam String contaDestino,
+            @RequestParam BigDecimal valor) {
+        return ResponseEntity.ok(participanteTransferencias.creditar(id, contaOrigem, contaDestino, valor));
+    }
+
+    @Operation(
+            summary = "Cancelar transferência vinda de outro nó",
+            description = "Impede o crédito, se ainda não aconteceu. Devolve CANCELADA (a origem estorna) " +
+                    "ou CREDITADA (a transferência está concluída)"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estado final da transferência neste nó"),
+            @ApiResponse(responseCode = "401", description = "Chamada sem o segredo dos nós do cluster")
+    })
+    @PostMapping("/{id}/cancelamento")
+    public ResponseEntity<EstadoTransferencia> cancelar(
+            @Parameter(description = "Id da transferência, gerado pela origem", required = true)
+            @PathVariable String id) {
+        return ResponseEntity.ok(participanteTransferencias.cancelar(id));
+    }
+}
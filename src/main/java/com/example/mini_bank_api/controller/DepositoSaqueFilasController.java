@@ -0,0 +1,128 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.service.ClienteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+// Modo filas: depósito e saque pela fila da conta (FilasContas). Os handlers devolvem um CompletableFuture e
+// liberam a thread da requisição enquanto a fila aplica a operação; fora desse modo as mesmas rotas ficam com o
+// DepositoSaqueController, sem passar pelo despacho assíncrono do Spring MVC. Com o ledger os saldos já são
+// alterados em memória, sem disputa no banco, e as filas não são usadas.
+@RestController
+@RequestMapping("/api/clientes")
+@RequiredArgsConstructor
+@ConditionalOnExpression(DepositoSaqueFilasController.MODO_FILAS)
+@Tag(name = "Clientes", description = "API para gerenciamento de clientes e suas operações bancárias")
+public class DepositoSaqueFilasController {
+
+    static final String MODO_FILAS = "${mini-bank.filas.habilitado:false} and !${mini-bank.ledger.habilitado:false}";
+
+    private final ClienteService clienteService;
+
+    private final ExecucaoIdempotente execucaoIdempotente;
+
+    @Operation(
+            summary = "Realizar depósito",
+            description = "Adiciona um valor ao saldo da conta do cliente, pela fila da conta"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Depósito realizado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ClienteResposta.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Valor inválido para depósito"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Conta não encontrada"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Requisição com a mesma Idempotency-Key ainda em andamento"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key já usada em outra requisição"
+            )
+    })
+    @PostMapping("/{numeroConta}/deposito")
+    public CompletableFuture<ResponseEntity<ClienteResposta>> depositar(
+            @Parameter(description = "Número da conta para depósito", example = "12345", required = true)
+            @PathVariable String numeroConta,
+
+            @Parameter(description = "Valor a ser depositado", example = "100.50", required = true)
+            @RequestParam BigDecimal valor,
+
+            @Parameter(description = ExecucaoIdempotente.DESCRICAO_IDEMPOTENCIA, example = "3f1c9a2e-deposito")
+            @RequestHeader(value = ExecucaoIdempotente.CABECALHO_IDEMPOTENCIA, required = false)
+            String chaveIdempotencia) {
+        String assinatura = ExecucaoIdempotente.assinatura("deposito", numeroConta, valor);
+        return execucaoIdempotente.executarNaFila(chaveIdempotencia, assinatura,
+                () -> clienteService.depositarAssincrono(numeroConta, valor));
+    }
+
+    @Operation(
+            summary = "Realizar saque",
+            description = "Remove um valor do saldo da conta do cliente, pela fila da conta, desde que haja " +
+                    "saldo suficiente"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Saque realizado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ClienteResposta.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Valor inválido ou saldo insuficiente"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Conta não encontrada"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Requisição com a mesma Idempotency-Key ainda em andamento"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key já usada em outra requisição"
+            )
+    })
+    @PostMapping("/{numeroConta}/saque")
+    public CompletableFuture<ResponseEntity<ClienteResposta>> sacar(
+            @Parameter(description = "Número da conta para saque", example = "12345", required = true)
+            @PathVariable String numeroConta,
+
+            @Parameter(description = "Valor a ser sacado", example = "50.00", required = true)
+            @RequestParam BigDecimal valor,
+
+            @Parameter(description = ExecucaoIdempotente.DESCRICAO_IDEMPOTENCIA, example = "3f1c9a2e-saque")
+            @RequestHeader(value = ExecucaoIdempotente.CABECALHO_IDEMPOTENCIA, required = false)
+            String chaveIdempotencia) {
+        String assinatura = ExecucaoIdempotente.assinatura("saque", numeroConta, valor);
+        return execucaoIdempotente.executarNaFila(chaveIdempotencia, assinatura,
+                () -> clienteService.sacarAssincrono(numeroConta, valor));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.exception.ParticaoIncorretaException;
+import com.example.mini_bank_api.service.cluster.ClienteCluster;
+import com.example.mini_bank_api.service.cluster.ParticoesCluster;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+// Modo cluster: a requisição sobre uma conta de outro nó é repetida no dono da conta e a resposta dele volta
+// ao cliente como veio. A conta sai da variável {numeroConta} do caminho ou, na transferência, de contaOrigem
+// (o nó da origem coordena a transferência). Cadastro (conta no corpo) é encaminhado pelo ClienteController;
+// busca por id, listagem, lote, importação e exportação atuam só sobre as contas deste nó.
+@Component
+@RequiredArgsConstructor
+public class EncaminhamentoInterceptor implements HandlerInterceptor {
+
+    private final ParticoesCluster particoesCluster;
+
+    private final ClienteCluster clienteCluster;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        String numeroConta = numeroConta(request);
+        if (numeroConta == null || !particoesCluster.isRemota(numeroConta)) {
+            return true;
+        }
+        String dono = particoesCluster.dono(numeroConta);
+        if (request.getHeader(ClienteCluster.CABECALHO_ENCAMINHADO) != null) {
+            throw new ParticaoIncorretaException("Conta " + numeroConta + " pertence ao nó " + dono
+                    + ", não a " + particoesCluster.getNoAtual() + ": listas de nós diferentes entre os nós");
+        }
+        ResponseEntity<byte[]> resposta = clienteCluster.encaminhar(dono, request);
+        response.setStatus(resposta.getStatusCode().value());
+        resposta.getHeaders().forEach((nome, valores) -> valores.forEach(valor -> response.addHeader(nome, valor)));
+        if (resposta.getBody() != null) {
+            response.getOutputStream().write(resposta.getBody());
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String numeroConta(HttpServletRequest request) {
+        Map<String, String> variaveis = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variaveis != null && variaveis.containsKey("numeroConta")) {
+            return variaveis.get("numeroConta");
+        }
+        return request.getParameter("contaOrigem");
+    }
+}
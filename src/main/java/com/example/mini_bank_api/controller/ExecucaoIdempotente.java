@@ -0,0 +1,68 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.service.idempotencia.RegistroIdempotencia;
+import com.example.mini_bank_api.service.idempotencia.RespostaIdempotente;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Idempotency-Key nos handlers que alteram saldo (depósito, saque e transferência), síncronos ou pelas filas
+@Component
+@RequiredArgsConstructor
+public class ExecucaoIdempotente {
+
+    static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+    static final String DESCRICAO_IDEMPOTENCIA = "Chave única da operação: repetir a requisição com a " +
+            "mesma chave devolve a resposta original sem executar a operação de novo";
+
+    private static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    private final RegistroIdempotencia registroIdempotencia;
+
+    // Operação, contas e valor sem zeros à direita: 10, 10.0 e 10.00 são a mesma requisição
+    static String assinatura(String operacao, String contas, BigDecimal valor) {
+        return operacao + ":" + contas + ":" + valor.stripTrailingZeros().toPlainString();
+    }
+
+    // Sem Idempotency-Key a operação é executada normalmente; com ela, repetições devolvem a resposta original
+    <T> ResponseEntity<T> executar(String chave, String assinatura, Class<T> tipo, Supplier<T> operacao) {
+        if (chave == null || !registroIdempotencia.isHabilitado()) {
+            return ResponseEntity.ok(operacao.get());
+        }
+        RespostaIdempotente<T> resposta = registroIdempotencia.executar(chave, assinatura, tipo, operacao);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (resposta.repetida()) {
+            builder.header(CABECALHO_REPETIDA, "true");
+        }
+        return builder.body(resposta.corpo());
+    }
+
+    // Modo filas: sem Idempotency-Key a thread da requisição é liberada enquanto a fila da conta aplica a operação.
+    // Com a chave, o registro de idempotência precisa do resultado e a requisição espera por ele.
+    CompletableFuture<ResponseEntity<ClienteResposta>> executarNaFila(
+            String chave, String assinatura, Supplier<CompletableFuture<Cliente>> operacao) {
+        if (chave == null || !registroIdempotencia.isHabilitado()) {
+            return operacao.get().thenApply(cliente -> ResponseEntity.ok(ClienteResposta.de(cliente)));
+        }
+        return CompletableFuture.completedFuture(executar(chave, assinatura, ClienteResposta.class,
+                () -> ClienteResposta.de(aguardar(operacao.get()))));
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw ex;
+        }
+    }
+}
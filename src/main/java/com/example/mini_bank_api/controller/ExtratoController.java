@@ -0,0 +1,164 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.dto.PaginaExtrato;
+import com.example.mini_bank_api.dto.SaldoEmInstante;
+import com.example.mini_bank_api.entity.Movimento;
+import com.example.mini_bank_api.service.extrato.ExtratoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/clientes")
+@RequiredArgsConstructor
+@Tag(name = "Extrato", description = "Movimentos das contas e saldo em um instante")
+public class ExtratoController {
+
+    private static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    private final ExtratoService extratoService;
+
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Extrato da conta",
+            description = "Retorna uma página dos movimentos do período [de, ate), em ordem cronológica. " +
+                    "Para a próxima página, envie em cursor o valor do cabeçalho X-Proximo-Cursor " +
+                    "(ausente na última página)"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página do extrato recuperada com sucesso",
+                    content = @Content(schema = @Schema(implementation = Movimento[].class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Período ou cursor inválido"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Conta não encontrada ou extrato desabilitado"
+            )
+    })
+    @GetMapping("/{numeroConta}/extrato")
+    public ResponseEntity<List<Movimento>> buscarExtrato(
+            @Parameter(description = "Número da conta bancária", example = "12345", required = true)
+            @PathVariable String numeroConta,
+
+            @Parameter(description = "Início do período (inclusive)", example = "2024-01-01T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+
+            @Parameter(description = "Fim do período (exclusive)", example = "2024-02-01T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+
+            @Parameter(description = "Cursor devolvido pela página anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Quantidade de movimentos por página (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "100") int tamanho) {
+        PaginaExtrato pagina = extratoService.buscarPagina(numeroConta, de, ate, cursor, tamanho);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(CABECALHO_PROXIMO_CURSOR, pagina.getProximoCursor());
+        }
+        return resposta.body(pagina.getMovimentos());
+    }
+
+    @Operation(
+            summary = "Extrato da conta em streaming",
+            description = "Escreve todos os movimentos do período [de, ate), um JSON por linha (NDJSON), " +
+                    "lidos do banco por cursor com memória constante"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Movimentos em NDJSON",
+                    content = @Content(mediaType = MEDIA_TYPE_NDJSON)
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Conta não encontrada ou extrato desabilitado"
+            )
+    })
+    @GetMapping(value = "/{numeroConta}/extrato/stream", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> transmitirExtrato(
+            @Parameter(description = "Número da conta bancária", example = "12345", required = true)
+            @PathVariable String numeroConta,
+
+            @Parameter(description = "Início do período (inclusive)", example = "2024-01-01T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+
+            @Parameter(description = "Fim do período (exclusive)", example = "2024-02-01T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        // Valida antes de começar a resposta: depois do primeiro byte o status já não pode mudar para 404
+        extratoService.validarConsulta(numeroConta, de, ate);
+        StreamingResponseBody corpo = saida -> {
+            ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                extratoService.percorrerPeriodo(numeroConta, de, ate, movimento -> {
+                    try {
+                        escritor.writeValue(gerador, movimento);
+                        gerador.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(corpo);
+    }
+
+    @Operation(
+            summary = "Saldo da conta em um instante",
+            description = "Saldo logo após o último movimento até o instante informado"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Saldo recuperado com sucesso",
+                    content = @Content(schema = @Schema(implementation = SaldoEmInstante.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Conta não encontrada ou extrato desabilitado"
+            )
+    })
+    @GetMapping("/{numeroConta}/saldo")
+    public ResponseEntity<SaldoEmInstante> buscarSaldoEm(
+            @Parameter(description = "Número da conta bancária", example = "12345", required = true)
+            @PathVariable String numeroConta,
+
+            @Parameter(description = "Instante da consulta; o atual se ausente", example = "2024-01-31T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime instante) {
+        return ResponseEntity.ok(extratoService.buscarSaldoEm(numeroConta,
+                instante == null ? LocalDateTime.now() : instante));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.dto.ResultadoImportacao;
+import com.example.mini_bank_api.service.importacao.FormatoArquivo;
+import com.example.mini_bank_api.service.importacao.ImportacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/clientes")
+@RequiredArgsConstructor
+@Tag(name = "Importação", description = "Importação e exportação de contas em massa")
+public class ImportacaoController {
+
+    private final ImportacaoService importacaoService;
+
+    @Operation(
+            summary = "Importar contas",
+            description = "Lê o corpo em streaming (CSV com cabeçalho nome,numeroConta,agencia,saldo ou o formato " +
+                    "binário da exportação) e cadastra as contas em lotes. Linhas inválidas ou com número de conta " +
+                    "já existente são rejeitadas sem interromper a importação"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importação concluída; totais e primeiras linhas rejeitadas na resposta",
+                    content = @Content(schema = @Schema(implementation = ResultadoImportacao.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Arquivo corrompido ou em formato diferente do informado"
+            )
+    })
+    @PostMapping("/importacao")
+    public ResponseEntity<ResultadoImportacao> importar(
+            @Parameter(description = "Formato do arquivo", example = "CSV")
+            @RequestParam(defaultValue = "CSV") FormatoArquivo formato,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(importacaoService.importar(request.getInputStream(), formato));
+    }
+
+    @Operation(
+            summary = "Exportar contas",
+            description = "Escreve todas as contas, na ordem do id, no formato aceito pela importação, " +
+                    "lidas do banco por cursor com memória constante"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Arquivo com as contas"
+    )
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato do arquivo", example = "CSV")
+            @RequestParam(defaultValue = "CSV") FormatoArquivo formato) {
+        StreamingResponseBody corpo = saida -> importacaoService.exportar(saida, formato);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(formato.getNomeArquivo()).build().toString())
+                .body(corpo);
+    }
+}
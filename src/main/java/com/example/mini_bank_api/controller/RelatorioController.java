@@ -0,0 +1,39 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.dto.RelatorioAgencias;
+import com.example.mini_bank_api.service.ClienteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/relatorios")
+@RequiredArgsConstructor
+@Tag(name = "Relatórios", description = "Totais consolidados das contas")
+public class RelatorioController {
+
+    private final ClienteService clienteService;
+
+    @Operation(
+            summary = "Saldos por agência",
+            description = "Retorna, por agência, o número de contas, o saldo total e os saldos mínimo e máximo. " +
+                    "Mínimo e máximo são exatos em reconciliadoEm; entre uma reconciliação e outra podem " +
+                    "ficar mais afastados que os saldos atuais, nunca mais próximos"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Relatório recuperado com sucesso",
+            content = @Content(schema = @Schema(implementation = RelatorioAgencias.class))
+    )
+    @GetMapping("/agencias")
+    public ResponseEntity<RelatorioAgencias> agencias() {
+        return ResponseEntity.ok(clienteService.relatorioAgencias());
+    }
+}
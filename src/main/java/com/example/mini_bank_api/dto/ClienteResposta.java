@@ -0,0 +1,30 @@
+package com.example.mini_bank_api.dto;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+// Dados da conta devolvidos pela API, desacoplados da entidade.
+// As consultas montam o record direto na projeção, sem entidade gerenciada, e por ser imutável
+// o cache entrega a mesma instância a todas as leituras, sem cópia.
+@JsonSerialize(using = ClienteRespostaSerializer.class)
+public record ClienteResposta(Long id, String nome, String numeroConta, String agencia, BigDecimal saldo,
+                              Long versao) {
+
+    public static ClienteResposta de(Cliente cliente) {
+        return new ClienteResposta(cliente.getId(), cliente.getNome(), cliente.getNumeroConta(),
+                cliente.getAgencia(), cliente.getSaldo(), cliente.getVersao());
+    }
+
+    public ClienteResposta comSaldo(BigDecimal novoSaldo) {
+        return new ClienteResposta(id, nome, numeroConta, agencia, novoSaldo, versao);
+    }
+
+    // ETag da resposta, calculada sem serializar. Nome, número e agência não mudam depois do cadastro, então
+    // versão e saldo bastam; o saldo entra porque o ledger altera o saldo em memória sem mudar a versão.
+    // Fraca (W/) porque o mesmo estado pode ir ao cliente com ou sem compressão.
+    public String etag() {
+        return "W/\"" + id + "-" + versao + "-" + saldo + "\"";
+    }
+}
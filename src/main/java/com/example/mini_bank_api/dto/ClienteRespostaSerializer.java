@@ -0,0 +1,53 @@
+package com.example.mini_bank_api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Escreve os campos na ordem fixa, sem introspecção nem acessores por reflexão.
+// Os nomes dos campos são codificados uma vez (SerializedString guarda os bytes já entre aspas).
+// Mesmo JSON da entidade: nulos incluídos e saldo como número, conforme a configuração do ObjectMapper.
+public class ClienteRespostaSerializer extends StdSerializer<ClienteResposta> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NOME = new SerializedString("nome");
+    private static final SerializableString NUMERO_CONTA = new SerializedString("numeroConta");
+    private static final SerializableString AGENCIA = new SerializedString("agencia");
+    private static final SerializableString SALDO = new SerializedString("saldo");
+    private static final SerializableString VERSAO = new SerializedString("versao");
+
+    public ClienteRespostaSerializer() {
+        super(ClienteResposta.class);
+    }
+
+    @Override
+    public void serialize(ClienteResposta cliente, JsonGenerator gerador, SerializerProvider provider)
+            throws IOException {
+        gerador.writeStartObject(cliente);
+        gerador.writeFieldName(ID);
+        escreverNumero(gerador, cliente.id());
+        gerador.writeFieldName(NOME);
+        gerador.writeString(cliente.nome());
+        gerador.writeFieldName(NUMERO_CONTA);
+        gerador.writeString(cliente.numeroConta());
+        gerador.writeFieldName(AGENCIA);
+        gerador.writeString(cliente.agencia());
+        gerador.writeFieldName(SALDO);
+        gerador.writeNumber(cliente.saldo());
+        gerador.writeFieldName(VERSAO);
+        escreverNumero(gerador, cliente.versao());
+        gerador.writeEndObject();
+    }
+
+    private static void escreverNumero(JsonGenerator gerador, Long valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(valor);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.mini_bank_api.dto;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+
+// Corpo das respostas de erro do GlobalExceptionHandler: mesmos campos e ordem do mapa usado antes
+public record ErroResposta(LocalDateTime timestamp, int status, String error, String message) {
+
+    public static ErroResposta de(HttpStatus status, String message) {
+        return new ErroResposta(LocalDateTime.now(), status.value(), status.getReasonPhrase(), message);
+    }
+}
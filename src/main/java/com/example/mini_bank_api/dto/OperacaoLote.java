@@ -0,0 +1,31 @@
+package com.example.mini_bank_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class OperacaoLote {
+
+    public enum Tipo {
+        DEPOSITO,
+        SAQUE,
+        TRANSFERENCIA
+    }
+
+    private Tipo tipo;
+
+    // Conta do depósito ou do saque
+    private String numeroConta;
+
+    // Contas da transferência
+    private String contaOrigem;
+
+    private String contaDestino;
+
+    private BigDecimal valor;
+}
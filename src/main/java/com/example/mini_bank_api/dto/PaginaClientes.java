@@ -0,0 +1,18 @@
+package com.example.mini_bank_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class PaginaClientes {
+
+    private List<ClienteResposta> clientes;
+
+    // Id a ser usado como aposId na próxima página; null na última página
+    private Long proximoId;
+}
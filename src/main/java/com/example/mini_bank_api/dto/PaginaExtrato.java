@@ -0,0 +1,19 @@
+package com.example.mini_bank_api.dto;
+
+import com.example.mini_bank_api.entity.Movimento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class PaginaExtrato {
+
+    private List<Movimento> movimentos;
+
+    // Cursor a ser enviado na próxima página; null na última página
+    private String proximoCursor;
+}
@@ -0,0 +1,10 @@
+package com.example.mini_bank_api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// reconciliadoEm: última conferência completa contra a tabela (null antes da primeira)
+public record RelatorioAgencias(
+        LocalDateTime reconciliadoEm,
+        List<ResumoAgencia> agencias) {
+}
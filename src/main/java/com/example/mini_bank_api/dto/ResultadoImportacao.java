@@ -0,0 +1,21 @@
+package com.example.mini_bank_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ResultadoImportacao {
+
+    private long totalImportado;
+
+    private long totalRejeitado;
+
+    // Primeiras linhas rejeitadas (até mini-bank.importacao.maximo-erros-relatados); indice é a posição
+    // da conta no arquivo, a partir de 0 e sem contar o cabeçalho
+    private List<ResultadoItemLote> erros;
+}
@@ -0,0 +1,39 @@
+package com.example.mini_bank_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ResultadoItemLote {
+
+    public enum Status {
+        // Operação aplicada e confirmada
+        OK,
+        // Operação rejeitada (valor inválido, saldo insuficiente, conta inexistente...)
+        ERRO,
+        // Operação válida, mas desfeita porque outro item do lote tudo-ou-nada falhou
+        DESFEITO
+    }
+
+    private int indice;
+
+    private Status status;
+
+    private String mensagem;
+
+    // Saldo da conta (ou da conta de origem, na transferência) após a operação
+    private BigDecimal saldo;
+
+    public static ResultadoItemLote ok(int indice, BigDecimal saldo) {
+        return new ResultadoItemLote(indice, Status.OK, null, saldo);
+    }
+
+    public static ResultadoItemLote erro(int indice, String mensagem) {
+        return new ResultadoItemLote(indice, Status.ERRO, mensagem, null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.mini_bank_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ResultadoLote {
+
+    // false quando um lote tudo-ou-nada foi desfeito
+    private boolean confirmado;
+
+    private int totalOk;
+
+    private int totalErro;
+
+    private List<ResultadoItemLote> itens;
+}
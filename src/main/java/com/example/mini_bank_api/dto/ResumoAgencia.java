@@ -0,0 +1,12 @@
+package com.example.mini_bank_api.dto;
+
+import java.math.BigDecimal;
+
+// Contas e saldos de uma agência; agencia null reúne as contas sem agência
+public record ResumoAgencia(
+        String agencia,
+        long contas,
+        BigDecimal saldoTotal,
+        BigDecimal saldoMinimo,
+        BigDecimal saldoMaximo) {
+}
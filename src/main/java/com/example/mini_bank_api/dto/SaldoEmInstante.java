@@ -0,0 +1,23 @@
+package com.example.mini_bank_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class SaldoEmInstante {
+
+    private String numeroConta;
+
+    private LocalDateTime instante;
+
+    private BigDecimal saldo;
+
+    // Movimento que definiu o saldo; null se a conta não tinha movimentos até o instante
+    private Long movimentoId;
+}
@@ -0,0 +1,35 @@
+package com.example.mini_bank_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Resposta já enviada para uma Idempotency-Key (usada com mini-bank.idempotencia.persistir=true)
+@Entity
+// Limpeza das chaves vencidas pela data de criação (migração V6)
+@Table(name = "chaves_idempotencia",
+        indexes = @Index(name = "idx_chaves_idempotencia_criada_em", columnList = "criada_em"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChaveIdempotencia {
+
+    @Id
+    private String chave;
+
+    @Column(nullable = false)
+    private String assinatura;
+
+    @Column(nullable = false, length = 4000)
+    private String resposta;
+
+    @Column(nullable = false)
+    private LocalDateTime criadaEm;
+}
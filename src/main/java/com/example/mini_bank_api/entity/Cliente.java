@@ -1,5 +1,6 @@
 package com.example.mini_bank_api.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,20 +12,40 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @Data
 @Entity
-@Table(name = "clientes")
+@Table(name = "clientes",
+        uniqueConstraints = @UniqueConstraint(
+                name = Cliente.RESTRICAO_NUMERO_CONTA_UNICO, columnNames = "numero_conta"),
+        // Busca por agência paginada pelo id (migração V4)
+        indexes = @Index(name = "idx_clientes_agencia", columnList = "agencia, id"))
 public class Cliente {
+
+    // Mesmo nome da migração V1: a violação é reconhecida pelo nome nos dois perfis
+    public static final String RESTRICAO_NUMERO_CONTA_UNICO = "uk_clientes_numero_conta";
+
+    // Sequência com blocos de 50 ids (pooled-lo): o Hibernate só consulta a sequência uma vez por bloco
+    // e consegue agrupar os INSERTs em lotes JDBC, o que não acontece com IDENTITY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String nome;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String numeroConta;
 
     private String agencia;
 
     private BigDecimal saldo = BigDecimal.ZERO;
 
-}
\ No newline at end of file
+    // Controle de concorrência otimista
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long versao;
+
+    public Cliente(Long id, String nome, String numeroConta, String agencia, BigDecimal saldo) {
+        this(id, nome, numeroConta, agencia, saldo, null);
+    }
+
+}
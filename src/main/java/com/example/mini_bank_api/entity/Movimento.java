@@ -0,0 +1,51 @@
+package com.example.mini_bank_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Linha do extrato: uma por alteração de saldo, nunca alterada depois de gravada.
+// Dois índices, um em cada sentido: o H2 não percorre um índice de trás para frente, e o saldo em um
+// instante procura o último movimento até ele. Com os dois, o extrato e o saldo leem só as linhas
+// devolvidas, qualquer que seja o tamanho do histórico.
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "movimentos", indexes = {
+        @Index(name = "idx_movimentos_conta_data", columnList = "numero_conta, data_hora, id"),
+        @Index(name = "idx_movimentos_conta_data_desc", columnList = "numero_conta, data_hora desc, id desc")
+})
+public class Movimento {
+    // Ids em blocos, como em Cliente. O bloco é único na JVM: os ids continuam crescendo na ordem em que
+    // os movimentos são criados
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentos_seq")
+    @SequenceGenerator(name = "movimentos_seq", sequenceName = "movimentos_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String numeroConta;
+
+    @Column(nullable = false)
+    private LocalDateTime dataHora;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoMovimento tipo;
+
+    // Positivo para créditos, negativo para débitos
+    @Column(nullable = false)
+    private BigDecimal valor;
+
+    // Saldo da conta logo após o movimento: o saldo em um instante é o do último movimento até ele
+    @Column(nullable = false)
+    private BigDecimal saldoApos;
+
+    // Outra conta da transferência
+    private String contaContraparte;
+}
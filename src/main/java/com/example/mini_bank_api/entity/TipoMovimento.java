@@ -0,0 +1,14 @@
+package com.example.mini_bank_api.entity;
+
+public enum TipoMovimento {
+    // Saldo com que a conta foi cadastrada (ou que já tinha quando o extrato passou a ser registrado)
+    ABERTURA,
+    DEPOSITO,
+    SAQUE,
+    TRANSFERENCIA_ENVIADA,
+    TRANSFERENCIA_RECEBIDA,
+    // Devolução à origem de uma transferência entre nós do cluster que o destino não creditou
+    ESTORNO,
+    // Saldo corrigido na recuperação pelo journal
+    AJUSTE
+}
@@ -0,0 +1,42 @@
+package com.example.mini_bank_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Transferência para outro nó (modo cluster) já debitada na origem e ainda sem desfecho: gravada na mesma
+// transação do débito e apagada na do estorno, ou quando o destino confirma o crédito. Uma linha que
+// sobreviva a um reinício do nó é retomada pela reconciliação, que pergunta ao destino e estorna se preciso.
+@Entity
+@Table(name = "transferencias_enviadas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaEnviada {
+
+    @Id
+    private String id;
+
+    // Nó dono da conta de destino quando a transferência começou
+    @Column(nullable = false)
+    private String noDestino;
+
+    @Column(nullable = false)
+    private String contaOrigem;
+
+    @Column(nullable = false)
+    private String contaDestino;
+
+    @Column(nullable = false)
+    private BigDecimal valor;
+
+    @Column(nullable = false)
+    private LocalDateTime criadaEm;
+}
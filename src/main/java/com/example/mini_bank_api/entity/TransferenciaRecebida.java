@@ -0,0 +1,35 @@
+package com.example.mini_bank_api.entity;
+
+import com.example.mini_bank_api.service.cluster.EstadoTransferencia;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Decisão do nó de destino sobre uma transferência vinda de outro nó (modo cluster), pelo id gerado na origem.
+// Gravada na mesma transação do crédito, e nunca apagada: um cancelamento que chegue depois de um reinício
+// ainda encontra o crédito, como o extrato encontra os movimentos.
+@Entity
+@Table(name = "transferencias_recebidas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaRecebida {
+
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoTransferencia estado;
+
+    @Column(nullable = false)
+    private LocalDateTime decididaEm;
+}
@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class ChaveIdempotenciaReutilizadaException extends NegocioException {
+    public ChaveIdempotenciaReutilizadaException(String message) {
+        super(message);
+    }
+}
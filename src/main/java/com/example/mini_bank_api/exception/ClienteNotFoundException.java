@@ -1,6 +1,6 @@
 package com.example.mini_bank_api.exception;
 
-public class ClienteNotFoundException extends RuntimeException {
+public class ClienteNotFoundException extends NegocioException {
     public ClienteNotFoundException(String message) {
         super(message);
     }
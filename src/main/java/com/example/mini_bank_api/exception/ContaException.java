@@ -1,6 +1,6 @@
 package com.example.mini_bank_api.exception;
 
-public class ContaException extends RuntimeException {
+public class ContaException extends NegocioException {
     public ContaException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class ContaSobrecarregadaException extends NegocioException {
+    public ContaSobrecarregadaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.mini_bank_api.exception;
+
+import com.example.mini_bank_api.dto.ErroResposta;
+import lombok.Getter;
+import org.springframework.http.HttpStatusCode;
+
+// Erro devolvido por outro nó do cluster: repassado ao cliente com o mesmo status e corpo
+@Getter
+public class ErroRemotoException extends NegocioException {
+
+    private final HttpStatusCode status;
+
+    private final ErroResposta erro;
+
+    public ErroRemotoException(HttpStatusCode status, ErroResposta erro) {
+        super(erro.message());
+        this.status = status;
+        this.erro = erro;
+    }
+
+    // 4xx: o outro nó recusou a operação e nada foi aplicado lá. 409 é uma requisição ainda em andamento.
+    public boolean isRecusa() {
+        return status.is4xxClientError() && status.value() != 409;
+    }
+}
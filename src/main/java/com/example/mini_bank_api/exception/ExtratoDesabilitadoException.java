@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class ExtratoDesabilitadoException extends NegocioException {
+    public ExtratoDesabilitadoException(String message) {
+        super(message);
+    }
+}
@@ -1,44 +1,116 @@
 package com.example.mini_bank_api.exception;
 
+import com.example.mini_bank_api.dto.ErroResposta;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(ClienteNotFoundException.class)
-    public ResponseEntity<Object> handleClienteNotFound(ClienteNotFoundException ex) {
+    public ResponseEntity<ErroResposta> handleClienteNotFound(ClienteNotFoundException ex) {
+        return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    // Sem mini-bank.extrato.habilitado os movimentos não são gravados
+    @ExceptionHandler(ExtratoDesabilitadoException.class)
+    public ResponseEntity<ErroResposta> handleExtratoDesabilitado(ExtratoDesabilitadoException ex) {
         return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(SaldoInsuficienteException.class)
-    public ResponseEntity<Object> handleSaldoInsuficienteException(SaldoInsuficienteException ex) {
+    public ResponseEntity<ErroResposta> handleSaldoInsuficienteException(SaldoInsuficienteException ex) {
         return createErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(ContaException.class)
-    public ResponseEntity<Object> handleContaException(ContaException ex) {
+    public ResponseEntity<ErroResposta> handleContaException(ContaException ex) {
         return createErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(ValorInvalidoException.class)
-    public ResponseEntity<Object> handleValorInvalidoException(ValorInvalidoException ex) {
+    public ResponseEntity<ErroResposta> handleValorInvalidoException(ValorInvalidoException ex) {
         return createErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
-    private ResponseEntity<Object> createErrorResponse(HttpStatus status, String message) {
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErroResposta> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return createErrorResponse(HttpStatus.CONFLICT, "Conta alterada concorrentemente, tente novamente");
+    }
+
+    @ExceptionHandler(ChaveIdempotenciaReutilizadaException.class)
+    public ResponseEntity<ErroResposta> handleChaveIdempotenciaReutilizada(ChaveIdempotenciaReutilizadaException ex) {
+        return createErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    @ExceptionHandler(RequisicaoEmAndamentoException.class)
+    public ResponseEntity<ErroResposta> handleRequisicaoEmAndamento(RequisicaoEmAndamentoException ex) {
+        return createErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Fila da conta cheia (modo filas por conta)
+    @ExceptionHandler(ContaSobrecarregadaException.class)
+    public ResponseEntity<ErroResposta> handleContaSobrecarregada(ContaSobrecarregadaException ex) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    // Crédito de uma transferência entre nós que a origem já desfez
+    @ExceptionHandler(TransferenciaCanceladaException.class)
+    public ResponseEntity<ErroResposta> handleTransferenciaCancelada(TransferenciaCanceladaException ex) {
+        return createErrorResponse(HttpStatus.GONE, ex.getMessage());
+    }
+
+    // Modo cluster: a resposta de erro do nó dono da conta chega ao cliente sem alteração
+    @ExceptionHandler(ErroRemotoException.class)
+    public ResponseEntity<ErroResposta> handleErroRemoto(ErroRemotoException ex) {
+        return new ResponseEntity<>(ex.getErro(), ex.getStatus());
+    }
+
+    @ExceptionHandler(NoIndisponivelException.class)
+    public ResponseEntity<ErroResposta> handleNoIndisponivel(NoIndisponivelException ex) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    // Modo cluster: chamada às rotas /api/interno sem o segredo compartilhado dos nós
+    @ExceptionHandler(NoNaoAutorizadoException.class)
+    public ResponseEntity<ErroResposta> handleNoNaoAutorizado(NoNaoAutorizadoException ex) {
+        return createErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage());
+    }
+
+    // Nós com listas de nós diferentes (durante uma troca de configuração): o cliente pode repetir
+    @ExceptionHandler(ParticaoIncorretaException.class)
+    public ResponseEntity<ErroResposta> handleParticaoIncorreta(ParticaoIncorretaException ex) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    // Controle de admissão: limite global de requisições simultâneas atingido
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<ErroResposta> handleServicoSobrecarregado(ServicoSobrecarregadoException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErroResposta.de(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    // Controle de admissão: conta acima da sua taxa de operações
+    @ExceptionHandler(LimiteContaExcedidoException.class)
+    public ResponseEntity<ErroResposta> handleLimiteContaExcedido(LimiteContaExcedidoException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getEsperaSegundos()))
+                .body(ErroResposta.de(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    // Nenhuma conexão livre no pool dentro do connection-timeout
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErroResposta> handleCannotCreateTransaction(CannotCreateTransactionException ex) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Serviço sobrecarregado, tente novamente");
+    }
 
-        return new ResponseEntity<>(body, status);
+    private ResponseEntity<ErroResposta> createErrorResponse(HttpStatus status, String message) {
+        return new ResponseEntity<>(ErroResposta.de(status, message), status);
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.mini_bank_api.exception;
+
+import lombok.Getter;
+
+// Conta acima da taxa de operações permitida; esperaSegundos vai no cabeçalho Retry-After
+@Getter
+public class LimiteContaExcedidoException extends NegocioException {
+
+    private final long esperaSegundos;
+
+    public LimiteContaExcedidoException(String message, long esperaSegundos) {
+        super(message);
+        this.esperaSegundos = esperaSegundos;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.mini_bank_api.exception;
+
+// Recusa prevista pelas regras do banco (saldo insuficiente, conta inexistente, valor inválido...), não um defeito.
+// Essas exceções são muito frequentes e viram uma resposta só com a mensagem, então não preenchem a pilha de
+// chamadas (o custo cresce com a profundidade da chamada) nem guardam exceções suprimidas.
+public abstract class NegocioException extends RuntimeException {
+
+    protected NegocioException(String message) {
+        super(message, null, false, false);
+    }
+}
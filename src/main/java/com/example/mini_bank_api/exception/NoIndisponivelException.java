@@ -0,0 +1,12 @@
+package com.example.mini_bank_api.exception;
+
+// Outro nó do cluster não respondeu (conexão recusada, tempo esgotado): a causa fica para o log
+public class NoIndisponivelException extends RuntimeException {
+    public NoIndisponivelException(String message) {
+        super(message);
+    }
+
+    public NoIndisponivelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class NoNaoAutorizadoException extends NegocioException {
+    public NoNaoAutorizadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class ParticaoIncorretaException extends NegocioException {
+    public ParticaoIncorretaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class RequisicaoEmAndamentoException extends NegocioException {
+    public RequisicaoEmAndamentoException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.mini_bank_api.exception;
 
-public class SaldoInsuficienteException extends RuntimeException {
+public class SaldoInsuficienteException extends NegocioException {
     public SaldoInsuficienteException(String message) {
         super(message);
     }
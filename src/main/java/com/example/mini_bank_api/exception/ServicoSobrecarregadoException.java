@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class ServicoSobrecarregadoException extends NegocioException {
+    public ServicoSobrecarregadoException(String message) {
+        super(message);
+    }
+}
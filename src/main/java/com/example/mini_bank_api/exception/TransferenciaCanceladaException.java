@@ -0,0 +1,7 @@
+package com.example.mini_bank_api.exception;
+
+public class TransferenciaCanceladaException extends NegocioException {
+    public TransferenciaCanceladaException(String message) {
+        super(message);
+    }
+}
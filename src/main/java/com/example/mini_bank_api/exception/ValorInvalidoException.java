@@ -1,6 +1,6 @@
 package com.example.mini_bank_api.exception;
 
-public class ValorInvalidoException extends RuntimeException {
+public class ValorInvalidoException extends NegocioException {
     public ValorInvalidoException(String message) {
         super(message);
     }
@@ -0,0 +1,36 @@
+package com.example.mini_bank_api.repository;
+
+import com.example.mini_bank_api.entity.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    // INSERT puro, nunca o merge do save: com a chave já gravada por outra instância a chave primária recusa,
+    // em vez de o merge sobrescrever a resposta dela e a operação ser aplicada duas vezes
+    @Modifying
+    @Query(value = "insert into chaves_idempotencia (chave, assinatura, resposta, criada_em) "
+            + "values (:chave, :assinatura, :resposta, :criadaEm)", nativeQuery = true)
+    void inserir(@Param("chave") String chave, @Param("assinatura") String assinatura,
+                 @Param("resposta") String resposta, @Param("criadaEm") LocalDateTime criadaEm);
+
+    @Modifying
+    @Query("update ChaveIdempotencia c set c.resposta = :resposta where c.chave = :chave")
+    int gravarResposta(@Param("chave") String chave, @Param("resposta") String resposta);
+
+    // Chave vencida que a limpeza ainda não apagou: não impede uma nova execução com a mesma chave
+    @Modifying
+    @Query("delete from ChaveIdempotencia c where c.chave = :chave and c.criadaEm < :limite")
+    int apagarVencida(@Param("chave") String chave, @Param("limite") LocalDateTime limite);
+
+    // Usa o índice de criada_em (migração V6)
+    @Modifying
+    @Query("delete from ChaveIdempotencia c where c.criadaEm < :limite")
+    int apagarCriadasAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -1,13 +1,87 @@
 package com.example.mini_bank_api.repository;
 
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.ResumoAgencia;
 import com.example.mini_bank_api.entity.Cliente;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteRespostaRepository {
+
+    // Projeção das leituras da API: só as colunas, sem entidade no contexto de persistência nem snapshot
+    String SELECT_RESPOSTA = "select new com.example.mini_bank_api.dto.ClienteResposta("
+            + "c.id, c.nome, c.numeroConta, c.agencia, c.saldo, c.versao) from Cliente c ";
+
     Optional<Cliente> findByNumeroConta(String numeroConta);
     boolean existsByNumeroConta(String numeroConta);
+
+    // Só o número da conta, sem carregar a entidade no contexto de persistência
+    @Query("select c.numeroConta from Cliente c where c.id = :id")
+    Optional<String> findNumeroContaById(@Param("id") Long id);
+
+    // Quais destes números de conta já existem: uma consulta por lote da importação
+    @Query("select c.numeroConta from Cliente c where c.numeroConta in :numerosConta")
+    List<String> findNumerosContaExistentes(@Param("numerosConta") Collection<String> numerosConta);
+
+    // Cursor sobre a tabela inteira, na ordem do id; deve ser consumido dentro de uma transação
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_RESPOSTA + "order by c.id")
+    Stream<ClienteResposta> streamRespostas();
+
+    // Só os números de conta, por cursor: reconstrução do filtro de contas na subida
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.numeroConta from Cliente c")
+    Stream<String> streamNumerosConta();
+
+    // SELECT ... FOR UPDATE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cliente c where c.numeroConta = :numeroConta")
+    Optional<Cliente> findByNumeroContaForUpdate(@Param("numeroConta") String numeroConta);
+
+    // Contas de uma transferência, sempre na ordem do id
+    @Query("select c from Cliente c where c.numeroConta in :numerosConta order by c.id")
+    List<Cliente> findAllByNumeroContaIn(@Param("numerosConta") Collection<String> numerosConta);
+
+    // Mesma busca com SELECT ... FOR UPDATE: os bloqueios são adquiridos na ordem do id
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cliente c where c.numeroConta in :numerosConta order by c.id")
+    List<Cliente> findAllByNumeroContaInForUpdate(@Param("numerosConta") Collection<String> numerosConta);
+
+    // Agrupamento da tabela inteira: o relatório por agência sem os agregados e a reconciliação deles
+    String SELECT_RESUMO_AGENCIA = "select new com.example.mini_bank_api.dto.ResumoAgencia("
+            + "c.agencia, count(c), sum(c.saldo), min(c.saldo), max(c.saldo)) from Cliente c ";
+
+    @Query(SELECT_RESUMO_AGENCIA + "group by c.agencia order by c.agencia")
+    List<ResumoAgencia> resumirPorAgencia();
+
+    // Uma agência pelo índice (agencia, id)
+    @Query(SELECT_RESUMO_AGENCIA + "where c.agencia = :agencia group by c.agencia")
+    Optional<ResumoAgencia> resumirAgencia(@Param("agencia") String agencia);
+
+    // Crédito atômico no banco
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cliente c set c.saldo = c.saldo + :valor, c.versao = c.versao + 1 " +
+            "where c.numeroConta = :numeroConta")
+    int creditarSaldo(@Param("numeroConta") String numeroConta, @Param("valor") BigDecimal valor);
+
+    // Débito atômico no banco, só aplicado se houver saldo suficiente
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cliente c set c.saldo = c.saldo - :valor, c.versao = c.versao + 1 " +
+            "where c.numeroConta = :numeroConta and c.saldo >= :valor")
+    int debitarSaldo(@Param("numeroConta") String numeroConta, @Param("valor") BigDecimal valor);
 }
@@ -0,0 +1,24 @@
+package com.example.mini_bank_api.repository;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Leituras da API pela projeção ClienteResposta, feitas direto no EntityManager (ClienteRespostaRepositoryImpl)
+public interface ClienteRespostaRepository {
+
+    Optional<ClienteResposta> findRespostaByNumeroConta(String numeroConta);
+
+    Optional<ClienteResposta> findRespostaById(Long id);
+
+    // Paginação por chave (seek): WHERE id > ? ORDER BY id LIMIT ?
+    List<ClienteResposta> findRespostasAposId(Long id, int limite);
+
+    // A mesma paginação restrita a uma agência, pelo índice (agencia, id)
+    List<ClienteResposta> findRespostasPorAgenciaAposId(String agencia, Long id, int limite);
+
+    // Clientes pelos ids, em ordem de id; com agencia não nula, só os dessa agência
+    List<ClienteResposta> findRespostasPorIds(Collection<Long> ids, String agencia);
+}
@@ -0,0 +1,86 @@
+package com.example.mini_bank_api.repository;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// O @Query do Spring Data prepara a consulta de novo a cada chamada (e com Limit ainda reescreve o JPQL).
+// Aqui o JPQL é fixo: o Hibernate reaproveita a consulta já interpretada e o limite vira só setMaxResults.
+class ClienteRespostaRepositoryImpl implements ClienteRespostaRepository {
+
+    private static final String POR_NUMERO_CONTA = ClienteRepository.SELECT_RESPOSTA
+            + "where c.numeroConta = :numeroConta";
+
+    private static final String POR_ID = ClienteRepository.SELECT_RESPOSTA + "where c.id = :id";
+
+    private static final String APOS_ID = ClienteRepository.SELECT_RESPOSTA + "where c.id > :id order by c.id";
+
+    // A agência na ordenação não muda o resultado (é a mesma em todas as linhas), mas sem ela o H2 lê todas as
+    // contas da agência pelo índice e as ordena, em vez de parar nas primeiras do índice (agencia, id)
+    private static final String POR_AGENCIA_APOS_ID = ClienteRepository.SELECT_RESPOSTA
+            + "where c.agencia = :agencia and c.id > :id order by c.agencia, c.id";
+
+    private static final String POR_IDS = ClienteRepository.SELECT_RESPOSTA + "where c.id in :ids order by c.id";
+
+    private static final String POR_IDS_E_AGENCIA = ClienteRepository.SELECT_RESPOSTA
+            + "where c.id in :ids and c.agencia = :agencia order by c.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ClienteResposta> findRespostaByNumeroConta(String numeroConta) {
+        return primeiro(entityManager.createQuery(POR_NUMERO_CONTA, ClienteResposta.class)
+                .setParameter("numeroConta", numeroConta)
+                .getResultList());
+    }
+
+    @Override
+    public Optional<ClienteResposta> findRespostaById(Long id) {
+        return primeiro(entityManager.createQuery(POR_ID, ClienteResposta.class)
+                .setParameter("id", id)
+                .getResultList());
+    }
+
+    @Override
+    public List<ClienteResposta> findRespostasAposId(Long id, int limite) {
+        return entityManager.createQuery(APOS_ID, ClienteResposta.class)
+                .setParameter("id", id)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<ClienteResposta> findRespostasPorAgenciaAposId(String agencia, Long id, int limite) {
+        return entityManager.createQuery(POR_AGENCIA_APOS_ID, ClienteResposta.class)
+                .setParameter("agencia", agencia)
+                .setParameter("id", id)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<ClienteResposta> findRespostasPorIds(Collection<Long> ids, String agencia) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (agencia == null) {
+            return entityManager.createQuery(POR_IDS, ClienteResposta.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+        }
+        return entityManager.createQuery(POR_IDS_E_AGENCIA, ClienteResposta.class)
+                .setParameter("ids", ids)
+                .setParameter("agencia", agencia)
+                .getResultList();
+    }
+
+    // Consultas por chave única: no máximo uma linha
+    private static Optional<ClienteResposta> primeiro(List<ClienteResposta> resultado) {
+        return resultado.isEmpty() ? Optional.empty() : Optional.of(resultado.get(0));
+    }
+}
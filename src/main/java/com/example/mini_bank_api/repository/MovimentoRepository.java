@@ -0,0 +1,47 @@
+package com.example.mini_bank_api.repository;
+
+import com.example.mini_bank_api.entity.Movimento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface MovimentoRepository extends JpaRepository<Movimento, Long> {
+
+    // Paginação por chave composta (data/hora, id): a página seguinte começa logo após o último movimento lido.
+    // A conta também vai no ORDER BY: assim a ordem é a do índice e o H2 para ao completar a página.
+    @Query("select m from Movimento m where m.numeroConta = :numeroConta " +
+            "and m.dataHora >= :aposDataHora and m.dataHora < :ate " +
+            "and (m.dataHora > :aposDataHora or m.id > :aposId) " +
+            "order by m.numeroConta, m.dataHora, m.id")
+    List<Movimento> buscarPagina(@Param("numeroConta") String numeroConta,
+                                 @Param("aposDataHora") LocalDateTime aposDataHora,
+                                 @Param("aposId") Long aposId,
+                                 @Param("ate") LocalDateTime ate,
+                                 Limit limit);
+
+    // Cursor somente leitura sobre o período; deve ser consumido dentro de uma transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select m from Movimento m where m.numeroConta = :numeroConta " +
+            "and m.dataHora >= :de and m.dataHora < :ate order by m.numeroConta, m.dataHora, m.id")
+    Stream<Movimento> streamPeriodo(@Param("numeroConta") String numeroConta,
+                                    @Param("de") LocalDateTime de,
+                                    @Param("ate") LocalDateTime ate);
+
+    // Último movimento até o instante, pelo índice decrescente: uma única linha lida
+    Optional<Movimento> findFirstByNumeroContaAndDataHoraLessThanEqualOrderByNumeroContaAscDataHoraDescIdDesc(
+            String numeroConta, LocalDateTime instante);
+}
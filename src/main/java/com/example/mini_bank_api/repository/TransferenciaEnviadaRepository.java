@@ -0,0 +1,29 @@
+package com.example.mini_bank_api.repository;
+
+import com.example.mini_bank_api.entity.TransferenciaEnviada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface TransferenciaEnviadaRepository extends JpaRepository<TransferenciaEnviada, String> {
+
+    // INSERT puro: o id é novo, o merge do save só acrescentaria um SELECT
+    @Modifying
+    @Query(value = "insert into transferencias_enviadas "
+            + "(id, no_destino, conta_origem, conta_destino, valor, criada_em) "
+            + "values (:id, :noDestino, :contaOrigem, :contaDestino, :valor, :criadaEm)", nativeQuery = true)
+    void inserir(@Param("id") String id, @Param("noDestino") String noDestino,
+                 @Param("contaOrigem") String contaOrigem, @Param("contaDestino") String contaDestino,
+                 @Param("valor") BigDecimal valor, @Param("criadaEm") LocalDateTime criadaEm);
+
+    // 0 quando outra thread já encerrou a transferência: quem apaga a linha é quem estorna
+    @Modifying
+    @Query(value = "delete from transferencias_enviadas where id = :id", nativeQuery = true)
+    int apagar(@Param("id") String id);
+}
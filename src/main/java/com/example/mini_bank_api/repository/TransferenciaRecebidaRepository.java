@@ -0,0 +1,22 @@
+package com.example.mini_bank_api.repository;
+
+import com.example.mini_bank_api.entity.TransferenciaRecebida;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TransferenciaRecebidaRepository extends JpaRepository<TransferenciaRecebida, String> {
+
+    // INSERT puro, nunca o merge do save: com o id já gravado por outra chamada a chave primária recusa,
+    // em vez de sobrescrever a decisão dela
+    @Modifying
+    @Query(value = "insert into transferencias_recebidas (id, estado, decidida_em) values (:id, :estado, :decididaEm)",
+            nativeQuery = true)
+    void inserir(@Param("id") String id, @Param("estado") String estado,
+                 @Param("decididaEm") LocalDateTime decididaEm);
+}
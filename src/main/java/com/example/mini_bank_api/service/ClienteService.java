@@ -1,86 +1,368 @@
 package com.example.mini_bank_api.service;
 
 
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.PaginaClientes;
+import com.example.mini_bank_api.dto.RelatorioAgencias;
 import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
 import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.ContaException;
 import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.busca.IndiceNomes;
+import com.example.mini_bank_api.service.cache.CacheClientes;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.fila.FilasContas;
+import com.example.mini_bank_api.service.filtro.FiltroContas;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import com.example.mini_bank_api.util.Centavos;
 import com.example.mini_bank_api.validation.ClienteValidation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ClienteService {
 
+    public static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
     private final ClienteRepository clienteRepository;
 
     private final ClienteValidation clienteValidation;
 
-    // Cadastrar cliente
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    private final TransferenciaService transferenciaService;
+
+    private final LedgerSaldos ledgerSaldos;
+
+    private final CacheClientes cacheClientes;
+
+    private final FilasContas filasContas;
+
+    private final RegistroMovimentos registroMovimentos;
+
+    private final FiltroContas filtroContas;
+
+    private final IndiceNomes indiceNomes;
+
+    private final AgregadosAgencias agregadosAgencias;
+
+    // Cadastrar cliente: um único INSERT, sem consultar antes se o número existe.
+    // A unicidade fica com o índice único, que também resolve dois cadastros simultâneos do mesmo número.
     public Cliente cadastrarCliente(Cliente cliente) {
-        clienteValidation.validarNumeroContaUnico(
-                clienteRepository.existsByNumeroConta(cliente.getNumeroConta())
-        );
+        Cliente salvo;
+        try {
+            salvo = clienteRepository.saveAndFlush(cliente);
+        } catch (DataIntegrityViolationException ex) {
+            clienteValidation.validarNumeroContaUnico(clienteValidation.violouNumeroContaUnico(ex));
+            throw ex;
+        }
+        filtroContas.adicionar(salvo.getNumeroConta());
+        indiceNomes.adicionar(salvo.getId(), salvo.getNome(), salvo.getAgencia());
+        BigDecimal saldoInicial = salvo.getSaldo() == null ? BigDecimal.ZERO : salvo.getSaldo();
+        registroMovimentos.registrar(salvo.getNumeroConta(), TipoMovimento.ABERTURA, saldoInicial, saldoInicial);
+        // A coluna guarda 2 casas: o saldo de abertura entra nos agregados como o banco vai gravá-lo
+        agregadosAgencias.registrarConta(salvo.getAgencia(),
+                Centavos.deValor(saldoInicial.setScale(Centavos.ESCALA, RoundingMode.HALF_UP)));
+        cacheClientes.invalidarAposCommit(salvo.getNumeroConta());
+        return salvo;
+    }
 
-        return clienteRepository.save(cliente);
+    // Buscar uma página de clientes, a partir do id informado (paginação por chave)
+    @Transactional(readOnly = true)
+    public PaginaClientes buscarPagina(Long aposId, int tamanho) {
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        List<ClienteResposta> clientes = clienteRepository.findRespostasAposId(
+                aposId == null ? 0L : aposId, tamanhoPagina);
+        if (ledgerSaldos.isHabilitado()) {
+            clientes = clientes.stream().map(ledgerSaldos::aplicarSaldoEmMemoria).toList();
+        }
+        Long proximoId = clientes.size() < tamanhoPagina ? null : clientes.get(clientes.size() - 1).id();
+        return new PaginaClientes(clientes, proximoId);
     }
 
-    // Buscar todos os clientes
+    // Buscar clientes por palavras do nome (trecho de alguma palavra, sem acentos) e/ou agência, em ordem de id.
+    // Só a agência: uma página direto do índice (agencia, id). Com nome: ids candidatos do índice de nomes,
+    // já restritos à agência, carregados pela chave primária e conferidos, até completar a página.
+    // Sem o índice pronto, a tabela é percorrida em páginas pelo id, com a mesma conferência.
     @Transactional(readOnly = true)
-    public List<Cliente> buscarTodos() {
-        return clienteRepository.findAll();
+    public PaginaClientes buscar(String nome, String agencia, Long aposId, int tamanho) {
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        List<String> termos = IndiceNomes.palavras(nome);
+        String agenciaBusca = agencia == null || agencia.isBlank() ? null : agencia.trim();
+        if (termos.isEmpty() && agenciaBusca == null) {
+            throw new ContaException("Informe o nome ou a agência para a busca");
+        }
+        long cursor = aposId == null ? 0L : aposId;
+
+        List<ClienteResposta> clientes;
+        if (termos.isEmpty()) {
+            clientes = clienteRepository.findRespostasPorAgenciaAposId(agenciaBusca, cursor, tamanhoPagina);
+        } else {
+            clientes = new ArrayList<>(tamanhoPagina);
+            boolean usarIndice = indiceNomes.isPronto();
+            int tamanhoLote = usarIndice ? tamanhoPagina : TAMANHO_MAXIMO_PAGINA;
+            boolean fim = false;
+            while (clientes.size() < tamanhoPagina && !fim) {
+                List<ClienteResposta> lote;
+                if (usarIndice) {
+                    long[] ids = indiceNomes.candidatos(termos, agenciaBusca, cursor, tamanhoLote);
+                    fim = ids.length < tamanhoLote;
+                    if (ids.length == 0) {
+                        break;
+                    }
+                    cursor = ids[ids.length - 1];
+                    lote = clienteRepository.findRespostasPorIds(
+                            LongStream.of(ids).boxed().toList(), agenciaBusca);
+                } else {
+                    lote = agenciaBusca == null
+                            ? clienteRepository.findRespostasAposId(cursor, tamanhoLote)
+                            : clienteRepository.findRespostasPorAgenciaAposId(agenciaBusca, cursor, tamanhoLote);
+                    fim = lote.size() < tamanhoLote;
+                    if (!lote.isEmpty()) {
+                        cursor = lote.get(lote.size() - 1).id();
+                    }
+                }
+                for (ClienteResposta cliente : lote) {
+                    if (IndiceNomes.corresponde(cliente.nome(), termos)) {
+                        clientes.add(cliente);
+                        if (clientes.size() == tamanhoPagina) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        if (ledgerSaldos.isHabilitado()) {
+            clientes = clientes.stream().map(ledgerSaldos::aplicarSaldoEmMemoria).toList();
+        }
+        Long proximoId = clientes.size() < tamanhoPagina ? null : clientes.get(clientes.size() - 1).id();
+        return new PaginaClientes(clientes, proximoId);
     }
 
-    // Buscar por ID
+    // Percorre todos os clientes com memória constante: a projeção não deixa entidades no contexto
     @Transactional(readOnly = true)
-    public Cliente buscarPorId(Long id) {
-        return clienteRepository.findById(id)
+    public long percorrerTodos(Consumer<ClienteResposta> consumidor) {
+        long total = 0;
+        try (Stream<ClienteResposta> clientes = clienteRepository.streamRespostas()) {
+            Iterator<ClienteResposta> iterator = clientes.iterator();
+            while (iterator.hasNext()) {
+                ClienteResposta cliente = iterator.next();
+                consumidor.accept(ledgerSaldos.isHabilitado() ? ledgerSaldos.aplicarSaldoEmMemoria(cliente) : cliente);
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // Buscar por ID. As buscas não abrem transação própria: um acerto no cache não ocupa conexão do pool,
+    // e a consulta de uma falta é uma leitura só.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ClienteResposta buscarPorId(Long id) {
+        if (usarCache()) {
+            String numeroConta = cacheClientes.buscarNumeroContaPorId(id,
+                    chave -> clienteRepository.findNumeroContaById(chave).orElse(null));
+            if (numeroConta == null) {
+                throw new ClienteNotFoundException("Cliente não encontrado");
+            }
+            return cacheClientes.buscarPorNumeroConta(numeroConta, this::carregarResposta);
+        }
+        ClienteResposta cliente = clienteRepository.findRespostaById(id)
                 .orElseThrow(() -> new ClienteNotFoundException("Cliente não encontrado"));
+        if (ledgerSaldos.isHabilitado()) {
+            return ledgerSaldos.aplicarSaldoEmMemoria(cliente);
+        }
+        return cliente;
     }
 
     // Buscar por número da conta
-    @Transactional(readOnly = true)
-    public Cliente buscarPorNumeroConta(String numeroConta) {
-        return clienteRepository.findByNumeroConta(numeroConta)
-                .orElseThrow(() -> new ClienteNotFoundException("Conta não encontrada"));
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ClienteResposta buscarPorNumeroConta(String numeroConta) {
+        if (ledgerSaldos.isHabilitado()) {
+            return ledgerSaldos.buscar(numeroConta);
+        }
+        if (usarCache()) {
+            return cacheClientes.buscarPorNumeroConta(numeroConta, this::carregarResposta);
+        }
+        if (cacheClientes.isCoalescerLeituras()) {
+            return cacheClientes.carregarCompartilhado(numeroConta, this::carregarResposta);
+        }
+        return carregarResposta(numeroConta);
+    }
+
+    // Contas e saldos por agência: dos agregados em memória, sem tocar no banco, ou agrupando a tabela
+    // inteira quando os agregados estão desligados. No modo cluster, só as contas deste nó.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public RelatorioAgencias relatorioAgencias() {
+        if (agregadosAgencias.isHabilitado()) {
+            return agregadosAgencias.relatorio();
+        }
+        return new RelatorioAgencias(LocalDateTime.now(), clienteRepository.resumirPorAgencia());
     }
 
     // Depositar
     public Cliente depositar(String numeroConta, BigDecimal valor) {
+        return creditar(numeroConta, valor, TipoMovimento.DEPOSITO, null, "Conta não encontrada");
+    }
+
+    // Sacar
+    public Cliente sacar(String numeroConta, BigDecimal valor) {
+        return debitar(numeroConta, valor, TipoMovimento.SAQUE, null, "Conta não encontrada");
+    }
+
+    // Transferência entre nós do cluster: a metade da origem, confirmada antes de pedir o crédito ao outro nó
+    public Cliente debitarTransferencia(String contaOrigem, String contaDestino, BigDecimal valor) {
+        return debitar(contaOrigem, valor, TipoMovimento.TRANSFERENCIA_ENVIADA, contaDestino,
+                "Conta de origem não encontrada");
+    }
+
+    // A metade do destino, executada no nó dono da conta de destino
+    public Cliente creditarTransferencia(String contaDestino, String contaOrigem, BigDecimal valor) {
+        return creditar(contaDestino, valor, TipoMovimento.TRANSFERENCIA_RECEBIDA, contaOrigem,
+                "Conta de destino não encontrada");
+    }
+
+    // Compensação: devolve à origem o valor de uma transferência que o destino não creditou
+    public Cliente estornarTransferencia(String contaOrigem, String contaDestino, BigDecimal valor) {
+        return creditar(contaOrigem, valor, TipoMovimento.ESTORNO, contaDestino, "Conta de origem não encontrada");
+    }
+
+    // Depósito pela fila da conta: sem transação aqui, a thread que chama não segura uma conexão enquanto espera
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Cliente> depositarAssincrono(String numeroConta, BigDecimal valor) {
+        clienteValidation.validarValorPositivo(valor);
+        return filasContas.depositar(numeroConta, valor);
+    }
+
+    // Saque pela fila da conta
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Cliente> sacarAssincrono(String numeroConta, BigDecimal valor) {
+        clienteValidation.validarValorPositivo(valor);
+        return filasContas.sacar(numeroConta, valor);
+    }
+
+    // Transferir
+    public void transferir(String contaOrigem, String contaDestino, BigDecimal valor) {
+        transferenciaService.transferir(contaOrigem, contaDestino, valor);
+        cacheClientes.invalidarAposCommit(contaOrigem, contaDestino);
+    }
+
+    // Crédito conforme a estratégia de concorrência; contraparte é a outra conta do movimento, se houver
+    private Cliente creditar(String numeroConta, BigDecimal valor, TipoMovimento tipo, String contraparte,
+                             String mensagemNaoEncontrada) {
         clienteValidation.validarValorPositivo(valor);
 
-        Cliente cliente = buscarPorNumeroConta(numeroConta);
+        if (ledgerSaldos.isHabilitado()) {
+            return ledgerSaldos.creditar(numeroConta, valor, tipo, contraparte);
+        }
+
+        if (estrategia() == EstrategiaConcorrencia.ATOMICA) {
+            if (clienteRepository.creditarSaldo(numeroConta, valor) == 0) {
+                throw new ClienteNotFoundException(mensagemNaoEncontrada);
+            }
+            cacheClientes.invalidarAposCommit(numeroConta);
+            // A linha continua bloqueada pelo UPDATE até o commit: o saldo lido é o deste crédito
+            Cliente atualizado = carregarPorNumeroConta(numeroConta);
+            registroMovimentos.registrar(numeroConta, tipo, valor, atualizado.getSaldo(), contraparte);
+            registrarNosAgregados(atualizado, Centavos.deValor(valor));
+            return atualizado;
+        }
+
+        Cliente cliente = buscarParaAtualizacao(numeroConta, mensagemNaoEncontrada);
         cliente.setSaldo(cliente.getSaldo().add(valor));
+        registroMovimentos.registrar(numeroConta, tipo, valor, cliente.getSaldo(), contraparte);
+        registrarNosAgregados(cliente, Centavos.deValor(valor));
 
+        cacheClientes.invalidarAposCommit(numeroConta);
         return clienteRepository.save(cliente);
     }
 
-    // Sacar
-    public Cliente sacar(String numeroConta, BigDecimal valor) {
+    private Cliente debitar(String numeroConta, BigDecimal valor, TipoMovimento tipo, String contraparte,
+                            String mensagemNaoEncontrada) {
         clienteValidation.validarValorPositivo(valor);
 
-        Cliente cliente = buscarPorNumeroConta(numeroConta);
+        if (ledgerSaldos.isHabilitado()) {
+            return ledgerSaldos.debitar(numeroConta, valor, tipo, contraparte);
+        }
+
+        if (estrategia() == EstrategiaConcorrencia.ATOMICA) {
+            // Nenhuma linha alterada: conta inexistente ou saldo insuficiente.
+            // Se o saldo já cobre o valor (depósito concorrente), tenta o débito de novo.
+            while (clienteRepository.debitarSaldo(numeroConta, valor) == 0) {
+                Cliente cliente = buscarParaAtualizacao(numeroConta, mensagemNaoEncontrada);
+                clienteValidation.validarSaldoSuficiente(cliente.getSaldo(), valor);
+            }
+            cacheClientes.invalidarAposCommit(numeroConta);
+            Cliente atualizado = carregarPorNumeroConta(numeroConta);
+            registroMovimentos.registrar(numeroConta, tipo, valor, atualizado.getSaldo(), contraparte);
+            registrarNosAgregados(atualizado, -Centavos.deValor(valor));
+            return atualizado;
+        }
+
+        Cliente cliente = buscarParaAtualizacao(numeroConta, mensagemNaoEncontrada);
 
         clienteValidation.validarSaldoSuficiente(cliente.getSaldo(), valor);
 
         cliente.setSaldo(cliente.getSaldo().subtract(valor));
+        registroMovimentos.registrar(numeroConta, tipo, valor, cliente.getSaldo(), contraparte);
+        registrarNosAgregados(cliente, -Centavos.deValor(valor));
+        cacheClientes.invalidarAposCommit(numeroConta);
         return clienteRepository.save(cliente);
     }
 
-    // Transferir
-    public void transferir(String contaOrigem, String contaDestino, BigDecimal valor) {
-        clienteValidation.validarValorPositivo(valor);
+    // Com o ledger habilitado quem registra é o próprio ledger, no momento em que altera a memória
+    private void registrarNosAgregados(Cliente conta, long deltaCentavos) {
+        agregadosAgencias.registrar(conta.getAgencia(), deltaCentavos, Centavos.deValor(conta.getSaldo()));
+    }
+
+    // Busca a conta que será alterada conforme a estratégia de concorrência configurada
+    private Cliente buscarParaAtualizacao(String numeroConta, String mensagemNaoEncontrada) {
+        if (estrategia() == EstrategiaConcorrencia.PESSIMISTA) {
+            return clienteRepository.findByNumeroContaForUpdate(numeroConta)
+                    .orElseThrow(() -> new ClienteNotFoundException(mensagemNaoEncontrada));
+        }
+        return clienteRepository.findByNumeroConta(numeroConta)
+                .orElseThrow(() -> new ClienteNotFoundException(mensagemNaoEncontrada));
+    }
 
-        // Sacar da conta origem
-        Cliente origem = sacar(contaOrigem, valor);
+    // Leitura direto do banco: usada por quem vai alterar a conta, nunca pelo cache
+    private Cliente carregarPorNumeroConta(String numeroConta) {
+        return clienteRepository.findByNumeroConta(numeroConta)
+                .orElseThrow(() -> new ClienteNotFoundException("Conta não encontrada"));
+    }
+
+    // Leitura para a resposta, pela projeção: sempre o valor do banco, nunca uma entidade já carregada
+    private ClienteResposta carregarResposta(String numeroConta) {
+        return clienteRepository.findRespostaByNumeroConta(numeroConta)
+                .orElseThrow(() -> new ClienteNotFoundException("Conta não encontrada"));
+    }
+
+    // Com o ledger ativo os saldos já estão em memória
+    private boolean usarCache() {
+        return cacheClientes.isHabilitado() && !ledgerSaldos.isHabilitado();
+    }
 
-        // Depositar na conta destino
-        depositar(contaDestino, valor);
+    private EstrategiaConcorrencia estrategia() {
+        return concorrenciaProperties.getEstrategia();
     }
 
 }
@@ -0,0 +1,127 @@
+package com.example.mini_bank_api.service;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import com.example.mini_bank_api.util.Centavos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Transferência em uma única transação: as duas contas são lidas em uma consulta,
+// bloqueadas sempre na mesma ordem (id) e gravadas em um único flush.
+// Duas transferências opostas (A→B e B→A) disputam os bloqueios na mesma ordem e não entram em deadlock.
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class TransferenciaService {
+
+    private final ClienteRepository clienteRepository;
+
+    private final ClienteValidation clienteValidation;
+
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    private final LedgerSaldos ledgerSaldos;
+
+    private final RegistroMovimentos registroMovimentos;
+
+    private final AgregadosAgencias agregadosAgencias;
+
+    public void transferir(String contaOrigem, String contaDestino, BigDecimal valor) {
+        clienteValidation.validarValorPositivo(valor);
+        clienteValidation.validarContasDiferentes(contaOrigem, contaDestino);
+
+        if (ledgerSaldos.isHabilitado()) {
+            ledgerSaldos.transferir(contaOrigem, contaDestino, valor);
+            return;
+        }
+
+        if (concorrenciaProperties.getEstrategia() == EstrategiaConcorrencia.ATOMICA) {
+            transferirAtomico(contaOrigem, contaDestino, valor);
+            if (registroMovimentos.isHabilitado() || agregadosAgencias.isHabilitado()) {
+                // As duas linhas seguem bloqueadas pelos UPDATEs: os saldos lidos são os desta transferência
+                List<Cliente> contas = clienteRepository.findAllByNumeroContaIn(List.of(contaOrigem, contaDestino));
+                registrarMovimentos(localizar(contas, contaOrigem, "Conta de origem não encontrada"),
+                        localizar(contas, contaDestino, "Conta de destino não encontrada"), valor);
+            }
+            return;
+        }
+
+        List<Cliente> contas = buscarContas(contaOrigem, contaDestino);
+        Cliente origem = localizar(contas, contaOrigem, "Conta de origem não encontrada");
+        Cliente destino = localizar(contas, contaDestino, "Conta de destino não encontrada");
+
+        clienteValidation.validarSaldoSuficiente(origem.getSaldo(), valor);
+
+        origem.setSaldo(origem.getSaldo().subtract(valor));
+        destino.setSaldo(destino.getSaldo().add(valor));
+        registrarMovimentos(origem, destino, valor);
+
+        // Os dois UPDATEs saem no mesmo lote JDBC, ordenados por id (hibernate.order_updates)
+        clienteRepository.saveAll(contas);
+    }
+
+    // Extrato e agregados por agência; cada um ignora a chamada quando está desligado
+    private void registrarMovimentos(Cliente origem, Cliente destino, BigDecimal valor) {
+        registroMovimentos.registrar(origem.getNumeroConta(), TipoMovimento.TRANSFERENCIA_ENVIADA, valor,
+                origem.getSaldo(), destino.getNumeroConta());
+        registroMovimentos.registrar(destino.getNumeroConta(), TipoMovimento.TRANSFERENCIA_RECEBIDA, valor,
+                destino.getSaldo(), origem.getNumeroConta());
+        long centavos = Centavos.deValor(valor);
+        agregadosAgencias.registrar(origem.getAgencia(), -centavos, Centavos.deValor(origem.getSaldo()));
+        agregadosAgencias.registrar(destino.getAgencia(), centavos, Centavos.deValor(destino.getSaldo()));
+    }
+
+    private List<Cliente> buscarContas(String contaOrigem, String contaDestino) {
+        List<String> numerosConta = List.of(contaOrigem, contaDestino);
+        if (concorrenciaProperties.getEstrategia() == EstrategiaConcorrencia.PESSIMISTA) {
+            return clienteRepository.findAllByNumeroContaInForUpdate(numerosConta);
+        }
+        return clienteRepository.findAllByNumeroContaIn(numerosConta);
+    }
+
+    // Dois UPDATEs condicionais, sem leitura prévia; a ordem pelo número da conta evita deadlock
+    private void transferirAtomico(String contaOrigem, String contaDestino, BigDecimal valor) {
+        if (contaOrigem.compareTo(contaDestino) < 0) {
+            debitarAtomico(contaOrigem, valor);
+            creditarAtomico(contaDestino, valor);
+        } else {
+            creditarAtomico(contaDestino, valor);
+            debitarAtomico(contaOrigem, valor);
+        }
+    }
+
+    private void debitarAtomico(String contaOrigem, BigDecimal valor) {
+        while (clienteRepository.debitarSaldo(contaOrigem, valor) == 0) {
+            Cliente origem = clienteRepository.findByNumeroConta(contaOrigem)
+                    .orElseThrow(() -> new ClienteNotFoundException("Conta de origem não encontrada"));
+            clienteValidation.validarSaldoSuficiente(origem.getSaldo(), valor);
+        }
+    }
+
+    private void creditarAtomico(String contaDestino, BigDecimal valor) {
+        if (clienteRepository.creditarSaldo(contaDestino, valor) == 0) {
+            throw new ClienteNotFoundException("Conta de destino não encontrada");
+        }
+    }
+
+    private Cliente localizar(List<Cliente> contas, String numeroConta, String mensagemErro) {
+        for (Cliente conta : contas) {
+            if (conta.getNumeroConta().equals(numeroConta)) {
+                return conta;
+            }
+        }
+        throw new ClienteNotFoundException(mensagemErro);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.mini_bank_api.service.admissao;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.admissao")
+public class AdmissaoProperties {
+
+    // Quando habilitado, o excesso de requisições é recusado na entrada (503/429) em vez de esperar na fila
+    private boolean habilitado = false;
+
+    // Requisições simultâneas admitidas: o limite começa em limiteInicial e se ajusta entre o mínimo e o máximo
+    private int limiteInicial = 20;
+
+    private int limiteMinimo = 2;
+
+    private int limiteMaximo = 200;
+
+    // Respostas mais lentas que isto (ou 503) reduzem o limite; as mais rápidas o aumentam aos poucos
+    private Duration latenciaAlvo = Duration.ofMillis(50);
+
+    // Fator aplicado ao limite a cada redução (no máximo uma por latenciaAlvo)
+    private double fatorReducao = 0.9;
+
+    // Depósitos, saques e transferências por segundo por conta, com rajadas de até rajadaPorConta
+    private double operacoesPorSegundoPorConta = 20;
+
+    private int rajadaPorConta = 40;
+
+    // Contas com balde em memória; as menos usadas são descartadas (e voltam com o balde cheio)
+    private long maximoContas = 100_000;
+}
@@ -0,0 +1,62 @@
+package com.example.mini_bank_api.service.admissao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// Um balde de fichas por conta: cada operação gasta uma ficha e as fichas voltam a uma taxa fixa, até a rajada.
+// Os baldes ficam em um cache limitado por tamanho; um balde descartado volta cheio, o que só favorece a conta.
+public class BaldesContas {
+
+    private final double fichasPorNano;
+
+    private final int capacidade;
+
+    private final Cache<String, Balde> baldes;
+
+    public BaldesContas(double operacoesPorSegundo, int rajada, long maximoContas) {
+        this.fichasPorNano = operacoesPorSegundo / 1e9;
+        this.capacidade = Math.max(1, rajada);
+        // Sem uso por mais tempo que o necessário para encher, o balde estaria cheio de qualquer forma
+        long nanosParaEncher = (long) Math.ceil(capacidade / fichasPorNano);
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoContas)
+                .expireAfterAccess(Duration.ofNanos(Math.max(nanosParaEncher, Duration.ofSeconds(1).toNanos())))
+                .build();
+    }
+
+    // 0 quando a operação pode seguir; senão, os nanos até a próxima ficha
+    public long consumir(String numeroConta, long agora) {
+        return baldes.get(numeroConta, conta -> new Balde(capacidade, agora)).consumir(agora);
+    }
+
+    public long getContas() {
+        return baldes.estimatedSize();
+    }
+
+    private final class Balde {
+
+        private double fichas;
+
+        private long ultimaRecarga;
+
+        Balde(double fichas, long agora) {
+            this.fichas = fichas;
+            this.ultimaRecarga = agora;
+        }
+
+        synchronized long consumir(long agora) {
+            // agora foi lido fora da trava: pode ser um pouco anterior ao da última recarga
+            if (agora > ultimaRecarga) {
+                fichas = Math.min(capacidade, fichas + (agora - ultimaRecarga) * fichasPorNano);
+                ultimaRecarga = agora;
+            }
+            if (fichas >= 1) {
+                fichas--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - fichas) / fichasPorNano);
+        }
+    }
+}
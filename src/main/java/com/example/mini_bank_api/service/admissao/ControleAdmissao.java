@@ -0,0 +1,101 @@
+package com.example.mini_bank_api.service.admissao;
+
+import com.example.mini_bank_api.exception.LimiteContaExcedidoException;
+import com.example.mini_bank_api.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Controle de admissão na entrada da API: um limite global de requisições simultâneas, adaptado à latência,
+// e um balde de fichas por conta nas operações que alteram saldo. A recusa é imediata (503 ou 429), antes de
+// a requisição ocupar uma conexão do pool: sob sobrecarga as admitidas mantêm a latência e as demais podem
+// tentar de novo, em vez de todas esperarem na fila do Tomcat e do Hikari.
+@Component
+public class ControleAdmissao implements MeterBinder {
+
+    private final AdmissaoProperties admissaoProperties;
+
+    private final LimiteAdaptativo limite;
+
+    private final BaldesContas baldes;
+
+    private Counter recusasGlobais;
+
+    private Counter recusasConta;
+
+    public ControleAdmissao(AdmissaoProperties admissaoProperties) {
+        this.admissaoProperties = admissaoProperties;
+        this.limite = new LimiteAdaptativo(admissaoProperties.getLimiteInicial(),
+                admissaoProperties.getLimiteMinimo(), admissaoProperties.getLimiteMaximo(),
+                admissaoProperties.getLatenciaAlvo().toNanos(), admissaoProperties.getFatorReducao());
+        this.baldes = new BaldesContas(admissaoProperties.getOperacoesPorSegundoPorConta(),
+                admissaoProperties.getRajadaPorConta(), admissaoProperties.getMaximoContas());
+    }
+
+    public boolean isHabilitado() {
+        return admissaoProperties.isHabilitado();
+    }
+
+    // Devolve o instante da admissão, que deve ser passado a concluir
+    public long admitir() {
+        if (!limite.tentarAdquirir()) {
+            if (recusasGlobais != null) {
+                recusasGlobais.increment();
+            }
+            throw new ServicoSobrecarregadoException("Serviço sobrecarregado, tente novamente");
+        }
+        return System.nanoTime();
+    }
+
+    public void concluir(long admitidaEm, boolean sobrecarregado) {
+        long agora = System.nanoTime();
+        limite.liberar(agora - admitidaEm, sobrecarregado, agora);
+    }
+
+    // Devolve a vaga de uma admissão que não chegou a executar, sem medir latência
+    public void desistir() {
+        limite.desistir();
+    }
+
+    public void consumirConta(String numeroConta) {
+        long espera = baldes.consumir(numeroConta, System.nanoTime());
+        if (espera > 0) {
+            if (recusasConta != null) {
+                recusasConta.increment();
+            }
+            // Retry-After é em segundos inteiros: arredonda para cima
+            long esperaSegundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + 999_999_999));
+            throw new LimiteContaExcedidoException("Limite de operações da conta " + numeroConta
+                    + " excedido, tente novamente", esperaSegundos);
+        }
+    }
+
+    public int getLimite() {
+        return limite.getLimite();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minibank.admissao.limite", limite, LimiteAdaptativo::getLimite)
+                .description("Requisições simultâneas admitidas (ajustado pela latência)")
+                .register(registry);
+        Gauge.builder("minibank.admissao.em.uso", limite, LimiteAdaptativo::getEmUso)
+                .description("Requisições admitidas em execução")
+                .register(registry);
+        Gauge.builder("minibank.admissao.contas", baldes, BaldesContas::getContas)
+                .description("Contas com balde de fichas em memória")
+                .register(registry);
+        recusasGlobais = Counter.builder("minibank.admissao.recusas")
+                .tag("motivo", "sobrecarga")
+                .description("Requisições recusadas na entrada")
+                .register(registry);
+        recusasConta = Counter.builder("minibank.admissao.recusas")
+                .tag("motivo", "conta")
+                .description("Requisições recusadas na entrada")
+                .register(registry);
+    }
+}
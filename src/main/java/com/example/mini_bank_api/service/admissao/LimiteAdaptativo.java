@@ -0,0 +1,74 @@
+package com.example.mini_bank_api.service.admissao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limite de requisições simultâneas ajustado pela latência medida (AIMD, como o controle de congestionamento
+// do TCP): cada resposta dentro da latência alvo, com o limite em uso, soma 1/limite (cerca de +1 a cada
+// "janela" de limite requisições); uma resposta lenta ou sobrecarregada multiplica o limite por
+// fatorReducao, no máximo uma vez por latência alvo, para que uma rajada de respostas lentas da mesma
+// janela não derrube o limite de uma vez. Quem passa do limite é recusado na hora, sem esperar.
+public class LimiteAdaptativo {
+
+    private final int minimo;
+
+    private final int maximo;
+
+    private final long latenciaAlvoNanos;
+
+    private final double fatorReducao;
+
+    private final AtomicInteger emUso = new AtomicInteger();
+
+    private volatile double limite;
+
+    private long ultimaReducao;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, long latenciaAlvoNanos, double fatorReducao) {
+        this.minimo = Math.max(1, minimo);
+        this.maximo = Math.max(this.minimo, maximo);
+        this.latenciaAlvoNanos = latenciaAlvoNanos;
+        this.fatorReducao = fatorReducao;
+        this.limite = Math.min(this.maximo, Math.max(this.minimo, inicial));
+        this.ultimaReducao = System.nanoTime() - latenciaAlvoNanos;
+    }
+
+    public boolean tentarAdquirir() {
+        while (true) {
+            int atual = emUso.get();
+            if (atual >= (int) limite) {
+                return false;
+            }
+            if (emUso.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // agora e latenciaNanos em System.nanoTime()
+    public void liberar(long latenciaNanos, boolean sobrecarregado, long agora) {
+        int emUsoAntes = emUso.getAndDecrement();
+        synchronized (this) {
+            if (sobrecarregado || latenciaNanos > latenciaAlvoNanos) {
+                if (agora - ultimaReducao >= latenciaAlvoNanos) {
+                    limite = Math.max(minimo, limite * fatorReducao);
+                    ultimaReducao = agora;
+                }
+            } else if (emUsoAntes * 2 >= limite) {
+                // Com o limite longe de ser usado, a latência boa não diz nada sobre um limite maior
+                limite = Math.min(maximo, limite + 1 / limite);
+            }
+        }
+    }
+
+    public void desistir() {
+        emUso.decrementAndGet();
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEmUso() {
+        return emUso.get();
+    }
+}
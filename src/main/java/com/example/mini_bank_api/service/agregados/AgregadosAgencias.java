@@ -0,0 +1,292 @@
+package com.example.mini_bank_api.service.agregados;
+
+import com.example.mini_bank_api.dto.RelatorioAgencias;
+import com.example.mini_bank_api.dto.ResumoAgencia;
+import com.example.mini_bank_api.util.Centavos;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contas, saldo total e extremos de saldo por agência, mantidos a cada alteração de saldo em vez de
+// agrupar a tabela a cada relatório. Contas e saldo são LongAdders (sem disputa entre as threads que
+// movimentam a mesma agência); mínimo e máximo só são alargados pelas operações, então são limites que
+// valem para todas as contas e ficam exatos de novo a cada reconciliação (ReconciliacaoAgregados).
+// Cada alteração é marcada em inicios antes do commit e em fins depois dele: com os dois iguais, não há
+// alteração da agência em andamento, e a reconciliação pode confiar no que leu da tabela.
+@Slf4j
+@Component
+public class AgregadosAgencias implements MeterBinder {
+
+    // Contas sem agência (o ConcurrentHashMap não aceita chave null)
+    static final String SEM_AGENCIA = "";
+
+    private final AgregadosProperties agregadosProperties;
+
+    private final ConcurrentHashMap<String, Agregado> agencias = new ConcurrentHashMap<>();
+
+    private final LongAdder divergencias = new LongAdder();
+
+    private volatile LocalDateTime reconciliadoEm;
+
+    public AgregadosAgencias(AgregadosProperties agregadosProperties) {
+        this.agregadosProperties = agregadosProperties;
+    }
+
+    public boolean isHabilitado() {
+        return agregadosProperties.isHabilitado();
+    }
+
+    // Depósito, saque ou uma ponta de transferência; só conta se a transação em curso confirmar
+    public void registrar(String agencia, long deltaCentavos, long saldoAposCentavos) {
+        registrar(agencia, 0, deltaCentavos, saldoAposCentavos);
+    }
+
+    // Conta nova, com o saldo de abertura
+    public void registrarConta(String agencia, long saldoCentavos) {
+        registrar(agencia, 1, saldoCentavos, saldoCentavos);
+    }
+
+    // Para quem altera o saldo fora de transação (ledger em memória): vale na hora
+    public void aplicar(String agencia, long deltaCentavos, long saldoAposCentavos) {
+        if (!isHabilitado()) {
+            return;
+        }
+        Agregado agregado = agregado(chave(agencia));
+        agregado.inicios.increment();
+        agregado.somar(0, deltaCentavos, saldoAposCentavos, saldoAposCentavos);
+        agregado.fins.increment();
+    }
+
+    private void registrar(String agencia, int contas, long deltaCentavos, long saldoAposCentavos) {
+        if (!isHabilitado()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Agregado agregado = agregado(chave(agencia));
+            agregado.inicios.increment();
+            agregado.somar(contas, deltaCentavos, saldoAposCentavos, saldoAposCentavos);
+            agregado.fins.increment();
+            return;
+        }
+        // Uma sincronização por transação, que junta as alterações de todas as contas dela
+        Pendentes pendentes = (Pendentes) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            pendentes = new Pendentes();
+            TransactionSynchronizationManager.bindResource(this, pendentes);
+            TransactionSynchronizationManager.registerSynchronization(pendentes);
+        }
+        pendentes.somar(chave(agencia), contas, deltaCentavos, saldoAposCentavos);
+    }
+
+    // O(agências): só lê os contadores
+    public RelatorioAgencias relatorio() {
+        List<ResumoAgencia> resumos = new ArrayList<>(agencias.size());
+        agencias.forEach((chave, agregado) -> {
+            long contas = agregado.contas.sum();
+            if (contas > 0) {
+                resumos.add(new ResumoAgencia(SEM_AGENCIA.equals(chave) ? null : chave, contas,
+                        Centavos.paraValor(agregado.saldo.sum()), Centavos.paraValor(agregado.minimo.get()),
+                        Centavos.paraValor(agregado.maximo.get())));
+            }
+        });
+        resumos.sort(Comparator.comparing(ResumoAgencia::agencia, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return new RelatorioAgencias(reconciliadoEm, resumos);
+    }
+
+    // Agências conhecidas pelos agregados, inclusive as que ainda não apareceram na tabela
+    List<String> chaves() {
+        return new ArrayList<>(agencias.keySet());
+    }
+
+    // Estado de uma agência lido sem alteração em andamento; vazio se alguma estiver entre o commit e os contadores.
+    // fins é lido antes de inicios: como fins <= inicios sempre, somas iguais significam que houve um instante parado.
+    Optional<Retrato> retratar(String chave) {
+        Agregado agregado = agregado(chave);
+        long fins = agregado.fins.sum();
+        long inicios = agregado.inicios.sum();
+        if (fins != inicios) {
+            return Optional.empty();
+        }
+        return Optional.of(new Retrato(chave, agregado, inicios, agregado.contas.sum(), agregado.saldo.sum(),
+                agregado.minimo.get(), agregado.maximo.get()));
+    }
+
+    // Ajusta a agência ao que foi lido da tabela depois do retrato. Recusa (false) se alguma alteração começou
+    // nesse meio tempo: a consulta pode ou não ter visto o commit dela. As correções são somas, então
+    // alterações que começarem depois desta conferência continuam valendo.
+    boolean conferir(Retrato retrato, ResumoAgencia banco) {
+        Agregado agregado = retrato.agregado();
+        if (agregado.inicios.sum() != retrato.inicios()) {
+            return false;
+        }
+        long contas = banco == null ? 0 : banco.contas();
+        long saldo = banco == null ? 0 : centavos(banco.saldoTotal());
+        long minimo = banco == null ? Long.MAX_VALUE : centavos(banco.saldoMinimo());
+        long maximo = banco == null ? Long.MIN_VALUE : centavos(banco.saldoMaximo());
+
+        if (agregado.reconciliada && (contas != retrato.contas() || saldo != retrato.saldo())) {
+            divergencias.increment();
+            log.warn("Agregados da agência '{}' divergiam da tabela: {} contas / {} centavos em memória, "
+                    + "{} / {} no banco", retrato.chave(), retrato.contas(), retrato.saldo(), contas, saldo);
+        }
+        agregado.contas.add(contas - retrato.contas());
+        agregado.saldo.add(saldo - retrato.saldo());
+        agregado.minimo.compareAndSet(retrato.minimo(), minimo);
+        agregado.maximo.compareAndSet(retrato.maximo(), maximo);
+        // Uma alteração que começou durante a troca pode ter comparado o saldo dela com os extremos antigos:
+        // voltar a eles mantém os limites válidos até a próxima rodada
+        if (agregado.inicios.sum() != retrato.inicios()) {
+            agregado.minimo.accumulateAndGet(retrato.minimo(), Math::min);
+            agregado.maximo.accumulateAndGet(retrato.maximo(), Math::max);
+        }
+        agregado.reconciliada = true;
+        return true;
+    }
+
+    void marcarReconciliado(LocalDateTime instante) {
+        reconciliadoEm = instante;
+    }
+
+    long getDivergencias() {
+        return divergencias.sum();
+    }
+
+    static String chave(String agencia) {
+        return agencia == null ? SEM_AGENCIA : agencia;
+    }
+
+    private Agregado agregado(String chave) {
+        Agregado agregado = agencias.get(chave);
+        return agregado != null ? agregado : agencias.computeIfAbsent(chave, c -> new Agregado());
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? 0 : Centavos.deValor(valor);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minibank.agregados.agencias", agencias, Map::size)
+                .description("Agências com agregados de saldo em memória")
+                .register(registry);
+        FunctionCounter.builder("minibank.agregados.divergencias", divergencias, LongAdder::sum)
+                .description("Agências corrigidas pela reconciliação por divergirem da tabela")
+                .register(registry);
+    }
+
+    static final class Agregado {
+
+        private final LongAdder contas = new LongAdder();
+
+        private final LongAdder saldo = new LongAdder();
+
+        private final AtomicLong minimo = new AtomicLong(Long.MAX_VALUE);
+
+        private final AtomicLong maximo = new AtomicLong(Long.MIN_VALUE);
+
+        private final LongAdder inicios = new LongAdder();
+
+        private final LongAdder fins = new LongAdder();
+
+        // Só a primeira reconciliação carrega a agência; depois disso, diferença é divergência
+        private volatile boolean reconciliada;
+
+        private void somar(long contas, long deltaCentavos, long minimo, long maximo) {
+            if (contas != 0) {
+                this.contas.add(contas);
+            }
+            if (deltaCentavos != 0) {
+                saldo.add(deltaCentavos);
+            }
+            // Leitura antes do CAS: quase sempre o saldo já está dentro dos limites
+            if (minimo < this.minimo.get()) {
+                this.minimo.accumulateAndGet(minimo, Math::min);
+            }
+            if (maximo > this.maximo.get()) {
+                this.maximo.accumulateAndGet(maximo, Math::max);
+            }
+        }
+    }
+
+    record Retrato(String chave, Agregado agregado, long inicios, long contas, long saldo, long minimo, long maximo) {
+    }
+
+    // Alterações de uma transação, por agência. Ficam ligadas à transação como recurso, e saem dela
+    // quando a transação é suspensa (REQUIRES_NEW), como os recursos do próprio Spring.
+    private final class Pendentes implements TransactionSynchronization {
+
+        private final Map<String, Parcial> porAgencia = new HashMap<>(4);
+
+        private boolean iniciadas;
+
+        private void somar(String chave, int contas, long deltaCentavos, long saldoAposCentavos) {
+            Parcial parcial = porAgencia.computeIfAbsent(chave, c -> new Parcial());
+            parcial.contas += contas;
+            parcial.delta += deltaCentavos;
+            parcial.minimo = Math.min(parcial.minimo, saldoAposCentavos);
+            parcial.maximo = Math.max(parcial.maximo, saldoAposCentavos);
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(AgregadosAgencias.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AgregadosAgencias.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            for (String chave : porAgencia.keySet()) {
+                agregado(chave).inicios.increment();
+            }
+            iniciadas = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AgregadosAgencias.this);
+            if (!iniciadas) {
+                return;
+            }
+            for (Map.Entry<String, Parcial> entrada : porAgencia.entrySet()) {
+                Agregado agregado = agregado(entrada.getKey());
+                Parcial parcial = entrada.getValue();
+                if (status == STATUS_COMMITTED) {
+                    agregado.somar(parcial.contas, parcial.delta, parcial.minimo, parcial.maximo);
+                }
+                agregado.fins.increment();
+            }
+        }
+    }
+
+    private static final class Parcial {
+
+        private int contas;
+
+        private long delta;
+
+        private long minimo = Long.MAX_VALUE;
+
+        private long maximo = Long.MIN_VALUE;
+    }
+}
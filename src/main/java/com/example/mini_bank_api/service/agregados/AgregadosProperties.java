@@ -0,0 +1,20 @@
+package com.example.mini_bank_api.service.agregados;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.agregados")
+public class AgregadosProperties {
+
+    // Quando desabilitado, o relatório por agência volta a agrupar a tabela inteira a cada chamada
+    private boolean habilitado = true;
+
+    // Intervalo entre duas conferências dos agregados contra a tabela
+    private Duration intervaloReconciliacao = Duration.ofMinutes(5);
+
+    // Consultas extras por agência que mudou durante o agrupamento geral, antes de ficar para a próxima rodada
+    private int tentativasPorAgencia = 3;
+}
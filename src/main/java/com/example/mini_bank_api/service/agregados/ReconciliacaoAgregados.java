@@ -0,0 +1,175 @@
+package com.example.mini_bank_api.service.agregados;
+
+import com.example.mini_bank_api.dto.ResumoAgencia;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Confere os agregados por agência contra um GROUP BY da tabela: na subida (carga inicial, em segundo
+// plano) e depois a cada intervaloReconciliacao. Corrige o que as operações não cobrem (UPDATE manual,
+// falha entre o commit e os contadores) e volta mínimo e máximo aos valores exatos.
+// Uma agência que mudou durante a consulta é consultada de novo sozinha, pelo índice (agencia, id);
+// se continuar mudando, fica para a próxima rodada.
+@Slf4j
+@Component
+public class ReconciliacaoAgregados implements MeterBinder {
+
+    private final AgregadosProperties agregadosProperties;
+
+    private final AgregadosAgencias agregadosAgencias;
+
+    private final ClienteRepository clienteRepository;
+
+    private final LedgerSaldos ledgerSaldos;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService agendador;
+
+    private Timer duracao;
+
+    public ReconciliacaoAgregados(AgregadosProperties agregadosProperties,
+                                  AgregadosAgencias agregadosAgencias,
+                                  ClienteRepository clienteRepository,
+                                  LedgerSaldos ledgerSaldos,
+                                  PlatformTransactionManager transactionManager) {
+        this.agregadosProperties = agregadosProperties;
+        this.agregadosAgencias = agregadosAgencias;
+        this.clienteRepository = clienteRepository;
+        this.ledgerSaldos = ledgerSaldos;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!agregadosProperties.isHabilitado()) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "agregados-reconciliacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = agregadosProperties.getIntervaloReconciliacao().toMillis();
+        agendador.scheduleWithFixedDelay(this::reconciliarComFalha, 0, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    // Devolve quantas agências ficaram para a próxima rodada. Uma reconciliação por vez: duas corrigiriam
+    // a mesma diferença a partir do mesmo retrato.
+    public synchronized int reconciliar() {
+        long inicio = System.nanoTime();
+        Map<String, AgregadosAgencias.Retrato> retratos = new HashMap<>();
+        for (String chave : agregadosAgencias.chaves()) {
+            retratos.put(chave, agregadosAgencias.retratar(chave).orElse(null));
+        }
+        long marco = marcoLedger();
+        List<ResumoAgencia> banco = transactionTemplate.execute(status -> clienteRepository.resumirPorAgencia());
+        Map<String, ResumoAgencia> porChave = new HashMap<>();
+        for (ResumoAgencia resumo : banco) {
+            porChave.put(AgregadosAgencias.chave(resumo.agencia()), resumo);
+        }
+
+        // Com o ledger, o banco só vale se nenhum flush gravou saldos durante a consulta
+        boolean bancoEstavel = marco >= 0 && marcoLedger() == marco;
+        List<String> pendentes = new ArrayList<>();
+        retratos.forEach((chave, retrato) -> {
+            if (!bancoEstavel || retrato == null || !agregadosAgencias.conferir(retrato, porChave.get(chave))) {
+                pendentes.add(chave);
+            }
+        });
+        // Agências que só apareceram na consulta não têm retrato de antes dela: são relidas sozinhas
+        for (String chave : porChave.keySet()) {
+            if (!retratos.containsKey(chave)) {
+                pendentes.add(chave);
+            }
+        }
+        pendentes.removeIf(this::reconciliarAgencia);
+
+        if (pendentes.isEmpty()) {
+            agregadosAgencias.marcarReconciliado(LocalDateTime.now());
+        }
+        long nanos = System.nanoTime() - inicio;
+        if (duracao != null) {
+            duracao.record(nanos, TimeUnit.NANOSECONDS);
+        }
+        log.debug("Agregados de {} agências conferidos em {} ms; {} para a próxima rodada",
+                retratos.size(), nanos / 1_000_000, pendentes.size());
+        return pendentes.size();
+    }
+
+    // Conta sem agência não tem consulta própria pelo índice: espera o próximo agrupamento geral
+    private boolean reconciliarAgencia(String chave) {
+        if (AgregadosAgencias.SEM_AGENCIA.equals(chave)) {
+            return false;
+        }
+        for (int tentativa = 0; tentativa < agregadosProperties.getTentativasPorAgencia(); tentativa++) {
+            Optional<AgregadosAgencias.Retrato> retrato = agregadosAgencias.retratar(chave);
+            if (retrato.isEmpty()) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long marco = marcoLedger();
+            if (marco < 0) {
+                // Saldos do ledger ainda não gravados: grava agora em vez de esperar o próximo flush agendado
+                ledgerSaldos.flush();
+                continue;
+            }
+            Optional<ResumoAgencia> banco = transactionTemplate.execute(status ->
+                    clienteRepository.resumirAgencia(chave));
+            if (marcoLedger() == marco && agregadosAgencias.conferir(retrato.get(), banco.orElse(null))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long marcoLedger() {
+        return ledgerSaldos.isHabilitado() ? ledgerSaldos.marcoSincronizado() : 0;
+    }
+
+    private void reconciliarComFalha() {
+        try {
+            int pendentes = reconciliar();
+            if (pendentes > 0) {
+                log.info("{} agências mudaram durante a reconciliação dos agregados e ficam para a próxima rodada",
+                        pendentes);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao reconciliar os agregados por agência", ex);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        duracao = Timer.builder("minibank.agregados.reconciliacao")
+                .description("Duração de uma reconciliação dos agregados por agência contra a tabela")
+                .register(registry);
+    }
+}
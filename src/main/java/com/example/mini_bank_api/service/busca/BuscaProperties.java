@@ -0,0 +1,12 @@
+package com.example.mini_bank_api.service.busca;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.busca")
+public class BuscaProperties {
+
+    // Quando desabilitado, a busca por nome percorre a tabela em páginas pelo id
+    private boolean habilitado = true;
+}
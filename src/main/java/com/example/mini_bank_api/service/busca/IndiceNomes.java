@@ -0,0 +1,325 @@
+package com.example.mini_bank_api.service.busca;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Índice em memória dos trigramas das palavras dos nomes, para a busca por trecho de qualquer palavra ("sil"
+// e "ilv" acham "João Silva"), sem diferenciar maiúsculas nem acentos. Cada palavra é completada com dois
+// FIM_PALAVRA, então todo trecho de uma ou duas letras é o início de algum trigrama ("va" de "va$") e os
+// trigramas ficam ordenados: um trecho curto é um intervalo do mapa. Um trecho de três letras ou mais é
+// procurado no seu trigrama com menos ids, conferindo os demais. Cada trigrama aponta para os ids dos clientes
+// em ordem crescente. O índice só devolve ids candidatos; quem busca carrega as contas pela chave primária e
+// confere o nome, então um id de um cadastro desfeito ou de trigramas de palavras diferentes não aparece na
+// resposta. Reconstruído da tabela na subida, em segundo plano, e mantido a cada cadastro; nome e agência não
+// mudam depois do cadastro. Os ids de cada agência também ficam no mapa, sob uma chave que nenhum trecho
+// alcança, para filtrar a agência sem ir ao banco.
+@Slf4j
+@Component
+public class IndiceNomes implements MeterBinder {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Trigramas só têm letras, dígitos e FIM_PALAVRA: nenhum trecho de palavra alcança estas chaves
+    private static final String CHAVE_AGENCIA = "#";
+
+    private static final char FIM_PALAVRA = '$';
+
+    private static final int TAMANHO_TRIGRAMA = 3;
+
+    private final BuscaProperties buscaProperties;
+
+    private final ClienteRepository clienteRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentSkipListMap<String, Ids> chaves = new ConcurrentSkipListMap<>();
+
+    private final LongAdder totalTrigramas = new LongAdder();
+
+    private volatile boolean pronto;
+
+    public IndiceNomes(BuscaProperties buscaProperties,
+                       ClienteRepository clienteRepository,
+                       PlatformTransactionManager transactionManager) {
+        this.buscaProperties = buscaProperties;
+        this.clienteRepository = clienteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public boolean isHabilitado() {
+        return buscaProperties.isHabilitado();
+    }
+
+    // Até a reconstrução terminar faltam os clientes que já estavam na tabela
+    public boolean isPronto() {
+        return isHabilitado() && pronto;
+    }
+
+    // Chamado por quem grava o cliente, antes do commit
+    public void adicionar(Long id, String nome, String agencia) {
+        if (!isHabilitado() || id == null) {
+            return;
+        }
+        for (String palavra : palavras(nome)) {
+            String completa = palavra + FIM_PALAVRA + FIM_PALAVRA;
+            for (int i = 0; i + TAMANHO_TRIGRAMA <= completa.length(); i++) {
+                ids(completa.substring(i, i + TAMANHO_TRIGRAMA)).adicionar(id);
+            }
+        }
+        if (agencia != null) {
+            ids(CHAVE_AGENCIA + agencia).adicionar(id);
+        }
+    }
+
+    // Até limite ids maiores que aposId, em ordem crescente, de nomes com uma palavra que contém algum dos
+    // termos e, com agencia não nula, dessa agência. Só o termo mais longo (em geral o mais seletivo) é
+    // procurado no índice: os demais ficam para a conferência do nome, em corresponde.
+    public long[] candidatos(List<String> termos, String agencia, long aposId, int limite) {
+        String termo = termos.stream().max((a, b) -> Integer.compare(a.length(), b.length())).orElseThrow();
+        List<Ids> filtros = new ArrayList<>(termo.length());
+        if (agencia != null) {
+            Ids daAgencia = chaves.get(CHAVE_AGENCIA + agencia);
+            if (daAgencia == null) {
+                return new long[0];
+            }
+            filtros.add(daAgencia);
+        }
+        Candidatos candidatos = new Candidatos(limite);
+        if (termo.length() < TAMANHO_TRIGRAMA) {
+            for (Ids ids : chaves.subMap(termo, true, termo + Character.MAX_VALUE, true).values()) {
+                copiarApos(ids, aposId, filtros, candidatos);
+            }
+            return candidatos.resultado();
+        }
+        Ids menor = null;
+        for (int i = 0; i + TAMANHO_TRIGRAMA <= termo.length(); i++) {
+            Ids ids = chaves.get(termo.substring(i, i + TAMANHO_TRIGRAMA));
+            if (ids == null) {
+                return new long[0];
+            }
+            if (menor == null || ids.tamanho() < menor.tamanho()) {
+                if (menor != null) {
+                    filtros.add(menor);
+                }
+                menor = ids;
+            } else if (ids != menor) {
+                filtros.add(ids);
+            }
+        }
+        copiarApos(menor, aposId, filtros, candidatos);
+        return candidatos.resultado();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirEmSegundoPlano() {
+        if (!isHabilitado()) {
+            return;
+        }
+        Thread thread = new Thread(this::reconstruir, "indice-nomes");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Percorre os clientes por cursor; cadastros concorrentes entram pelos dois caminhos sem repetir o id
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        try {
+            LongAdder total = new LongAdder();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ClienteResposta> clientes = clienteRepository.streamRespostas()) {
+                    clientes.forEach(cliente -> {
+                        adicionar(cliente.id(), cliente.nome(), cliente.agencia());
+                        total.increment();
+                    });
+                }
+            });
+            pronto = true;
+            log.info("Índice de nomes reconstruído com {} clientes e {} trigramas em {} ms",
+                    total.sum(), totalTrigramas.sum(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao reconstruir o índice de nomes; a busca por nome vai percorrer a tabela", ex);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minibank.busca.trigramas", totalTrigramas, LongAdder::sum)
+                .description("Trigramas distintos no índice de nomes")
+                .register(registry);
+    }
+
+    private Ids ids(String chave) {
+        Ids ids = chaves.get(chave);
+        if (ids == null) {
+            Ids novos = new Ids();
+            ids = chaves.putIfAbsent(chave, novos);
+            if (ids == null) {
+                ids = novos;
+                if (!chave.startsWith(CHAVE_AGENCIA)) {
+                    totalTrigramas.increment();
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Palavras do texto, sem acentos e em minúsculas, na ordem em que aparecem e sem repetição
+    public static List<String> palavras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> palavras = new ArrayList<>(4);
+        for (String palavra : SEPARADORES.split(normalizado)) {
+            if (!palavra.isEmpty() && !palavras.contains(palavra)) {
+                palavras.add(palavra);
+            }
+        }
+        return palavras;
+    }
+
+    // Todo termo é trecho de alguma palavra do nome
+    public static boolean corresponde(String nome, List<String> termos) {
+        List<String> palavrasNome = palavras(nome);
+        for (String termo : termos) {
+            if (palavrasNome.stream().noneMatch(palavra -> palavra.contains(termo))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Só os primeiros limite ids depois de aposId que estão em todos os filtros podem estar entre os limite
+    // menores de todos os trigramas. A lista é lida em blocos e os filtros são conferidos fora da trava dela:
+    // um trigrama é lista em uma busca e filtro em outra, e nenhuma thread segura duas travas.
+    private static void copiarApos(Ids ids, long aposId, List<Ids> filtros, Candidatos candidatos) {
+        int copiados = 0;
+        long cursor = aposId;
+        while (copiados < candidatos.limite) {
+            long[] bloco = ids.bloco(cursor, candidatos.limite, candidatos.limiar);
+            for (int i = 0; i < bloco.length && copiados < candidatos.limite; i++) {
+                long id = bloco[i];
+                if (filtros.stream().allMatch(filtro -> filtro.contem(id))) {
+                    candidatos.adicionar(id);
+                    copiados++;
+                }
+            }
+            if (bloco.length < candidatos.limite) {
+                return;
+            }
+            cursor = bloco[bloco.length - 1];
+        }
+    }
+
+    // Ids de um trigrama ou agência, ordenados. Os cadastros chegam quase sempre em ordem crescente de id: o caso comum
+    // é acrescentar no fim.
+    private static final class Ids {
+
+        private long[] valores = new long[2];
+
+        private int tamanho;
+
+        synchronized void adicionar(long id) {
+            int posicao = tamanho;
+            if (tamanho > 0 && valores[tamanho - 1] >= id) {
+                posicao = Arrays.binarySearch(valores, 0, tamanho, id);
+                if (posicao >= 0) {
+                    return;
+                }
+                posicao = -posicao - 1;
+            }
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho + (tamanho >> 1) + 1);
+            }
+            System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+            valores[posicao] = id;
+            tamanho++;
+        }
+
+        synchronized boolean contem(long id) {
+            return Arrays.binarySearch(valores, 0, tamanho, id) >= 0;
+        }
+
+        synchronized int tamanho() {
+            return tamanho;
+        }
+
+        // Até quantidade ids maiores que aposId e menores que limiar
+        synchronized long[] bloco(long aposId, int quantidade, long limiar) {
+            int inicio = Arrays.binarySearch(valores, 0, tamanho, aposId);
+            inicio = inicio >= 0 ? inicio + 1 : -inicio - 1;
+            int fim = inicio;
+            while (fim < tamanho && fim - inicio < quantidade && valores[fim] < limiar) {
+                fim++;
+            }
+            return Arrays.copyOfRange(valores, inicio, fim);
+        }
+    }
+
+    // Os limite menores ids vistos. O buffer é compactado quando enche, e a partir daí ids acima do
+    // maior guardado (limiar) nem entram: a memória fica proporcional ao limite, não ao número de trigramas.
+    private static final class Candidatos {
+
+        private final int limite;
+
+        private long[] valores;
+
+        private int tamanho;
+
+        private long limiar = Long.MAX_VALUE;
+
+        Candidatos(int limite) {
+            this.limite = Math.max(1, limite);
+            this.valores = new long[this.limite * 4];
+        }
+
+        void adicionar(long id) {
+            if (tamanho == valores.length) {
+                compactar();
+            }
+            valores[tamanho++] = id;
+        }
+
+        long[] resultado() {
+            compactar();
+            return Arrays.copyOf(valores, tamanho);
+        }
+
+        private void compactar() {
+            Arrays.sort(valores, 0, tamanho);
+            int distintos = 0;
+            for (int i = 0; i < tamanho && distintos < limite; i++) {
+                if (distintos == 0 || valores[i] != valores[distintos - 1]) {
+                    valores[distintos++] = valores[i];
+                }
+            }
+            tamanho = distintos;
+            if (tamanho == limite) {
+                limiar = valores[tamanho - 1];
+            }
+        }
+    }
+}
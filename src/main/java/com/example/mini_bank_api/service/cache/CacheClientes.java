@@ -0,0 +1,164 @@
+package com.example.mini_bank_api.service.cache;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Cache de leitura das contas, na frente do banco.
+// A carga de uma chave é atômica e a invalidação só acontece depois do commit de quem alterou a conta:
+// se uma leitura carregou o valor antigo antes do commit, a invalidação espera a carga terminar e a remove.
+// A carga atômica também faz leituras simultâneas da mesma conta esperarem uma única consulta; sem o cache,
+// carregarCompartilhado faz o mesmo só enquanto a consulta está em andamento, sem guardar o resultado.
+@Component
+public class CacheClientes implements MeterBinder {
+
+    private final CacheClientesProperties cacheProperties;
+
+    private final Cache<String, ClienteResposta> porNumeroConta;
+
+    // O número da conta de um id nunca muda; os dados ficam só no cache por número da conta
+    private final Cache<Long, String> numeroContaPorId;
+
+    // Consultas sem cache em andamento, por número da conta
+    private final ConcurrentHashMap<String, CompletableFuture<ClienteResposta>> emAndamento =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder leiturasCompartilhadas = new LongAdder();
+
+    public CacheClientes(CacheClientesProperties cacheProperties) {
+        this.cacheProperties = cacheProperties;
+        this.porNumeroConta = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getTamanhoMaximo())
+                .expireAfterWrite(cacheProperties.getTtl())
+                .recordStats()
+                .build();
+        this.numeroContaPorId = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getTamanhoMaximo())
+                .recordStats()
+                .build();
+    }
+
+    public boolean isHabilitado() {
+        return cacheProperties.isHabilitado();
+    }
+
+    public boolean isCoalescerLeituras() {
+        return cacheProperties.isCoalescerLeituras();
+    }
+
+    // A resposta é imutável: todas as leituras recebem a mesma instância, sem cópia
+    public ClienteResposta buscarPorNumeroConta(String numeroConta, Function<String, ClienteResposta> carregar) {
+        return porNumeroConta.get(numeroConta, carregar);
+    }
+
+    // null quando o id não existe (ausências não ficam em cache)
+    public String buscarNumeroContaPorId(Long id, Function<Long, String> carregar) {
+        return numeroContaPorId.get(id, carregar);
+    }
+
+    // Quem chega com uma consulta da conta em andamento espera o resultado dela. Dentro de uma transação a
+    // leitura consulta sozinha: ela pode ver alterações ainda não confirmadas, que não podem vazar para outras.
+    public ClienteResposta carregarCompartilhado(String numeroConta, Function<String, ClienteResposta> carregar) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return carregar.apply(numeroConta);
+        }
+        CompletableFuture<ClienteResposta> leitura = new CompletableFuture<>();
+        CompletableFuture<ClienteResposta> emCurso = emAndamento.putIfAbsent(numeroConta, leitura);
+        if (emCurso != null) {
+            leiturasCompartilhadas.increment();
+            return aguardar(emCurso);
+        }
+        try {
+            ClienteResposta resposta = carregar.apply(numeroConta);
+            leitura.complete(resposta);
+            return resposta;
+        } catch (RuntimeException | Error ex) {
+            leitura.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            emAndamento.remove(numeroConta, leitura);
+        }
+    }
+
+    public void invalidarAposCommit(String... numerosConta) {
+        invalidarAposCommit(Arrays.asList(numerosConta));
+    }
+
+    // Sem cache, o commit ainda desliga as consultas em andamento das contas: quem chegar depois dele
+    // não pode receber o saldo de uma consulta que começou antes
+    public void invalidarAposCommit(Collection<String> numerosConta) {
+        if (!isHabilitado() && !isCoalescerLeituras()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<String> contas = List.copyOf(numerosConta);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar(contas);
+                }
+            });
+            return;
+        }
+        invalidar(numerosConta);
+    }
+
+    private void invalidar(Collection<String> numerosConta) {
+        porNumeroConta.invalidateAll(numerosConta);
+        numerosConta.forEach(emAndamento::remove);
+    }
+
+    // A exceção da consulta chega a todos que esperavam por ela, como se cada um tivesse consultado
+    private static ClienteResposta aguardar(CompletableFuture<ClienteResposta> leitura) {
+        try {
+            return leitura.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            if (ex.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw ex;
+        }
+    }
+
+    public void limpar() {
+        porNumeroConta.invalidateAll();
+        numeroContaPorId.invalidateAll();
+        emAndamento.clear();
+    }
+
+    long getLeiturasCompartilhadas() {
+        return leiturasCompartilhadas.sum();
+    }
+
+    Cache<String, ClienteResposta> getPorNumeroConta() {
+        return porNumeroConta;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, porNumeroConta, "clientes.numeroConta");
+        CaffeineCacheMetrics.monitor(registry, numeroContaPorId, "clientes.id");
+        FunctionCounter.builder("minibank.cache.leituras.compartilhadas", leiturasCompartilhadas, LongAdder::sum)
+                .description("Leituras sem cache atendidas pela consulta simultânea de outra leitura da mesma conta")
+                .register(registry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.mini_bank_api.service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.cache")
+public class CacheClientesProperties {
+
+    private boolean habilitado = true;
+
+    // Número máximo de contas em cache (despejo por frequência/recência, W-TinyLFU)
+    private long tamanhoMaximo = 100_000;
+
+    // Tempo máximo que uma conta fica em cache desde que foi carregada
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // Com o cache desabilitado, leituras simultâneas da mesma conta compartilham uma única consulta
+    private boolean coalescerLeituras = true;
+}
@@ -0,0 +1,45 @@
+package com.example.mini_bank_api.service.cluster;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Hash consistente: cada nó ocupa nosVirtuais pontos de um anel de 64 bits e a conta pertence ao primeiro
+// ponto a partir do hash do seu número. Ao entrar ou sair um nó, só mudam de dono as contas dos trechos
+// do anel que ele ganha ou perde (cerca de 1/N das contas), e não quase todas como em hash % N.
+// Imutável depois de criado: lido por várias threads sem trava.
+public class AnelConsistente {
+
+    private final TreeMap<Long, String> anel = new TreeMap<>();
+
+    public AnelConsistente(Collection<String> nos, int nosVirtuais) {
+        if (nos.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de ao menos um nó");
+        }
+        for (String no : nos) {
+            for (int i = 0; i < Math.max(1, nosVirtuais); i++) {
+                // Colisões entre pontos (raríssimas) ficam com o primeiro nó, igual em todos os nós
+                anel.putIfAbsent(hash(no + "#" + i), no);
+            }
+        }
+    }
+
+    public String dono(String numeroConta) {
+        Map.Entry<Long, String> ponto = anel.ceilingEntry(hash(numeroConta));
+        return (ponto != null ? ponto : anel.firstEntry()).getValue();
+    }
+
+    // FNV-1a de 64 bits com a mistura final do MurmurHash3: números de conta sequenciais caem longe no anel
+    static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash = (hash ^ valor.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
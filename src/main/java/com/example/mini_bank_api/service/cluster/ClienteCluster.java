@@ -0,0 +1,161 @@
+package com.example.mini_bank_api.service.cluster;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.ErroResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ErroRemotoException;
+import com.example.mini_bank_api.exception.NoIndisponivelException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Chamadas HTTP aos outros nós do cluster, com conexões reaproveitadas pelo HttpClient do JDK.
+// Falha de rede vira NoIndisponivelException; uma resposta de erro do outro nó vira ErroRemotoException.
+@Component
+public class ClienteCluster {
+
+    // Marca a requisição já encaminhada uma vez: quem a recebe não encaminha de novo
+    public static final String CABECALHO_ENCAMINHADO = "X-Mini-Bank-Encaminhado";
+
+    // Segredo compartilhado que autoriza as chamadas às rotas /api/interno de outro nó
+    public static final String CABECALHO_SEGREDO = "X-Mini-Bank-Segredo";
+
+    private static final List<String> CABECALHOS_REQUISICAO = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.IF_NONE_MATCH, "Idempotency-Key");
+
+    // Cabeçalhos da conexão entre os nós, que não valem para a resposta ao cliente
+    private static final Set<String> CABECALHOS_CONEXAO = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "date", "upgrade");
+
+    private static final String CAMINHO_TRANSFERENCIAS = "/api/interno/transferencias/";
+
+    private final ParticoesCluster particoesCluster;
+
+    private final String segredo;
+
+    private final ObjectMapper objectMapper;
+
+    private final RestClient restClient;
+
+    public ClienteCluster(ClusterProperties clusterProperties, ParticoesCluster particoesCluster,
+                          ObjectMapper objectMapper) {
+        this.particoesCluster = particoesCluster;
+        this.segredo = clusterProperties.getSegredo();
+        this.objectMapper = objectMapper;
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(clusterProperties.getTimeout()).build();
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(httpClient);
+        fabrica.setReadTimeout(clusterProperties.getTimeout());
+        this.restClient = RestClient.builder()
+                .requestFactory(fabrica)
+                .messageConverters(conversores -> {
+                    conversores.removeIf(MappingJackson2HttpMessageConverter.class::isInstance);
+                    conversores.add(new MappingJackson2HttpMessageConverter(objectMapper));
+                })
+                .build();
+    }
+
+    // Repete a requisição no nó dono da conta e devolve a resposta dele, seja qual for o status
+    public ResponseEntity<byte[]> encaminhar(String no, HttpServletRequest request) throws IOException {
+        String consulta = request.getQueryString() == null ? "" : "?" + request.getQueryString();
+        URI uri = URI.create(particoesCluster.url(no) + request.getRequestURI() + consulta);
+        byte[] corpo = request.getInputStream().readAllBytes();
+        RestClient.RequestBodySpec requisicao = restClient.method(HttpMethod.valueOf(request.getMethod()))
+                .uri(uri)
+                .headers(cabecalhos -> {
+                    for (String nome : CABECALHOS_REQUISICAO) {
+                        String valor = request.getHeader(nome);
+                        if (valor != null) {
+                            cabecalhos.set(nome, valor);
+                        }
+                    }
+                    cabecalhos.set(CABECALHO_ENCAMINHADO, particoesCluster.getNoAtual());
+                });
+        if (corpo.length > 0) {
+            requisicao.body(corpo);
+        }
+        return chamar(no, () -> requisicao.exchange((req, resposta) -> {
+            HttpHeaders cabecalhos = new HttpHeaders();
+            resposta.getHeaders().forEach((nome, valores) -> {
+                if (!CABECALHOS_CONEXAO.contains(nome.toLowerCase())) {
+                    cabecalhos.put(nome, valores);
+                }
+            });
+            return new ResponseEntity<>(resposta.getBody().readAllBytes(), cabecalhos, resposta.getStatusCode());
+        }));
+    }
+
+    public ClienteResposta cadastrar(String no, Cliente cliente) {
+        return chamar(no, () -> restClient.post()
+                .uri(particoesCluster.url(no) + "/api/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CABECALHO_ENCAMINHADO, particoesCluster.getNoAtual())
+                .body(cliente)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::lancarErro)
+                .body(ClienteResposta.class));
+    }
+
+    // Crédito da transferência id no nó de destino; repetir com o mesmo id não credita de novo
+    public void creditar(String no, String id, String contaOrigem, String contaDestino, BigDecimal valor) {
+        chamar(no, () -> restClient.post()
+                .uri(particoesCluster.url(no) + CAMINHO_TRANSFERENCIAS + "{id}/credito"
+                                + "?contaOrigem={origem}&contaDestino={destino}&valor={valor}",
+                        id, contaOrigem, contaDestino, valor.toPlainString())
+                .header(CABECALHO_SEGREDO, segredo)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::lancarErro)
+                .toBodilessEntity());
+    }
+
+    // Desiste da transferência id, se o destino ainda não a creditou; devolve o estado final no destino
+    public EstadoTransferencia cancelar(String no, String id) {
+        return chamar(no, () -> restClient.post()
+                .uri(particoesCluster.url(no) + CAMINHO_TRANSFERENCIAS + "{id}/cancelamento", id)
+                .header(CABECALHO_SEGREDO, segredo)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::lancarErro)
+                .body(EstadoTransferencia.class));
+    }
+
+    private <T> T chamar(String no, Supplier<T> chamada) {
+        try {
+            return chamada.get();
+        } catch (RestClientException ex) {
+            throw new NoIndisponivelException("Nó " + no + " indisponível", ex);
+        }
+    }
+
+    private void lancarErro(HttpRequest requisicao, ClientHttpResponse resposta)
+            throws IOException {
+        byte[] corpo = resposta.getBody().readAllBytes();
+        ErroResposta erro;
+        try {
+            erro = objectMapper.readValue(corpo, ErroResposta.class);
+        } catch (IOException ex) {
+            HttpStatus status = HttpStatus.resolve(resposta.getStatusCode().value());
+            erro = ErroResposta.de(status == null ? HttpStatus.BAD_GATEWAY : status,
+                    "Resposta inválida de outro nó do cluster");
+        }
+        throw new ErroRemotoException(resposta.getStatusCode(), erro);
+    }
+}
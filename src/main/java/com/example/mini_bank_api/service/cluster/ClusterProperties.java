@@ -0,0 +1,37 @@
+package com.example.mini_bank_api.service.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.cluster")
+public class ClusterProperties {
+
+    // Quando habilitado, cada nó guarda só as contas da sua partição e encaminha as demais ao dono
+    private boolean habilitado = false;
+
+    // Identificador deste nó, uma das chaves de nos
+    private String no;
+
+    // Todos os nós do cluster (o próprio inclusive): identificador -> URL base, ex. no-1=http://localhost:8081
+    private Map<String, String> nos = new LinkedHashMap<>();
+
+    // Segredo compartilhado entre os nós, exigido nas rotas /api/interno: o mesmo valor em todos os nós
+    private String segredo;
+
+    // Pontos de cada nó no anel: mais pontos, partições de tamanho mais parecido
+    private int nosVirtuais = 128;
+
+    // Tempo máximo de conexão e de resposta de outro nó
+    private Duration timeout = Duration.ofSeconds(2);
+
+    // Tentativas do crédito no nó de destino antes de desfazer a transferência
+    private int tentativas = 3;
+
+    // Intervalo entre as tentativas de resolver transferências sem confirmação do destino
+    private long intervaloReconciliacaoMs = 1000;
+}
@@ -0,0 +1,8 @@
+package com.example.mini_bank_api.service.cluster;
+
+// Decisão, no nó de destino, sobre uma transferência vinda de outro nó
+public enum EstadoTransferencia {
+    CREDITADA,
+    // A origem desistiu antes do crédito: um crédito que chegue depois é recusado
+    CANCELADA
+}
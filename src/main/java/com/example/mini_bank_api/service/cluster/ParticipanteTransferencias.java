@@ -0,0 +1,107 @@
+package com.example.mini_bank_api.service.cluster;
+
+import com.example.mini_bank_api.entity.TransferenciaRecebida;
+import com.example.mini_bank_api.exception.ParticaoIncorretaException;
+import com.example.mini_bank_api.exception.TransferenciaCanceladaException;
+import com.example.mini_bank_api.repository.TransferenciaRecebidaRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Lado do destino de uma transferência entre nós. A decisão (CREDITADA ou CANCELADA) é uma linha de
+// transferencias_recebidas, gravada na mesma transação do crédito: crédito e cancelamento da mesma transferência
+// disputam a chave primária, só um dos dois é confirmado, e a decisão sobrevive a reinícios do nó. Quem chega
+// com a outra chamada ainda em andamento espera a trava da linha e recebe o resultado já decidido.
+@Component
+public class ParticipanteTransferencias {
+
+    private final ClienteService clienteService;
+
+    private final ParticoesCluster particoesCluster;
+
+    private final TransferenciaRecebidaRepository transferenciaRecebidaRepository;
+
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ParticipanteTransferencias(ClienteService clienteService,
+                                      ParticoesCluster particoesCluster,
+                                      TransferenciaRecebidaRepository transferenciaRecebidaRepository,
+                                      ConcorrenciaProperties concorrenciaProperties,
+                                      PlatformTransactionManager transactionManager) {
+        this.clienteService = clienteService;
+        this.particoesCluster = particoesCluster;
+        this.transferenciaRecebidaRepository = transferenciaRecebidaRepository;
+        this.concorrenciaProperties = concorrenciaProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public EstadoTransferencia creditar(String id, String contaOrigem, String contaDestino, BigDecimal valor) {
+        // Só credita contas deste nó: a origem, sem confirmação, pede o cancelamento e estorna
+        if (particoesCluster.isRemota(contaDestino)) {
+            throw new ParticaoIncorretaException("Conta " + contaDestino + " pertence ao nó "
+                    + particoesCluster.dono(contaDestino) + ", não a " + particoesCluster.getNoAtual());
+        }
+        return decidir(id, () -> transactionTemplate.execute(status -> {
+            Optional<EstadoTransferencia> decidida = estado(id);
+            if (decidida.isPresent()) {
+                return respostaAoCredito(id, decidida.get());
+            }
+            // A linha primeiro: um cancelamento simultâneo fica esperando por ela, não pelo crédito
+            transferenciaRecebidaRepository.inserir(id, EstadoTransferencia.CREDITADA.name(), LocalDateTime.now());
+            clienteService.creditarTransferencia(contaDestino, contaOrigem, valor);
+            return EstadoTransferencia.CREDITADA;
+        }), estado -> respostaAoCredito(id, estado));
+    }
+
+    public EstadoTransferencia cancelar(String id) {
+        return decidir(id, () -> transactionTemplate.execute(status -> {
+            Optional<EstadoTransferencia> decidida = estado(id);
+            if (decidida.isPresent()) {
+                return decidida.get();
+            }
+            transferenciaRecebidaRepository.inserir(id, EstadoTransferencia.CANCELADA.name(), LocalDateTime.now());
+            return EstadoTransferencia.CANCELADA;
+        }), estado -> estado);
+    }
+
+    // Chave primária recusada: a outra chamada confirmou primeiro, e esta transação (com o crédito, se houve)
+    // foi desfeita. Conflito de versão no crédito: repete a transação inteira, como a RetentativaOtimistaAspect.
+    private EstadoTransferencia decidir(String id, Supplier<EstadoTransferencia> transacao,
+                                        UnaryOperator<EstadoTransferencia> resposta) {
+        int maxTentativas = Math.max(1, concorrenciaProperties.getMaxTentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transacao.get();
+            } catch (DataIntegrityViolationException ex) {
+                return resposta.apply(estado(id).orElseThrow(() -> ex));
+            } catch (OptimisticLockingFailureException ex) {
+                if (tentativa >= maxTentativas) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private Optional<EstadoTransferencia> estado(String id) {
+        return transferenciaRecebidaRepository.findById(id).map(TransferenciaRecebida::getEstado);
+    }
+
+    private static EstadoTransferencia respostaAoCredito(String id, EstadoTransferencia estado) {
+        if (estado == EstadoTransferencia.CANCELADA) {
+            throw new TransferenciaCanceladaException("Transferência " + id + " já foi desfeita pela origem");
+        }
+        return estado;
+    }
+}
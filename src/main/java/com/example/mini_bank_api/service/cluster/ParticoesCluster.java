@@ -0,0 +1,49 @@
+package com.example.mini_bank_api.service.cluster;
+
+import org.springframework.stereotype.Component;
+
+// Qual nó é dono de cada conta. Todos os nós precisam da mesma lista de nós para concordarem entre si.
+@Component
+public class ParticoesCluster {
+
+    private final ClusterProperties clusterProperties;
+
+    private final AnelConsistente anel;
+
+    public ParticoesCluster(ClusterProperties clusterProperties) {
+        this.clusterProperties = clusterProperties;
+        if (!clusterProperties.isHabilitado()) {
+            this.anel = null;
+            return;
+        }
+        if (!clusterProperties.getNos().containsKey(clusterProperties.getNo())) {
+            throw new IllegalStateException("mini-bank.cluster.no (" + clusterProperties.getNo()
+                    + ") não está em mini-bank.cluster.nos " + clusterProperties.getNos().keySet());
+        }
+        if (clusterProperties.getSegredo() == null || clusterProperties.getSegredo().isBlank()) {
+            throw new IllegalStateException("mini-bank.cluster.segredo é obrigatório no modo cluster");
+        }
+        this.anel = new AnelConsistente(clusterProperties.getNos().keySet(), clusterProperties.getNosVirtuais());
+    }
+
+    public boolean isHabilitado() {
+        return clusterProperties.isHabilitado();
+    }
+
+    public String getNoAtual() {
+        return clusterProperties.getNo();
+    }
+
+    public String dono(String numeroConta) {
+        return isHabilitado() ? anel.dono(numeroConta) : clusterProperties.getNo();
+    }
+
+    // Fora do modo cluster toda conta é local
+    public boolean isRemota(String numeroConta) {
+        return isHabilitado() && !anel.dono(numeroConta).equals(clusterProperties.getNo());
+    }
+
+    public String url(String no) {
+        return clusterProperties.getNos().get(no);
+    }
+}
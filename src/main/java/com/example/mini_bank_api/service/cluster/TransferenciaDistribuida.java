@@ -0,0 +1,246 @@
+package com.example.mini_bank_api.service.cluster;
+
+import com.example.mini_bank_api.entity.TransferenciaEnviada;
+import com.example.mini_bank_api.exception.ErroRemotoException;
+import com.example.mini_bank_api.exception.NoIndisponivelException;
+import com.example.mini_bank_api.repository.TransferenciaEnviadaRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Transferência entre contas de nós diferentes, coordenada pelo nó da conta de origem (saga):
+// 1. débito na origem, na mesma transação local que grava a transferência em transferencias_enviadas;
+// 2. crédito no nó de destino, identificado por um id e repetido até tentativas vezes;
+// 3. se o destino recusar (4xx) o valor volta para a origem (ESTORNO); se não responder, a origem pede o
+//    cancelamento, e o destino diz se já tinha creditado (fim) ou se desistiu (estorno).
+// A linha é apagada no desfecho, na transação do estorno quando há um: só quem apaga a linha estorna, então
+// a mesma transferência nunca é estornada duas vezes. Sem resposta nem ao cancelamento a linha fica, e a
+// reconciliação em segundo plano resolve as linhas pendentes, inclusive as que sobraram de antes de um
+// reinício do nó. Entre o débito e o crédito o valor não está em nenhuma das duas contas.
+@Slf4j
+@Component
+@Lazy(false)
+public class TransferenciaDistribuida implements MeterBinder {
+
+    private final ClusterProperties clusterProperties;
+
+    private final ParticoesCluster particoesCluster;
+
+    private final ClienteCluster clienteCluster;
+
+    private final ClienteService clienteService;
+
+    private final ClienteValidation clienteValidation;
+
+    private final TransferenciaEnviadaRepository transferenciaEnviadaRepository;
+
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Transferências ainda nas mãos de transferir(): a reconciliação não mexe nelas
+    private final Set<String> emAndamento = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService agendador;
+
+    public TransferenciaDistribuida(ClusterProperties clusterProperties,
+                                    ParticoesCluster particoesCluster,
+                                    ClienteCluster clienteCluster,
+                                    ClienteService clienteService,
+                                    ClienteValidation clienteValidation,
+                                    TransferenciaEnviadaRepository transferenciaEnviadaRepository,
+                                    ConcorrenciaProperties concorrenciaProperties,
+                                    PlatformTransactionManager transactionManager) {
+        this.clusterProperties = clusterProperties;
+        this.particoesCluster = particoesCluster;
+        this.clienteCluster = clienteCluster;
+        this.clienteService = clienteService;
+        this.clienteValidation = clienteValidation;
+        this.transferenciaEnviadaRepository = transferenciaEnviadaRepository;
+        this.concorrenciaProperties = concorrenciaProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!particoesCluster.isHabilitado()) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cluster-reconciliacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A primeira rodada, logo na subida, retoma as transferências deixadas pendentes antes de um reinício
+        agendador.scheduleWithFixedDelay(this::reconciliar, 0,
+                clusterProperties.getIntervaloReconciliacaoMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdown();
+        }
+    }
+
+    // true quando o destino confirmou o crédito; false quando a transferência ficou pendente
+    public boolean transferir(String contaOrigem, String contaDestino, BigDecimal valor) {
+        clienteValidation.validarValorPositivo(valor);
+        clienteValidation.validarContasDiferentes(contaOrigem, contaDestino);
+
+        Pendente transferencia = new Pendente(UUID.randomUUID().toString(), particoesCluster.dono(contaDestino),
+                contaOrigem, contaDestino, valor);
+        emAndamento.add(transferencia.id());
+        try {
+            return transferir(transferencia);
+        } finally {
+            emAndamento.remove(transferencia.id());
+        }
+    }
+
+    private boolean transferir(Pendente transferencia) {
+        // A linha primeiro: um débito recusado (saldo, conta) desfaz a linha junto
+        emTransacao(() -> {
+            transferenciaEnviadaRepository.inserir(transferencia.id(), transferencia.no(),
+                    transferencia.contaOrigem(), transferencia.contaDestino(), transferencia.valor(),
+                    LocalDateTime.now());
+            return clienteService.debitarTransferencia(transferencia.contaOrigem(), transferencia.contaDestino(),
+                    transferencia.valor());
+        });
+
+        int maxTentativas = Math.max(1, clusterProperties.getTentativas());
+        for (int tentativa = 1; tentativa <= maxTentativas; tentativa++) {
+            try {
+                clienteCluster.creditar(transferencia.no(), transferencia.id(), transferencia.contaOrigem(),
+                        transferencia.contaDestino(), transferencia.valor());
+                concluir(transferencia);
+                return true;
+            } catch (ErroRemotoException ex) {
+                if (ex.isRecusa()) {
+                    // Se o estorno falhar a linha continua, e a reconciliação pede o cancelamento
+                    // (que o destino aceita) e estorna de novo
+                    estornar(transferencia);
+                    throw ex;
+                }
+                log.debug("Crédito da transferência {} sem confirmação (tentativa {}/{}): {}",
+                        transferencia.id(), tentativa, maxTentativas, ex.getMessage());
+            } catch (NoIndisponivelException ex) {
+                log.debug("Crédito da transferência {} sem confirmação (tentativa {}/{}): {}",
+                        transferencia.id(), tentativa, maxTentativas, ex.getMessage());
+            }
+        }
+
+        // Se o destino cancelou e o estorno falhar aqui, a reconciliação cancela de novo e refaz o estorno
+        EstadoTransferencia estado = resolver(transferencia);
+        if (estado == EstadoTransferencia.CREDITADA) {
+            return true;
+        }
+        if (estado == EstadoTransferencia.CANCELADA) {
+            throw new NoIndisponivelException("Nó " + transferencia.no() + " indisponível: transferência desfeita");
+        }
+        log.warn("Transferência {} de {} para {} pendente: nó {} sem resposta", transferencia.id(),
+                transferencia.contaOrigem(), transferencia.contaDestino(), transferencia.no());
+        return false;
+    }
+
+    // Tenta de novo o cancelamento das transferências gravadas e sem desfecho
+    public void reconciliar() {
+        for (TransferenciaEnviada enviada : transferenciaEnviadaRepository.findAll()) {
+            if (emAndamento.contains(enviada.getId())) {
+                continue;
+            }
+            Pendente transferencia = new Pendente(enviada.getId(), enviada.getNoDestino(),
+                    enviada.getContaOrigem(), enviada.getContaDestino(), enviada.getValor());
+            try {
+                resolver(transferencia);
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao resolver a transferência pendente {}", transferencia.id(), ex);
+            }
+        }
+    }
+
+    // Consulta a tabela: chamada pelo gauge e pelos testes, não pelo caminho das transferências
+    public int getPendentes() {
+        if (!particoesCluster.isHabilitado()) {
+            return 0;
+        }
+        return (int) transferenciaEnviadaRepository.count();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minibank.cluster.transferencias.pendentes", this, TransferenciaDistribuida::getPendentes)
+                .description("Transferências entre nós debitadas na origem e sem confirmação do destino")
+                .register(registry);
+    }
+
+    private void concluir(Pendente transferencia) {
+        emTransacao(() -> transferenciaEnviadaRepository.apagar(transferencia.id()));
+    }
+
+    // Crédito recusado ou cancelado: nada foi creditado no destino
+    private void estornar(Pendente transferencia) {
+        emTransacao(() -> {
+            if (transferenciaEnviadaRepository.apagar(transferencia.id()) == 0) {
+                return null;
+            }
+            return clienteService.estornarTransferencia(transferencia.contaOrigem(), transferencia.contaDestino(),
+                    transferencia.valor());
+        });
+    }
+
+    // null: o destino continua sem responder
+    private EstadoTransferencia resolver(Pendente transferencia) {
+        EstadoTransferencia estado;
+        try {
+            estado = clienteCluster.cancelar(transferencia.no(), transferencia.id());
+        } catch (NoIndisponivelException | ErroRemotoException ex) {
+            return null;
+        }
+        if (estado == EstadoTransferencia.CANCELADA) {
+            estornar(transferencia);
+        } else if (estado == EstadoTransferencia.CREDITADA) {
+            concluir(transferencia);
+        }
+        return estado;
+    }
+
+    // Conflito de versão no débito ou no estorno: repete a transação inteira, como a RetentativaOtimistaAspect
+    // (que não repete dentro de uma transação já aberta)
+    private <T> T emTransacao(Supplier<T> operacao) {
+        int maxTentativas = Math.max(1, concorrenciaProperties.getMaxTentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> operacao.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (tentativa >= maxTentativas) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private record Pendente(String id, String no, String contaOrigem, String contaDestino, BigDecimal valor) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.mini_bank_api.service.concorrencia;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.concorrencia")
+public class ConcorrenciaProperties {
+
+    private EstrategiaConcorrencia estrategia = EstrategiaConcorrencia.OTIMISTA;
+
+    // Número máximo de tentativas quando há conflito de versão
+    private int maxTentativas = 5;
+}
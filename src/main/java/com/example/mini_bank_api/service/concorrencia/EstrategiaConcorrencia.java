@@ -0,0 +1,10 @@
+package com.example.mini_bank_api.service.concorrencia;
+
+public enum EstrategiaConcorrencia {
+    // Coluna @Version com retentativa limitada
+    OTIMISTA,
+    // SELECT ... FOR UPDATE na linha da conta
+    PESSIMISTA,
+    // UPDATE clientes SET saldo = saldo + ? direto no banco
+    ATOMICA
+}
@@ -0,0 +1,47 @@
+package com.example.mini_bank_api.service.concorrencia;
+
+import com.example.mini_bank_api.config.AspectosConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Executa antes do @Transactional (e logo depois das métricas), então cada tentativa roda em uma transação nova
+@Slf4j
+@Aspect
+@Component
+@Order(AspectosConfig.ORDEM_RETENTATIVA)
+@RequiredArgsConstructor
+public class RetentativaOtimistaAspect {
+
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.depositar(..)) || " +
+            "execution(* com.example.mini_bank_api.service.ClienteService.sacar(..)) || " +
+            "execution(* com.example.mini_bank_api.service.ClienteService.transferir(..)) || " +
+            "execution(* com.example.mini_bank_api.service.ClienteService.*Transferencia(..))")
+    public Object retentar(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Dentro de uma transação externa não dá para repetir: quem abriu a transação decide
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        int maxTentativas = Math.max(1, concorrenciaProperties.getMaxTentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                if (tentativa >= maxTentativas) {
+                    throw ex;
+                }
+                log.debug("Conflito de versão em {} (tentativa {}/{})",
+                        joinPoint.getSignature().getName(), tentativa, maxTentativas);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.mini_bank_api.service.extrato;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.extrato")
+public class ExtratoProperties {
+
+    // Quando habilitado, cada alteração de saldo grava um movimento na mesma transação (um INSERT a mais)
+    private boolean habilitado = false;
+
+    // Movimentos do ledger gravados por transação no flush
+    private int tamanhoLote = 500;
+}
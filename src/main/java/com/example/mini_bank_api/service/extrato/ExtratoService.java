@@ -0,0 +1,138 @@
+package com.example.mini_bank_api.service.extrato;
+
+import com.example.mini_bank_api.dto.PaginaExtrato;
+import com.example.mini_bank_api.dto.SaldoEmInstante;
+import com.example.mini_bank_api.entity.Movimento;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.ExtratoDesabilitadoException;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.repository.MovimentoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Consultas do extrato. Todas partem dos índices por (conta, data/hora, id): o custo depende do tamanho
+// da página ou do período pedido, não de quantos movimentos a conta acumulou.
+// Com o ledger em memória os movimentos chegam ao banco no flush, junto com os saldos.
+// Com o extrato desabilitado nenhum movimento é gravado, então as consultas são recusadas em vez de
+// responder com um histórico vazio ou incompleto.
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExtratoService {
+
+    public static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
+    private static final char SEPARADOR_CURSOR = '_';
+
+    private final MovimentoRepository movimentoRepository;
+
+    private final ClienteRepository clienteRepository;
+
+    private final ExtratoProperties extratoProperties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Movimentos do período [de, ate), a partir do cursor da página anterior
+    public PaginaExtrato buscarPagina(String numeroConta, LocalDateTime de, LocalDateTime ate,
+                                      String cursor, int tamanho) {
+        validarHabilitado();
+        validarPeriodo(de, ate);
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        LocalDateTime aposDataHora = de;
+        long aposId = 0L;
+        if (cursor != null) {
+            int separador = cursor.lastIndexOf(SEPARADOR_CURSOR);
+            try {
+                aposDataHora = LocalDateTime.parse(cursor.substring(0, separador));
+                aposId = Long.parseLong(cursor.substring(separador + 1));
+            } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException ex) {
+                throw new ValorInvalidoException("Cursor do extrato inválido");
+            }
+            if (aposDataHora.isBefore(de)) {
+                aposDataHora = de;
+                aposId = 0L;
+            }
+        }
+
+        List<Movimento> movimentos = movimentoRepository.buscarPagina(numeroConta, aposDataHora, aposId, ate,
+                Limit.of(tamanhoPagina));
+        if (movimentos.isEmpty() && cursor == null) {
+            validarConta(numeroConta);
+        }
+        String proximoCursor = null;
+        if (movimentos.size() == tamanhoPagina) {
+            Movimento ultimo = movimentos.get(movimentos.size() - 1);
+            proximoCursor = ultimo.getDataHora().toString() + SEPARADOR_CURSOR + ultimo.getId();
+        }
+        return new PaginaExtrato(movimentos, proximoCursor);
+    }
+
+    // Todos os movimentos do período, lidos por cursor com memória constante
+    public long percorrerPeriodo(String numeroConta, LocalDateTime de, LocalDateTime ate,
+                                 Consumer<Movimento> consumidor) {
+        validarConsulta(numeroConta, de, ate);
+        long total = 0;
+        try (Stream<Movimento> movimentos = movimentoRepository.streamPeriodo(numeroConta, de, ate)) {
+            Iterator<Movimento> iterator = movimentos.iterator();
+            while (iterator.hasNext()) {
+                Movimento movimento = iterator.next();
+                consumidor.accept(movimento);
+                entityManager.detach(movimento);
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // Cada movimento guarda o saldo logo após ele: basta o último até o instante, sem somar o histórico
+    public SaldoEmInstante buscarSaldoEm(String numeroConta, LocalDateTime instante) {
+        validarHabilitado();
+        Optional<Movimento> ultimo = movimentoRepository
+                .findFirstByNumeroContaAndDataHoraLessThanEqualOrderByNumeroContaAscDataHoraDescIdDesc(numeroConta,
+                        instante);
+        if (ultimo.isEmpty()) {
+            validarConta(numeroConta);
+            return new SaldoEmInstante(numeroConta, instante, BigDecimal.ZERO.setScale(2), null);
+        }
+        return new SaldoEmInstante(numeroConta, instante, ultimo.get().getSaldoApos(), ultimo.get().getId());
+    }
+
+    public void validarConsulta(String numeroConta, LocalDateTime de, LocalDateTime ate) {
+        validarHabilitado();
+        validarPeriodo(de, ate);
+        validarConta(numeroConta);
+    }
+
+    private void validarHabilitado() {
+        if (!extratoProperties.isHabilitado()) {
+            throw new ExtratoDesabilitadoException("Extrato desabilitado nesta instância");
+        }
+    }
+
+    private void validarConta(String numeroConta) {
+        if (!clienteRepository.existsByNumeroConta(numeroConta)) {
+            throw new ClienteNotFoundException("Conta não encontrada");
+        }
+    }
+
+    private static void validarPeriodo(LocalDateTime de, LocalDateTime ate) {
+        if (!de.isBefore(ate)) {
+            throw new ValorInvalidoException("O início do período deve ser anterior ao fim");
+        }
+    }
+}
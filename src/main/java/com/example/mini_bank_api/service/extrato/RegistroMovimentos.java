@@ -0,0 +1,109 @@
+package com.example.mini_bank_api.service.extrato;
+
+import com.example.mini_bank_api.entity.Movimento;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.repository.MovimentoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Grava os movimentos do extrato.
+// registrar: na transação de quem alterou o saldo, que ainda segura a conta (bloqueio, versão ou UPDATE),
+// então a data/hora e o id crescem na mesma ordem das alterações de cada conta.
+// adiar: para o ledger em memória, que só grava no banco no flush; os movimentos esperam em ordem de chegada.
+@Slf4j
+@Component
+public class RegistroMovimentos {
+
+    private final ExtratoProperties extratoProperties;
+
+    private final MovimentoRepository movimentoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentLinkedDeque<Movimento> adiados = new ConcurrentLinkedDeque<>();
+
+    public RegistroMovimentos(ExtratoProperties extratoProperties,
+                              MovimentoRepository movimentoRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.extratoProperties = extratoProperties;
+        this.movimentoRepository = movimentoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isHabilitado() {
+        return extratoProperties.isHabilitado();
+    }
+
+    public void registrar(String numeroConta, TipoMovimento tipo, BigDecimal valor, BigDecimal saldoApos) {
+        registrar(numeroConta, tipo, valor, saldoApos, null);
+    }
+
+    // valor sem sinal: saques e transferências enviadas são gravados negativos (o AJUSTE já vem com o sinal)
+    public void registrar(String numeroConta, TipoMovimento tipo, BigDecimal valor, BigDecimal saldoApos,
+                          String contaContraparte) {
+        if (isHabilitado()) {
+            movimentoRepository.save(novo(numeroConta, tipo, valor, saldoApos, contaContraparte));
+        }
+    }
+
+    // Deve ser chamado com a conta ainda travada, para manter a ordem dos movimentos da conta
+    public void adiar(String numeroConta, TipoMovimento tipo, BigDecimal valor, BigDecimal saldoApos,
+                      String contaContraparte) {
+        if (isHabilitado()) {
+            adiados.add(novo(numeroConta, tipo, valor, saldoApos, contaContraparte));
+        }
+    }
+
+    // Grava os movimentos adiados em lotes; um lote que falhar volta para o início da fila, na mesma ordem
+    public void gravarAdiados() {
+        List<Movimento> lote = new ArrayList<>(extratoProperties.getTamanhoLote());
+        Movimento movimento;
+        while ((movimento = adiados.poll()) != null) {
+            lote.add(movimento);
+            if (lote.size() >= extratoProperties.getTamanhoLote() || adiados.isEmpty()) {
+                if (!gravar(lote)) {
+                    return;
+                }
+                lote = new ArrayList<>(extratoProperties.getTamanhoLote());
+            }
+        }
+    }
+
+    public int getMovimentosAdiados() {
+        return adiados.size();
+    }
+
+    private boolean gravar(List<Movimento> lote) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> movimentoRepository.saveAll(lote));
+            return true;
+        } catch (RuntimeException ex) {
+            for (int i = lote.size() - 1; i >= 0; i--) {
+                Movimento movimento = lote.get(i);
+                movimento.setId(null);
+                adiados.addFirst(movimento);
+            }
+            log.error("Falha ao gravar lote de {} movimentos do ledger", lote.size(), ex);
+            return false;
+        }
+    }
+
+    // Movimento ainda não gravado, para quem grava em massa direto pelo EntityManager
+    public static Movimento novo(String numeroConta, TipoMovimento tipo, BigDecimal valor, BigDecimal saldoApos,
+                                  String contaContraparte) {
+        BigDecimal valorComSinal = switch (tipo) {
+            case SAQUE, TRANSFERENCIA_ENVIADA -> valor.negate();
+            default -> valor;
+        };
+        return new Movimento(null, numeroConta, LocalDateTime.now(), tipo, valorComSinal, saldoApos,
+                contaContraparte);
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.mini_bank_api.service.fila;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.ContaSobrecarregadaException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.cache.CacheClientes;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.idempotencia.IdempotenciaProperties;
+import com.example.mini_bank_api.service.journal.JournalTransacoes;
+import com.example.mini_bank_api.service.journal.TipoOperacao;
+import com.example.mini_bank_api.service.ledger.LedgerProperties;
+import com.example.mini_bank_api.util.Centavos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Depósitos e saques enfileirados por conta, com um único escritor por fila.
+// As contas são distribuídas entre as filas pelo hash do número da conta. A thread de cada fila
+// retira os pedidos acumulados e aplica todos em uma transação: as contas do lote são lidas com
+// SELECT ... FOR UPDATE, os pedidos de cada conta são aplicados em ordem na memória e cada conta
+// recebe um único UPDATE, por mais pedidos que tenha. Uma conta muito disputada deixa de serializar
+// uma transação por requisição e passa a serializar uma por lote.
+// Quem chama recebe um CompletableFuture, concluído depois do commit. Com o journal habilitado, o escritor
+// registra os pedidos confirmados do lote e espera um único fsync antes de concluir os futuros.
+// Escritores iniciados na subida, mesmo com spring.main.lazy-initialization.
+// Não combina com mini-bank.idempotencia.persistir: a transação da chave seguraria uma conexão esperando o
+// escritor, que precisa de outra do mesmo pool, e a operação seria confirmada na transação do lote, não na da
+// chave. A subida é recusada; com o ledger as filas não são usadas e a combinação é aceita.
+@Slf4j
+@Lazy(false)
+@Component
+public class FilasContas implements MeterBinder {
+
+    private final FilasContasProperties filasProperties;
+
+    private final ClienteRepository clienteRepository;
+
+    private final ClienteValidation clienteValidation;
+
+    private final CacheClientes cacheClientes;
+
+    private final RegistroMovimentos registroMovimentos;
+
+    private final AgregadosAgencias agregadosAgencias;
+
+    private final JournalTransacoes journalTransacoes;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final List<BlockingQueue<Pedido>> filas = new ArrayList<>();
+
+    private final List<Thread> escritores = new ArrayList<>();
+
+    private volatile boolean ativo;
+
+    private DistributionSummary tamanhoLotes;
+
+    public FilasContas(FilasContasProperties filasProperties,
+                       ClienteRepository clienteRepository,
+                       ClienteValidation clienteValidation,
+                       CacheClientes cacheClientes,
+                       RegistroMovimentos registroMovimentos,
+                       AgregadosAgencias agregadosAgencias,
+                       JournalTransacoes journalTransacoes,
+                       IdempotenciaProperties idempotenciaProperties,
+                       LedgerProperties ledgerProperties,
+                       PlatformTransactionManager transactionManager) {
+        if (filasProperties.isHabilitado() && !ledgerProperties.isHabilitado()
+                && idempotenciaProperties.isHabilitado() && idempotenciaProperties.isPersistir()) {
+            throw new IllegalStateException(
+                    "mini-bank.filas.habilitado não combina com mini-bank.idempotencia.persistir");
+        }
+        this.filasProperties = filasProperties;
+        this.clienteRepository = clienteRepository;
+        this.clienteValidation = clienteValidation;
+        this.cacheClientes = cacheClientes;
+        this.registroMovimentos = registroMovimentos;
+        this.agregadosAgencias = agregadosAgencias;
+        this.journalTransacoes = journalTransacoes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!isHabilitado()) {
+            return;
+        }
+        int particoes = Integer.highestOneBit(Math.max(1, filasProperties.getParticoes()));
+        ativo = true;
+        for (int i = 0; i < particoes; i++) {
+            BlockingQueue<Pedido> fila = new ArrayBlockingQueue<>(filasProperties.getCapacidade());
+            Thread escritor = new Thread(() -> consumir(fila), "fila-contas-" + i);
+            escritor.setDaemon(true);
+            filas.add(fila);
+            escritores.add(escritor);
+            escritor.start();
+        }
+    }
+
+    // Os escritores terminam de aplicar o que já estava nas filas antes de parar
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        ativo = false;
+        for (Thread escritor : escritores) {
+            escritor.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public boolean isHabilitado() {
+        return filasProperties.isHabilitado();
+    }
+
+    public CompletableFuture<Cliente> depositar(String numeroConta, BigDecimal valor) {
+        return enfileirar(new Pedido(numeroConta, Centavos.deValor(valor), false));
+    }
+
+    public CompletableFuture<Cliente> sacar(String numeroConta, BigDecimal valor) {
+        return enfileirar(new Pedido(numeroConta, Centavos.deValor(valor), true));
+    }
+
+    public int getPedidosPendentes() {
+        int pendentes = 0;
+        for (BlockingQueue<Pedido> fila : filas) {
+            pendentes += fila.size();
+        }
+        return pendentes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minibank.filas.pedidos.pendentes", this, FilasContas::getPedidosPendentes)
+                .description("Depósitos e saques aguardando nas filas por conta")
+                .register(registry);
+        tamanhoLotes = DistributionSummary.builder("minibank.filas.lote.tamanho")
+                .description("Pedidos aplicados por transação nas filas por conta")
+                .register(registry);
+    }
+
+    private CompletableFuture<Cliente> enfileirar(Pedido pedido) {
+        if (!ativo) {
+            throw new IllegalStateException("Filas por conta desabilitadas");
+        }
+        if (!filas.get(indice(pedido.numeroConta)).offer(pedido)) {
+            throw new ContaSobrecarregadaException("Muitas operações pendentes para a conta, tente novamente");
+        }
+        return pedido.resultado;
+    }
+
+    private void consumir(BlockingQueue<Pedido> fila) {
+        List<Pedido> lote = new ArrayList<>(filasProperties.getTamanhoMaximoLote());
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, filasProperties.getTamanhoMaximoLote() - 1);
+                aplicar(lote);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Falha inesperada na fila de contas", ex);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void aplicar(List<Pedido> lote) {
+        Map<String, List<Pedido>> porConta = new LinkedHashMap<>();
+        for (Pedido pedido : lote) {
+            porConta.computeIfAbsent(pedido.numeroConta, numero -> new ArrayList<>()).add(pedido);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Cliente> clientes = clienteRepository.findAllByNumeroContaInForUpdate(porConta.keySet());
+                for (Cliente cliente : clientes) {
+                    aplicarNaConta(cliente, porConta.remove(cliente.getNumeroConta()));
+                }
+                clienteRepository.flush();
+                for (Cliente cliente : clientes) {
+                    cacheClientes.invalidarAposCommit(cliente.getNumeroConta());
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Nada foi gravado: todos os pedidos do lote falham com o mesmo erro
+            for (Pedido pedido : lote) {
+                pedido.erro = ex;
+            }
+            porConta.clear();
+        }
+
+        // Contas que não existem no banco
+        for (List<Pedido> pedidos : porConta.values()) {
+            for (Pedido pedido : pedidos) {
+                pedido.erro = new ClienteNotFoundException("Conta não encontrada");
+            }
+        }
+        if (tamanhoLotes != null) {
+            tamanhoLotes.record(lote.size());
+        }
+        registrarNoJournal(lote);
+        for (Pedido pedido : lote) {
+            pedido.concluir();
+        }
+    }
+
+    // Aplica os pedidos na ordem de chegada; um saque sem saldo é rejeitado sem afetar os demais
+    private void aplicarNaConta(Cliente cliente, List<Pedido> pedidos) {
+        long saldo = Centavos.deValor(cliente.getSaldo());
+        for (Pedido pedido : pedidos) {
+            try {
+                if (pedido.saque) {
+                    clienteValidation.validarSaldoSuficiente(saldo, pedido.centavos);
+                    saldo = Centavos.subtrair(saldo, pedido.centavos);
+                } else {
+                    saldo = Centavos.somar(saldo, pedido.centavos);
+                }
+                pedido.cliente = cliente;
+                pedido.saldoApos = saldo;
+                registroMovimentos.registrar(cliente.getNumeroConta(),
+                        pedido.saque ? TipoMovimento.SAQUE : TipoMovimento.DEPOSITO,
+                        Centavos.paraValor(pedido.centavos), Centavos.paraValor(saldo));
+                agregadosAgencias.registrar(cliente.getAgencia(), pedido.saque ? -pedido.centavos : pedido.centavos,
+                        saldo);
+            } catch (RuntimeException ex) {
+                pedido.erro = ex;
+            }
+        }
+        cliente.setSaldo(Centavos.paraValor(saldo));
+    }
+
+    // Depois do commit: o banco já garante os saldos, o journal é o histórico do que foi confirmado.
+    // Uma falha aqui não desfaz nem recusa os pedidos.
+    private void registrarNoJournal(List<Pedido> lote) {
+        if (!journalTransacoes.isHabilitado()) {
+            return;
+        }
+        try {
+            long ultimo = -1;
+            for (Pedido pedido : lote) {
+                if (pedido.erro == null) {
+                    ultimo = journalTransacoes.registrarSemAguardar(
+                            pedido.saque ? TipoOperacao.SAQUE : TipoOperacao.DEPOSITO, pedido.numeroConta, null,
+                            Centavos.paraValor(pedido.centavos), Centavos.paraValor(pedido.saldoApos), null);
+                }
+            }
+            if (ultimo >= 0) {
+                journalTransacoes.aguardarSincronizacao(ultimo);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Falha ao registrar no journal um lote de {} pedidos já confirmados", lote.size(), ex);
+        }
+    }
+
+    private int indice(String numeroConta) {
+        int hash = numeroConta.hashCode();
+        return (hash ^ (hash >>> 16)) & (filas.size() - 1);
+    }
+
+    private static final class Pedido {
+        private final String numeroConta;
+        private final long centavos;
+        private final boolean saque;
+        private final CompletableFuture<Cliente> resultado = new CompletableFuture<>();
+
+        // Preenchidos pelo escritor da fila
+        private Cliente cliente;
+        private long saldoApos;
+        private RuntimeException erro;
+
+        private Pedido(String numeroConta, long centavos, boolean saque) {
+            this.numeroConta = numeroConta;
+            this.centavos = centavos;
+            this.saque = saque;
+        }
+
+        // Cada pedido recebe o saldo logo após a sua operação, não o saldo final do lote
+        private void concluir() {
+            if (erro != null) {
+                resultado.completeExceptionally(erro);
+                return;
+            }
+            resultado.complete(new Cliente(cliente.getId(), cliente.getNome(), cliente.getNumeroConta(),
+                    cliente.getAgencia(), Centavos.paraValor(saldoApos), cliente.getVersao()));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mini_bank_api.service.fila;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.filas")
+public class FilasContasProperties {
+
+    // Quando habilitado, depósitos e saques são aplicados por uma única thread por partição de contas
+    private boolean habilitado = false;
+
+    // Número de filas (potência de 2); cada conta pertence sempre à mesma fila
+    private int particoes = 8;
+
+    // Máximo de pedidos aplicados em uma mesma transação
+    private int tamanhoMaximoLote = 256;
+
+    // Pedidos aguardando em cada fila; acima disso a requisição recebe 503
+    private int capacidade = 10_000;
+}
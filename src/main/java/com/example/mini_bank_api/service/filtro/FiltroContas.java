@@ -0,0 +1,176 @@
+package com.example.mini_bank_api.service.filtro;
+
+import com.example.mini_bank_api.repository.ClienteRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Filtro de Bloom dos números de conta cadastrados, na frente da consulta de unicidade dos caminhos em massa.
+// Fora do filtro, a conta certamente não existe e dispensa o banco; dentro, pode ser um falso positivo e
+// precisa ser conferida. Reconstruído da tabela na subida, em segundo plano: até terminar, toda conta
+// "pode existir". Bits só são ligados, nunca desligados, então adições concorrentes à reconstrução valem.
+// Contas gravadas por fora da aplicação só entram na próxima subida; o índice único continua sendo a garantia.
+@Slf4j
+@Component
+public class FiltroContas implements MeterBinder {
+
+    private final FiltroContasProperties filtroProperties;
+
+    private final ClienteRepository clienteRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLongArray bits;
+
+    private final long totalBits;
+
+    private final int funcoesHash;
+
+    private final LongAdder consultas = new LongAdder();
+
+    private final LongAdder descartadas = new LongAdder();
+
+    private volatile boolean pronto;
+
+    public FiltroContas(FiltroContasProperties filtroProperties,
+                        ClienteRepository clienteRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.filtroProperties = filtroProperties;
+        this.clienteRepository = clienteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        // m = -n ln p / (ln 2)², k = m/n ln 2 (arredondado para palavras de 64 bits)
+        long capacidade = Math.max(1, filtroProperties.getCapacidade());
+        double taxa = Math.min(0.5, Math.max(1e-9, filtroProperties.getTaxaFalsosPositivos()));
+        long palavras = (long) Math.ceil(-capacidade * Math.log(taxa) / (Math.log(2) * Math.log(2)) / 64);
+        this.bits = new AtomicLongArray(filtroProperties.isHabilitado() ? (int) Math.min(palavras, Integer.MAX_VALUE) : 1);
+        this.totalBits = (long) bits.length() * 64;
+        this.funcoesHash = (int) Math.max(1, Math.min(16, Math.round((double) totalBits / capacidade * Math.log(2))));
+    }
+
+    public boolean isHabilitado() {
+        return filtroProperties.isHabilitado();
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    // false só quando a conta certamente não existe
+    public boolean talvezExista(String numeroConta) {
+        if (!isHabilitado() || !pronto) {
+            return true;
+        }
+        consultas.increment();
+        long hash = hash(numeroConta);
+        long passo = misturar(hash) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long indice = Math.floorMod(hash + i * passo, totalBits);
+            if ((bits.get((int) (indice >>> 6)) & (1L << indice)) == 0) {
+                descartadas.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Chamado antes do commit de quem grava a conta: se a transação for desfeita, sobra só um falso positivo
+    public void adicionar(String numeroConta) {
+        if (!isHabilitado()) {
+            return;
+        }
+        long hash = hash(numeroConta);
+        long passo = misturar(hash) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long indice = Math.floorMod(hash + i * passo, totalBits);
+            int palavra = (int) (indice >>> 6);
+            long mascara = 1L << indice;
+            if ((bits.get(palavra) & mascara) == 0) {
+                bits.getAndAccumulate(palavra, mascara, (atual, bit) -> atual | bit);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirEmSegundoPlano() {
+        if (!isHabilitado()) {
+            return;
+        }
+        Thread thread = new Thread(this::reconstruir, "filtro-contas");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Percorre os números de conta por cursor; com falha o filtro fica como estava (tudo "pode existir")
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        try {
+            LongAdder total = new LongAdder();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> numeros = clienteRepository.streamNumerosConta()) {
+                    numeros.forEach(numeroConta -> {
+                        adicionar(numeroConta);
+                        total.increment();
+                    });
+                }
+            });
+            pronto = true;
+            log.info("Filtro de contas reconstruído com {} contas em {} ms ({} bits, {} funções de hash)",
+                    total.sum(), (System.nanoTime() - inicio) / 1_000_000, totalBits, funcoesHash);
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao reconstruir o filtro de contas; números serão conferidos no banco", ex);
+        }
+    }
+
+    // Probabilidade de um número novo passar pelo filtro, pela fração de bits ligados
+    public double getTaxaFalsosPositivosEstimada() {
+        long ligados = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            ligados += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) ligados / totalBits, funcoesHash);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minibank.filtro.contas.falsos.positivos", this, FiltroContas::getTaxaFalsosPositivosEstimada)
+                .description("Taxa estimada de falsos positivos do filtro de contas")
+                .register(registry);
+        FunctionCounter.builder("minibank.filtro.contas.descartadas", descartadas, LongAdder::sum)
+                .description("Números de conta dispensados da consulta ao banco pelo filtro")
+                .register(registry);
+        FunctionCounter.builder("minibank.filtro.contas.consultas", consultas, LongAdder::sum)
+                .description("Números de conta passados pelo filtro")
+                .register(registry);
+    }
+
+    // FNV-1a de 64 bits sobre os caracteres, com a mistura final do MurmurHash3
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash = (hash ^ valor.charAt(i)) * 0x100000001b3L;
+        }
+        return misturar(hash);
+    }
+
+    private static long misturar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.mini_bank_api.service.filtro;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.filtro-contas")
+public class FiltroContasProperties {
+
+    // Quando desabilitado, toda conta "pode existir" e a importação consulta todos os números no banco
+    private boolean habilitado = true;
+
+    // Contas previstas: o filtro é dimensionado uma vez, e acima disso a taxa de falsos positivos cresce
+    private int capacidade = 1_000_000;
+
+    // Fração de números novos que o filtro manda conferir no banco sem necessidade, na capacidade prevista
+    private double taxaFalsosPositivos = 0.01;
+}
@@ -0,0 +1,28 @@
+package com.example.mini_bank_api.service.idempotencia;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.idempotencia")
+public class IdempotenciaProperties {
+
+    private boolean habilitado = true;
+
+    // Número máximo de chaves guardadas em memória
+    private long tamanhoMaximo = 100_000;
+
+    // Tempo em que uma repetição da mesma chave devolve a resposta guardada
+    private Duration ttl = Duration.ofHours(24);
+
+    // Quanto uma requisição duplicada espera pela original antes de responder 409
+    private Duration tempoMaximoEspera = Duration.ofSeconds(10);
+
+    // Grava a chave no banco, na mesma transação da operação
+    private boolean persistir = false;
+
+    // Com persistir: intervalo entre as remoções das chaves gravadas há mais de ttl
+    private Duration intervaloLimpeza = Duration.ofHours(1);
+}
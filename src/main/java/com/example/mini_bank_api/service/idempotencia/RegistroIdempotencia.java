@@ -0,0 +1,260 @@
+package com.example.mini_bank_api.service.idempotencia;
+
+import com.example.mini_bank_api.exception.ChaveIdempotenciaReutilizadaException;
+import com.example.mini_bank_api.exception.RequisicaoEmAndamentoException;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ChaveIdempotenciaRepository;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Registro das Idempotency-Key já recebidas.
+// A primeira requisição de uma chave executa a operação; as repetições recebem a mesma resposta,
+// e as que chegam enquanto a primeira ainda executa esperam por ela em vez de executar de novo.
+// Se a operação falhar nada foi aplicado: a chave é liberada e as que esperavam recebem o mesmo erro.
+// Com persistir, as chaves gravadas há mais de ttl são apagadas do banco a cada intervaloLimpeza.
+@Slf4j
+@Component
+public class RegistroIdempotencia {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final IdempotenciaProperties idempotenciaProperties;
+
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Sem anotações: o corpo é gravado com os próprios campos, sem os serializadores da API, e volta igual
+    private final ObjectMapper objectMapper = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+
+    private final Cache<String, Execucao> execucoes;
+
+    private ScheduledExecutorService agendador;
+
+    @Autowired
+    public RegistroIdempotencia(IdempotenciaProperties idempotenciaProperties,
+                                ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                                ConcorrenciaProperties concorrenciaProperties,
+                                PlatformTransactionManager transactionManager) {
+        this(idempotenciaProperties, chaveIdempotenciaRepository, concorrenciaProperties, transactionManager,
+                Ticker.systemTicker());
+    }
+
+    RegistroIdempotencia(IdempotenciaProperties idempotenciaProperties,
+                         ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                         ConcorrenciaProperties concorrenciaProperties,
+                         PlatformTransactionManager transactionManager,
+                         Ticker ticker) {
+        this.idempotenciaProperties = idempotenciaProperties;
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.concorrenciaProperties = concorrenciaProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.execucoes = Caffeine.newBuilder()
+                .maximumSize(idempotenciaProperties.getTamanhoMaximo())
+                .expireAfterWrite(idempotenciaProperties.getTtl())
+                .ticker(ticker)
+                .build();
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!isHabilitado() || !idempotenciaProperties.isPersistir()) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "idempotencia-limpeza");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = idempotenciaProperties.getIntervaloLimpeza().toMillis();
+        agendador.scheduleWithFixedDelay(this::limparGravadasComFalha, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    public boolean isHabilitado() {
+        return idempotenciaProperties.isHabilitado();
+    }
+
+    // assinatura identifica a requisição (operação e parâmetros): a mesma chave com outra assinatura é rejeitada
+    public <T> RespostaIdempotente<T> executar(String chave, String assinatura, Class<T> tipo, Supplier<T> operacao) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new ValorInvalidoException("Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+
+        Execucao execucao = new Execucao(assinatura);
+        Execucao anterior = execucoes.asMap().putIfAbsent(chave, execucao);
+        if (anterior != null) {
+            return new RespostaIdempotente<>(aguardar(anterior, assinatura, tipo), true);
+        }
+
+        try {
+            RespostaIdempotente<T> resposta = idempotenciaProperties.isPersistir()
+                    ? executarPersistindo(chave, assinatura, tipo, operacao)
+                    : new RespostaIdempotente<>(operacao.get(), false);
+            execucao.resultado.complete(resposta.corpo());
+            return resposta;
+        } catch (RuntimeException ex) {
+            execucoes.asMap().remove(chave, execucao);
+            execucao.resultado.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    public long getQuantidadeChaves() {
+        execucoes.cleanUp();
+        return execucoes.estimatedSize();
+    }
+
+    public void limpar() {
+        execucoes.invalidateAll();
+    }
+
+    // Apaga do banco as chaves gravadas há mais de ttl, que já não seriam repetidas; devolve quantas
+    public int limparGravadas() {
+        LocalDateTime limite = LocalDateTime.now().minus(idempotenciaProperties.getTtl());
+        Integer apagadas = transactionTemplate.execute(status ->
+                chaveIdempotenciaRepository.apagarCriadasAntesDe(limite));
+        return apagadas == null ? 0 : apagadas;
+    }
+
+    private void limparGravadasComFalha() {
+        try {
+            int apagadas = limparGravadas();
+            log.debug("{} chaves de idempotência vencidas apagadas", apagadas);
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao apagar chaves de idempotência vencidas", ex);
+        }
+    }
+
+    private <T> T aguardar(Execucao execucao, String assinatura, Class<T> tipo) {
+        validarAssinatura(execucao.assinatura, assinatura);
+        try {
+            return tipo.cast(execucao.resultado.get(
+                    idempotenciaProperties.getTempoMaximoEspera().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new RequisicaoEmAndamentoException("Requisição com a mesma Idempotency-Key ainda em andamento");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequisicaoEmAndamentoException("Requisição com a mesma Idempotency-Key ainda em andamento");
+        }
+    }
+
+    // A chave é gravada na mesma transação da operação: ou as duas ficam, ou nenhuma. Ela é inserida antes da
+    // operação: com a chave já gravada por outra instância o INSERT é recusado antes de a operação alterar
+    // qualquer saldo, inclusive os do ledger, que o rollback não desfaria. Com a outra instância ainda no meio
+    // da transação dela, o INSERT espera o commit (ou o rollback) dela.
+    // Dentro desta transação a RetentativaOtimistaAspect não repete a operação: um conflito de versão repete
+    // aqui a transação inteira, com o mesmo limite de tentativas.
+    private <T> RespostaIdempotente<T> executarPersistindo(String chave, String assinatura, Class<T> tipo,
+                                                           Supplier<T> operacao) {
+        Optional<RespostaIdempotente<T>> gravada = buscarGravada(chave, assinatura, tipo);
+        if (gravada.isPresent()) {
+            return gravada.get();
+        }
+        int maxTentativas = Math.max(1, concorrenciaProperties.getMaxTentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                T corpo = transactionTemplate.execute(status -> {
+                    LocalDateTime agora = LocalDateTime.now();
+                    chaveIdempotenciaRepository.apagarVencida(chave, agora.minus(idempotenciaProperties.getTtl()));
+                    chaveIdempotenciaRepository.inserir(chave, assinatura, "", agora);
+                    T resultado = operacao.get();
+                    // Grava a operação antes de serializar a resposta, para que ela já traga a nova versao
+                    chaveIdempotenciaRepository.flush();
+                    chaveIdempotenciaRepository.gravarResposta(chave, escrever(resultado));
+                    return resultado;
+                });
+                return new RespostaIdempotente<>(corpo, false);
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException ex) {
+                // Outra instância gravou a mesma chave primeiro e a operação desta nem começou: repete a resposta
+                // dela, ou 409 se ela ainda não confirmou dentro do tempo de espera da trava
+                return buscarGravada(chave, assinatura, tipo).orElseThrow(() -> new RequisicaoEmAndamentoException(
+                        "Requisição com a mesma Idempotency-Key ainda em andamento"));
+            } catch (OptimisticLockingFailureException ex) {
+                if (tentativa >= maxTentativas) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private <T> Optional<RespostaIdempotente<T>> buscarGravada(String chave, String assinatura, Class<T> tipo) {
+        LocalDateTime limite = LocalDateTime.now().minus(idempotenciaProperties.getTtl());
+        return chaveIdempotenciaRepository.findById(chave)
+                .filter(gravada -> gravada.getCriadaEm().isAfter(limite))
+                .map(gravada -> {
+                    validarAssinatura(gravada.getAssinatura(), assinatura);
+                    return new RespostaIdempotente<>(ler(gravada.getResposta(), tipo), true);
+                });
+    }
+
+    private static void validarAssinatura(String original, String assinatura) {
+        if (!original.equals(assinatura)) {
+            throw new ChaveIdempotenciaReutilizadaException("Idempotency-Key já usada em outra requisição");
+        }
+    }
+
+    private String escrever(Object corpo) {
+        try {
+            return objectMapper.writeValueAsString(corpo);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao gravar resposta idempotente", ex);
+        }
+    }
+
+    private <T> T ler(String json, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(json, tipo);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao ler resposta idempotente", ex);
+        }
+    }
+
+    private static final class Execucao {
+        private final String assinatura;
+        private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+
+        private Execucao(String assinatura) {
+            this.assinatura = assinatura;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.mini_bank_api.service.idempotencia;
+
+// repetida = true quando a resposta veio do registro, sem executar a operação de novo
+public record RespostaIdempotente<T>(T corpo, boolean repetida) {
+}
@@ -0,0 +1,196 @@
+package com.example.mini_bank_api.service.importacao;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.util.Centavos;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Formato binário compacto:
+//   cabeçalho: "MBC" + versão (1 byte)
+//   registro:  1 (1 byte), nome, numeroConta, agencia (varint com o tamanho em bytes + UTF-8; tamanho 0 = null),
+//              saldo em centavos (varint zigzag)
+//   fim:       0 (1 byte), para distinguir um arquivo completo de um truncado
+// O tamanho fica perto do CSV; o ganho é não analisar texto: sem aspas, separadores nem conversão do saldo.
+final class BinarioClientes {
+
+    private static final byte[] ASSINATURA = {'M', 'B', 'C'};
+
+    private static final int VERSAO = 1;
+
+    private static final int REGISTRO = 1;
+
+    private static final int FIM = 0;
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // Limite de um campo de texto, contra tamanhos absurdos vindos de um arquivo corrompido
+    private static final int TAMANHO_MAXIMO_CAMPO = 64 * 1024;
+
+    private BinarioClientes() {
+    }
+
+    static LeitorClientes leitor(InputStream entrada) {
+        return new Leitor(new BufferedInputStream(entrada, TAMANHO_BUFFER));
+    }
+
+    static EscritorClientes escritor(OutputStream saida) {
+        return new Escritor(new BufferedOutputStream(saida, TAMANHO_BUFFER));
+    }
+
+    private static final class Leitor implements LeitorClientes {
+
+        private final InputStream entrada;
+
+        private byte[] bytesCampo = new byte[256];
+
+        private boolean cabecalhoLido;
+
+        private boolean fim;
+
+        private Leitor(InputStream entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public Cliente ler() throws IOException {
+            if (!cabecalhoLido) {
+                cabecalhoLido = true;
+                for (byte esperado : ASSINATURA) {
+                    if (entrada.read() != esperado) {
+                        throw new IOException("Arquivo não está no formato binário de contas");
+                    }
+                }
+                int versao = lerByte();
+                if (versao != VERSAO) {
+                    throw new IOException("Versão do formato binário não suportada: " + versao);
+                }
+            }
+            if (fim) {
+                return null;
+            }
+            int marcador = lerByte();
+            if (marcador == FIM) {
+                fim = true;
+                return null;
+            }
+            if (marcador != REGISTRO) {
+                throw new IOException("Marcador de registro inválido: " + marcador);
+            }
+            String nome = lerTexto();
+            String numeroConta = lerTexto();
+            String agencia = lerTexto();
+            long saldoCentavos = lerVarLong();
+            saldoCentavos = (saldoCentavos >>> 1) ^ -(saldoCentavos & 1);
+            return new Cliente(null, nome, numeroConta, agencia, Centavos.paraValor(saldoCentavos));
+        }
+
+        private String lerTexto() throws IOException {
+            long tamanho = lerVarLong();
+            if (tamanho == 0) {
+                return null;
+            }
+            if (tamanho > TAMANHO_MAXIMO_CAMPO) {
+                throw new IOException("Campo de texto com " + tamanho + " bytes");
+            }
+            int bytes = (int) tamanho;
+            if (bytesCampo.length < bytes) {
+                bytesCampo = new byte[bytes];
+            }
+            if (entrada.readNBytes(bytesCampo, 0, bytes) < bytes) {
+                throw new EOFException("Arquivo binário truncado");
+            }
+            return new String(bytesCampo, 0, bytes, StandardCharsets.UTF_8);
+        }
+
+        private long lerVarLong() throws IOException {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                int b = lerByte();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("Inteiro variável com mais de 10 bytes");
+        }
+
+        private int lerByte() throws IOException {
+            int b = entrada.read();
+            if (b == -1) {
+                throw new EOFException("Arquivo binário truncado");
+            }
+            return b;
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
+
+    private static final class Escritor implements EscritorClientes {
+
+        private final OutputStream saida;
+
+        private boolean cabecalhoEscrito;
+
+        private Escritor(OutputStream saida) {
+            this.saida = saida;
+        }
+
+        @Override
+        public void escrever(ClienteResposta cliente) throws IOException {
+            escreverCabecalho();
+            saida.write(REGISTRO);
+            escreverTexto(cliente.nome());
+            escreverTexto(cliente.numeroConta());
+            escreverTexto(cliente.agencia());
+            long saldoCentavos = cliente.saldo() == null ? 0 : Centavos.deValor(cliente.saldo());
+            escreverVarLong((saldoCentavos << 1) ^ (saldoCentavos >> 63));
+        }
+
+        private void escreverCabecalho() throws IOException {
+            if (!cabecalhoEscrito) {
+                cabecalhoEscrito = true;
+                saida.write(ASSINATURA);
+                saida.write(VERSAO);
+            }
+        }
+
+        private void escreverTexto(String texto) throws IOException {
+            if (texto == null || texto.isEmpty()) {
+                saida.write(0);
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > TAMANHO_MAXIMO_CAMPO) {
+                throw new ValorInvalidoException("Campo de texto excede " + TAMANHO_MAXIMO_CAMPO + " bytes");
+            }
+            escreverVarLong(bytes.length);
+            saida.write(bytes);
+        }
+
+        private void escreverVarLong(long valor) throws IOException {
+            while ((valor & ~0x7FL) != 0) {
+                saida.write((int) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            saida.write((int) valor);
+        }
+
+        @Override
+        public void close() throws IOException {
+            escreverCabecalho();
+            saida.write(FIM);
+            saida.close();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.mini_bank_api.service.importacao;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV (RFC 4180) em UTF-8 com cabeçalho nome,numeroConta,agencia,saldo.
+// Campos entre aspas podem conter vírgulas, aspas duplicadas e quebras de linha; agência vazia vira null
+// e saldo vazio vira zero.
+final class CsvClientes {
+
+    static final String CABECALHO = "nome,numeroConta,agencia,saldo";
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final int CAMPOS = 4;
+
+    private static final String BOM = "\uFEFF";
+
+    private CsvClientes() {
+    }
+
+    static LeitorClientes leitor(InputStream entrada) {
+        return new Leitor(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    }
+
+    static EscritorClientes escritor(OutputStream saida) {
+        return new Escritor(new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER));
+    }
+
+    private static final class Leitor implements LeitorClientes {
+
+        private final Reader entrada;
+
+        // Buffer próprio: o read() do BufferedReader sincroniza a cada caractere
+        private final char[] buffer = new char[TAMANHO_BUFFER];
+
+        private int posicao;
+
+        private int limite;
+
+        private final StringBuilder campo = new StringBuilder();
+
+        private final List<String> campos = new ArrayList<>(CAMPOS);
+
+        private boolean cabecalhoLido;
+
+        private Leitor(Reader entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public Cliente ler() throws IOException {
+            if (!cabecalhoLido) {
+                cabecalhoLido = true;
+                // Planilhas costumam gravar o BOM do UTF-8 no início do arquivo
+                if (!lerRegistro() || !CABECALHO.equals(String.join(",", campos).replace(BOM, ""))) {
+                    throw new IOException("Cabeçalho do CSV deve ser " + CABECALHO);
+                }
+            }
+            do {
+                if (!lerRegistro()) {
+                    return null;
+                }
+            } while (campos.size() == 1 && campos.get(0).isEmpty());
+
+            if (campos.size() != CAMPOS) {
+                throw new ValorInvalidoException("Linha deve ter " + CAMPOS + " campos: " + CABECALHO);
+            }
+            String agencia = campos.get(2).isEmpty() ? null : campos.get(2);
+            return new Cliente(null, campos.get(0), campos.get(1), agencia, saldo(campos.get(3)));
+        }
+
+        // Um registro pode ocupar várias linhas físicas (quebra de linha entre aspas)
+        private boolean lerRegistro() throws IOException {
+            campos.clear();
+            campo.setLength(0);
+            int c = proximo();
+            if (c == -1) {
+                return false;
+            }
+            boolean entreAspas = false;
+            while (true) {
+                if (entreAspas) {
+                    if (c == -1) {
+                        throw new IOException("Aspas não fechadas no fim do arquivo");
+                    }
+                    if (c == '"') {
+                        int seguinte = proximo();
+                        if (seguinte == '"') {
+                            campo.append('"');
+                        } else {
+                            entreAspas = false;
+                            c = seguinte;
+                            continue;
+                        }
+                    } else {
+                        campo.append((char) c);
+                    }
+                } else if (c == ',') {
+                    fecharCampo();
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int seguinte = proximo();
+                    if (seguinte != '\n' && seguinte != -1) {
+                        throw new IOException("Quebra de linha inválida no CSV");
+                    }
+                    break;
+                } else if (c == '"' && campo.length() == 0) {
+                    entreAspas = true;
+                } else {
+                    campo.append((char) c);
+                }
+                c = proximo();
+            }
+            fecharCampo();
+            return true;
+        }
+
+        private int proximo() throws IOException {
+            if (posicao == limite) {
+                limite = entrada.read(buffer, 0, buffer.length);
+                posicao = 0;
+                if (limite <= 0) {
+                    limite = 0;
+                    return -1;
+                }
+            }
+            return buffer[posicao++];
+        }
+
+        private void fecharCampo() {
+            campos.add(campo.toString());
+            campo.setLength(0);
+        }
+
+        private static BigDecimal saldo(String texto) {
+            if (texto.isEmpty()) {
+                return BigDecimal.ZERO;
+            }
+            try {
+                return new BigDecimal(texto);
+            } catch (NumberFormatException ex) {
+                throw new ValorInvalidoException("Saldo inválido: " + texto);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
+
+    private static final class Escritor implements EscritorClientes {
+
+        private final Writer saida;
+
+        private boolean cabecalhoEscrito;
+
+        private Escritor(Writer saida) {
+            this.saida = saida;
+        }
+
+        @Override
+        public void escrever(ClienteResposta cliente) throws IOException {
+            escreverCabecalho();
+            escreverCampo(cliente.nome());
+            saida.write(',');
+            escreverCampo(cliente.numeroConta());
+            saida.write(',');
+            escreverCampo(cliente.agencia());
+            saida.write(',');
+            if (cliente.saldo() != null) {
+                saida.write(cliente.saldo().toPlainString());
+            }
+            saida.write('\n');
+        }
+
+        private void escreverCabecalho() throws IOException {
+            if (!cabecalhoEscrito) {
+                cabecalhoEscrito = true;
+                saida.write(CABECALHO);
+                saida.write('\n');
+            }
+        }
+
+        private void escreverCampo(String valor) throws IOException {
+            if (valor == null) {
+                return;
+            }
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0
+                    && valor.indexOf('\r') < 0) {
+                saida.write(valor);
+                return;
+            }
+            saida.write('"');
+            saida.write(valor.replace("\"", "\"\""));
+            saida.write('"');
+        }
+
+        // Um arquivo sem contas ainda tem o cabeçalho
+        @Override
+        public void close() throws IOException {
+            escreverCabecalho();
+            saida.close();
+        }
+    }
+}
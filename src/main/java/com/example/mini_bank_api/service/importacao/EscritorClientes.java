@@ -0,0 +1,13 @@
+package com.example.mini_bank_api.service.importacao;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Escreve as contas exportadas no mesmo formato lido pelo LeitorClientes correspondente.
+// close() termina o arquivo e fecha a saída.
+public interface EscritorClientes extends Closeable {
+
+    void escrever(ClienteResposta cliente) throws IOException;
+}
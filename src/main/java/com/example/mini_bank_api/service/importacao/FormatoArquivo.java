@@ -0,0 +1,53 @@
+package com.example.mini_bank_api.service.importacao;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Formatos aceitos na importação e gerados na exportação de contas
+public enum FormatoArquivo {
+
+    CSV("text/csv", "clientes.csv") {
+        @Override
+        public LeitorClientes leitor(InputStream entrada) {
+            return CsvClientes.leitor(entrada);
+        }
+
+        @Override
+        public EscritorClientes escritor(OutputStream saida) {
+            return CsvClientes.escritor(saida);
+        }
+    },
+
+    BINARIO("application/x-mini-bank-clientes", "clientes.bin") {
+        @Override
+        public LeitorClientes leitor(InputStream entrada) {
+            return BinarioClientes.leitor(entrada);
+        }
+
+        @Override
+        public EscritorClientes escritor(OutputStream saida) {
+            return BinarioClientes.escritor(saida);
+        }
+    };
+
+    private final String mediaType;
+
+    private final String nomeArquivo;
+
+    FormatoArquivo(String mediaType, String nomeArquivo) {
+        this.mediaType = mediaType;
+        this.nomeArquivo = nomeArquivo;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    public abstract LeitorClientes leitor(InputStream entrada);
+
+    public abstract EscritorClientes escritor(OutputStream saida);
+}
@@ -0,0 +1,15 @@
+package com.example.mini_bank_api.service.importacao;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.importacao")
+public class ImportacaoProperties {
+
+    // Linhas conferidas (uma consulta de unicidade) e gravadas (um lote JDBC) por transação
+    private int tamanhoLote = 1000;
+
+    // Linhas rejeitadas descritas na resposta; as demais só entram na contagem
+    private int maximoErrosRelatados = 100;
+}
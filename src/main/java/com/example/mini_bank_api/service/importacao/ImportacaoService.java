@@ -0,0 +1,247 @@
+package com.example.mini_bank_api.service.importacao;
+
+import com.example.mini_bank_api.dto.ResultadoImportacao;
+import com.example.mini_bank_api.dto.ResultadoItemLote;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.busca.IndiceNomes;
+import com.example.mini_bank_api.service.cache.CacheClientes;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.filtro.FiltroContas;
+import com.example.mini_bank_api.util.Centavos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Importação e exportação de contas em streaming, com memória limitada ao lote.
+// Na importação, cada lote confere a unicidade dos números de conta em memória (repetições dentro do lote)
+// e em uma única consulta ao banco (contas existentes e lotes anteriores do mesmo arquivo), só com os números
+// que o filtro de contas não descartou, e grava as contas novas em lotes JDBC, na transação do lote. Linhas inválidas ou repetidas são rejeitadas sem
+// interromper a importação.
+@Service
+public class ImportacaoService {
+
+    private final ClienteRepository clienteRepository;
+
+    private final ClienteService clienteService;
+
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    private final ImportacaoProperties importacaoProperties;
+
+    private final CacheClientes cacheClientes;
+
+    private final RegistroMovimentos registroMovimentos;
+
+    private final FiltroContas filtroContas;
+
+    private final IndiceNomes indiceNomes;
+
+    private final AgregadosAgencias agregadosAgencias;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportacaoService(ClienteRepository clienteRepository,
+                             ClienteService clienteService,
+                             ConcorrenciaProperties concorrenciaProperties,
+                             ImportacaoProperties importacaoProperties,
+                             CacheClientes cacheClientes,
+                             RegistroMovimentos registroMovimentos,
+                             FiltroContas filtroContas,
+                             IndiceNomes indiceNomes,
+                             AgregadosAgencias agregadosAgencias,
+                             PlatformTransactionManager transactionManager) {
+        this.clienteRepository = clienteRepository;
+        this.clienteService = clienteService;
+        this.concorrenciaProperties = concorrenciaProperties;
+        this.importacaoProperties = importacaoProperties;
+        this.cacheClientes = cacheClientes;
+        this.registroMovimentos = registroMovimentos;
+        this.filtroContas = filtroContas;
+        this.indiceNomes = indiceNomes;
+        this.agregadosAgencias = agregadosAgencias;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ResultadoImportacao importar(InputStream entrada, FormatoArquivo formato) {
+        Importacao importacao = new Importacao();
+        try (LeitorClientes leitor = formato.leitor(entrada)) {
+            List<Linha> lote = new ArrayList<>(importacaoProperties.getTamanhoLote());
+            Set<String> numerosDoLote = new HashSet<>();
+            int indice = 0;
+            while (true) {
+                Cliente cliente;
+                try {
+                    cliente = leitor.ler();
+                } catch (ValorInvalidoException ex) {
+                    importacao.rejeitar(indice++, ex.getMessage());
+                    continue;
+                }
+                if (cliente == null) {
+                    break;
+                }
+                try {
+                    validar(cliente);
+                    if (!numerosDoLote.add(cliente.getNumeroConta())) {
+                        throw new ValorInvalidoException("Número da conta repetido no arquivo");
+                    }
+                    lote.add(new Linha(indice, cliente));
+                } catch (ValorInvalidoException ex) {
+                    importacao.rejeitar(indice, ex.getMessage());
+                }
+                indice++;
+                if (lote.size() >= importacaoProperties.getTamanhoLote()) {
+                    gravarLote(lote, importacao);
+                    lote.clear();
+                    numerosDoLote.clear();
+                }
+            }
+            gravarLote(lote, importacao);
+        } catch (IOException ex) {
+            // Os lotes anteriores já foram confirmados
+            throw new ValorInvalidoException("Arquivo inválido após " + importacao.totalImportado
+                    + " contas importadas: " + ex.getMessage());
+        }
+        return new ResultadoImportacao(importacao.totalImportado, importacao.totalRejeitado, importacao.erros);
+    }
+
+    // Percorre as contas por cursor, na ordem do id, com o saldo atual (inclusive o do ledger em memória)
+    public long exportar(OutputStream saida, FormatoArquivo formato) {
+        try (EscritorClientes escritor = formato.escritor(saida)) {
+            return clienteService.percorrerTodos(cliente -> {
+                try {
+                    escritor.escrever(cliente);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Mesmas regras do banco (nome e número obrigatórios) e do dinheiro (no máximo 2 casas decimais)
+    private static void validar(Cliente cliente) {
+        if (cliente.getNome() == null || cliente.getNome().isBlank()) {
+            throw new ValorInvalidoException("Nome é obrigatório");
+        }
+        if (cliente.getNumeroConta() == null || cliente.getNumeroConta().isBlank()) {
+            throw new ValorInvalidoException("Número da conta é obrigatório");
+        }
+        if (cliente.getSaldo().signum() < 0) {
+            throw new ValorInvalidoException("Saldo inicial não pode ser negativo");
+        }
+        Centavos.deValor(cliente.getSaldo());
+    }
+
+    // Um cadastro concorrente entre a consulta e o INSERT viola o índice único e desfaz o lote;
+    // na nova tentativa a consulta já encontra a conta e só ela é rejeitada. A nova tentativa consulta
+    // todos os números, sem o filtro: a violação pode vir de uma conta gravada por fora da aplicação.
+    private void gravarLote(List<Linha> lote, Importacao importacao) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                List<ResultadoItemLote> rejeitadas = new ArrayList<>();
+                boolean usarFiltro = tentativa == 1;
+                Integer gravadas = transactionTemplate.execute(status -> inserir(lote, usarFiltro, rejeitadas));
+                importacao.totalImportado += gravadas;
+                rejeitadas.forEach(erro -> importacao.rejeitar(erro.getIndice(), erro.getMensagem()));
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (tentativa >= concorrenciaProperties.getMaxTentativas()) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private int inserir(List<Linha> lote, boolean usarFiltro, List<ResultadoItemLote> rejeitadas) {
+        List<String> numerosConta = new ArrayList<>(lote.size());
+        List<String> aConferir = new ArrayList<>();
+        for (Linha linha : lote) {
+            String numeroConta = linha.cliente.getNumeroConta();
+            numerosConta.add(numeroConta);
+            if (!usarFiltro || filtroContas.talvezExista(numeroConta)) {
+                aConferir.add(numeroConta);
+            }
+        }
+        Set<String> existentes = aConferir.isEmpty()
+                ? Set.of()
+                : new HashSet<>(clienteRepository.findNumerosContaExistentes(aConferir));
+
+        // O lote inteiro em um lote JDBC por tabela (clientes e movimentos, agrupados por order_inserts)
+        entityManager.unwrap(Session.class).setJdbcBatchSize(lote.size());
+        int gravadas = 0;
+        for (Linha linha : lote) {
+            if (existentes.contains(linha.cliente.getNumeroConta())) {
+                rejeitadas.add(ResultadoItemLote.erro(linha.indice, "Número da conta já existe"));
+                continue;
+            }
+            // Entidade nova a cada tentativa: a de uma tentativa desfeita já recebeu id
+            Cliente cliente = linha.novoCliente();
+            entityManager.persist(cliente);
+            filtroContas.adicionar(cliente.getNumeroConta());
+            // O id já vem da sequência no persist, antes do INSERT
+            indiceNomes.adicionar(cliente.getId(), cliente.getNome(), cliente.getAgencia());
+            agregadosAgencias.registrarConta(cliente.getAgencia(), Centavos.deValor(cliente.getSaldo()));
+            if (registroMovimentos.isHabilitado()) {
+                // persist direto, como o da conta: sem o proxy do repositório (métricas e aspecto) a cada linha
+                entityManager.persist(RegistroMovimentos.novo(cliente.getNumeroConta(), TipoMovimento.ABERTURA,
+                        cliente.getSaldo(), cliente.getSaldo(), null));
+            }
+            gravadas++;
+        }
+        // flush pelo repositório: a violação do índice único chega traduzida em DataIntegrityViolationException
+        clienteRepository.flush();
+        entityManager.clear();
+        cacheClientes.invalidarAposCommit(numerosConta);
+        return gravadas;
+    }
+
+    private record Linha(int indice, Cliente cliente) {
+
+        Cliente novoCliente() {
+            return new Cliente(null, cliente.getNome(), cliente.getNumeroConta(), cliente.getAgencia(),
+                    cliente.getSaldo());
+        }
+    }
+
+    private class Importacao {
+
+        private long totalImportado;
+
+        private long totalRejeitado;
+
+        private final List<ResultadoItemLote> erros = new ArrayList<>();
+
+        private void rejeitar(int indice, String mensagem) {
+            totalRejeitado++;
+            if (erros.size() < importacaoProperties.getMaximoErrosRelatados()) {
+                erros.add(ResultadoItemLote.erro(indice, mensagem));
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.mini_bank_api.service.importacao;
+
+import com.example.mini_bank_api.entity.Cliente;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Lê as contas de um arquivo de importação, uma por vez, sem carregar o arquivo em memória
+public interface LeitorClientes extends Closeable {
+
+    // null no fim do arquivo.
+    // ValorInvalidoException: linha malformada, as seguintes ainda podem ser lidas.
+    // IOException: arquivo corrompido ou truncado, a leitura não pode continuar.
+    Cliente ler() throws IOException;
+}
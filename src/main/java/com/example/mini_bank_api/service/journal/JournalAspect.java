@@ -0,0 +1,97 @@
+package com.example.mini_bank_api.service.journal;
+
+import com.example.mini_bank_api.config.AspectosConfig;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+// Registra no journal cada operação concluída do ClienteService, depois do commit no banco.
+// Sem o ledger o banco é quem garante a operação e o journal é o histórico do que foi confirmado: uma queda entre
+// o commit e o registro perde só a linha do journal, nunca o saldo. Com o ledger os saldos só chegam ao banco no
+// flush, então as movimentações são registradas pelo próprio LedgerSaldos, antes de alterar a memória (write-ahead);
+// aqui fica só o cadastro, que já vai direto para o banco. No modo filas quem registra é a própria FilasContas,
+// um lote por vez.
+@Aspect
+@Component
+@Order(AspectosConfig.ORDEM_JOURNAL)
+@RequiredArgsConstructor
+public class JournalAspect {
+
+    private final JournalTransacoes journalTransacoes;
+
+    private final LedgerSaldos ledgerSaldos;
+
+    @AfterReturning(pointcut = "execution(* com.example.mini_bank_api.service.ClienteService.cadastrarCliente(..))",
+            returning = "cliente")
+    public void cadastro(Cliente cliente) {
+        BigDecimal saldoInicial = cliente.getSaldo() == null ? BigDecimal.ZERO : cliente.getSaldo();
+        registrarConfirmada(TipoOperacao.CADASTRO, cliente.getNumeroConta(), null, saldoInicial);
+    }
+
+    @AfterReturning("execution(* com.example.mini_bank_api.service.ClienteService.depositar(..)) && args(numeroConta, valor)")
+    public void deposito(String numeroConta, BigDecimal valor) {
+        registrar(TipoOperacao.DEPOSITO, numeroConta, null, valor);
+    }
+
+    @AfterReturning("execution(* com.example.mini_bank_api.service.ClienteService.sacar(..)) && args(numeroConta, valor)")
+    public void saque(String numeroConta, BigDecimal valor) {
+        registrar(TipoOperacao.SAQUE, numeroConta, null, valor);
+    }
+
+    @AfterReturning("execution(* com.example.mini_bank_api.service.ClienteService.transferir(..)) && args(contaOrigem, contaDestino, valor)")
+    public void transferencia(String contaOrigem, String contaDestino, BigDecimal valor) {
+        registrar(TipoOperacao.TRANSFERENCIA, contaOrigem, contaDestino, valor);
+    }
+
+    // Modo cluster: cada nó só tem uma das contas da transferência, então registra a sua metade
+    // como saque (débito na origem) ou depósito (crédito no destino ou estorno na origem)
+    @AfterReturning("execution(* com.example.mini_bank_api.service.ClienteService.debitarTransferencia(..)) "
+            + "&& args(contaOrigem, contaDestino, valor)")
+    public void debitoTransferencia(String contaOrigem, String contaDestino, BigDecimal valor) {
+        registrar(TipoOperacao.SAQUE, contaOrigem, null, valor);
+    }
+
+    @AfterReturning("execution(* com.example.mini_bank_api.service.ClienteService.creditarTransferencia(..)) "
+            + "&& args(contaDestino, contaOrigem, valor)")
+    public void creditoTransferencia(String contaDestino, String contaOrigem, BigDecimal valor) {
+        registrar(TipoOperacao.DEPOSITO, contaDestino, null, valor);
+    }
+
+    @AfterReturning("execution(* com.example.mini_bank_api.service.ClienteService.estornarTransferencia(..)) "
+            + "&& args(contaOrigem, contaDestino, valor)")
+    public void estornoTransferencia(String contaOrigem, String contaDestino, BigDecimal valor) {
+        registrar(TipoOperacao.DEPOSITO, contaOrigem, null, valor);
+    }
+
+    private void registrar(TipoOperacao tipo, String contaOrigem, String contaDestino, BigDecimal valor) {
+        if (ledgerSaldos.isHabilitado()) {
+            return;
+        }
+        registrarConfirmada(tipo, contaOrigem, contaDestino, valor);
+    }
+
+    private void registrarConfirmada(TipoOperacao tipo, String contaOrigem, String contaDestino, BigDecimal valor) {
+        if (!journalTransacoes.isHabilitado()) {
+            return;
+        }
+        // Chamado dentro de uma transação externa: só registra se ela for confirmada
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    journalTransacoes.registrar(tipo, contaOrigem, contaDestino, valor);
+                }
+            });
+            return;
+        }
+        journalTransacoes.registrar(tipo, contaOrigem, contaDestino, valor);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.mini_bank_api.service.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.journal")
+public class JournalProperties {
+
+    private boolean habilitado = false;
+
+    private String diretorio = "./data/journal";
+
+    // Tamanho fixo de cada arquivo de segmento mapeado em memória
+    private DataSize tamanhoSegmento = DataSize.ofMegabytes(64);
+
+    // Intervalo máximo entre dois fsync (group commit)
+    private long intervaloSyncMs = 5;
+
+    // Se true, a operação só retorna depois que o seu registro foi sincronizado em disco
+    private boolean aguardarSync = true;
+
+    // Intervalo entre checkpoints com o ledger (saldos das contas em um segmento novo e os anteriores movidos
+    // para o arquivo); zero desliga. Sem o ledger não há checkpoint.
+    private Duration intervaloCheckpoint = Duration.ofMinutes(10);
+}
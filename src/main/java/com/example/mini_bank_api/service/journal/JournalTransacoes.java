@@ -0,0 +1,437 @@
+package com.example.mini_bank_api.service.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Journal append-only das operações, gravado em segmentos de tamanho fixo mapeados em memória.
+//
+// Formato de cada registro:
+//   int tamanho do corpo (0 marca o fim do segmento) | int crc32 do corpo | corpo
+// Corpo:
+//   byte tipo | long sequencia | long timestamp | conta origem | conta destino | valor | saldo origem | saldo destino
+// onde contas são gravadas como short tamanho + bytes e valores como byte escala + short tamanho + não escalado.
+// Os saldos (depois da operação) são opcionais: tamanho 0 quando não informados; registros antigos terminam no valor.
+//
+// Checkpoint: os registros seguintes passam a um segmento novo, o saldo de cada conta em memória é registrado
+// nele (SALDO) e os segmentos anteriores vão para o subdiretório arquivo/, onde o histórico das operações
+// continua disponível. A reconstrução percorre só os segmentos que ficaram no diretório do journal.
+@Slf4j
+// Abre o journal na subida: um diretório inválido impede o início em vez de falhar na primeira operação
+@Lazy(false)
+@Component
+public class JournalTransacoes {
+
+    private static final int CABECALHO = Integer.BYTES * 2;
+    private static final String PREFIXO_SEGMENTO = "segmento-";
+    private static final String DIRETORIO_ARQUIVO = "arquivo";
+    private static final String SUFIXO_SEGMENTO = ".journal";
+
+    private final JournalProperties journalProperties;
+
+    private final Object monitorSync = new Object();
+
+    private MappedByteBuffer segmentoAtual;
+    private long numeroSegmentoAtual;
+    private volatile long sequencia;
+    private volatile long sequenciaSincronizada;
+    private volatile boolean ativo;
+    private Thread threadSync;
+
+    public JournalTransacoes(JournalProperties journalProperties) {
+        this.journalProperties = journalProperties;
+    }
+
+    public boolean isHabilitado() {
+        return journalProperties.isHabilitado();
+    }
+
+    @PostConstruct
+    public synchronized void abrir() {
+        if (!isHabilitado() || ativo) {
+            return;
+        }
+        try {
+            Files.createDirectories(diretorio());
+            List<Path> segmentos = listarSegmentos();
+            if (segmentos.isEmpty()) {
+                abrirSegmento(0, 0);
+            } else {
+                // Percorre os registros para descobrir a última sequência e a posição de escrita
+                for (Path segmento : segmentos) {
+                    int posicao = lerSegmento(segmento, registro -> sequencia = registro.sequencia());
+                    numeroSegmentoAtual = numeroDoSegmento(segmento);
+                    if (segmento.equals(segmentos.get(segmentos.size() - 1))) {
+                        abrirSegmento(numeroSegmentoAtual, posicao);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Não foi possível abrir o journal", ex);
+        }
+        sequenciaSincronizada = sequencia;
+        ativo = true;
+        threadSync = new Thread(this::executarSync, "journal-sync");
+        threadSync.setDaemon(true);
+        threadSync.start();
+        log.info("Journal aberto em {} (segmento {}, sequência {})", diretorio(), numeroSegmentoAtual, sequencia);
+    }
+
+    @PreDestroy
+    public void fechar() {
+        if (!ativo) {
+            return;
+        }
+        ativo = false;
+        synchronized (monitorSync) {
+            monitorSync.notifyAll();
+        }
+        try {
+            threadSync.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        sincronizar();
+    }
+
+    public void registrar(TipoOperacao tipo, String contaOrigem, String contaDestino, BigDecimal valor) {
+        registrar(tipo, contaOrigem, contaDestino, valor, null, null);
+    }
+
+    // Com os saldos resultantes, a reconstrução não depende dos registros anteriores da conta
+    public void registrar(TipoOperacao tipo, String contaOrigem, String contaDestino, BigDecimal valor,
+                          BigDecimal saldoOrigem, BigDecimal saldoDestino) {
+        aguardarSincronizacao(registrarSemAguardar(tipo, contaOrigem, contaDestino, valor, saldoOrigem, saldoDestino));
+    }
+
+    // Para quem registra vários de uma vez (ex.: um lote da fila de contas): anexa sem esperar o fsync e devolve
+    // a sequência do registro, para um único aguardarSincronizacao no fim
+    public long registrarSemAguardar(TipoOperacao tipo, String contaOrigem, String contaDestino, BigDecimal valor,
+                                     BigDecimal saldoOrigem, BigDecimal saldoDestino) {
+        return anexar(serializar(tipo, contaOrigem, contaDestino, valor, saldoOrigem, saldoDestino));
+    }
+
+    // Com aguardar-sync, espera o fsync de todos os registros até a sequência informada
+    public void aguardarSincronizacao(long sequenciaRegistro) {
+        if (journalProperties.isAguardarSync()) {
+            aguardarSync(sequenciaRegistro);
+        }
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    // Começo de um checkpoint: os próximos registros vão para um segmento novo. Devolve o número dele.
+    public synchronized long iniciarCheckpoint() {
+        if (!ativo) {
+            throw new IllegalStateException("Journal não está aberto");
+        }
+        abrirProximoSegmento();
+        return numeroSegmentoAtual;
+    }
+
+    // Saldo de uma conta no checkpoint. Não espera o fsync: arquivarAntes sincroniza tudo antes de mover.
+    public void registrarSaldo(String numeroConta, BigDecimal saldo) {
+        registrarSemAguardar(TipoOperacao.SALDO, numeroConta, null, saldo, null, null);
+    }
+
+    // Fim do checkpoint: sincroniza os registros já anexados e move os segmentos anteriores a primeiroSegmento
+    // para o arquivo. Nada é apagado: o arquivo guarda o histórico de todas as operações.
+    // Devolve quantos segmentos foram arquivados.
+    public int arquivarAntes(long primeiroSegmento) {
+        aguardarSync(sequencia);
+        int arquivados = 0;
+        try {
+            Path arquivo = Files.createDirectories(diretorioArquivo());
+            for (Path segmento : listarSegmentos()) {
+                if (numeroDoSegmento(segmento) < primeiroSegmento) {
+                    Files.move(segmento, arquivo.resolve(segmento.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+                    arquivados++;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Não foi possível arquivar segmentos do journal", ex);
+        }
+        return arquivados;
+    }
+
+    // Segmentos retirados do journal pelos checkpoints
+    public Path diretorioArquivo() {
+        return diretorio().resolve(DIRETORIO_ARQUIVO);
+    }
+
+    // Lê todos os registros válidos, na ordem em que foram gravados
+    public void reproduzir(Consumer<RegistroJournal> consumidor) {
+        try {
+            for (Path segmento : listarSegmentos()) {
+                lerSegmento(segmento, consumidor);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Não foi possível ler o journal", ex);
+        }
+    }
+
+    // Saldo de cada conta que aparece no journal; as demais ficam com o saldo do banco. Registros com o saldo
+    // resultante (os do ledger e os do checkpoint) definem o saldo da conta; os sem saldo somam ao saldo inicial
+    // do cadastro, se ele estiver no journal. O cadastro é registrado depois do commit e pode chegar depois da
+    // primeira movimentação da conta: não sobrescreve um saldo já conhecido.
+    public Map<String, BigDecimal> reconstruirSaldos() {
+        Map<String, BigDecimal> saldos = new HashMap<>();
+        reproduzir(registro -> {
+            switch (registro.tipo()) {
+                case CADASTRO -> saldos.putIfAbsent(registro.contaOrigem(), registro.valor());
+                case SALDO -> saldos.put(registro.contaOrigem(), registro.valor());
+                case DEPOSITO -> aplicar(saldos, registro.contaOrigem(), registro.saldoOrigem(), registro.valor());
+                case SAQUE -> aplicar(saldos, registro.contaOrigem(), registro.saldoOrigem(), registro.valor().negate());
+                case TRANSFERENCIA -> {
+                    aplicar(saldos, registro.contaOrigem(), registro.saldoOrigem(), registro.valor().negate());
+                    aplicar(saldos, registro.contaDestino(), registro.saldoDestino(), registro.valor());
+                }
+            }
+        });
+        return saldos;
+    }
+
+    private static void aplicar(Map<String, BigDecimal> saldos, String conta, BigDecimal saldoResultante,
+                                BigDecimal variacao) {
+        if (saldoResultante != null) {
+            saldos.put(conta, saldoResultante);
+        } else {
+            saldos.computeIfPresent(conta, (numero, saldo) -> saldo.add(variacao));
+        }
+    }
+
+    private synchronized long anexar(byte[] corpo) {
+        if (!ativo) {
+            throw new IllegalStateException("Journal não está aberto");
+        }
+        int tamanhoRegistro = CABECALHO + corpo.length;
+        if (segmentoAtual.remaining() < tamanhoRegistro + Integer.BYTES) {
+            rolarSegmento(tamanhoRegistro);
+        }
+        long sequenciaRegistro = ++sequencia;
+        // A sequência fica na posição fixa 1 do corpo
+        ByteBuffer.wrap(corpo).putLong(1, sequenciaRegistro);
+
+        CRC32 crc = new CRC32();
+        crc.update(corpo);
+        segmentoAtual.putInt(corpo.length);
+        segmentoAtual.putInt((int) crc.getValue());
+        segmentoAtual.put(corpo);
+        return sequenciaRegistro;
+    }
+
+    private void rolarSegmento(int tamanhoRegistro) {
+        if (tamanhoRegistro + Integer.BYTES > tamanhoSegmento()) {
+            throw new IllegalArgumentException("Registro maior que o segmento do journal");
+        }
+        abrirProximoSegmento();
+    }
+
+    private void abrirProximoSegmento() {
+        // O segmento antigo é sincronizado antes da troca; o restante dele fica zerado (fim)
+        segmentoAtual.force();
+        try {
+            abrirSegmento(numeroSegmentoAtual + 1, 0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Não foi possível criar novo segmento do journal", ex);
+        }
+    }
+
+    private void abrirSegmento(long numero, int posicao) throws IOException {
+        Path arquivo = diretorio().resolve(String.format("%s%012d%s", PREFIXO_SEGMENTO, numero, SUFIXO_SEGMENTO));
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento());
+            buffer.position(posicao);
+            segmentoAtual = buffer;
+            numeroSegmentoAtual = numero;
+        }
+    }
+
+    // Retorna a posição logo após o último registro válido do segmento
+    private int lerSegmento(Path segmento, Consumer<RegistroJournal> consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= CABECALHO) {
+                int inicio = buffer.position();
+                int tamanho = buffer.getInt();
+                int crcGravado = buffer.getInt();
+                if (tamanho <= 0 || tamanho > buffer.remaining()) {
+                    return inicio;
+                }
+                byte[] corpo = new byte[tamanho];
+                buffer.get(corpo);
+                crc.reset();
+                crc.update(corpo);
+                if ((int) crc.getValue() != crcGravado) {
+                    // Registro incompleto (queda durante a escrita): o journal termina aqui
+                    log.warn("Registro corrompido no segmento {} na posição {}", segmento.getFileName(), inicio);
+                    return inicio;
+                }
+                consumidor.accept(desserializar(corpo));
+            }
+            return buffer.position();
+        }
+    }
+
+    private void executarSync() {
+        while (ativo) {
+            synchronized (monitorSync) {
+                if (sequencia == sequenciaSincronizada && ativo) {
+                    try {
+                        monitorSync.wait(journalProperties.getIntervaloSyncMs());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            sincronizar();
+        }
+    }
+
+    // Um único force() cobre todos os registros anexados até aqui (group commit)
+    private void sincronizar() {
+        MappedByteBuffer buffer;
+        long alvo;
+        synchronized (this) {
+            buffer = segmentoAtual;
+            alvo = sequencia;
+        }
+        if (alvo <= sequenciaSincronizada) {
+            return;
+        }
+        buffer.force();
+        synchronized (monitorSync) {
+            sequenciaSincronizada = alvo;
+            monitorSync.notifyAll();
+        }
+    }
+
+    private void aguardarSync(long sequenciaRegistro) {
+        synchronized (monitorSync) {
+            monitorSync.notifyAll();
+            while (sequenciaSincronizada < sequenciaRegistro && ativo) {
+                try {
+                    monitorSync.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static byte[] serializar(TipoOperacao tipo, String contaOrigem, String contaDestino, BigDecimal valor,
+                                     BigDecimal saldoOrigem, BigDecimal saldoDestino) {
+        byte[] origem = contaOrigem.getBytes(StandardCharsets.UTF_8);
+        byte[] destino = contaDestino == null ? new byte[0] : contaDestino.getBytes(StandardCharsets.UTF_8);
+        byte[] naoEscalado = naoEscalado(valor);
+        byte[] naoEscaladoSaldoOrigem = naoEscalado(saldoOrigem);
+        byte[] naoEscaladoSaldoDestino = naoEscalado(saldoDestino);
+
+        ByteBuffer corpo = ByteBuffer.allocate(1 + Long.BYTES * 2
+                + Short.BYTES + origem.length
+                + Short.BYTES + destino.length
+                + 1 + Short.BYTES + naoEscalado.length
+                + 1 + Short.BYTES + naoEscaladoSaldoOrigem.length
+                + 1 + Short.BYTES + naoEscaladoSaldoDestino.length);
+        corpo.put(tipo.getCodigo());
+        corpo.putLong(0); // sequência, preenchida ao anexar
+        corpo.putLong(System.currentTimeMillis());
+        corpo.putShort((short) origem.length).put(origem);
+        corpo.putShort((short) destino.length).put(destino);
+        escreverValor(corpo, valor, naoEscalado);
+        escreverValor(corpo, saldoOrigem, naoEscaladoSaldoOrigem);
+        escreverValor(corpo, saldoDestino, naoEscaladoSaldoDestino);
+        return corpo.array();
+    }
+
+    // O não escalado de um BigDecimal tem pelo menos um byte: tamanho 0 marca o valor ausente
+    private static byte[] naoEscalado(BigDecimal valor) {
+        return valor == null ? new byte[0] : valor.unscaledValue().toByteArray();
+    }
+
+    private static void escreverValor(ByteBuffer corpo, BigDecimal valor, byte[] naoEscalado) {
+        corpo.put(valor == null ? 0 : (byte) valor.scale());
+        corpo.putShort((short) naoEscalado.length).put(naoEscalado);
+    }
+
+    private static RegistroJournal desserializar(byte[] bytes) {
+        ByteBuffer corpo = ByteBuffer.wrap(bytes);
+        TipoOperacao tipo = TipoOperacao.doCodigo(corpo.get());
+        long sequencia = corpo.getLong();
+        long timestamp = corpo.getLong();
+        String origem = lerTexto(corpo);
+        String destino = lerTexto(corpo);
+        BigDecimal valor = lerValor(corpo);
+        BigDecimal saldoOrigem = corpo.hasRemaining() ? lerValor(corpo) : null;
+        BigDecimal saldoDestino = corpo.hasRemaining() ? lerValor(corpo) : null;
+        return new RegistroJournal(sequencia, timestamp, tipo, origem, destino.isEmpty() ? null : destino, valor,
+                saldoOrigem, saldoDestino);
+    }
+
+    private static BigDecimal lerValor(ByteBuffer corpo) {
+        int escala = corpo.get();
+        byte[] naoEscalado = new byte[corpo.getShort()];
+        corpo.get(naoEscalado);
+        return naoEscalado.length == 0 ? null : new BigDecimal(new BigInteger(naoEscalado), escala);
+    }
+
+    private static String lerTexto(ByteBuffer corpo) {
+        byte[] texto = new byte[corpo.getShort()];
+        corpo.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> listarSegmentos() throws IOException {
+        if (!Files.isDirectory(diretorio())) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio())) {
+            return arquivos
+                    .filter(arquivo -> arquivo.getFileName().toString().startsWith(PREFIXO_SEGMENTO))
+                    .filter(arquivo -> arquivo.getFileName().toString().endsWith(SUFIXO_SEGMENTO))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long numeroDoSegmento(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length()));
+    }
+
+    private Path diretorio() {
+        return Paths.get(journalProperties.getDiretorio());
+    }
+
+    private int tamanhoSegmento() {
+        return (int) Math.min(Integer.MAX_VALUE, journalProperties.getTamanhoSegmento().toBytes());
+    }
+}
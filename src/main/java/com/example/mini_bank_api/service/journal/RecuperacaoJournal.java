@@ -0,0 +1,120 @@
+package com.example.mini_bank_api.service.journal;
+
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Na subida, reconstrói os saldos do ledger em memória a partir do journal.
+// Recupera as alterações que ainda não tinham sido gravadas no banco pelo write-behind; as contas que não
+// aparecem no journal ficam com o saldo do banco.
+// Com o ledger, a cada intervaloCheckpoint faz um checkpoint: a próxima reconstrução percorre só os registros desde
+// o último checkpoint, e os segmentos anteriores vão para o arquivo do journal (não são apagados). Sem o ledger não
+// há o que reconstruir, e o journal inteiro fica no lugar como histórico.
+// Roda como SmartLifecycle numa fase anterior à do servidor web: nenhuma requisição altera um saldo do
+// ledger antes de ele ser restaurado (a restauração sobrescreveria a alteração).
+@Slf4j
+@Component
+public class RecuperacaoJournal implements SmartLifecycle {
+
+    // O servidor web sobe na fase SMART_LIFECYCLE_PHASE - 1024
+    static final int FASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final JournalTransacoes journalTransacoes;
+
+    private final LedgerSaldos ledgerSaldos;
+
+    private final JournalProperties journalProperties;
+
+    private ScheduledExecutorService agendador;
+
+    private long sequenciaUltimoCheckpoint = -1;
+
+    private volatile boolean iniciada;
+
+    public RecuperacaoJournal(JournalTransacoes journalTransacoes,
+                              LedgerSaldos ledgerSaldos,
+                              JournalProperties journalProperties) {
+        this.journalTransacoes = journalTransacoes;
+        this.ledgerSaldos = ledgerSaldos;
+        this.journalProperties = journalProperties;
+    }
+
+    @Override
+    public void start() {
+        iniciada = true;
+        recuperar();
+    }
+
+    @Override
+    public void stop() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        iniciada = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return iniciada;
+    }
+
+    @Override
+    public int getPhase() {
+        return FASE;
+    }
+
+    public void recuperar() {
+        if (!journalTransacoes.isHabilitado()) {
+            return;
+        }
+        if (ledgerSaldos.isHabilitado()) {
+            long inicio = System.nanoTime();
+            Map<String, BigDecimal> saldos = journalTransacoes.reconstruirSaldos();
+            int restauradas = ledgerSaldos.restaurar(saldos);
+            log.info("{} saldos restaurados do journal em {} ms", restauradas, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        // Só depois da recuperação: um checkpoint antes dela registraria os saldos ainda não restaurados
+        long intervalo = journalProperties.getIntervaloCheckpoint().toMillis();
+        if (!ledgerSaldos.isHabilitado() || intervalo <= 0) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(this::checkpointComFalha, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    // Devolve quantos segmentos foram arquivados. Sem o ledger não faz nada: nenhum saldo substituiria os
+    // registros que sairiam do journal.
+    public synchronized int checkpoint() {
+        if (!ledgerSaldos.isHabilitado() || journalTransacoes.getSequencia() == sequenciaUltimoCheckpoint) {
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        long primeiroSegmento = journalTransacoes.iniciarCheckpoint();
+        int contas = ledgerSaldos.registrarSaldosNoJournal();
+        int arquivados = journalTransacoes.arquivarAntes(primeiroSegmento);
+        sequenciaUltimoCheckpoint = journalTransacoes.getSequencia();
+        log.info("Checkpoint do journal: {} saldos registrados, {} segmentos arquivados em {} ms", contas,
+                arquivados, (System.nanoTime() - inicio) / 1_000_000);
+        return arquivados;
+    }
+
+    private void checkpointComFalha() {
+        try {
+            checkpoint();
+        } catch (RuntimeException ex) {
+            log.warn("Falha no checkpoint do journal", ex);
+        }
+    }
+}
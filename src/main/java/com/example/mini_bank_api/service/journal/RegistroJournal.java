@@ -0,0 +1,15 @@
+package com.example.mini_bank_api.service.journal;
+
+import java.math.BigDecimal;
+
+// contaDestino só é preenchida em transferências.
+// saldoOrigem e saldoDestino: saldos das contas depois da operação, quando quem registrou os conhecia (ledger)
+public record RegistroJournal(long sequencia,
+                              long timestamp,
+                              TipoOperacao tipo,
+                              String contaOrigem,
+                              String contaDestino,
+                              BigDecimal valor,
+                              BigDecimal saldoOrigem,
+                              BigDecimal saldoDestino) {
+}
@@ -0,0 +1,29 @@
+package com.example.mini_bank_api.service.journal;
+
+public enum TipoOperacao {
+    CADASTRO((byte) 1),
+    DEPOSITO((byte) 2),
+    SAQUE((byte) 3),
+    TRANSFERENCIA((byte) 4),
+    // Checkpoint: saldo absoluto de uma conta, substitui os registros anteriores dela
+    SALDO((byte) 5);
+
+    private final byte codigo;
+
+    TipoOperacao(byte codigo) {
+        this.codigo = codigo;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    public static TipoOperacao doCodigo(byte codigo) {
+        for (TipoOperacao tipo : values()) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de operação desconhecido: " + codigo);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mini_bank_api.service.ledger;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.ledger")
+public class LedgerProperties {
+
+    // Quando habilitado, os saldos ficam em memória e são gravados no banco em lotes
+    private boolean habilitado = false;
+
+    // Intervalo máximo entre gravações no banco (janela de perda em caso de queda)
+    private long intervaloFlushMs = 200;
+
+    // Quantidade de contas alteradas que dispara uma gravação antes do intervalo
+    private int tamanhoLote = 500;
+
+    // Número de travas (potência de 2) compartilhadas entre as contas
+    private int stripes = 64;
+}
@@ -0,0 +1,411 @@
+package com.example.mini_bank_api.service.ledger;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.journal.JournalTransacoes;
+import com.example.mini_bank_api.service.journal.TipoOperacao;
+import com.example.mini_bank_api.util.Centavos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Saldos em memória, indexados por número da conta.
+// Cada conta é protegida por uma das N travas (lock striping) e as alterações
+// são gravadas no banco em lotes, de forma assíncrona (write-behind).
+// Os saldos ficam em centavos (long): depósitos e saques não alocam BigDecimal dentro da trava.
+// Com o journal habilitado, cada alteração é registrada (com o saldo resultante) dentro da trava e antes de ficar
+// visível: com aguardar-sync, só depois do fsync. Quem divide a trava espera esse fsync junto (group commit).
+// Criado na subida mesmo com inicialização preguiçosa: o flush agendado não espera a primeira requisição
+@Slf4j
+@Lazy(false)
+@Component
+public class LedgerSaldos implements MeterBinder {
+
+    private final LedgerProperties ledgerProperties;
+
+    private final ClienteRepository clienteRepository;
+
+    private final ClienteValidation clienteValidation;
+
+    private final RegistroMovimentos registroMovimentos;
+
+    private final AgregadosAgencias agregadosAgencias;
+
+    private final JournalTransacoes journalTransacoes;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, Conta> contas = new ConcurrentHashMap<>();
+
+    // Contas alteradas desde a última gravação
+    private final Set<String> contasAlteradas = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock[] travas;
+
+    private final ReentrantLock travaFlush = new ReentrantLock();
+
+    private final AtomicBoolean flushAgendado = new AtomicBoolean();
+
+    // Ímpar enquanto um flush grava saldos; soma 2 a cada flush que gravou alguma conta
+    private final AtomicLong gravacoes = new AtomicLong();
+
+    private ScheduledExecutorService agendador;
+
+    public LedgerSaldos(LedgerProperties ledgerProperties,
+                        ClienteRepository clienteRepository,
+                        ClienteValidation clienteValidation,
+                        RegistroMovimentos registroMovimentos,
+                        AgregadosAgencias agregadosAgencias,
+                        JournalTransacoes journalTransacoes,
+                        PlatformTransactionManager transactionManager) {
+        this.ledgerProperties = ledgerProperties;
+        this.clienteRepository = clienteRepository;
+        this.clienteValidation = clienteValidation;
+        this.registroMovimentos = registroMovimentos;
+        this.agregadosAgencias = agregadosAgencias;
+        this.journalTransacoes = journalTransacoes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.travas = new ReentrantLock[Integer.highestOneBit(Math.max(1, ledgerProperties.getStripes()))];
+        for (int i = 0; i < travas.length; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!isHabilitado()) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ledger-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(this::flush, ledgerProperties.getIntervaloFlushMs(),
+                ledgerProperties.getIntervaloFlushMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdown();
+        }
+        flush();
+    }
+
+    public boolean isHabilitado() {
+        return ledgerProperties.isHabilitado();
+    }
+
+    public ClienteResposta buscar(String numeroConta) {
+        Conta conta = carregar(numeroConta);
+        return new ClienteResposta(conta.id, conta.nome, conta.numeroConta, conta.agencia,
+                Centavos.paraValor(conta.saldo), null);
+    }
+
+    // Substitui o saldo lido do banco pelo saldo em memória, se a conta já estiver no ledger
+    public ClienteResposta aplicarSaldoEmMemoria(ClienteResposta cliente) {
+        Conta conta = contas.get(cliente.numeroConta());
+        if (conta != null) {
+            return cliente.comSaldo(Centavos.paraValor(conta.saldo));
+        }
+        return cliente;
+    }
+
+    public Cliente creditar(String numeroConta, BigDecimal valor) {
+        return creditar(numeroConta, valor, TipoMovimento.DEPOSITO, null);
+    }
+
+    // contraparte: a outra conta do movimento, quando houver (transferência entre nós do cluster)
+    public Cliente creditar(String numeroConta, BigDecimal valor, TipoMovimento tipo, String contraparte) {
+        long centavos = Centavos.deValor(valor);
+        Conta conta = carregar(numeroConta);
+        ReentrantLock trava = trava(numeroConta);
+        Cliente cliente;
+        trava.lock();
+        try {
+            long saldo = Centavos.somar(conta.saldo, centavos);
+            registrarNoJournal(TipoOperacao.DEPOSITO, numeroConta, null, valor, saldo, 0);
+            conta.saldo = saldo;
+            cliente = conta.paraCliente();
+            registroMovimentos.adiar(numeroConta, tipo, valor, cliente.getSaldo(), contraparte);
+        } finally {
+            trava.unlock();
+        }
+        marcarAlterada(numeroConta);
+        agregadosAgencias.aplicar(conta.agencia, centavos, Centavos.deValor(cliente.getSaldo()));
+        return cliente;
+    }
+
+    public Cliente debitar(String numeroConta, BigDecimal valor) {
+        return debitar(numeroConta, valor, TipoMovimento.SAQUE, null);
+    }
+
+    public Cliente debitar(String numeroConta, BigDecimal valor, TipoMovimento tipo, String contraparte) {
+        long centavos = Centavos.deValor(valor);
+        Conta conta = carregar(numeroConta);
+        ReentrantLock trava = trava(numeroConta);
+        Cliente cliente;
+        trava.lock();
+        try {
+            clienteValidation.validarSaldoSuficiente(conta.saldo, centavos);
+            long saldo = Centavos.subtrair(conta.saldo, centavos);
+            registrarNoJournal(TipoOperacao.SAQUE, numeroConta, null, valor, saldo, 0);
+            conta.saldo = saldo;
+            cliente = conta.paraCliente();
+            registroMovimentos.adiar(numeroConta, tipo, valor, cliente.getSaldo(), contraparte);
+        } finally {
+            trava.unlock();
+        }
+        marcarAlterada(numeroConta);
+        agregadosAgencias.aplicar(conta.agencia, -centavos, Centavos.deValor(cliente.getSaldo()));
+        return cliente;
+    }
+
+    public void transferir(String contaOrigem, String contaDestino, BigDecimal valor) {
+        long centavos = Centavos.deValor(valor);
+        Conta origem = carregar(contaOrigem, "Conta de origem não encontrada");
+        Conta destino = carregar(contaDestino, "Conta de destino não encontrada");
+
+        // Travas adquiridas sempre na ordem do índice, para não haver deadlock
+        ReentrantLock primeira = trava(contaOrigem);
+        ReentrantLock segunda = trava(contaDestino);
+        if (indice(contaDestino) < indice(contaOrigem)) {
+            ReentrantLock aux = primeira;
+            primeira = segunda;
+            segunda = aux;
+        }
+
+        long saldoOrigem;
+        long saldoDestino;
+        primeira.lock();
+        segunda.lock();
+        try {
+            clienteValidation.validarSaldoSuficiente(origem.saldo, centavos);
+            saldoDestino = Centavos.somar(destino.saldo, centavos);
+            saldoOrigem = Centavos.subtrair(origem.saldo, centavos);
+            registrarNoJournal(TipoOperacao.TRANSFERENCIA, contaOrigem, contaDestino, valor, saldoOrigem, saldoDestino);
+            origem.saldo = saldoOrigem;
+            destino.saldo = saldoDestino;
+            registroMovimentos.adiar(contaOrigem, TipoMovimento.TRANSFERENCIA_ENVIADA, valor,
+                    Centavos.paraValor(origem.saldo), contaDestino);
+            registroMovimentos.adiar(contaDestino, TipoMovimento.TRANSFERENCIA_RECEBIDA, valor,
+                    Centavos.paraValor(saldoDestino), contaOrigem);
+        } finally {
+            segunda.unlock();
+            primeira.unlock();
+        }
+        marcarAlterada(contaOrigem);
+        marcarAlterada(contaDestino);
+        agregadosAgencias.aplicar(origem.agencia, -centavos, saldoOrigem);
+        agregadosAgencias.aplicar(destino.agencia, centavos, saldoDestino);
+    }
+
+    // Sobrescreve os saldos em memória (ex.: reconstruídos do journal) e agenda a gravação no banco
+    public int restaurar(Map<String, BigDecimal> saldos) {
+        int restauradas = 0;
+        for (Map.Entry<String, BigDecimal> saldo : saldos.entrySet()) {
+            long centavos = Centavos.deValor(saldo.getValue());
+            Optional<Cliente> cliente = clienteRepository.findByNumeroConta(saldo.getKey());
+            if (cliente.isEmpty()) {
+                log.warn("Conta {} do journal não existe no banco", saldo.getKey());
+                continue;
+            }
+            Conta conta = contas.computeIfAbsent(saldo.getKey(), numero -> new Conta(cliente.get()));
+            ReentrantLock trava = trava(saldo.getKey());
+            long ajuste;
+            trava.lock();
+            try {
+                ajuste = Centavos.subtrair(centavos, conta.saldo);
+                if (ajuste != 0) {
+                    registroMovimentos.adiar(saldo.getKey(), TipoMovimento.AJUSTE,
+                            Centavos.paraValor(ajuste), saldo.getValue(), null);
+                }
+                conta.saldo = centavos;
+            } finally {
+                trava.unlock();
+            }
+            marcarAlterada(saldo.getKey());
+            agregadosAgencias.aplicar(conta.agencia, ajuste, centavos);
+            restauradas++;
+        }
+        return restauradas;
+    }
+
+    // Checkpoint do journal: registra o saldo de cada conta em memória. Com a trava da conta, o registro fica
+    // depois de todas as alterações já visíveis dela e antes das próximas.
+    public int registrarSaldosNoJournal() {
+        int registradas = 0;
+        for (Conta conta : contas.values()) {
+            ReentrantLock trava = trava(conta.numeroConta);
+            trava.lock();
+            try {
+                journalTransacoes.registrarSaldo(conta.numeroConta, Centavos.paraValor(conta.saldo));
+            } finally {
+                trava.unlock();
+            }
+            registradas++;
+        }
+        return registradas;
+    }
+
+    // Grava no banco os saldos das contas alteradas, em lotes de tamanhoLote
+    public void flush() {
+        travaFlush.lock();
+        boolean gravando = false;
+        try {
+            flushAgendado.set(false);
+            List<String> lote = new ArrayList<>(ledgerProperties.getTamanhoLote());
+            Iterator<String> iterator = contasAlteradas.iterator();
+            while (iterator.hasNext()) {
+                if (!gravando) {
+                    gravacoes.incrementAndGet();
+                    gravando = true;
+                }
+                lote.add(iterator.next());
+                iterator.remove();
+                if (lote.size() >= ledgerProperties.getTamanhoLote()) {
+                    gravar(lote);
+                    lote = new ArrayList<>(ledgerProperties.getTamanhoLote());
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravar(lote);
+            }
+            // Depois dos saldos: os movimentos de uma conta só aparecem no extrato com o saldo dela já gravado
+            registroMovimentos.gravarAdiados();
+        } finally {
+            if (gravando) {
+                gravacoes.incrementAndGet();
+            }
+            travaFlush.unlock();
+        }
+    }
+
+    public int getContasPendentes() {
+        return contasAlteradas.size();
+    }
+
+    // Marco das gravações, se o banco já tem todos os saldos em memória; -1 com contas pendentes ou com um
+    // flush gravando. Duas leituras iguais (e não negativas) garantem que nenhum saldo foi gravado entre elas.
+    public long marcoSincronizado() {
+        long marco = gravacoes.get();
+        if ((marco & 1) != 0 || !contasAlteradas.isEmpty()) {
+            return -1;
+        }
+        return marco;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minibank.ledger.contas.pendentes", this, LedgerSaldos::getContasPendentes)
+                .description("Contas alteradas em memória aguardando gravação no banco")
+                .register(registry);
+    }
+
+    private void gravar(List<String> lote) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Cliente> clientes = clienteRepository.findAllByNumeroContaIn(lote);
+                for (Cliente cliente : clientes) {
+                    cliente.setSaldo(Centavos.paraValor(contas.get(cliente.getNumeroConta()).saldo));
+                }
+                clienteRepository.saveAll(clientes);
+            });
+        } catch (RuntimeException ex) {
+            // Mantém as contas pendentes para a próxima tentativa
+            contasAlteradas.addAll(lote);
+            log.error("Falha ao gravar lote de {} saldos do ledger", lote.size(), ex);
+        }
+    }
+
+    // Chamado com a trava da conta: a ordem dos registros de uma conta é a ordem das alterações dela
+    private void registrarNoJournal(TipoOperacao tipo, String contaOrigem, String contaDestino, BigDecimal valor,
+                                    long saldoOrigem, long saldoDestino) {
+        if (!journalTransacoes.isHabilitado()) {
+            return;
+        }
+        journalTransacoes.registrar(tipo, contaOrigem, contaDestino, valor, Centavos.paraValor(saldoOrigem),
+                contaDestino == null ? null : Centavos.paraValor(saldoDestino));
+    }
+
+    private void marcarAlterada(String numeroConta) {
+        contasAlteradas.add(numeroConta);
+        if (agendador != null
+                && contasAlteradas.size() >= ledgerProperties.getTamanhoLote()
+                && flushAgendado.compareAndSet(false, true)) {
+            agendador.execute(this::flush);
+        }
+    }
+
+    private Conta carregar(String numeroConta) {
+        return carregar(numeroConta, "Conta não encontrada");
+    }
+
+    private Conta carregar(String numeroConta, String mensagemErro) {
+        Conta conta = contas.get(numeroConta);
+        if (conta != null) {
+            return conta;
+        }
+        Cliente cliente = clienteRepository.findByNumeroConta(numeroConta)
+                .orElseThrow(() -> new ClienteNotFoundException(mensagemErro));
+        return contas.computeIfAbsent(numeroConta, numero -> new Conta(cliente));
+    }
+
+    private ReentrantLock trava(String numeroConta) {
+        return travas[indice(numeroConta)];
+    }
+
+    private int indice(String numeroConta) {
+        int hash = numeroConta.hashCode();
+        return (hash ^ (hash >>> 16)) & (travas.length - 1);
+    }
+
+    private static final class Conta {
+        private final Long id;
+        private final String nome;
+        private final String numeroConta;
+        private final String agencia;
+        private volatile long saldo;
+
+        private Conta(Cliente cliente) {
+            this.id = cliente.getId();
+            this.nome = cliente.getNome();
+            this.numeroConta = cliente.getNumeroConta();
+            this.agencia = cliente.getAgencia();
+            this.saldo = Centavos.deValor(cliente.getSaldo());
+        }
+
+        private Cliente paraCliente() {
+            return new Cliente(id, nome, numeroConta, agencia, Centavos.paraValor(saldo));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.mini_bank_api.service.lote;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mini-bank.lote")
+public class LoteProperties {
+
+    // Operações lidas, carregadas e gravadas de uma vez (uma transação por chunk no modo por item)
+    private int tamanhoChunk = 500;
+}
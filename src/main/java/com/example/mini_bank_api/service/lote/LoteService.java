@@ -0,0 +1,366 @@
+package com.example.mini_bank_api.service.lote;
+
+import com.example.mini_bank_api.dto.OperacaoLote;
+import com.example.mini_bank_api.dto.ResultadoItemLote;
+import com.example.mini_bank_api.dto.ResultadoLote;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.NegocioException;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.ContaException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.cache.CacheClientes;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.journal.JournalTransacoes;
+import com.example.mini_bank_api.service.journal.TipoOperacao;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import com.example.mini_bank_api.util.Centavos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Processa um array JSON de operações lido em streaming, em chunks de tamanhoChunk.
+// Cada chunk carrega todas as suas contas em uma consulta, aplica as operações em memória
+// e grava as alterações em um único lote JDBC no flush.
+@Service
+public class LoteService {
+
+    private final ClienteRepository clienteRepository;
+
+    private final ClienteValidation clienteValidation;
+
+    private final ClienteService clienteService;
+
+    private final ConcorrenciaProperties concorrenciaProperties;
+
+    private final LoteProperties loteProperties;
+
+    private final LedgerSaldos ledgerSaldos;
+
+    private final JournalTransacoes journalTransacoes;
+
+    private final CacheClientes cacheClientes;
+
+    private final RegistroMovimentos registroMovimentos;
+
+    private final AgregadosAgencias agregadosAgencias;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LoteService(ClienteRepository clienteRepository,
+                       ClienteValidation clienteValidation,
+                       ClienteService clienteService,
+                       ConcorrenciaProperties concorrenciaProperties,
+                       LoteProperties loteProperties,
+                       LedgerSaldos ledgerSaldos,
+                       JournalTransacoes journalTransacoes,
+                       CacheClientes cacheClientes,
+                       RegistroMovimentos registroMovimentos,
+                       AgregadosAgencias agregadosAgencias,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager) {
+        this.clienteRepository = clienteRepository;
+        this.clienteValidation = clienteValidation;
+        this.clienteService = clienteService;
+        this.concorrenciaProperties = concorrenciaProperties;
+        this.loteProperties = loteProperties;
+        this.ledgerSaldos = ledgerSaldos;
+        this.journalTransacoes = journalTransacoes;
+        this.cacheClientes = cacheClientes;
+        this.registroMovimentos = registroMovimentos;
+        this.agregadosAgencias = agregadosAgencias;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // atomico = true: tudo-ou-nada, em uma única transação
+    // atomico = false: cada item é independente, uma transação por chunk
+    public ResultadoLote processar(InputStream entrada, boolean atomico) {
+        try (JsonParser parser = objectMapper.createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValorInvalidoException("Lote deve ser um array JSON de operações");
+            }
+            if (ledgerSaldos.isHabilitado()) {
+                return processarNoLedger(parser, atomico);
+            }
+            return atomico ? processarAtomico(parser) : processarPorItem(parser);
+        } catch (IOException ex) {
+            throw new ValorInvalidoException("Lote inválido: " + ex.getMessage());
+        }
+    }
+
+    private ResultadoLote processarPorItem(JsonParser parser) throws IOException {
+        List<ResultadoItemLote> resultados = new ArrayList<>();
+        List<OperacaoLote> chunk;
+        while (!(chunk = lerChunk(parser)).isEmpty()) {
+            List<OperacaoLote> operacoes = chunk;
+            int primeiroIndice = resultados.size();
+            List<ResultadoItemLote> resultadosChunk = new ArrayList<>(operacoes.size());
+            List<OperacaoLote> aplicadas = new ArrayList<>();
+            for (int tentativa = 1; ; tentativa++) {
+                try {
+                    resultadosChunk.clear();
+                    aplicadas.clear();
+                    transactionTemplate.executeWithoutResult(status ->
+                            aplicarChunk(operacoes, primeiroIndice, false, resultadosChunk, aplicadas));
+                    resultados.addAll(resultadosChunk);
+                    break;
+                } catch (OptimisticLockingFailureException ex) {
+                    if (tentativa >= concorrenciaProperties.getMaxTentativas()) {
+                        throw ex;
+                    }
+                }
+            }
+            registrarNoJournal(aplicadas);
+        }
+        return resumir(true, resultados);
+    }
+
+    private ResultadoLote processarAtomico(JsonParser parser) {
+        List<ResultadoItemLote> resultados = new ArrayList<>();
+        List<OperacaoLote> aplicadas = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<OperacaoLote> chunk;
+                while (!(chunk = lerChunkSemExcecao(parser)).isEmpty()) {
+                    aplicarChunk(chunk, resultados.size(), true, resultados, aplicadas);
+                    // Mantém a memória limitada: grava o chunk e libera as entidades
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            });
+        } catch (ItemRejeitadoException ex) {
+            resultados.replaceAll(item -> new ResultadoItemLote(item.getIndice(),
+                    ResultadoItemLote.Status.DESFEITO, null, null));
+            resultados.add(ResultadoItemLote.erro(ex.indice, ex.getMessage()));
+            return resumir(false, resultados);
+        }
+        registrarNoJournal(aplicadas);
+        return resumir(true, resultados);
+    }
+
+    // No ledger em memória as operações já são baratas; são aplicadas uma a uma pelo ClienteService
+    private ResultadoLote processarNoLedger(JsonParser parser, boolean atomico) throws IOException {
+        if (atomico) {
+            throw new ContaException("Lote tudo-ou-nada não é suportado com o ledger em memória habilitado");
+        }
+        List<ResultadoItemLote> resultados = new ArrayList<>();
+        List<OperacaoLote> chunk;
+        while (!(chunk = lerChunk(parser)).isEmpty()) {
+            for (OperacaoLote operacao : chunk) {
+                int indice = resultados.size();
+                try {
+                    resultados.add(ResultadoItemLote.ok(indice, aplicarNoServico(operacao)));
+                } catch (ValorInvalidoException | SaldoInsuficienteException
+                         | ClienteNotFoundException | ContaException ex) {
+                    resultados.add(ResultadoItemLote.erro(indice, ex.getMessage()));
+                }
+            }
+        }
+        return resumir(true, resultados);
+    }
+
+    private void aplicarChunk(List<OperacaoLote> chunk, int primeiroIndice, boolean atomico,
+                              List<ResultadoItemLote> resultados, List<OperacaoLote> aplicadas) {
+        Map<String, Cliente> contas = carregarContas(chunk);
+        cacheClientes.invalidarAposCommit(contas.keySet());
+        for (int i = 0; i < chunk.size(); i++) {
+            OperacaoLote operacao = chunk.get(i);
+            int indice = primeiroIndice + i;
+            try {
+                resultados.add(ResultadoItemLote.ok(indice, aplicar(operacao, contas)));
+                aplicadas.add(operacao);
+            } catch (ValorInvalidoException | SaldoInsuficienteException
+                     | ClienteNotFoundException | ContaException ex) {
+                if (atomico) {
+                    throw new ItemRejeitadoException(indice, ex.getMessage());
+                }
+                resultados.add(ResultadoItemLote.erro(indice, ex.getMessage()));
+            }
+        }
+    }
+
+    // Validações antes de qualquer alteração: um item rejeitado não deixa a entidade modificada
+    private BigDecimal aplicar(OperacaoLote operacao, Map<String, Cliente> contas) {
+        if (operacao.getTipo() == null) {
+            throw new ContaException("Tipo da operação é obrigatório");
+        }
+        clienteValidation.validarValorPositivo(operacao.getValor());
+        BigDecimal valor = operacao.getValor();
+
+        switch (operacao.getTipo()) {
+            case DEPOSITO -> {
+                Cliente cliente = conta(contas, operacao.getNumeroConta(), "Conta não encontrada");
+                cliente.setSaldo(cliente.getSaldo().add(valor));
+                registroMovimentos.registrar(cliente.getNumeroConta(), TipoMovimento.DEPOSITO, valor,
+                        cliente.getSaldo());
+                registrarNosAgregados(cliente, Centavos.deValor(valor));
+                return cliente.getSaldo();
+            }
+            case SAQUE -> {
+                Cliente cliente = conta(contas, operacao.getNumeroConta(), "Conta não encontrada");
+                clienteValidation.validarSaldoSuficiente(cliente.getSaldo(), valor);
+                cliente.setSaldo(cliente.getSaldo().subtract(valor));
+                registroMovimentos.registrar(cliente.getNumeroConta(), TipoMovimento.SAQUE, valor,
+                        cliente.getSaldo());
+                registrarNosAgregados(cliente, -Centavos.deValor(valor));
+                return cliente.getSaldo();
+            }
+            default -> {
+                Cliente origem = conta(contas, operacao.getContaOrigem(), "Conta de origem não encontrada");
+                Cliente destino = conta(contas, operacao.getContaDestino(), "Conta de destino não encontrada");
+                clienteValidation.validarContasDiferentes(origem.getNumeroConta(), destino.getNumeroConta());
+                clienteValidation.validarSaldoSuficiente(origem.getSaldo(), valor);
+                origem.setSaldo(origem.getSaldo().subtract(valor));
+                destino.setSaldo(destino.getSaldo().add(valor));
+                registroMovimentos.registrar(origem.getNumeroConta(), TipoMovimento.TRANSFERENCIA_ENVIADA, valor,
+                        origem.getSaldo(), destino.getNumeroConta());
+                registroMovimentos.registrar(destino.getNumeroConta(), TipoMovimento.TRANSFERENCIA_RECEBIDA, valor,
+                        destino.getSaldo(), origem.getNumeroConta());
+                registrarNosAgregados(origem, -Centavos.deValor(valor));
+                registrarNosAgregados(destino, Centavos.deValor(valor));
+                return origem.getSaldo();
+            }
+        }
+    }
+
+    // Somado aos agregados só no commit do chunk (ou do lote inteiro, no tudo-ou-nada)
+    private void registrarNosAgregados(Cliente cliente, long deltaCentavos) {
+        agregadosAgencias.registrar(cliente.getAgencia(), deltaCentavos, Centavos.deValor(cliente.getSaldo()));
+    }
+
+    private BigDecimal aplicarNoServico(OperacaoLote operacao) {
+        if (operacao.getTipo() == null) {
+            throw new ContaException("Tipo da operação é obrigatório");
+        }
+        return switch (operacao.getTipo()) {
+            case DEPOSITO -> clienteService.depositar(operacao.getNumeroConta(), operacao.getValor()).getSaldo();
+            case SAQUE -> clienteService.sacar(operacao.getNumeroConta(), operacao.getValor()).getSaldo();
+            case TRANSFERENCIA -> {
+                clienteService.transferir(operacao.getContaOrigem(), operacao.getContaDestino(), operacao.getValor());
+                yield clienteService.buscarPorNumeroConta(operacao.getContaOrigem()).saldo();
+            }
+        };
+    }
+
+    // Uma consulta por chunk, em ordem de id (com FOR UPDATE fora do modo otimista)
+    private Map<String, Cliente> carregarContas(List<OperacaoLote> chunk) {
+        Set<String> numerosConta = new HashSet<>();
+        for (OperacaoLote operacao : chunk) {
+            adicionarSePresente(numerosConta, operacao.getNumeroConta());
+            adicionarSePresente(numerosConta, operacao.getContaOrigem());
+            adicionarSePresente(numerosConta, operacao.getContaDestino());
+        }
+        if (numerosConta.isEmpty()) {
+            return Map.of();
+        }
+        List<Cliente> clientes = concorrenciaProperties.getEstrategia() == EstrategiaConcorrencia.OTIMISTA
+                ? clienteRepository.findAllByNumeroContaIn(numerosConta)
+                : clienteRepository.findAllByNumeroContaInForUpdate(numerosConta);
+        Map<String, Cliente> contas = new HashMap<>(clientes.size() * 2);
+        for (Cliente cliente : clientes) {
+            contas.put(cliente.getNumeroConta(), cliente);
+        }
+        return contas;
+    }
+
+    private static void adicionarSePresente(Set<String> numerosConta, String numeroConta) {
+        if (numeroConta != null) {
+            numerosConta.add(numeroConta);
+        }
+    }
+
+    private static Cliente conta(Map<String, Cliente> contas, String numeroConta, String mensagemErro) {
+        Cliente cliente = numeroConta == null ? null : contas.get(numeroConta);
+        if (cliente == null) {
+            throw new ClienteNotFoundException(mensagemErro);
+        }
+        return cliente;
+    }
+
+    private List<OperacaoLote> lerChunk(JsonParser parser) throws IOException {
+        List<OperacaoLote> chunk = new ArrayList<>(loteProperties.getTamanhoChunk());
+        while (chunk.size() < loteProperties.getTamanhoChunk() && parser.nextToken() == JsonToken.START_OBJECT) {
+            chunk.add(objectMapper.readValue(parser, OperacaoLote.class));
+        }
+        return chunk;
+    }
+
+    private List<OperacaoLote> lerChunkSemExcecao(JsonParser parser) {
+        try {
+            return lerChunk(parser);
+        } catch (IOException ex) {
+            throw new ValorInvalidoException("Lote inválido: " + ex.getMessage());
+        }
+    }
+
+    // Anexa os registros do chunk e espera um único fsync, o do último
+    private void registrarNoJournal(List<OperacaoLote> aplicadas) {
+        if (!journalTransacoes.isHabilitado() || aplicadas.isEmpty()) {
+            return;
+        }
+        long ultimo = -1;
+        for (OperacaoLote operacao : aplicadas) {
+            ultimo = switch (operacao.getTipo()) {
+                case DEPOSITO -> journalTransacoes.registrarSemAguardar(TipoOperacao.DEPOSITO,
+                        operacao.getNumeroConta(), null, operacao.getValor(), null, null);
+                case SAQUE -> journalTransacoes.registrarSemAguardar(TipoOperacao.SAQUE,
+                        operacao.getNumeroConta(), null, operacao.getValor(), null, null);
+                case TRANSFERENCIA -> journalTransacoes.registrarSemAguardar(TipoOperacao.TRANSFERENCIA,
+                        operacao.getContaOrigem(), operacao.getContaDestino(), operacao.getValor(), null, null);
+            };
+        }
+        journalTransacoes.aguardarSincronizacao(ultimo);
+    }
+
+    private static ResultadoLote resumir(boolean confirmado, List<ResultadoItemLote> resultados) {
+        int totalOk = 0;
+        int totalErro = 0;
+        for (ResultadoItemLote resultado : resultados) {
+            if (resultado.getStatus() == ResultadoItemLote.Status.OK) {
+                totalOk++;
+            } else if (resultado.getStatus() == ResultadoItemLote.Status.ERRO) {
+                totalErro++;
+            }
+        }
+        return new ResultadoLote(confirmado, totalOk, totalErro, resultados);
+    }
+
+    // Interrompe o lote tudo-ou-nada e faz o rollback da transação
+    private static class ItemRejeitadoException extends NegocioException {
+        private final int indice;
+
+        private ItemRejeitadoException(int indice, String message) {
+            super(message);
+            this.indice = indice;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.mini_bank_api.service.metricas;
+
+import com.example.mini_bank_api.config.AspectosConfig;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+// Mede cada operação por fora de todos os outros aspectos: o tempo inclui retentativas e commit
+@Aspect
+@Component
+@Order(AspectosConfig.ORDEM_METRICAS)
+@RequiredArgsConstructor
+public class MetricasAspect {
+
+    private final MetricasOperacoes metricasOperacoes;
+
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.cadastrarCliente(..))")
+    public Object cadastro(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(Operacao.CADASTRO, joinPoint);
+    }
+
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.buscarPorId(..)) || " +
+            "execution(* com.example.mini_bank_api.service.ClienteService.buscarPorNumeroConta(..))")
+    public Object consulta(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(Operacao.CONSULTA, joinPoint);
+    }
+
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.depositar(..))")
+    public Object deposito(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(Operacao.DEPOSITO, joinPoint);
+    }
+
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.sacar(..))")
+    public Object saque(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(Operacao.SAQUE, joinPoint);
+    }
+
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.transferir(..))")
+    public Object transferencia(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(Operacao.TRANSFERENCIA, joinPoint);
+    }
+
+    // Modo filas: o tempo vai da chamada até a conclusão do pedido pela fila da conta
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.depositarAssincrono(..))")
+    public Object depositoAssincrono(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medirAssincrono(Operacao.DEPOSITO, joinPoint);
+    }
+
+    @Around("execution(* com.example.mini_bank_api.service.ClienteService.sacarAssincrono(..))")
+    public Object saqueAssincrono(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medirAssincrono(Operacao.SAQUE, joinPoint);
+    }
+
+    @Around("execution(* com.example.mini_bank_api.service.lote.LoteService.processar(..))")
+    public Object lote(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(Operacao.LOTE, joinPoint);
+    }
+
+    private Object medir(Operacao operacao, ProceedingJoinPoint joinPoint) throws Throwable {
+        long inicioBanco = metricasOperacoes.tempoBancoAcumulado();
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = joinPoint.proceed();
+            metricasOperacoes.registrarSucesso(operacao, System.nanoTime() - inicio,
+                    metricasOperacoes.tempoBancoAcumulado() - inicioBanco);
+            return resultado;
+        } catch (Throwable erro) {
+            metricasOperacoes.registrarErro(operacao, erro, System.nanoTime() - inicio,
+                    metricasOperacoes.tempoBancoAcumulado() - inicioBanco);
+            throw erro;
+        }
+    }
+
+    // O banco é acessado pela thread da fila, então só o tempo total é medido
+    private Object medirAssincrono(Operacao operacao, ProceedingJoinPoint joinPoint) throws Throwable {
+        long inicio = System.nanoTime();
+        CompletableFuture<?> resultado;
+        try {
+            resultado = (CompletableFuture<?>) joinPoint.proceed();
+        } catch (Throwable erro) {
+            metricasOperacoes.registrarErro(operacao, erro, System.nanoTime() - inicio);
+            throw erro;
+        }
+        return resultado.whenComplete((valor, erro) -> {
+            if (erro == null) {
+                metricasOperacoes.registrarSucesso(operacao, System.nanoTime() - inicio);
+            } else {
+                metricasOperacoes.registrarErro(operacao, erro, System.nanoTime() - inicio);
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.mini_bank_api.service.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Timers das operações bancárias:
+// - minibank.operacao{operacao, resultado}: tempo total, resultado = "sucesso" ou o nome da exceção
+// - minibank.operacao.banco{operacao}: parte desse tempo gasta no banco (repositórios e commit)
+// Os timers de sucesso são criados uma vez; o caminho feliz não monta Meter.Id nem consulta o registry.
+@Component
+public class MetricasOperacoes {
+
+    public static final String TIMER_OPERACAO = "minibank.operacao";
+
+    public static final String TIMER_BANCO = "minibank.operacao.banco";
+
+    public static final String RESULTADO_SUCESSO = "sucesso";
+
+    private final MeterRegistry registry;
+
+    private final Map<Operacao, Timer> sucesso = new EnumMap<>(Operacao.class);
+
+    private final Map<Operacao, Timer> banco = new EnumMap<>(Operacao.class);
+
+    private final Map<String, Timer> erros = new ConcurrentHashMap<>();
+
+    // Tempo de banco acumulado pela thread; cada operação mede a diferença entre o início e o fim
+    private final ThreadLocal<long[]> tempoBanco = ThreadLocal.withInitial(() -> new long[1]);
+
+    public MetricasOperacoes(MeterRegistry registry) {
+        this.registry = registry;
+        for (Operacao operacao : Operacao.values()) {
+            sucesso.put(operacao, timerOperacao(operacao, RESULTADO_SUCESSO));
+            banco.put(operacao, Timer.builder(TIMER_BANCO)
+                    .description("Tempo gasto no banco durante a operação")
+                    .tag("operacao", operacao.getTag())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    public long tempoBancoAcumulado() {
+        return tempoBanco.get()[0];
+    }
+
+    public void adicionarTempoBanco(long nanos) {
+        tempoBanco.get()[0] += nanos;
+    }
+
+    public void registrarSucesso(Operacao operacao, long nanosTotal, long nanosBanco) {
+        registrarSucesso(operacao, nanosTotal);
+        banco.get(operacao).record(nanosBanco, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarErro(Operacao operacao, Throwable erro, long nanosTotal, long nanosBanco) {
+        registrarErro(operacao, erro, nanosTotal);
+        banco.get(operacao).record(nanosBanco, TimeUnit.NANOSECONDS);
+    }
+
+    // Sem o tempo de banco: operações concluídas por outra thread (filas por conta)
+    public void registrarSucesso(Operacao operacao, long nanosTotal) {
+        sucesso.get(operacao).record(nanosTotal, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarErro(Operacao operacao, Throwable erro, long nanosTotal) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        String resultado = causa.getClass().getSimpleName();
+        erros.computeIfAbsent(operacao.getTag() + ':' + resultado, chave -> timerOperacao(operacao, resultado))
+                .record(nanosTotal, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timerOperacao(Operacao operacao, String resultado) {
+        return Timer.builder(TIMER_OPERACAO)
+                .description("Tempo total da operação bancária")
+                .tag("operacao", operacao.getTag())
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
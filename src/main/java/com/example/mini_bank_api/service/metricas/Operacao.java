@@ -0,0 +1,21 @@
+package com.example.mini_bank_api.service.metricas;
+
+// Valor da tag "operacao" nas métricas
+public enum Operacao {
+    CADASTRO("cadastro"),
+    CONSULTA("consulta"),
+    DEPOSITO("deposito"),
+    SAQUE("saque"),
+    TRANSFERENCIA("transferencia"),
+    LOTE("lote");
+
+    private final String tag;
+
+    Operacao(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
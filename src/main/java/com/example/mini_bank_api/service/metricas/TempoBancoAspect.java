@@ -0,0 +1,70 @@
+package com.example.mini_bank_api.service.metricas;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Soma ao tempo de banco da thread cada chamada de repositório e o commit da transação
+// (no commit o Hibernate faz o flush, então os UPDATEs da estratégia otimista caem aqui)
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TempoBancoAspect {
+
+    private static final Object CHAVE_COMMIT = new Object();
+
+    private final MetricasOperacoes metricasOperacoes;
+
+    @Around("execution(* com.example.mini_bank_api.repository..*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        medirCommit();
+        long inicio = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            metricasOperacoes.adicionarTempoBanco(System.nanoTime() - inicio);
+        }
+    }
+
+    // Uma sincronização por transação, marcada como recurso da própria transação
+    private void medirCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(CHAVE_COMMIT)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(CHAVE_COMMIT, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private long inicio;
+
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inicio = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                metricasOperacoes.adicionarTempoBanco(System.nanoTime() - inicio);
+                inicio = 0;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CHAVE_COMMIT);
+                if (inicio != 0) {
+                    metricasOperacoes.adicionarTempoBanco(System.nanoTime() - inicio);
+                }
+            }
+        });
+    }
+}
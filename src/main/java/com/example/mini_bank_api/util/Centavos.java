@@ -0,0 +1,52 @@
+package com.example.mini_bank_api.util;
+
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Valores monetários em ponto fixo: um long com a quantidade de centavos.
+// As contas em long não alocam objetos; a conversão de/para BigDecimal só acontece na fronteira (API e banco).
+public final class Centavos {
+
+    public static final int ESCALA = 2;
+
+    private Centavos() {
+    }
+
+    // Conversão exata: valores com mais de 2 casas significativas são rejeitados, nunca arredondados
+    public static long deValor(BigDecimal valor) {
+        BigDecimal ajustado;
+        try {
+            ajustado = valor.setScale(ESCALA, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException ex) {
+            throw new ValorInvalidoException("Valor deve ter no máximo 2 casas decimais");
+        }
+        try {
+            // scaleByPowerOfTen mantém a forma compacta; unscaledValue() criaria um BigInteger
+            return ajustado.scaleByPowerOfTen(ESCALA).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new ValorInvalidoException("Valor excede o limite permitido");
+        }
+    }
+
+    public static BigDecimal paraValor(long centavos) {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    public static long somar(long centavos, long parcela) {
+        try {
+            return Math.addExact(centavos, parcela);
+        } catch (ArithmeticException ex) {
+            throw new ValorInvalidoException("Valor excede o limite permitido");
+        }
+    }
+
+    public static long subtrair(long centavos, long parcela) {
+        try {
+            return Math.subtractExact(centavos, parcela);
+        } catch (ArithmeticException ex) {
+            throw new ValorInvalidoException("Valor excede o limite permitido");
+        }
+    }
+}
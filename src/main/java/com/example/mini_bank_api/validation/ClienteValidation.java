@@ -1,18 +1,31 @@
 package com.example.mini_bank_api.validation;
 
+import com.example.mini_bank_api.entity.Cliente;
 import com.example.mini_bank_api.exception.ContaException;
 import com.example.mini_bank_api.exception.SaldoInsuficienteException;
 import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.util.Centavos;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Objects;
 
 @Component
 public class ClienteValidation {
 
-    // Validação de valor positivo
+    // Validação de valor positivo, com no máximo 2 casas decimais (sem arredondamento)
     public void validarValorPositivo(BigDecimal valor) {
-        if (valor.compareTo(BigDecimal.ZERO) <= 0) {
+        if (valor == null || valor.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ValorInvalidoException("Valor deve ser positivo");
+        }
+        Centavos.deValor(valor);
+    }
+
+    public void validarValorPositivo(long centavos) {
+        if (centavos <= 0) {
             throw new ValorInvalidoException("Valor deve ser positivo");
         }
     }
@@ -23,9 +36,28 @@ public class ClienteValidation {
         }
     }
 
+    public void validarSaldoSuficiente(long saldoCentavos, long valorCentavos) {
+        if (saldoCentavos < valorCentavos) {
+            throw new SaldoInsuficienteException("Saldo insuficiente");
+        }
+    }
+
     public void validarNumeroContaUnico(boolean numeroDaContaJaExiste) {
         if(numeroDaContaJaExiste){
             throw new ContaException("Número da conta já existe");
         }
     }
+
+    // A violação veio do índice único do número da conta, e não de outra restrição (ex.: nome nulo)
+    public boolean violouNumeroContaUnico(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violacao
+                && violacao.getConstraintName() != null
+                && violacao.getConstraintName().toLowerCase(Locale.ROOT).contains(Cliente.RESTRICAO_NUMERO_CONTA_UNICO);
+    }
+
+    public void validarContasDiferentes(String contaOrigem, String contaDestino) {
+        if (Objects.equals(contaOrigem, contaDestino)) {
+            throw new ContaException("Conta de origem e destino devem ser diferentes");
+        }
+    }
 }
@@ -0,0 +1,19 @@
+-- Schema inicial (perfil prod). No perfil padrao o Hibernate cria as tabelas (ddl-auto=create-drop).
+
+create table clientes (
+    id           bigint generated by default as identity primary key,
+    nome         varchar(255)   not null,
+    numero_conta varchar(255)   not null,
+    agencia      varchar(255),
+    saldo        numeric(38, 2),
+    versao       bigint,
+    -- Indice unico: toda operacao busca a conta pelo numero
+    constraint uk_clientes_numero_conta unique (numero_conta)
+);
+
+create table chaves_idempotencia (
+    chave      varchar(255)  not null primary key,
+    assinatura varchar(255)  not null,
+    resposta   varchar(4000) not null,
+    criada_em  timestamp(6)  not null
+);
@@ -0,0 +1,21 @@
+-- Extrato: um movimento por alteracao de saldo, com o saldo logo apos o movimento.
+
+create table movimentos (
+    id                 bigint generated by default as identity primary key,
+    numero_conta       varchar(255)   not null,
+    data_hora          timestamp(6)   not null,
+    tipo               varchar(30)    not null,
+    valor              numeric(38, 2) not null,
+    saldo_apos         numeric(38, 2) not null,
+    conta_contraparte  varchar(255)
+);
+
+-- Extrato de um periodo (ordem crescente) e saldo em um instante (ultimo movimento ate ele).
+-- O H2 nao percorre um indice de tras para frente: cada sentido tem o seu.
+create index idx_movimentos_conta_data on movimentos (numero_conta, data_hora, id);
+create index idx_movimentos_conta_data_desc on movimentos (numero_conta, data_hora desc, id desc);
+
+-- Contas que ja existiam: o saldo atual vira o movimento de abertura do extrato
+insert into movimentos (numero_conta, data_hora, tipo, valor, saldo_apos)
+select numero_conta, localtimestamp, 'ABERTURA', coalesce(saldo, 0), coalesce(saldo, 0)
+from clientes;
@@ -0,0 +1,13 @@
+-- Ids gerados por sequencia em blocos de 50 (pooled-lo), no lugar de IDENTITY: o Hibernate so agrupa
+-- INSERTs em lotes JDBC quando conhece o id antes do INSERT.
+-- O default da coluna tambem usa a sequencia, para INSERTs feitos direto em SQL (cada um consome um bloco).
+
+create sequence clientes_seq start with 1 increment by 50;
+alter sequence clientes_seq restart with (select coalesce(max(id), 0) + 1 from clientes);
+alter table clientes alter column id drop identity;
+alter table clientes alter column id set default next value for clientes_seq;
+
+create sequence movimentos_seq start with 1 increment by 50;
+alter sequence movimentos_seq restart with (select coalesce(max(id), 0) + 1 from movimentos);
+alter table movimentos alter column id drop identity;
+alter table movimentos alter column id set default next value for movimentos_seq;
@@ -0,0 +1,4 @@
+-- Busca de clientes por agencia, paginada pelo id (where agencia = ? and id > ? order by id).
+-- A busca por nome usa o indice de palavras em memoria e carrega os clientes pela chave primaria.
+
+create index idx_clientes_agencia on clientes (agencia, id);
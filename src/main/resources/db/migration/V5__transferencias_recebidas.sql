@@ -0,0 +1,8 @@
+-- Modo cluster: decisao do no de destino (CREDITADA ou CANCELADA) por id de transferencia, gravada junto
+-- com o credito. Um cancelamento depois de um reinicio do no precisa encontrar o credito ja feito.
+
+create table transferencias_recebidas (
+    id          varchar(255) not null primary key,
+    estado      varchar(20)  not null,
+    decidida_em timestamp(6) not null
+);
@@ -0,0 +1,4 @@
+-- Limpeza periodica das chaves de idempotencia gravadas ha mais de mini-bank.idempotencia.ttl
+-- (delete ... where criada_em < ?).
+
+create index idx_chaves_idempotencia_criada_em on chaves_idempotencia (criada_em);
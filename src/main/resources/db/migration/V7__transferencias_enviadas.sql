@@ -0,0 +1,11 @@
+-- Modo cluster: transferencias para outro no debitadas na origem e ainda sem desfecho, gravadas junto com o
+-- debito. Depois de um reinicio da origem, cada linha ainda presente e confirmada com o destino ou estornada.
+
+create table transferencias_enviadas (
+    id            varchar(255)   not null primary key,
+    no_destino    varchar(255)   not null,
+    conta_origem  varchar(255)   not null,
+    conta_destino varchar(255)   not null,
+    valor         numeric(38, 2) not null,
+    criada_em     timestamp(6)   not null
+);
@@ -0,0 +1,92 @@
+package com.example.mini_bank_api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tempo até a primeira requisição no perfil prod, com e sem inicialização preguiçosa.
+// Cada medida sobe a aplicação em uma JVM nova (partida a frio, como uma instância criada pelo autoscaler)
+// e conta do início do processo até a resposta de uma consulta de conta, que inclui os beans criados sob demanda.
+// O limite padrão é folgado para máquinas de CI lentas; ajuste com -Dmini-bank.inicio.limite-ms.
+@Tag("lento")
+@Slf4j
+class InicializacaoTest {
+
+    private static final long LIMITE_MS = Long.getLong("mini-bank.inicio.limite-ms", 60_000);
+
+    @TempDir
+    Path diretorio;
+
+    @ParameterizedTest(name = "inicialização preguiçosa = {0}")
+    @ValueSource(booleans = {true, false})
+    void deveAtenderPrimeiraRequisicaoDentroDoLimite(boolean preguicosa) throws Exception {
+        // Arrange
+        int porta = portaLivre();
+        ProcessBuilder processo = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                // O devtools está no classpath de teste, mas não vai no JAR de produção
+                "-Dspring.devtools.restart.enabled=false",
+                "-cp", System.getProperty("java.class.path"),
+                MiniBankApiApplication.class.getName(),
+                "--spring.profiles.active=prod",
+                "--spring.main.lazy-initialization=" + preguicosa,
+                "--mini-bank.dados.diretorio=" + diretorio.toAbsolutePath(),
+                "--server.port=" + porta,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN")
+                .redirectErrorStream(true)
+                .redirectOutput(diretorio.resolve("aplicacao.log").toFile());
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest consulta = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/clientes/conta/inicio"))
+                .GET().build();
+
+        // Act
+        long inicio = System.nanoTime();
+        Process aplicacao = processo.start();
+        try {
+            HttpResponse<String> resposta = null;
+            while (resposta == null && System.nanoTime() - inicio < TimeUnit.MILLISECONDS.toNanos(LIMITE_MS * 2)) {
+                assertTrue(aplicacao.isAlive(), "A aplicação terminou; veja " + diretorio.resolve("aplicacao.log"));
+                try {
+                    resposta = http.send(consulta, HttpResponse.BodyHandlers.ofString());
+                } catch (ConnectException ex) {
+                    Thread.sleep(20);
+                }
+            }
+            long primeiraRequisicaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            // Assert
+            assertNotNull(resposta, "Sem resposta em " + primeiraRequisicaoMs + " ms");
+            assertEquals(404, resposta.statusCode());
+            log.atDebug().log(() -> String.format(
+                    "[preguiçosa = %s] primeira requisição respondida %d ms após o início do processo",
+                    preguicosa, primeiraRequisicaoMs));
+            assertTrue(primeiraRequisicaoMs < LIMITE_MS, "Primeira requisição após " + primeiraRequisicaoMs + " ms");
+        } finally {
+            aplicacao.destroy();
+            aplicacao.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.mini_bank_api;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ContaException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Perfil prod: banco em arquivo com schema das migrações, preservado entre reinícios
+class PerfilProducaoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveManterOsDadosAposReiniciar() {
+        // Arrange
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            contexto.getBean(ClienteRepository.class)
+                    .save(new Cliente(null, "Ana", "prod-1", "001", new BigDecimal("10.00")));
+            contexto.getBean(ClienteService.class).depositar("prod-1", new BigDecimal("5.50"));
+        }
+
+        // Act
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            ClienteResposta cliente = contexto.getBean(ClienteService.class).buscarPorNumeroConta("prod-1");
+
+            // Assert
+            assertEquals(0, new BigDecimal("15.50").compareTo(cliente.saldo()));
+            assertEquals(1L, cliente.versao());
+        }
+    }
+
+    @Test
+    void deveCriarSchemaPelasMigracoesComIndiceNoNumeroDaConta() {
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+            Integer migracoes = jdbcTemplate.queryForObject(
+                    "select count(*) from \"flyway_schema_history\" where \"success\"", Integer.class);
+            Integer indices = jdbcTemplate.queryForObject(
+                    "select count(*) from information_schema.index_columns " +
+                            "where table_name = 'CLIENTES' and column_name = 'NUMERO_CONTA'", Integer.class);
+
+            assertTrue(migracoes >= 1);
+            assertEquals(1, indices);
+        }
+    }
+
+    @Test
+    void deveReconhecerNumeroRepetidoPeloIndiceDaMigracao() {
+        try (ConfigurableApplicationContext contexto = iniciar()) {
+            // Arrange
+            ClienteService clienteService = contexto.getBean(ClienteService.class);
+            clienteService.cadastrarCliente(new Cliente(null, "Ana", "prod-repetida", "001", BigDecimal.ONE));
+
+            // Act & Assert
+            ContaException ex = assertThrows(ContaException.class, () -> clienteService.cadastrarCliente(
+                    new Cliente(null, "Bia", "prod-repetida", "001", BigDecimal.ONE)));
+            assertEquals("Número da conta já existe", ex.getMessage());
+            assertEquals("Ana", clienteService.buscarPorNumeroConta("prod-repetida").nome());
+        }
+    }
+
+    private ConfigurableApplicationContext iniciar() {
+        return new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=prod",
+                        "--mini-bank.dados.diretorio=" + diretorio.toAbsolutePath(),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.mini_bank_api.config;
+
+import com.example.mini_bank_api.service.ClienteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJPrecedenceInformation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AspectosConfigTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Test
+    void deveAplicarMetricasRetentativaJournalETransacaoNessaOrdem() {
+        // Arrange
+        Advisor[] advisors = ((Advised) clienteService).getAdvisors();
+
+        // Act: de fora para dentro, cada aspecto aparece uma vez, na posição do seu primeiro advisor
+        List<String> ordem = new ArrayList<>();
+        for (Advisor advisor : advisors) {
+            String nome = advisor.getAdvice() instanceof TransactionInterceptor ? "transacao"
+                    : advisor instanceof AspectJPrecedenceInformation aspecto ? aspecto.getAspectName() : null;
+            if (nome != null && !ordem.contains(nome)) {
+                ordem.add(nome);
+            }
+        }
+
+        // Assert
+        assertEquals(List.of("metricasAspect", "retentativaOtimistaAspect", "journalAspect", "transacao"),
+                ordem.stream().filter(List.of("metricasAspect", "retentativaOtimistaAspect", "journalAspect",
+                        "transacao")::contains).toList());
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobrecarga HTTP com e sem controle de admissão: bem mais clientes simultâneos que conexões no pool, e parte
+// deles martelando a mesma conta. Sem admissão todos esperam na fila do Hikari (e os que passam de
+// connection-timeout recebem 503 depois de esperar); com admissão o excesso é recusado na entrada e a conta
+// quente fica limitada à sua taxa. As latências vão para o log em debug; o que se confere é que nenhum depósito
+// confirmado se perde e que a conta quente não passa do que o balde permite.
+@Tag("lento")
+@Slf4j
+class AdmissaoCargaTest {
+
+    private static final int CONTAS = 50;
+    private static final int CLIENTES_HTTP = 60;
+    private static final int REQUISICOES_POR_CLIENTE = 20;
+    private static final int CLIENTES_CONTA_QUENTE = 10;
+    private static final int OPERACOES_POR_SEGUNDO = 2;
+    private static final int RAJADA = 5;
+    // Clientes recusados esperam um pouco antes da próxima requisição (o Retry-After, em escala de teste)
+    private static final int ESPERA_APOS_RECUSA_MS = 100;
+    private static final String CONTA_QUENTE = "admissao-quente";
+
+    @ParameterizedTest(name = "admissão = {0}")
+    @ValueSource(booleans = {false, true})
+    void deveRecusarOExcessoSemPerderDepositos(boolean admissao) throws Exception {
+        try (ConfigurableApplicationContext contexto = iniciar(admissao)) {
+            // Arrange
+            ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+            for (int i = 0; i <= CONTAS; i++) {
+                clienteRepository.save(new Cliente(null, "Admissão", conta(i), "001", BigDecimal.ZERO));
+            }
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            String base = "http://localhost:" + porta + "/api/clientes/";
+
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            AtomicIntegerArray depositosPorConta = new AtomicIntegerArray(CONTAS + 1);
+            AtomicInteger sobrecarga = new AtomicInteger();
+            AtomicInteger limiteConta = new AtomicInteger();
+            AtomicInteger conflitos = new AtomicInteger();
+            int total = CLIENTES_HTTP * REQUISICOES_POR_CLIENTE;
+            long[] latenciasNanos = new long[total];
+            AtomicInteger indice = new AtomicInteger();
+            long[] latenciasAceitasNanos = new long[total];
+            AtomicInteger aceitas = new AtomicInteger();
+            CountDownLatch largada = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTES_HTTP);
+            List<Future<?>> futuros = new ArrayList<>();
+
+            // Act: os primeiros clientes depositam só na conta quente (índice CONTAS), os demais se espalham
+            for (int c = 0; c < CLIENTES_HTTP; c++) {
+                int cliente = c;
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < REQUISICOES_POR_CLIENTE; i++) {
+                        int numero = cliente < CLIENTES_CONTA_QUENTE ? CONTAS
+                                : (cliente * REQUISICOES_POR_CLIENTE + i) % CONTAS;
+                        HttpRequest requisicao = HttpRequest.newBuilder(
+                                        URI.create(base + conta(numero) + "/deposito?valor=1"))
+                                .POST(HttpRequest.BodyPublishers.noBody()).build();
+
+                        long inicio = System.nanoTime();
+                        HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                        long latencia = System.nanoTime() - inicio;
+                        latenciasNanos[indice.getAndIncrement()] = latencia;
+
+                        int status = resposta.statusCode();
+                        if (status == 503) {
+                            sobrecarga.incrementAndGet();
+                            Thread.sleep(ESPERA_APOS_RECUSA_MS);
+                        } else if (status == 429) {
+                            assertTrue(admissao);
+                            assertTrue(resposta.headers().firstValue("Retry-After").isPresent());
+                            limiteConta.incrementAndGet();
+                            Thread.sleep(ESPERA_APOS_RECUSA_MS);
+                        } else if (status == 409) {
+                            conflitos.incrementAndGet();
+                        } else {
+                            assertEquals(200, status);
+                            depositosPorConta.incrementAndGet(numero);
+                            latenciasAceitasNanos[aceitas.getAndIncrement()] = latencia;
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get(180, TimeUnit.SECONDS);
+            }
+            long duracaoNanos = System.nanoTime() - inicio;
+            executor.shutdown();
+
+            // Assert: todo depósito confirmado está no saldo
+            for (int i = 0; i <= CONTAS; i++) {
+                BigDecimal saldo = clienteRepository.findByNumeroConta(conta(i)).orElseThrow().getSaldo();
+                assertEquals(0, BigDecimal.valueOf(depositosPorConta.get(i)).compareTo(saldo),
+                        "Conta " + conta(i) + " com saldo " + saldo);
+            }
+            int aceitosContaQuente = depositosPorConta.get(CONTAS);
+
+            Arrays.sort(latenciasNanos);
+            long[] latenciasAceitas = Arrays.copyOf(latenciasAceitasNanos, aceitas.get());
+            Arrays.sort(latenciasAceitas);
+            log.atDebug().log(() -> String.format(
+                    "[admissão %s] %d requisições, %d clientes em %d ms: %d aceitas (%.0f/s, p50 %.2f ms, "
+                            + "p99 %.2f ms, máx %.2f ms), todas p50 %.2f ms p99 %.2f ms, 503: %d, 429: %d, 409: %d, "
+                            + "conta quente: %d aceitas",
+                    admissao ? "ligada" : "desligada", total, CLIENTES_HTTP,
+                    TimeUnit.NANOSECONDS.toMillis(duracaoNanos), aceitas.get(), aceitas.get() / (duracaoNanos / 1e9),
+                    percentil(latenciasAceitas, 50), percentil(latenciasAceitas, 99),
+                    percentil(latenciasAceitas, 100), percentil(latenciasNanos, 50), percentil(latenciasNanos, 99),
+                    sobrecarga.get(), limiteConta.get(), conflitos.get(), aceitosContaQuente));
+            if (admissao) {
+                // O balde começa cheio e recebe OPERACOES_POR_SEGUNDO fichas por segundo, até RAJADA
+                double segundos = duracaoNanos / 1e9;
+                assertTrue(aceitosContaQuente <= RAJADA + Math.ceil(OPERACOES_POR_SEGUNDO * segundos),
+                        aceitosContaQuente + " depósitos na conta quente em " + segundos + " s");
+                assertTrue(limiteConta.get() > 0);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciar(boolean admissao) {
+        return new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:admissao-" + admissao,
+                        "--spring.datasource.hikari.maximum-pool-size=4",
+                        "--spring.datasource.hikari.connection-timeout=500",
+                        "--mini-bank.admissao.habilitado=" + admissao,
+                        "--mini-bank.admissao.limite-inicial=8",
+                        "--mini-bank.admissao.latencia-alvo=500ms",
+                        "--mini-bank.admissao.operacoes-por-segundo-por-conta=" + OPERACOES_POR_SEGUNDO,
+                        "--mini-bank.admissao.rajada-por-conta=" + RAJADA,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                        "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF");
+    }
+
+    private static double percentil(long[] ordenadas, int percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[Math.min(ordenadas.length - 1, ordenadas.length * percentil / 100)] / 1e6;
+    }
+
+    private static String conta(int numero) {
+        return numero == CONTAS ? CONTA_QUENTE : "admissao-" + numero;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Balde por conta com as filas ligadas: depósito e saque vão aos handlers da fila, e a rota continua limitada.
+// Rajada de 2 e reposição desprezível: a terceira operação da conta é recusada.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:admissao-filas",
+        "mini-bank.filas.habilitado=true",
+        "mini-bank.admissao.habilitado=true",
+        "mini-bank.admissao.operacoes-por-segundo-por-conta=0.001",
+        "mini-bank.admissao.rajada-por-conta=2"
+})
+class AdmissaoInterceptorTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @LocalServerPort
+    private int porta;
+
+    @Test
+    void deveLimitarDepositosPelaRotaComAsFilasLigadas() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Ana", "admissao-fila-1", "001", BigDecimal.ZERO));
+
+        // Act
+        int[] status = new int[3];
+        for (int i = 0; i < status.length; i++) {
+            status[i] = post("/api/clientes/admissao-fila-1/deposito?valor=1").statusCode();
+        }
+
+        // Assert
+        assertArrayEquals(new int[]{200, 200, 429}, status);
+        assertEquals(0, new BigDecimal("2.00").compareTo(
+                clienteRepository.findByNumeroConta("admissao-fila-1").orElseThrow().getSaldo()));
+    }
+
+    @Test
+    void deveLimitarSaquesETransferenciasPelaContaComAsFilasLigadas() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Bia", "admissao-fila-2", "001", new BigDecimal("100.00")));
+        clienteRepository.save(new Cliente(null, "Caio", "admissao-fila-3", "001", BigDecimal.ZERO));
+
+        // Act: saque e transferência gastam o mesmo balde da conta de origem
+        HttpResponse<String> saque = post("/api/clientes/admissao-fila-2/saque?valor=1");
+        HttpResponse<String> transferencia = post("/api/clientes/transferir?contaOrigem=admissao-fila-2"
+                + "&contaDestino=admissao-fila-3&valor=1");
+        HttpResponse<String> recusado = post("/api/clientes/admissao-fila-2/saque?valor=1");
+
+        // Assert
+        assertEquals(200, saque.statusCode());
+        assertEquals(200, transferencia.statusCode());
+        assertEquals(429, recusado.statusCode());
+        assertTrue(recusado.headers().firstValue("Retry-After").isPresent());
+    }
+
+    private HttpResponse<String> post(String caminho) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Teste de carga HTTP: threads de plataforma x threads virtuais nos endpoints de ClienteController.
+// O Tomcat sobe com poucas threads de plataforma para que o limite apareça com a concorrência do teste;
+// com threads virtuais esse limite não se aplica e o que segura o banco é o pool do Hikari.
+@Tag("lento")
+@Slf4j
+class ClienteControllerCargaTest {
+
+    private static final int CONTAS = 100;
+    private static final int CLIENTES_HTTP = 100;
+    private static final int REQUISICOES_POR_CLIENTE = 10;
+    private static final int THREADS_TOMCAT = 20;
+
+    @ParameterizedTest(name = "threads virtuais = {0}")
+    @ValueSource(booleans = {false, true})
+    void deveAtenderAltaConcorrenciaSemPerderDepositos(boolean threadsVirtuais) throws Exception {
+        assumeTrue(!threadsVirtuais || Runtime.version().feature() >= 21,
+                "Threads virtuais exigem Java 21 ou superior");
+
+        try (ConfigurableApplicationContext contexto = iniciar(threadsVirtuais)) {
+            // Arrange
+            ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+            for (int i = 0; i < CONTAS; i++) {
+                clienteRepository.save(new Cliente(null, "Carga", conta(i), "001", BigDecimal.ZERO));
+            }
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            String base = "http://localhost:" + porta + "/api/clientes";
+
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            AtomicIntegerArray depositosPorConta = new AtomicIntegerArray(CONTAS);
+            AtomicInteger sobrecarga = new AtomicInteger();
+            AtomicInteger conflitos = new AtomicInteger();
+            int total = CLIENTES_HTTP * REQUISICOES_POR_CLIENTE;
+            long[] latenciasNanos = new long[total];
+            AtomicInteger indice = new AtomicInteger();
+            CountDownLatch largada = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTES_HTTP);
+            List<Future<?>> futuros = new ArrayList<>();
+
+            // Act: cada cliente HTTP alterna consulta e depósito em contas diferentes
+            for (int c = 0; c < CLIENTES_HTTP; c++) {
+                int cliente = c;
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < REQUISICOES_POR_CLIENTE; i++) {
+                        int numero = (cliente * REQUISICOES_POR_CLIENTE + i) % CONTAS;
+                        boolean deposito = i % 2 == 0;
+                        HttpRequest requisicao = deposito
+                                ? HttpRequest.newBuilder(URI.create(base + "/" + conta(numero) + "/deposito?valor=1"))
+                                        .POST(HttpRequest.BodyPublishers.noBody()).build()
+                                : HttpRequest.newBuilder(URI.create(base + "/conta/" + conta(numero))).GET().build();
+
+                        long inicio = System.nanoTime();
+                        int status = http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latenciasNanos[indice.getAndIncrement()] = System.nanoTime() - inicio;
+
+                        if (status == 503) {
+                            sobrecarga.incrementAndGet();
+                        } else if (status == 409) {
+                            conflitos.incrementAndGet();
+                        } else {
+                            assertEquals(200, status);
+                            if (deposito) {
+                                depositosPorConta.incrementAndGet(numero);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get(120, TimeUnit.SECONDS);
+            }
+            long duracaoNanos = System.nanoTime() - inicio;
+            executor.shutdown();
+
+            // Assert: todo depósito confirmado com 200 está no saldo
+            for (int i = 0; i < CONTAS; i++) {
+                BigDecimal saldo = clienteRepository.findByNumeroConta(conta(i)).orElseThrow().getSaldo();
+                assertEquals(0, BigDecimal.valueOf(depositosPorConta.get(i)).compareTo(saldo),
+                        "Conta " + conta(i) + " com saldo " + saldo);
+            }
+
+            Arrays.sort(latenciasNanos);
+            log.atDebug().log(() -> String.format(
+                    "[%s] %d requisições HTTP, %d clientes em %d ms (%.0f req/s, p50 %.2f ms, "
+                            + "p99 %.2f ms, 503: %d, 409: %d)",
+                    threadsVirtuais ? "virtuais" : "plataforma", total, CLIENTES_HTTP,
+                    TimeUnit.NANOSECONDS.toMillis(duracaoNanos), total / (duracaoNanos / 1e9),
+                    latenciasNanos[total / 2] / 1e6, latenciasNanos[total * 99 / 100] / 1e6,
+                    sobrecarga.get(), conflitos.get()));
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciar(boolean threadsVirtuais) {
+        String modo = threadsVirtuais ? "virtuais" : "plataforma";
+        return new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "--server.tomcat.threads.max=" + THREADS_TOMCAT,
+                        "--spring.datasource.url=jdbc:h2:mem:carga-" + modo,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+
+    private static String conta(int numero) {
+        return "carga-" + numero;
+    }
+}
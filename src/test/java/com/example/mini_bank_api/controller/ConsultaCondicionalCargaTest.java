@@ -0,0 +1,263 @@
+package com.example.mini_bank_api.controller;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.cache.CacheClientesProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Clientes que consultam a conta periodicamente (GET /api/clientes/conta/{numeroConta}), como os apps móveis.
+// A simulação compara banda, consultas ao banco e conexões tiradas do pool com e sem If-None-Match, com e sem
+// cache e com e sem a coalescência das consultas simultâneas. A cada rodada todos consultam ao mesmo tempo
+// e uma conta recebe um depósito.
+@Tag("lento")
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConsultaCondicionalCargaTest {
+
+    private static final int CONTAS = 20;
+    private static final int CLIENTES_HTTP = 100;
+    private static final int RODADAS = 20;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ClienteService clienteService;
+
+    private CacheClientesProperties cacheProperties;
+
+    private Statistics estatisticas;
+
+    private MeterRegistry registry;
+
+    private HttpClient http;
+
+    private String base;
+
+    @BeforeAll
+    void iniciar() {
+        contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:consulta-condicional",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        clienteService = contexto.getBean(ClienteService.class);
+        cacheProperties = contexto.getBean(CacheClientesProperties.class);
+        estatisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        registry = contexto.getBean(MeterRegistry.class);
+        ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+        for (int i = 0; i < CONTAS; i++) {
+            clienteRepository.save(new Cliente(null, "Cliente Consulta " + i, conta(i), "001",
+                    new BigDecimal("100.00")));
+        }
+        http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        base = "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort()
+                + "/api/clientes";
+    }
+
+    @AfterAll
+    void encerrar() {
+        contexto.close();
+    }
+
+    @Test
+    void deveResponder304EnquantoAContaNaoMuda() throws Exception {
+        // Arrange
+        clienteService.cadastrarCliente(new Cliente(null, "Cliente ETag", "consulta-etag", "001",
+                new BigDecimal("100.00")));
+        HttpResponse<String> primeira = consultar("consulta-etag", null);
+        String etag = primeira.headers().firstValue("ETag").orElseThrow();
+
+        // Act
+        HttpResponse<String> repetida = consultar("consulta-etag", etag);
+        clienteService.depositar("consulta-etag", new BigDecimal("1.00"));
+        HttpResponse<String> depoisDoDeposito = consultar("consulta-etag", etag);
+
+        // Assert
+        assertEquals(200, primeira.statusCode());
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals("no-cache", primeira.headers().firstValue("Cache-Control").orElseThrow());
+        assertEquals(304, repetida.statusCode());
+        assertEquals("", repetida.body());
+        assertEquals(etag, repetida.headers().firstValue("ETag").orElseThrow());
+        assertEquals(200, depoisDoDeposito.statusCode());
+        assertNotEquals(etag, depoisDoDeposito.headers().firstValue("ETag").orElseThrow());
+        assertTrue(depoisDoDeposito.body().contains("\"saldo\":101.00"));
+    }
+
+    @Test
+    void deveComprimirRespostasMaiores() throws Exception {
+        // Act
+        HttpResponse<byte[]> comprimida = http.send(HttpRequest.newBuilder(URI.create(base + "?tamanho=20"))
+                .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> normal = http.send(HttpRequest.newBuilder(URI.create(base + "?tamanho=20"))
+                .GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Assert
+        assertEquals("gzip", comprimida.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(normal.headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(comprimida.body().length * 3 < normal.body().length,
+                comprimida.body().length + " bytes comprimidos, " + normal.body().length + " sem compressão");
+    }
+
+    @Test
+    void deveEconomizarBandaEConsultasComConsultasCondicionais() throws Exception {
+        // Act
+        Resultado incondicional = simular("sem If-None-Match, com cache", false, true, true);
+        Resultado condicional = simular("com If-None-Match, com cache", true, true, true);
+        Resultado semCache = simular("com If-None-Match, sem cache, sem coalescência", true, false, false);
+        Resultado coalescido = simular("com If-None-Match, sem cache, com coalescência", true, false, true);
+
+        // Assert: o 304 não leva corpo; só quem viu a conta mudar recebe a resposta inteira
+        int consultas = CLIENTES_HTTP * RODADAS;
+        assertEquals(0, incondicional.naoModificadas());
+        assertTrue(condicional.naoModificadas() > consultas / 2);
+        assertTrue(condicional.bytesCorpo() * 5 < incondicional.bytesCorpo());
+        assertTrue(condicional.bytesTotal() < incondicional.bytesTotal());
+        // Sem cache, cada consulta lê o banco, a não ser que encontre a mesma leitura em andamento
+        assertEquals(consultas, semCache.consultasBanco());
+        assertTrue(coalescido.consultasBanco() <= consultas);
+        assertTrue(condicional.consultasBanco() < consultas / 2);
+        assertTrue(condicional.conexoes() < consultas / 2);
+    }
+
+    private Resultado simular(String cenario, boolean condicional, boolean cache, boolean coalescer)
+            throws Exception {
+        cacheProperties.setHabilitado(cache);
+        cacheProperties.setCoalescerLeituras(coalescer);
+        try {
+            return executarRodadas(cenario, condicional);
+        } finally {
+            cacheProperties.setHabilitado(true);
+            cacheProperties.setCoalescerLeituras(true);
+        }
+    }
+
+    private Resultado executarRodadas(String cenario, boolean condicional) throws Exception {
+        AtomicLong bytesCorpo = new AtomicLong();
+        AtomicLong bytesCabecalhos = new AtomicLong();
+        AtomicInteger naoModificadas = new AtomicInteger();
+        AtomicLong consultasDepositos = new AtomicLong();
+        AtomicLong conexoesDepositos = new AtomicLong();
+        AtomicInteger rodada = new AtomicInteger();
+
+        // Entre as rodadas, um depósito em uma conta; as consultas e conexões dele não entram na conta
+        CyclicBarrier barreira = new CyclicBarrier(CLIENTES_HTTP, () -> {
+            long consultas = estatisticas.getPrepareStatementCount();
+            long conexoes = conexoes();
+            clienteService.depositar(conta(rodada.getAndIncrement() % CONTAS), new BigDecimal("1.00"));
+            consultasDepositos.addAndGet(estatisticas.getPrepareStatementCount() - consultas);
+            conexoesDepositos.addAndGet(conexoes() - conexoes);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTES_HTTP);
+        List<Future<?>> futuros = new ArrayList<>();
+        long consultasAntes = estatisticas.getPrepareStatementCount();
+        long conexoesAntes = conexoes();
+        long inicio = System.nanoTime();
+
+        for (int c = 0; c < CLIENTES_HTTP; c++) {
+            String numeroConta = conta(c % CONTAS);
+            futuros.add(executor.submit(() -> {
+                String etag = null;
+                for (int r = 0; r < RODADAS; r++) {
+                    barreira.await(30, TimeUnit.SECONDS);
+                    HttpResponse<String> resposta = consultar(numeroConta, condicional ? etag : null);
+                    bytesCorpo.addAndGet(resposta.body().length());
+                    bytesCabecalhos.addAndGet(tamanho(resposta.headers()));
+                    if (resposta.statusCode() == 304) {
+                        naoModificadas.incrementAndGet();
+                    } else {
+                        assertEquals(200, resposta.statusCode());
+                        etag = resposta.headers().firstValue("ETag").orElseThrow();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get(120, TimeUnit.SECONDS);
+        }
+        long duracaoNanos = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        Resultado resultado = new Resultado(bytesCorpo.get(), bytesCorpo.get() + bytesCabecalhos.get(),
+                naoModificadas.get(),
+                estatisticas.getPrepareStatementCount() - consultasAntes - consultasDepositos.get(),
+                conexoes() - conexoesAntes - conexoesDepositos.get());
+        log.atDebug().log(() -> String.format(
+                "[%s] %d consultas em %d ms: %d bytes de corpo, %d com cabeçalhos, %d respostas 304, "
+                        + "%d consultas ao banco, %d conexões do pool",
+                cenario, CLIENTES_HTTP * RODADAS, TimeUnit.NANOSECONDS.toMillis(duracaoNanos), resultado.bytesCorpo(),
+                resultado.bytesTotal(), resultado.naoModificadas(), resultado.consultasBanco(), resultado.conexoes()));
+        return resultado;
+    }
+
+    private HttpResponse<String> consultar(String numeroConta, String etag) throws Exception {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(base + "/conta/" + numeroConta)).GET();
+        if (etag != null) {
+            requisicao.header("If-None-Match", etag);
+        }
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Bytes da linha de cada cabeçalho ("Nome: valor\r\n"), sem a linha de status
+    private static long tamanho(HttpHeaders cabecalhos) {
+        long total = 0;
+        for (Map.Entry<String, List<String>> cabecalho : cabecalhos.map().entrySet()) {
+            for (String valor : cabecalho.getValue()) {
+                total += cabecalho.getKey().length() + valor.length() + 4;
+            }
+        }
+        return total;
+    }
+
+    private long conexoes() {
+        Timer aquisicoes = registry.find("hikaricp.connections.acquire").timer();
+        return aquisicoes == null ? 0 : aquisicoes.count();
+    }
+
+    private static String conta(int numero) {
+        return "consulta-" + numero;
+    }
+
+    private record Resultado(long bytesCorpo, long bytesTotal, int naoModificadas, long consultasBanco,
+                             long conexoes) {
+    }
+}
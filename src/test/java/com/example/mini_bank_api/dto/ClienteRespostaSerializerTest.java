@@ -0,0 +1,57 @@
+package com.example.mini_bank_api.dto;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteRespostaSerializerTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new BlackbirdModule()).build();
+
+    @Test
+    void deveEscreverOMesmoJsonDaEntidade() throws JsonProcessingException {
+        // Arrange
+        Cliente cliente = new Cliente(7L, "Ana \"A\" çã", "12345", "001", new BigDecimal("100.50"));
+        cliente.setVersao(3L);
+
+        // Act
+        String json = objectMapper.writeValueAsString(ClienteResposta.de(cliente));
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(cliente), json);
+        assertEquals("{\"id\":7,\"nome\":\"Ana \\\"A\\\" çã\",\"numeroConta\":\"12345\",\"agencia\":\"001\","
+                + "\"saldo\":100.50,\"versao\":3}", json);
+    }
+
+    @Test
+    void deveEscreverCamposNulos() throws JsonProcessingException {
+        // Arrange
+        Cliente cliente = new Cliente(null, "Bia", "67890", null, null);
+
+        // Act
+        String json = objectMapper.writeValueAsString(ClienteResposta.de(cliente));
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(cliente), json);
+    }
+
+    @Test
+    void deveLerDeVoltaOQueEscreveu() throws JsonProcessingException {
+        // Arrange
+        ClienteResposta cliente = new ClienteResposta(7L, "Ana", "12345", "001", new BigDecimal("0.01"), 0L);
+
+        // Act
+        ClienteResposta lido = objectMapper.readValue(objectMapper.writeValueAsString(cliente),
+                ClienteResposta.class);
+
+        // Assert
+        assertEquals(cliente, lido);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.mini_bank_api.exception;
+
+import com.example.mini_bank_api.dto.ErroResposta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void deveCriarExcecaoDeNegocioSemPilha() {
+        // Act
+        SaldoInsuficienteException ex = new SaldoInsuficienteException("Saldo insuficiente");
+        ex.addSuppressed(new IllegalStateException("ignorada"));
+
+        // Assert
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(0, ex.getSuppressed().length);
+        assertEquals("Saldo insuficiente", ex.getMessage());
+    }
+
+    @Test
+    void deveResponderComOsMesmosCamposDeAntes() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        // Act
+        ResponseEntity<ErroResposta> resposta = handler.handleSaldoInsuficienteException(
+                new SaldoInsuficienteException("Saldo insuficiente"));
+        Map<?, ?> json = objectMapper.readValue(objectMapper.writeValueAsBytes(resposta.getBody()), Map.class);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, resposta.getStatusCode());
+        assertEquals(List.of("timestamp", "status", "error", "message"), List.copyOf(json.keySet()));
+        assertEquals(400, json.get("status"));
+        assertEquals("Bad Request", json.get("error"));
+        assertEquals("Saldo insuficiente", json.get("message"));
+        assertNotNull(json.get("timestamp"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.mini_bank_api.service;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.PaginaClientes;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ContaException;
+import com.example.mini_bank_api.service.busca.BuscaProperties;
+import com.example.mini_bank_api.service.busca.IndiceNomes;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Busca por nome e agência: o índice de nomes e a varredura da tabela devolvem as mesmas páginas
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClienteServiceBuscaTest {
+
+    private static final String[] SOBRENOMES = {"Quixadá", "Quintela", "Zimbrão"};
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private IndiceNomes indiceNomes;
+
+    @Autowired
+    private BuscaProperties buscaProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void cadastrar() {
+        // Garante o índice pronto, mesmo que a reconstrução da subida ainda esteja em andamento
+        indiceNomes.reconstruir();
+        for (int i = 0; i < 300; i++) {
+            String nome = (i % 2 == 0 ? "Úrsula " : "Ubirajara ") + SOBRENOMES[i % SOBRENOMES.length];
+            clienteService.cadastrarCliente(new Cliente(null, nome, "busca-" + i, i % 5 == 0 ? "B05" : "B01",
+                    BigDecimal.ZERO));
+        }
+    }
+
+    @AfterAll
+    void remover() {
+        jdbcTemplate.update("delete from movimentos where numero_conta like 'busca-%'");
+        jdbcTemplate.update("delete from clientes where numero_conta like 'busca-%'");
+    }
+
+    @AfterEach
+    void restaurarConfiguracao() {
+        buscaProperties.setHabilitado(true);
+    }
+
+    @Test
+    void deveBuscarPorTrechoDePalavraSemAcentosEmPaginas() {
+        // Act
+        List<ClienteResposta> encontrados = buscarTodas("qui", null, 40);
+
+        // Assert: Quixadá e Quintela, 200 de 300, em ordem de id
+        assertEquals(200, encontrados.size());
+        assertTrue(encontrados.stream().noneMatch(cliente -> cliente.nome().endsWith("Zimbrão")));
+        for (int i = 1; i < encontrados.size(); i++) {
+            assertTrue(encontrados.get(i - 1).id() < encontrados.get(i).id());
+        }
+        assertEquals(100, buscarTodas("ursula QUI", null, 1000).size());
+        assertEquals(100, buscarTodas("zimbrao", null, 7).size());
+        assertEquals(100, buscarTodas("mbra", null, 30).size());
+        assertEquals(150, buscarTodas("irajar", null, 1000).size());
+    }
+
+    @Test
+    void deveDevolverAsMesmasPaginasPeloIndiceEPelaVarredura() {
+        // Act
+        List<ClienteResposta> peloIndice = buscarTodas("ubira quint", "B05", 3);
+        buscaProperties.setHabilitado(false);
+        List<ClienteResposta> pelaVarredura = buscarTodas("ubira quint", "B05", 3);
+
+        // Assert
+        assertFalse(peloIndice.isEmpty());
+        assertEquals(peloIndice, pelaVarredura);
+        assertTrue(peloIndice.stream().allMatch(cliente -> "B05".equals(cliente.agencia())
+                && cliente.nome().equals("Ubirajara Quintela")));
+    }
+
+    @Test
+    void deveBuscarSoPelaAgencia() {
+        // Act
+        List<ClienteResposta> encontrados = buscarTodas(null, "B05", 25);
+
+        // Assert
+        assertEquals(60, encontrados.size());
+        assertTrue(encontrados.stream().allMatch(cliente -> "B05".equals(cliente.agencia())));
+    }
+
+    @Test
+    void deveExigirNomeOuAgencia() {
+        // Act & Assert
+        assertThrows(ContaException.class, () -> clienteService.buscar(" ", null, null, 10));
+        assertTrue(clienteService.buscar("nenhumnomeassim", null, null, 10).getClientes().isEmpty());
+    }
+
+    private List<ClienteResposta> buscarTodas(String nome, String agencia, int tamanho) {
+        List<ClienteResposta> todos = new ArrayList<>();
+        Long aposId = null;
+        do {
+            PaginaClientes pagina = clienteService.buscar(nome, agencia, aposId, tamanho);
+            assertTrue(pagina.getClientes().size() <= tamanho);
+            todos.addAll(pagina.getClientes());
+            aposId = pagina.getProximoId();
+        } while (aposId != null);
+        return todos;
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.mini_bank_api.service;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ContaException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Teste de estresse: várias threads alterando o saldo da mesma conta ao mesmo tempo
+@Slf4j
+@SpringBootTest
+class ClienteServiceConcorrenciaTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERACOES_POR_THREAD = 100;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ConcorrenciaProperties concorrenciaProperties;
+
+    @AfterEach
+    void restaurarConfiguracao() {
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.OTIMISTA);
+        concorrenciaProperties.setMaxTentativas(5);
+    }
+
+    @ParameterizedTest
+    @EnumSource(EstrategiaConcorrencia.class)
+    void naoDevePerderAtualizacoesSobConcorrencia(EstrategiaConcorrencia estrategia) throws Exception {
+        // Arrange
+        concorrenciaProperties.setEstrategia(estrategia);
+        concorrenciaProperties.setMaxTentativas(1_000);
+        String numeroConta = "stress-" + estrategia;
+        clienteRepository.save(new Cliente(null, "Stress", numeroConta, "001", new BigDecimal("100.00")));
+
+        AtomicInteger depositos = new AtomicInteger();
+        AtomicInteger saques = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futuros = new ArrayList<>();
+
+        // Act: metade das operações deposita 2.00, a outra metade saca 1.00
+        for (int t = 0; t < THREADS; t++) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    if (i % 2 == 0) {
+                        clienteService.depositar(numeroConta, new BigDecimal("2.00"));
+                        depositos.incrementAndGet();
+                    } else {
+                        try {
+                            clienteService.sacar(numeroConta, new BigDecimal("1.00"));
+                            saques.incrementAndGet();
+                        } catch (SaldoInsuficienteException ignored) {
+                            // Não deve acontecer: o saldo só cresce no total
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        long duracaoNanos = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        // Assert
+        int total = THREADS * OPERACOES_POR_THREAD;
+        BigDecimal esperado = new BigDecimal("100.00")
+                .add(new BigDecimal("2.00").multiply(BigDecimal.valueOf(depositos.get())))
+                .subtract(new BigDecimal("1.00").multiply(BigDecimal.valueOf(saques.get())));
+        Cliente cliente = clienteRepository.findByNumeroConta(numeroConta).orElseThrow();
+
+        assertEquals(total / 2, depositos.get());
+        assertEquals(total / 2, saques.get());
+        assertEquals(0, esperado.compareTo(cliente.getSaldo()),
+                "Saldo final " + cliente.getSaldo() + " diferente do esperado " + esperado);
+
+        log.atDebug().log(() -> String.format("[%s] %d operações em %d ms (%.0f ops/s)", estrategia, total,
+                TimeUnit.NANOSECONDS.toMillis(duracaoNanos), total / (duracaoNanos / 1e9)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EstrategiaConcorrencia.class)
+    void deveTransferirEmSentidosOpostosSemDeadlock(EstrategiaConcorrencia estrategia) throws Exception {
+        // Arrange
+        concorrenciaProperties.setEstrategia(estrategia);
+        concorrenciaProperties.setMaxTentativas(1_000);
+        String contaA = "transf-a-" + estrategia;
+        String contaB = "transf-b-" + estrategia;
+        clienteRepository.save(new Cliente(null, "A", contaA, "001", new BigDecimal("1000.00")));
+        clienteRepository.save(new Cliente(null, "B", contaB, "001", new BigDecimal("1000.00")));
+
+        int total = THREADS * OPERACOES_POR_THREAD;
+        long[] latenciasNanos = new long[total];
+        AtomicInteger indice = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futuros = new ArrayList<>();
+
+        // Act: threads pares transferem A→B, ímpares B→A
+        for (int t = 0; t < THREADS; t++) {
+            String origem = t % 2 == 0 ? contaA : contaB;
+            String destino = t % 2 == 0 ? contaB : contaA;
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    long inicioOperacao = System.nanoTime();
+                    clienteService.transferir(origem, destino, new BigDecimal("1.00"));
+                    latenciasNanos[indice.getAndIncrement()] = System.nanoTime() - inicioOperacao;
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        long duracaoNanos = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        // Assert: mesmo número de transferências em cada sentido, saldos voltam ao inicial
+        Cliente a = clienteRepository.findByNumeroConta(contaA).orElseThrow();
+        Cliente b = clienteRepository.findByNumeroConta(contaB).orElseThrow();
+        assertEquals(0, new BigDecimal("1000.00").compareTo(a.getSaldo()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(b.getSaldo()));
+
+        Arrays.sort(latenciasNanos);
+        log.atDebug().log(() -> String.format(
+                "[%s] %d transferências A<->B em %d ms (%.0f ops/s, p50 %.2f ms, p99 %.2f ms)",
+                estrategia, total, TimeUnit.NANOSECONDS.toMillis(duracaoNanos), total / (duracaoNanos / 1e9),
+                latenciasNanos[total / 2] / 1e6, latenciasNanos[total * 99 / 100] / 1e6));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EstrategiaConcorrencia.class)
+    void naoDeveServirSaldoDesatualizadoDoCacheAposEscritasConcorrentes(EstrategiaConcorrencia estrategia)
+            throws Exception {
+        // Arrange
+        concorrenciaProperties.setEstrategia(estrategia);
+        concorrenciaProperties.setMaxTentativas(1_000);
+        String numeroConta = "cache-" + estrategia;
+        Long id = clienteRepository.save(new Cliente(null, "Cache", numeroConta, "001", BigDecimal.ZERO)).getId();
+        clienteService.buscarPorNumeroConta(numeroConta);
+
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> escritores = new ArrayList<>();
+        List<Future<?>> leitores = new ArrayList<>();
+
+        // Act: metade das threads deposita 1.00, a outra metade lê o saldo em laço
+        for (int t = 0; t < THREADS / 2; t++) {
+            escritores.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    BigDecimal saldoAposDeposito = clienteService.depositar(numeroConta, BigDecimal.ONE).getSaldo();
+                    // Quem escreveu precisa ler o próprio depósito
+                    BigDecimal lido = clienteService.buscarPorNumeroConta(numeroConta).saldo();
+                    assertTrue(lido.compareTo(saldoAposDeposito) >= 0,
+                            "Leitura " + lido + " anterior ao depósito " + saldoAposDeposito);
+                }
+                return null;
+            }));
+        }
+        for (int t = 0; t < THREADS / 2; t++) {
+            int leitor = t;
+            leitores.add(executor.submit(() -> {
+                largada.await();
+                BigDecimal anterior = BigDecimal.ZERO;
+                while (escrevendo.get()) {
+                    ClienteResposta cliente = leitor % 2 == 0
+                            ? clienteService.buscarPorNumeroConta(numeroConta)
+                            : clienteService.buscarPorId(id);
+                    // Só há depósitos: um saldo menor que o já visto veio de um valor antigo em cache
+                    assertTrue(cliente.saldo().compareTo(anterior) >= 0,
+                            "Saldo voltou de " + anterior + " para " + cliente.saldo());
+                    anterior = cliente.saldo();
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> futuro : escritores) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        escrevendo.set(false);
+        for (Future<?> futuro : leitores) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert: o valor servido pelo serviço é o do banco
+        BigDecimal esperado = BigDecimal.valueOf((long) (THREADS / 2) * OPERACOES_POR_THREAD);
+        BigDecimal noBanco = clienteRepository.findByNumeroConta(numeroConta).orElseThrow().getSaldo();
+        assertEquals(0, esperado.compareTo(noBanco));
+        assertEquals(0, noBanco.compareTo(clienteService.buscarPorNumeroConta(numeroConta).saldo()));
+        assertEquals(0, noBanco.compareTo(clienteService.buscarPorId(id).saldo()));
+    }
+
+    @RepeatedTest(3)
+    void deveCadastrarNumeroDeContaDisputadoUmaUnicaVez() throws Exception {
+        // Arrange: todas as threads cadastram o mesmo número ao mesmo tempo, sem consulta prévia
+        String numeroConta = "disputada-" + System.nanoTime();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Cliente>> futuros = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < THREADS; t++) {
+            String nome = "Thread " + t;
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                return clienteService.cadastrarCliente(new Cliente(null, nome, numeroConta, "001", BigDecimal.TEN));
+            }));
+        }
+        largada.countDown();
+
+        List<Cliente> vencedores = new ArrayList<>();
+        int rejeitados = 0;
+        for (Future<Cliente> futuro : futuros) {
+            try {
+                vencedores.add(futuro.get(60, TimeUnit.SECONDS));
+            } catch (ExecutionException ex) {
+                assertInstanceOf(ContaException.class, ex.getCause());
+                assertEquals("Número da conta já existe", ex.getCause().getMessage());
+                rejeitados++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert: um vencedor, e é a conta dele que ficou gravada
+        assertEquals(1, vencedores.size());
+        assertEquals(THREADS - 1, rejeitados);
+        Cliente gravado = clienteRepository.findByNumeroConta(numeroConta).orElseThrow();
+        assertEquals(vencedores.get(0).getId(), gravado.getId());
+        assertEquals(vencedores.get(0).getNome(), gravado.getNome());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.mini_bank_api.service;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.PaginaClientes;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Listagem de uma tabela grande: paginação por chave e streaming com memória limitada
+@Tag("lento")
+@Slf4j
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClienteServiceListagemTest {
+
+    private static final int TOTAL_CLIENTES = 200_000;
+    private static final long LIMITE_MEMORIA_STREAMING = 32L * 1024 * 1024;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void carregarMassa() {
+        List<Object[]> linhas = new ArrayList<>(10_000);
+        for (int i = 0; i < TOTAL_CLIENTES; i++) {
+            linhas.add(new Object[]{"Cliente " + i, "massa-" + i, "001"});
+            if (linhas.size() == 10_000) {
+                inserir(linhas);
+                linhas.clear();
+            }
+        }
+        inserir(linhas);
+    }
+
+    @AfterAll
+    void removerMassa() {
+        jdbcTemplate.update("delete from clientes where numero_conta like 'massa-%'");
+    }
+
+    @Test
+    void devePercorrerTodasAsPaginasSemRepetirClientes() {
+        // Act
+        Set<Long> ids = new HashSet<>();
+        Long aposId = null;
+        int paginas = 0;
+        do {
+            PaginaClientes pagina = clienteService.buscarPagina(aposId, ClienteService.TAMANHO_MAXIMO_PAGINA);
+            for (ClienteResposta cliente : pagina.getClientes()) {
+                assertTrue(ids.add(cliente.id()), "Cliente repetido: " + cliente.id());
+            }
+            aposId = pagina.getProximoId();
+            paginas++;
+        } while (aposId != null);
+
+        // Assert
+        assertTrue(ids.size() >= TOTAL_CLIENTES);
+        assertTrue(paginas >= TOTAL_CLIENTES / ClienteService.TAMANHO_MAXIMO_PAGINA);
+    }
+
+    @Test
+    void deveTransmitirTodosOsClientesComMemoriaLimitada() {
+        // Arrange
+        long memoriaInicial = memoriaRetida();
+        AtomicLong maiorAumento = new AtomicLong();
+        AtomicLong bytesEscritos = new AtomicLong();
+        OutputStream descarte = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytesEscritos.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytesEscritos.addAndGet(len);
+            }
+        };
+
+        // Act
+        long inicio = System.nanoTime();
+        long total = clienteService.percorrerTodos(cliente -> {
+            try {
+                objectMapper.writeValue(descarte, cliente);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (cliente.numeroConta().endsWith("0000")) {
+                maiorAumento.accumulateAndGet(memoriaRetida() - memoriaInicial, Math::max);
+            }
+        });
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        assertTrue(total >= TOTAL_CLIENTES);
+        assertTrue(maiorAumento.get() < LIMITE_MEMORIA_STREAMING,
+                "Streaming reteve " + maiorAumento.get() / 1024 + " KB");
+
+        // Para comparação: a mesma leitura com findAll mantém a lista inteira na memória
+        List<Cliente> todos = clienteRepository.findAll();
+        long aumentoFindAll = memoriaRetida() - memoriaInicial;
+        assertTrue(todos.size() >= TOTAL_CLIENTES);
+
+        log.atDebug().log(() -> String.format(
+                "Streaming de %d clientes (%d KB) em %d ms: pico retido %d KB | findAll: %d KB",
+                total, bytesEscritos.get() / 1024, duracaoMs, maiorAumento.get() / 1024, aumentoFindAll / 1024));
+    }
+
+    private void inserir(List<Object[]> linhas) {
+        jdbcTemplate.batchUpdate(
+                "insert into clientes (id, nome, numero_conta, agencia, saldo, versao) "
+                        + "values (next value for clientes_seq, ?, ?, ?, 0, 0)", linhas);
+    }
+
+    private static long memoriaRetida() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
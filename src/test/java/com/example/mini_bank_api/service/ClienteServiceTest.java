@@ -1,17 +1,31 @@
 package com.example.mini_bank_api.service;
 
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.PaginaClientes;
 import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
 import com.example.mini_bank_api.exception.ClienteNotFoundException;
 import com.example.mini_bank_api.exception.ContaException;
 import com.example.mini_bank_api.exception.SaldoInsuficienteException;
 import com.example.mini_bank_api.exception.ValorInvalidoException;
 import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.busca.IndiceNomes;
+import com.example.mini_bank_api.service.cache.CacheClientes;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.fila.FilasContas;
+import com.example.mini_bank_api.service.filtro.FiltroContas;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
 import com.example.mini_bank_api.validation.ClienteValidation;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -31,6 +45,33 @@ class ClienteServiceTest {
     @Mock
     private ClienteValidation clienteValidation;
 
+    @Spy
+    private ConcorrenciaProperties concorrenciaProperties = new ConcorrenciaProperties();
+
+    @Mock
+    private TransferenciaService transferenciaService;
+
+    @Mock
+    private LedgerSaldos ledgerSaldos;
+
+    @Mock
+    private CacheClientes cacheClientes;
+
+    @Mock
+    private FilasContas filasContas;
+
+    @Mock
+    private RegistroMovimentos registroMovimentos;
+
+    @Mock
+    private FiltroContas filtroContas;
+
+    @Mock
+    private IndiceNomes indiceNomes;
+
+    @Mock
+    private AgregadosAgencias agregadosAgencias;
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -41,9 +82,7 @@ class ClienteServiceTest {
         // Arrange
         Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
 
-        when(clienteRepository.existsByNumeroConta("12345"))
-                .thenReturn(false);
-        when(clienteRepository.save(any(Cliente.class)))
+        when(clienteRepository.saveAndFlush(any(Cliente.class)))
                 .thenReturn(cliente);
 
         // Act
@@ -53,48 +92,65 @@ class ClienteServiceTest {
         assertNotNull(resultado);
         assertEquals("João", resultado.getNome());
         assertEquals("12345", resultado.getNumeroConta());
-        verify(clienteValidation).validarNumeroContaUnico(false);
-        verify(clienteRepository).existsByNumeroConta("12345");
-        verify(clienteRepository).save(cliente);
+        verify(clienteRepository).saveAndFlush(cliente);
+        verify(clienteRepository, never()).existsByNumeroConta(any());
+        verify(filtroContas).adicionar("12345");
     }
 
     @Test
-    void deveBuscarTodosClientes() {
+    void deveBuscarPaginaDeClientesPorChave() {
         // Arrange
-        Cliente cliente1 = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
-        Cliente cliente2 = new Cliente(321L, "Maria", "67890", "001", new BigDecimal("50.00"));
-        List<Cliente> clientes = Arrays.asList(cliente1, cliente2);
+        ClienteResposta cliente1 = new ClienteResposta(123L, "João", "12345", "001", new BigDecimal("100.00"), 0L);
+        ClienteResposta cliente2 = new ClienteResposta(321L, "Maria", "67890", "001", new BigDecimal("50.00"), 0L);
+        List<ClienteResposta> clientes = Arrays.asList(cliente1, cliente2);
 
-        when(clienteRepository.findAll())
+        when(clienteRepository.findRespostasAposId(100L, 2))
                 .thenReturn(clientes);
 
         // Act
-        List<Cliente> resultado = clienteService.buscarTodos();
+        PaginaClientes resultado = clienteService.buscarPagina(100L, 2);
 
         // Assert
         assertNotNull(resultado);
-        assertEquals(2, resultado.size());
-        verify(clienteRepository).findAll();
-        // Não deve interagir com validação para busca de todos
+        assertEquals(2, resultado.getClientes().size());
+        assertEquals(321L, resultado.getProximoId());
+        verify(clienteRepository).findRespostasAposId(100L, 2);
+        // Não deve interagir com validação para busca de clientes
         verifyNoInteractions(clienteValidation);
     }
 
+    @Test
+    void deveIndicarUltimaPaginaELimitarTamanho() {
+        // Arrange
+        ClienteResposta cliente = new ClienteResposta(123L, "João", "12345", "001", new BigDecimal("100.00"), 0L);
+
+        when(clienteRepository.findRespostasAposId(0L, ClienteService.TAMANHO_MAXIMO_PAGINA))
+                .thenReturn(List.of(cliente));
+
+        // Act
+        PaginaClientes resultado = clienteService.buscarPagina(null, 1_000_000);
+
+        // Assert
+        assertEquals(1, resultado.getClientes().size());
+        assertNull(resultado.getProximoId());
+    }
+
     @Test
     void deveBuscarClientePorId() {
         // Arrange
-        Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
+        ClienteResposta cliente = new ClienteResposta(123L, "João", "12345", "001", new BigDecimal("100.00"), 0L);
 
-        when(clienteRepository.findById(123L))
+        when(clienteRepository.findRespostaById(123L))
                 .thenReturn(Optional.of(cliente));
 
         // Act
-        Cliente resultado = clienteService.buscarPorId(123L);
+        ClienteResposta resultado = clienteService.buscarPorId(123L);
 
         // Assert
         assertNotNull(resultado);
-        assertEquals("João", resultado.getNome());
-        assertEquals("12345", resultado.getNumeroConta());
-        verify(clienteRepository).findById(123L);
+        assertEquals("João", resultado.nome());
+        assertEquals("12345", resultado.numeroConta());
+        verify(clienteRepository).findRespostaById(123L);
         // Não deve interagir com validação para busca por ID
         verifyNoInteractions(clienteValidation);
     }
@@ -102,19 +158,19 @@ class ClienteServiceTest {
     @Test
     void deveBuscarClientePorNumeroConta() {
         // Arrange
-        Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
+        ClienteResposta cliente = new ClienteResposta(123L, "João", "12345", "001", new BigDecimal("100.00"), 0L);
 
-        when(clienteRepository.findByNumeroConta("12345"))
+        when(clienteRepository.findRespostaByNumeroConta("12345"))
                 .thenReturn(Optional.of(cliente));
 
         // Act
-        Cliente resultado = clienteService.buscarPorNumeroConta("12345");
+        ClienteResposta resultado = clienteService.buscarPorNumeroConta("12345");
 
         // Assert
         assertNotNull(resultado);
-        assertEquals("João", resultado.getNome());
-        assertEquals("12345", resultado.getNumeroConta());
-        verify(clienteRepository).findByNumeroConta("12345");
+        assertEquals("João", resultado.nome());
+        assertEquals("12345", resultado.numeroConta());
+        verify(clienteRepository).findRespostaByNumeroConta("12345");
         // Não deve interagir com validação para busca por número da conta
         verifyNoInteractions(clienteValidation);
     }
@@ -138,6 +194,8 @@ class ClienteServiceTest {
         verify(clienteValidation).validarValorPositivo(valorDeposito);
         verify(clienteRepository).findByNumeroConta("12345");
         verify(clienteRepository).save(cliente);
+        verify(registroMovimentos).registrar("12345", TipoMovimento.DEPOSITO, valorDeposito, new BigDecimal("150.00"),
+                null);
     }
 
     @Test
@@ -163,29 +221,113 @@ class ClienteServiceTest {
     }
 
     @Test
-    void deveTransferirComSucesso() {
+    void deveDelegarTransferenciaParaTransferenciaService() {
         // Arrange
-        Cliente origem = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
-        Cliente destino = new Cliente(321L, "Maria", "67890", "001", new BigDecimal("50.00"));
         BigDecimal valorTransferencia = new BigDecimal("30.00");
 
-        when(clienteRepository.findByNumeroConta("12345"))
-                .thenReturn(Optional.of(origem));
-        when(clienteRepository.findByNumeroConta("67890"))
-                .thenReturn(Optional.of(destino));
+        // Act
+        clienteService.transferir("12345", "67890", valorTransferencia);
+
+        // Assert
+        verify(transferenciaService).transferir("12345", "67890", valorTransferencia);
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void deveDepositarComBloqueioPessimista() {
+        // Arrange
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.PESSIMISTA);
+        Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
+        BigDecimal valorDeposito = new BigDecimal("50.00");
+
+        when(clienteRepository.findByNumeroContaForUpdate("12345"))
+                .thenReturn(Optional.of(cliente));
         when(clienteRepository.save(any(Cliente.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+                .thenReturn(cliente);
 
         // Act
-        clienteService.transferir("12345", "67890", valorTransferencia);
+        Cliente resultado = clienteService.depositar("12345", valorDeposito);
 
         // Assert
-        assertEquals(new BigDecimal("70.00"), origem.getSaldo());
-        assertEquals(new BigDecimal("80.00"), destino.getSaldo());
-        verify(clienteValidation, times(3)).validarValorPositivo(any(BigDecimal.class));
-        verify(clienteValidation).validarSaldoSuficiente(any(BigDecimal.class), any(BigDecimal.class));
-        verify(clienteRepository, times(2)).findByNumeroConta(anyString());
-        verify(clienteRepository, times(2)).save(any(Cliente.class));
+        assertEquals(new BigDecimal("150.00"), resultado.getSaldo());
+        verify(clienteRepository).findByNumeroContaForUpdate("12345");
+        verify(clienteRepository, never()).findByNumeroConta(anyString());
+    }
+
+    @Test
+    void deveDepositarComAtualizacaoAtomica() {
+        // Arrange
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.ATOMICA);
+        Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("150.00"));
+        BigDecimal valorDeposito = new BigDecimal("50.00");
+
+        when(clienteRepository.creditarSaldo("12345", valorDeposito))
+                .thenReturn(1);
+        when(clienteRepository.findByNumeroConta("12345"))
+                .thenReturn(Optional.of(cliente));
+
+        // Act
+        Cliente resultado = clienteService.depositar("12345", valorDeposito);
+
+        // Assert
+        assertEquals(new BigDecimal("150.00"), resultado.getSaldo());
+        verify(clienteRepository).creditarSaldo("12345", valorDeposito);
+        verify(clienteRepository, never()).save(any(Cliente.class));
+    }
+
+    @Test
+    void deveSacarComAtualizacaoAtomica() {
+        // Arrange
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.ATOMICA);
+        Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("70.00"));
+        BigDecimal valorSaque = new BigDecimal("30.00");
+
+        when(clienteRepository.debitarSaldo("12345", valorSaque))
+                .thenReturn(1);
+        when(clienteRepository.findByNumeroConta("12345"))
+                .thenReturn(Optional.of(cliente));
+
+        // Act
+        Cliente resultado = clienteService.sacar("12345", valorSaque);
+
+        // Assert
+        assertEquals(new BigDecimal("70.00"), resultado.getSaldo());
+        verify(clienteRepository).debitarSaldo("12345", valorSaque);
+        verify(clienteRepository, never()).save(any(Cliente.class));
+    }
+
+    @Test
+    void deveDepositarNoLedgerQuandoHabilitado() {
+        // Arrange
+        Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("150.00"));
+        BigDecimal valorDeposito = new BigDecimal("50.00");
+
+        when(ledgerSaldos.isHabilitado()).thenReturn(true);
+        when(ledgerSaldos.creditar("12345", valorDeposito, TipoMovimento.DEPOSITO, null)).thenReturn(cliente);
+
+        // Act
+        Cliente resultado = clienteService.depositar("12345", valorDeposito);
+
+        // Assert
+        assertEquals(new BigDecimal("150.00"), resultado.getSaldo());
+        verify(clienteValidation).validarValorPositivo(valorDeposito);
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void deveBuscarSaldoDoLedgerQuandoHabilitado() {
+        // Arrange
+        ClienteResposta cliente = new ClienteResposta(123L, "João", "12345", "001", new BigDecimal("100.00"), 0L);
+
+        when(ledgerSaldos.isHabilitado()).thenReturn(true);
+        when(clienteRepository.findRespostaById(123L)).thenReturn(Optional.of(cliente));
+        when(ledgerSaldos.aplicarSaldoEmMemoria(cliente)).thenReturn(cliente.comSaldo(new BigDecimal("180.00")));
+
+        // Act
+        ClienteResposta resultado = clienteService.buscarPorId(123L);
+
+        // Assert
+        assertEquals(new BigDecimal("180.00"), resultado.saldo());
     }
 
     // ========== TESTES DE ERRO ==========
@@ -195,7 +337,11 @@ class ClienteServiceTest {
         // Arrange
         Cliente cliente = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
 
-        when(clienteRepository.existsByNumeroConta("12345"))
+        DataIntegrityViolationException violacao = new DataIntegrityViolationException("uk_clientes_numero_conta");
+
+        when(clienteRepository.saveAndFlush(cliente))
+                .thenThrow(violacao);
+        when(clienteValidation.violouNumeroContaUnico(violacao))
                 .thenReturn(true);
 
         // Configurar o mock da validação para lançar exceção quando receber true
@@ -207,20 +353,37 @@ class ClienteServiceTest {
                 () -> clienteService.cadastrarCliente(cliente));
 
         verify(clienteValidation).validarNumeroContaUnico(true);
-        verify(clienteRepository, never()).save(any(Cliente.class));
+        verify(filtroContas, never()).adicionar(any());
+        verify(registroMovimentos, never()).registrar(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void deveRepassarViolacaoQueNaoEDoNumeroDaConta() {
+        // Arrange
+        Cliente cliente = new Cliente(null, null, "12345", "001", BigDecimal.ZERO);
+        DataIntegrityViolationException violacao = new DataIntegrityViolationException("nome nulo");
+
+        when(clienteRepository.saveAndFlush(cliente))
+                .thenThrow(violacao);
+        when(clienteValidation.violouNumeroContaUnico(violacao))
+                .thenReturn(false);
+
+        // Act & Assert
+        assertSame(violacao, assertThrows(DataIntegrityViolationException.class,
+                () -> clienteService.cadastrarCliente(cliente)));
     }
 
     @Test
     void deveLancarExcecaoQuandoBuscarPorIdNaoEncontrado() {
         // Arrange
-        when(clienteRepository.findById(999L))
+        when(clienteRepository.findRespostaById(999L))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ClienteNotFoundException.class,
                 () -> clienteService.buscarPorId(999L));
 
-        verify(clienteRepository).findById(999L);
+        verify(clienteRepository).findRespostaById(999L);
         // Não deve interagir com validação para busca por ID não encontrado
         verifyNoInteractions(clienteValidation);
     }
@@ -228,14 +391,14 @@ class ClienteServiceTest {
     @Test
     void deveLancarExcecaoQuandoBuscarPorNumeroContaNaoEncontrado() {
         // Arrange
-        when(clienteRepository.findByNumeroConta("99999"))
+        when(clienteRepository.findRespostaByNumeroConta("99999"))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ClienteNotFoundException.class,
                 () -> clienteService.buscarPorNumeroConta("99999"));
 
-        verify(clienteRepository).findByNumeroConta("99999");
+        verify(clienteRepository).findRespostaByNumeroConta("99999");
         // Não deve interagir com validação para busca por número da conta não encontrado
         verifyNoInteractions(clienteValidation);
     }
@@ -315,51 +478,38 @@ class ClienteServiceTest {
     }
 
     @Test
-    void deveLancarExcecaoQuandoTransferirValorInvalido() {
+    void deveLancarExcecaoQuandoSacarAtomicoComSaldoInsuficiente() {
         // Arrange
-        BigDecimal valorInvalido1 = new BigDecimal("0.00");
-        BigDecimal valorInvalido2 = new BigDecimal("-10.00");
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.ATOMICA);
+        Cliente cliente = new Cliente(321L, "Maria", "67890", "001", new BigDecimal("50.00"));
+        BigDecimal valorSaque = new BigDecimal("100.00");
 
-        doThrow(new ValorInvalidoException("Valor deve ser positivo"))
-                .when(clienteValidation).validarValorPositivo(valorInvalido1);
-        doThrow(new ValorInvalidoException("Valor deve ser positivo"))
-                .when(clienteValidation).validarValorPositivo(valorInvalido2);
+        when(clienteRepository.debitarSaldo("67890", valorSaque))
+                .thenReturn(0);
+        when(clienteRepository.findByNumeroConta("67890"))
+                .thenReturn(Optional.of(cliente));
+        doThrow(new SaldoInsuficienteException("Saldo insuficiente"))
+                .when(clienteValidation).validarSaldoSuficiente(cliente.getSaldo(), valorSaque);
 
-        // Act & Assert - Primeiro valor inválido
-        assertThrows(ValorInvalidoException.class,
-                () -> clienteService.transferir("12345", "67890", valorInvalido1));
-        verify(clienteValidation).validarValorPositivo(valorInvalido1);
-        verify(clienteRepository, never()).findByNumeroConta(anyString());
-        verify(clienteRepository, never()).save(any(Cliente.class));
+        // Act & Assert
+        assertThrows(SaldoInsuficienteException.class,
+                () -> clienteService.sacar("67890", valorSaque));
 
-        // Act & Assert - Segundo valor inválido
-        assertThrows(ValorInvalidoException.class,
-                () -> clienteService.transferir("12345", "67890", valorInvalido2));
-        verify(clienteValidation).validarValorPositivo(valorInvalido2);
-        verify(clienteRepository, never()).findByNumeroConta(anyString());
+        verify(clienteRepository).debitarSaldo("67890", valorSaque);
         verify(clienteRepository, never()).save(any(Cliente.class));
     }
 
     @Test
-    void deveLancarExcecaoQuandoTransferirComSaldoInsuficiente() {
+    void deveLancarExcecaoQuandoDepositarAtomicoEmContaInexistente() {
         // Arrange
-        Cliente origem = new Cliente(123L, "João", "12345", "001", new BigDecimal("50.00"));
-        BigDecimal valorTransferencia = new BigDecimal("100.00");
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.ATOMICA);
+        BigDecimal valorDeposito = new BigDecimal("10.00");
 
-        when(clienteRepository.findByNumeroConta("12345"))
-                .thenReturn(Optional.of(origem));
-
-        doThrow(new SaldoInsuficienteException("Saldo insuficiente"))
-                .when(clienteValidation).validarSaldoSuficiente(origem.getSaldo(), valorTransferencia);
+        when(clienteRepository.creditarSaldo("99999", valorDeposito))
+                .thenReturn(0);
 
         // Act & Assert
-        assertThrows(SaldoInsuficienteException.class,
-                () -> clienteService.transferir("12345", "67890", valorTransferencia));
-
-        verify(clienteValidation, times(2)).validarValorPositivo(any(BigDecimal.class));
-        verify(clienteValidation).validarSaldoSuficiente(any(BigDecimal.class), any(BigDecimal.class));
-        verify(clienteRepository).findByNumeroConta(anyString());
-        verify(clienteRepository).findByNumeroConta(anyString());
-        verify(clienteRepository, never()).save(any(Cliente.class));
+        assertThrows(ClienteNotFoundException.class,
+                () -> clienteService.depositar("99999", valorDeposito));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package com.example.mini_bank_api.service;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.ContaException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferenciaServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ClienteValidation clienteValidation;
+
+    @Spy
+    private ConcorrenciaProperties concorrenciaProperties = new ConcorrenciaProperties();
+
+    @Mock
+    private LedgerSaldos ledgerSaldos;
+
+    @Mock
+    private RegistroMovimentos registroMovimentos;
+
+    @Mock
+    private AgregadosAgencias agregadosAgencias;
+
+    @InjectMocks
+    private TransferenciaService transferenciaService;
+
+    // ========== TESTES DE SUCESSO ==========
+
+    @Test
+    void deveTransferirComSucesso() {
+        // Arrange
+        Cliente origem = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
+        Cliente destino = new Cliente(321L, "Maria", "67890", "001", new BigDecimal("50.00"));
+        BigDecimal valorTransferencia = new BigDecimal("30.00");
+
+        when(clienteRepository.findAllByNumeroContaIn(List.of("12345", "67890")))
+                .thenReturn(List.of(origem, destino));
+
+        // Act
+        transferenciaService.transferir("12345", "67890", valorTransferencia);
+
+        // Assert
+        assertEquals(new BigDecimal("70.00"), origem.getSaldo());
+        assertEquals(new BigDecimal("80.00"), destino.getSaldo());
+        verify(clienteValidation).validarValorPositivo(valorTransferencia);
+        verify(clienteValidation).validarContasDiferentes("12345", "67890");
+        verify(clienteValidation).validarSaldoSuficiente(new BigDecimal("100.00"), valorTransferencia);
+        verify(clienteRepository).findAllByNumeroContaIn(anyCollection());
+        verify(clienteRepository).saveAll(List.of(origem, destino));
+        verify(clienteRepository, never()).findByNumeroConta(anyString());
+        verify(clienteRepository, never()).save(any(Cliente.class));
+    }
+
+    @Test
+    void deveTransferirComBloqueioPessimista() {
+        // Arrange
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.PESSIMISTA);
+        Cliente origem = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
+        Cliente destino = new Cliente(321L, "Maria", "67890", "001", new BigDecimal("50.00"));
+
+        // Destino tem id menor e por isso vem primeiro na consulta
+        when(clienteRepository.findAllByNumeroContaInForUpdate(List.of("67890", "12345")))
+                .thenReturn(List.of(origem, destino));
+
+        // Act
+        transferenciaService.transferir("67890", "12345", new BigDecimal("20.00"));
+
+        // Assert
+        assertEquals(new BigDecimal("120.00"), origem.getSaldo());
+        assertEquals(new BigDecimal("30.00"), destino.getSaldo());
+        verify(clienteRepository, never()).findAllByNumeroContaIn(anyCollection());
+    }
+
+    @Test
+    void deveTransferirComAtualizacaoAtomicaNaOrdemDasContas() {
+        // Arrange
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.ATOMICA);
+        BigDecimal valorTransferencia = new BigDecimal("30.00");
+
+        when(clienteRepository.debitarSaldo("67890", valorTransferencia)).thenReturn(1);
+        when(clienteRepository.creditarSaldo("12345", valorTransferencia)).thenReturn(1);
+
+        // Act
+        transferenciaService.transferir("67890", "12345", valorTransferencia);
+
+        // Assert - "12345" < "67890": o crédito é aplicado antes do débito
+        var ordem = inOrder(clienteRepository);
+        ordem.verify(clienteRepository).creditarSaldo("12345", valorTransferencia);
+        ordem.verify(clienteRepository).debitarSaldo("67890", valorTransferencia);
+        verify(clienteRepository, never()).saveAll(anyIterable());
+    }
+
+    // ========== TESTES DE ERRO ==========
+
+    @Test
+    void deveLancarExcecaoQuandoTransferirValorInvalido() {
+        // Arrange
+        BigDecimal valorInvalido = new BigDecimal("-10.00");
+
+        doThrow(new ValorInvalidoException("Valor deve ser positivo"))
+                .when(clienteValidation).validarValorPositivo(valorInvalido);
+
+        // Act & Assert
+        assertThrows(ValorInvalidoException.class,
+                () -> transferenciaService.transferir("12345", "67890", valorInvalido));
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoTransferirParaMesmaConta() {
+        // Arrange
+        BigDecimal valorTransferencia = new BigDecimal("10.00");
+
+        doThrow(new ContaException("Conta de origem e destino devem ser diferentes"))
+                .when(clienteValidation).validarContasDiferentes("12345", "12345");
+
+        // Act & Assert
+        assertThrows(ContaException.class,
+                () -> transferenciaService.transferir("12345", "12345", valorTransferencia));
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoContaDestinoNaoEncontrada() {
+        // Arrange
+        Cliente origem = new Cliente(123L, "João", "12345", "001", new BigDecimal("100.00"));
+
+        when(clienteRepository.findAllByNumeroContaIn(List.of("12345", "99999")))
+                .thenReturn(List.of(origem));
+
+        // Act & Assert
+        ClienteNotFoundException ex = assertThrows(ClienteNotFoundException.class,
+                () -> transferenciaService.transferir("12345", "99999", new BigDecimal("10.00")));
+        assertEquals("Conta de destino não encontrada", ex.getMessage());
+        assertEquals(new BigDecimal("100.00"), origem.getSaldo());
+        verify(clienteRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoTransferirComSaldoInsuficiente() {
+        // Arrange
+        Cliente origem = new Cliente(123L, "João", "12345", "001", new BigDecimal("50.00"));
+        Cliente destino = new Cliente(321L, "Maria", "67890", "001", new BigDecimal("50.00"));
+        BigDecimal valorTransferencia = new BigDecimal("100.00");
+
+        when(clienteRepository.findAllByNumeroContaIn(List.of("12345", "67890")))
+                .thenReturn(List.of(origem, destino));
+        doThrow(new SaldoInsuficienteException("Saldo insuficiente"))
+                .when(clienteValidation).validarSaldoSuficiente(origem.getSaldo(), valorTransferencia);
+
+        // Act & Assert
+        assertThrows(SaldoInsuficienteException.class,
+                () -> transferenciaService.transferir("12345", "67890", valorTransferencia));
+
+        assertEquals(new BigDecimal("50.00"), origem.getSaldo());
+        assertEquals(new BigDecimal("50.00"), destino.getSaldo());
+        verify(clienteRepository, never()).saveAll(anyIterable());
+    }
+}
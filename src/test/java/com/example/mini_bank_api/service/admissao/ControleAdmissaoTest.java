@@ -0,0 +1,139 @@
+package com.example.mini_bank_api.service.admissao;
+
+import com.example.mini_bank_api.exception.LimiteContaExcedidoException;
+import com.example.mini_bank_api.exception.ServicoSobrecarregadoException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControleAdmissaoTest {
+
+    private static final long ALVO = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void deveRecusarAcimaDoLimiteEAdmitirDepoisDeLiberar() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo(2, 1, 10, ALVO, 0.5);
+
+        // Act & Assert
+        assertTrue(limite.tentarAdquirir());
+        assertTrue(limite.tentarAdquirir());
+        assertFalse(limite.tentarAdquirir());
+        limite.liberar(ALVO / 2, false, System.nanoTime());
+        assertTrue(limite.tentarAdquirir());
+        assertEquals(2, limite.getEmUso());
+    }
+
+    @Test
+    void deveReduzirOLimiteComRespostasLentasUmaVezPorLatenciaAlvo() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo(16, 2, 100, ALVO, 0.5);
+        long agora = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limite.tentarAdquirir();
+        }
+
+        // Act: três respostas lentas da mesma janela e uma depois dela
+        limite.liberar(ALVO * 2, false, agora);
+        limite.liberar(ALVO * 2, false, agora + ALVO / 2);
+        int depoisDaJanela = limite.getLimite();
+        limite.liberar(ALVO * 2, true, agora + ALVO);
+
+        // Assert
+        assertEquals(8, depoisDaJanela);
+        assertEquals(4, limite.getLimite());
+    }
+
+    @Test
+    void deveAumentarOLimiteSoComRespostasRapidasEOLimiteEmUso() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo(4, 2, 100, ALVO, 0.5);
+
+        // Act: com uma requisição por vez o limite não cresce
+        for (int i = 0; i < 20; i++) {
+            limite.tentarAdquirir();
+            limite.liberar(ALVO / 2, false, System.nanoTime());
+        }
+        int comPoucoUso = limite.getLimite();
+        // com o limite todo em uso, uma janela inteira de respostas rápidas soma cerca de 1
+        for (int janela = 0; janela < 4; janela++) {
+            while (limite.tentarAdquirir()) {
+                // ocupa o limite inteiro
+            }
+            for (int i = limite.getEmUso(); i > 0; i--) {
+                limite.liberar(ALVO / 2, false, System.nanoTime());
+            }
+        }
+
+        // Assert
+        assertEquals(4, comPoucoUso);
+        assertTrue(limite.getLimite() > 4 && limite.getLimite() <= 8, "limite " + limite.getLimite());
+    }
+
+    @Test
+    void deveRespeitarOLimiteMinimo() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo(4, 2, 100, ALVO, 0.1);
+        long agora = System.nanoTime();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            limite.tentarAdquirir();
+            limite.liberar(ALVO * 10, true, agora + i * ALVO);
+        }
+
+        // Assert
+        assertEquals(2, limite.getLimite());
+    }
+
+    @Test
+    void deveRecusarAContaDepoisDaRajadaEDevolverFichasComOTempo() {
+        // Arrange: 10 operações por segundo, rajada de 3
+        BaldesContas baldes = new BaldesContas(10, 3, 100);
+        long agora = System.nanoTime();
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, baldes.consumir("123", agora));
+        }
+        long espera = baldes.consumir("123", agora);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), espera, TimeUnit.MICROSECONDS.toNanos(1));
+        assertEquals(0, baldes.consumir("456", agora), "Cada conta tem o seu balde");
+        assertEquals(0, baldes.consumir("123", agora + espera));
+        assertNotEquals(0, baldes.consumir("123", agora + espera));
+        // Parado por muito tempo, o balde não passa da rajada
+        long depois = agora + TimeUnit.SECONDS.toNanos(60);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, baldes.consumir("123", depois));
+        }
+        assertNotEquals(0, baldes.consumir("123", depois));
+    }
+
+    @Test
+    void deveLancarExcecoesDeAdmissaoComRetryAfterEmSegundos() {
+        // Arrange
+        AdmissaoProperties properties = new AdmissaoProperties();
+        properties.setHabilitado(true);
+        properties.setLimiteInicial(1);
+        properties.setLimiteMinimo(1);
+        properties.setLatenciaAlvo(Duration.ofSeconds(10));
+        properties.setOperacoesPorSegundoPorConta(0.4);
+        properties.setRajadaPorConta(1);
+        ControleAdmissao controle = new ControleAdmissao(properties);
+
+        // Act
+        long admitidaEm = controle.admitir();
+        assertThrows(ServicoSobrecarregadoException.class, controle::admitir);
+        controle.concluir(admitidaEm, false);
+        controle.consumirConta("123");
+        LimiteContaExcedidoException ex = assertThrows(LimiteContaExcedidoException.class,
+                () -> controle.consumirConta("123"));
+
+        // Assert
+        assertDoesNotThrow(controle::admitir);
+        assertEquals(3, ex.getEsperaSegundos());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.mini_bank_api.service.agregados;
+
+import com.example.mini_bank_api.dto.ResumoAgencia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgregadosAgenciasTest {
+
+    private AgregadosAgencias agregados;
+
+    @BeforeEach
+    void setUp() {
+        agregados = new AgregadosAgencias(new AgregadosProperties());
+    }
+
+    @AfterEach
+    void limparTransacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(agregados);
+    }
+
+    @Test
+    void deveSomarContasSaldoEExtremosPorAgencia() {
+        // Act
+        agregados.registrarConta("0001", 10_000);
+        agregados.registrarConta("0001", 500);
+        agregados.registrarConta("0002", 0);
+        agregados.registrarConta(null, 700);
+        agregados.registrar("0001", 2_500, 12_500);
+
+        // Assert: contas sem agência vêm primeiro, com agencia null
+        List<ResumoAgencia> agencias = agregados.relatorio().agencias();
+        assertEquals(3, agencias.size());
+        assertNull(agencias.get(0).agencia());
+        assertEquals(new ResumoAgencia("0001", 2, new BigDecimal("130.00"), new BigDecimal("5.00"),
+                new BigDecimal("125.00")), agencias.get(1));
+        assertEquals("0002", agencias.get(2).agencia());
+        assertNull(agregados.relatorio().reconciliadoEm());
+    }
+
+    @Test
+    void deveAplicarAlteracoesDaTransacaoSoNoCommit() {
+        // Arrange
+        agregados.registrarConta("0001", 1_000);
+        TransactionSynchronizationManager.initSynchronization();
+        agregados.registrar("0001", 300, 1_300);
+        agregados.registrar("0001", -100, 1_200);
+
+        // Act: até o commit nada aparece, e a agência tem alteração em andamento
+        assertEquals(new BigDecimal("10.00"), agregados.relatorio().agencias().get(0).saldoTotal());
+        concluir(TransactionSynchronization.STATUS_COMMITTED, true);
+
+        // Assert
+        ResumoAgencia agencia = agregados.relatorio().agencias().get(0);
+        assertEquals(new BigDecimal("12.00"), agencia.saldoTotal());
+        assertEquals(new BigDecimal("13.00"), agencia.saldoMaximo());
+        assertTrue(agregados.retratar("0001").isPresent());
+    }
+
+    @Test
+    void deveDescartarAlteracoesDeTransacaoDesfeita() {
+        // Arrange
+        agregados.registrarConta("0001", 1_000);
+        TransactionSynchronizationManager.initSynchronization();
+        agregados.registrar("0001", -1_000, 0);
+        agregados.registrarConta("0001", 50);
+
+        // Act: a transação chegou a tentar o commit
+        concluir(TransactionSynchronization.STATUS_ROLLED_BACK, true);
+
+        // Assert
+        ResumoAgencia agencia = agregados.relatorio().agencias().get(0);
+        assertEquals(1, agencia.contas());
+        assertEquals(new BigDecimal("10.00"), agencia.saldoTotal());
+        assertEquals(new BigDecimal("10.00"), agencia.saldoMinimo());
+        assertTrue(agregados.retratar("0001").isPresent());
+    }
+
+    @Test
+    void deveRecusarConferenciaComAlteracaoEmAndamento() {
+        // Arrange
+        agregados.registrarConta("0001", 1_000);
+        AgregadosAgencias.Retrato retrato = agregados.retratar("0001").orElseThrow();
+
+        // Act: uma transação chega ao commit entre o retrato e a conferência
+        TransactionSynchronizationManager.initSynchronization();
+        agregados.registrar("0001", 500, 1_500);
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+
+        // Assert: nem a conferência nem um retrato novo valem enquanto ela não termina
+        assertFalse(agregados.conferir(retrato, new ResumoAgencia("0001", 1, new BigDecimal("15.00"),
+                new BigDecimal("15.00"), new BigDecimal("15.00"))));
+        assertTrue(agregados.retratar("0001").isEmpty());
+        concluir(TransactionSynchronization.STATUS_COMMITTED, false);
+        assertTrue(agregados.retratar("0001").isPresent());
+        assertEquals(new BigDecimal("15.00"), agregados.relatorio().agencias().get(0).saldoTotal());
+    }
+
+    @Test
+    void deveCorrigirDivergenciaEApertarOsExtremosNaConferencia() {
+        // Arrange: a conta de 900 sacou tudo; o máximo em memória continua 900
+        agregados.registrarConta("0001", 900);
+        agregados.registrarConta("0001", 100);
+        agregados.registrar("0001", -900, 0);
+        agregados.conferir(agregados.retratar("0001").orElseThrow(), new ResumoAgencia("0001", 2,
+                new BigDecimal("1.00"), BigDecimal.ZERO, new BigDecimal("1.00")));
+        assertEquals(0, agregados.getDivergencias());
+
+        // Act: depois, alguém altera a tabela por fora
+        boolean conferida = agregados.conferir(agregados.retratar("0001").orElseThrow(), new ResumoAgencia("0001", 2,
+                new BigDecimal("51.00"), new BigDecimal("1.00"), new BigDecimal("50.00")));
+
+        // Assert
+        assertTrue(conferida);
+        assertEquals(1, agregados.getDivergencias());
+        assertEquals(new ResumoAgencia("0001", 2, new BigDecimal("51.00"), new BigDecimal("1.00"),
+                new BigDecimal("50.00")), agregados.relatorio().agencias().get(0));
+    }
+
+    private static void concluir(int status, boolean antesDoCommit) {
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        if (antesDoCommit) {
+            sincronizacoes.forEach(s -> s.beforeCommit(false));
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizacoes.forEach(s -> s.afterCompletion(status));
+    }
+}
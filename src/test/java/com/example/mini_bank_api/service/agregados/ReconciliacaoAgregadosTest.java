@@ -0,0 +1,190 @@
+package com.example.mini_bank_api.service.agregados;
+
+import com.example.mini_bank_api.dto.ResumoAgencia;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Agregados por agência contra o GROUP BY da tabela, com as operações passando pelo ClienteService
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReconciliacaoAgregadosTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private AgregadosAgencias agregadosAgencias;
+
+    @Autowired
+    private ReconciliacaoAgregados reconciliacaoAgregados;
+
+    @Autowired
+    private ConcorrenciaProperties concorrenciaProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restaurarConfiguracao() {
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.OTIMISTA);
+        concorrenciaProperties.setMaxTentativas(5);
+    }
+
+    @AfterAll
+    void remover() {
+        jdbcTemplate.update("delete from movimentos where numero_conta like 'agreg-%'");
+        jdbcTemplate.update("delete from clientes where numero_conta like 'agreg-%'");
+    }
+
+    @ParameterizedTest
+    @EnumSource(EstrategiaConcorrencia.class)
+    void deveAcompanharCadastrosEMovimentacoesSemConsultarATabela(EstrategiaConcorrencia estrategia) {
+        // Arrange
+        concorrenciaProperties.setEstrategia(estrategia);
+        String agencia = "AG-" + estrategia;
+        String outra = "AGX-" + estrategia;
+        cadastrar("agreg-" + estrategia + "-a", agencia, "100.00");
+        cadastrar("agreg-" + estrategia + "-b", agencia, "250.50");
+        cadastrar("agreg-" + estrategia + "-c", outra, "0");
+
+        // Act
+        clienteService.depositar("agreg-" + estrategia + "-a", new BigDecimal("50.00"));
+        clienteService.sacar("agreg-" + estrategia + "-b", new BigDecimal("0.50"));
+        clienteService.transferir("agreg-" + estrategia + "-a", "agreg-" + estrategia + "-c", new BigDecimal("30.00"));
+        assertThrows(SaldoInsuficienteException.class,
+                () -> clienteService.sacar("agreg-" + estrategia + "-c", new BigDecimal("1000.00")));
+
+        // Assert: contas e saldo exatos; os extremos cobrem os saldos atuais
+        assertEquals(new ResumoAgencia(agencia, 2, new BigDecimal("370.00"), new BigDecimal("100.00"),
+                new BigDecimal("250.50")), doRelatorio(agencia));
+        ResumoAgencia destino = doRelatorio(outra);
+        assertEquals(new BigDecimal("30.00"), destino.saldoTotal());
+        assertEquals(0, destino.saldoMinimo().compareTo(BigDecimal.ZERO));
+        assertEquals(new BigDecimal("30.00"), destino.saldoMaximo());
+        assertIgualATabela(agencia);
+        assertIgualATabela(outra);
+    }
+
+    @Test
+    void deveCorrigirNaReconciliacaoUmaAlteracaoFeitaPorForaDaAplicacao() {
+        // Arrange
+        cadastrar("agreg-fora-1", "AG-FORA", "10.00");
+        cadastrar("agreg-fora-2", "AG-FORA", "20.00");
+        assertEquals(0, reconciliacaoAgregados.reconciliar());
+        long divergencias = agregadosAgencias.getDivergencias();
+
+        // Act
+        jdbcTemplate.update("update clientes set saldo = 500.00 where numero_conta = 'agreg-fora-2'");
+        ResumoAgencia antes = doRelatorio("AG-FORA");
+        int pendentes = reconciliacaoAgregados.reconciliar();
+
+        // Assert
+        assertEquals(new BigDecimal("30.00"), antes.saldoTotal());
+        assertEquals(0, pendentes);
+        assertEquals(divergencias + 1, agregadosAgencias.getDivergencias());
+        assertEquals(new ResumoAgencia("AG-FORA", 2, new BigDecimal("510.00"), new BigDecimal("10.00"),
+                new BigDecimal("500.00")), doRelatorio("AG-FORA"));
+        assertNotNull(clienteService.relatorioAgencias().reconciliadoEm());
+    }
+
+    @Test
+    void naoDeveAcusarDivergenciaComMovimentacoesDuranteAReconciliacao() throws Exception {
+        // Arrange: 10 contas em duas agências, transferências e depósitos entre elas
+        for (int i = 0; i < 10; i++) {
+            cadastrar("agreg-conc-" + i, i % 2 == 0 ? "AG-C1" : "AG-C2", "100.00");
+        }
+        concorrenciaProperties.setMaxTentativas(1_000);
+        reconciliacaoAgregados.reconciliar();
+        long divergencias = agregadosAgencias.getDivergencias();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futuros = new ArrayList<>();
+
+        // Act: reconciliações seguidas enquanto as operações acontecem
+        for (int t = 0; t < 4; t++) {
+            int semente = t;
+            futuros.add(executor.submit(() -> {
+                Random aleatorio = new Random(semente);
+                for (int i = 0; i < 150; i++) {
+                    int origem = aleatorio.nextInt(10);
+                    int destino = (origem + 1 + aleatorio.nextInt(9)) % 10;
+                    try {
+                        if (i % 5 == 0) {
+                            clienteService.depositar("agreg-conc-" + origem, new BigDecimal("1.25"));
+                        } else {
+                            clienteService.transferir("agreg-conc-" + origem, "agreg-conc-" + destino,
+                                    new BigDecimal("7.50"));
+                        }
+                    } catch (SaldoInsuficienteException ex) {
+                        // Esperado: saldos baixos no meio das transferências aleatórias
+                    }
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        while (!executor.awaitTermination(10, TimeUnit.MILLISECONDS)) {
+            reconciliacaoAgregados.reconciliar();
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+
+        // Assert: o total só mudou pelos depósitos, e nada foi "corrigido" por engano
+        assertEquals(divergencias, agregadosAgencias.getDivergencias());
+        BigDecimal total = doRelatorio("AG-C1").saldoTotal().add(doRelatorio("AG-C2").saldoTotal());
+        assertEquals(new BigDecimal("1150.00"), total);
+        assertIgualATabela("AG-C1");
+        assertIgualATabela("AG-C2");
+        assertEquals(0, reconciliacaoAgregados.reconciliar());
+        assertEquals(divergencias, agregadosAgencias.getDivergencias());
+    }
+
+    private void cadastrar(String numeroConta, String agencia, String saldo) {
+        clienteService.cadastrarCliente(new Cliente(null, "Agregado " + numeroConta, numeroConta, agencia,
+                new BigDecimal(saldo)));
+    }
+
+    private ResumoAgencia doRelatorio(String agencia) {
+        return clienteService.relatorioAgencias().agencias().stream()
+                .filter(resumo -> agencia.equals(resumo.agencia()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // Contas e saldo iguais aos da tabela; mínimo e máximo podem estar mais afastados, nunca mais próximos
+    private void assertIgualATabela(String agencia) {
+        ResumoAgencia tabela = clienteRepository.resumirAgencia(agencia).orElseThrow();
+        ResumoAgencia memoria = doRelatorio(agencia);
+        assertEquals(tabela.contas(), memoria.contas());
+        assertEquals(0, tabela.saldoTotal().compareTo(memoria.saldoTotal()));
+        assertTrue(memoria.saldoMinimo().compareTo(tabela.saldoMinimo()) <= 0);
+        assertTrue(memoria.saldoMaximo().compareTo(tabela.saldoMaximo()) >= 0);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.mini_bank_api.service.busca;
+
+import com.example.mini_bank_api.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IndiceNomesTest {
+
+    private final IndiceNomes indice = new IndiceNomes(new BuscaProperties(), mock(ClienteRepository.class),
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    void deveSepararPalavrasSemAcentosNemMaiusculas() {
+        // Act & Assert
+        assertEquals(List.of("joao", "conceicao", "silva"), IndiceNomes.palavras("  JOÃO Conceição,silva"));
+        assertEquals(List.of("ana", "maria"), IndiceNomes.palavras("Ana Maria ana"));
+        assertEquals(List.of(), IndiceNomes.palavras(" - "));
+        assertEquals(List.of(), IndiceNomes.palavras(null));
+    }
+
+    @Test
+    void deveConferirCadaTermoComoTrechoDeAlgumaPalavra() {
+        // Act & Assert
+        assertTrue(IndiceNomes.corresponde("João Silva", List.of("sil")));
+        assertTrue(IndiceNomes.corresponde("João Silva", List.of("sil", "jo")));
+        assertTrue(IndiceNomes.corresponde("João Silva", List.of("ilva", "oa")));
+        assertFalse(IndiceNomes.corresponde("João Silva", List.of("sil", "maria")));
+        assertFalse(IndiceNomes.corresponde("João Silva", List.of("aosil")));
+    }
+
+    @Test
+    void deveDevolverCandidatosEmOrdemDeIdSemRepetir() {
+        // Arrange: ids fora de ordem e a mesma conta com duas palavras com o trecho
+        indice.adicionar(30L, "Silvana Souza", "001");
+        indice.adicionar(10L, "João Silva", "002");
+        indice.adicionar(20L, "Maria Silveira Silva", "001");
+        indice.adicionar(40L, "Pedro Santos", "001");
+        indice.adicionar(10L, "João Silva", "002");
+
+        // Act
+        long[] todos = indice.candidatos(List.of("silv"), null, 0, 10);
+        long[] primeiros = indice.candidatos(List.of("silv"), null, 0, 2);
+        long[] depois = indice.candidatos(List.of("silv"), null, 10, 2);
+
+        // Assert
+        assertArrayEquals(new long[]{10, 20, 30}, todos);
+        assertArrayEquals(new long[]{10, 20}, primeiros);
+        assertArrayEquals(new long[]{20, 30}, depois);
+        assertArrayEquals(new long[]{40}, indice.candidatos(List.of("p", "santos"), null, 0, 10));
+        assertArrayEquals(new long[0], indice.candidatos(List.of("silvx"), null, 0, 10));
+        assertArrayEquals(new long[]{20, 30}, indice.candidatos(List.of("silv"), "001", 0, 10));
+        assertArrayEquals(new long[]{30}, indice.candidatos(List.of("silv"), "001", 20, 10));
+        assertArrayEquals(new long[0], indice.candidatos(List.of("silv"), "999", 0, 10));
+    }
+
+    @Test
+    void deveEncontrarTrechosNoMeioENoFimDasPalavras() {
+        // Arrange
+        indice.adicionar(1L, "João Silva", "001");
+        indice.adicionar(2L, "Ana Oliveira", "002");
+        indice.adicionar(3L, "Bo Li", "001");
+
+        // Act & Assert
+        assertArrayEquals(new long[]{2}, indice.candidatos(List.of("liv"), null, 0, 10));
+        assertArrayEquals(new long[]{1}, indice.candidatos(List.of("lva"), null, 0, 10));
+        assertArrayEquals(new long[]{1}, indice.candidatos(List.of("va"), null, 0, 10));
+        assertArrayEquals(new long[]{1}, indice.candidatos(List.of("il"), null, 0, 10));
+        assertArrayEquals(new long[]{2, 3}, indice.candidatos(List.of("li"), null, 0, 10));
+        assertArrayEquals(new long[]{1, 2, 3}, indice.candidatos(List.of("i"), null, 0, 10));
+        assertArrayEquals(new long[]{3}, indice.candidatos(List.of("bo"), null, 0, 10));
+        assertArrayEquals(new long[]{2}, indice.candidatos(List.of("oliveira"), "002", 0, 10));
+        assertArrayEquals(new long[0], indice.candidatos(List.of("oliveira"), "001", 0, 10));
+    }
+
+    @Test
+    void deveLimitarOsCandidatosComMuitasPalavrasNoTrecho() {
+        // Arrange: 5 mil palavras diferentes começando com "a", ids decrescentes
+        for (int i = 0; i < 5_000; i++) {
+            indice.adicionar(10_000L - i, "a" + i + " Teste", null);
+        }
+
+        // Act
+        long[] candidatos = indice.candidatos(List.of("a"), null, 5_100, 50);
+
+        // Assert
+        assertEquals(50, candidatos.length);
+        assertEquals(5_101, candidatos[0]);
+        assertEquals(5_150, candidatos[49]);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.mini_bank_api.service.cache;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheClientesTest {
+
+    private CacheClientesProperties cacheProperties;
+
+    private CacheClientes cacheClientes;
+
+    private final AtomicInteger carregamentos = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new CacheClientesProperties();
+        cacheProperties.setTamanhoMaximo(10);
+        cacheClientes = new CacheClientes(cacheProperties);
+    }
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deveCarregarUmaVezERegistrarAcertosEFaltas() {
+        // Act
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+
+        // Assert
+        assertEquals(1, carregamentos.get());
+        assertEquals(2, cacheClientes.getPorNumeroConta().stats().hitCount());
+        assertEquals(1, cacheClientes.getPorNumeroConta().stats().missCount());
+    }
+
+    @Test
+    void deveEntregarAMesmaInstanciaSemCopia() {
+        // Arrange
+        ClienteResposta primeiro = cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+
+        // Act
+        ClienteResposta segundo = cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+
+        // Assert: o record é imutável, então compartilhar a instância é seguro
+        assertSame(primeiro, segundo);
+        assertEquals(new BigDecimal("100.00"), segundo.saldo());
+    }
+
+    @Test
+    void naoDeveGuardarContaInexistente() {
+        // Act & Assert
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ClienteNotFoundException.class, () -> cacheClientes.buscarPorNumeroConta("00000",
+                    numero -> {
+                        carregamentos.incrementAndGet();
+                        throw new ClienteNotFoundException("Conta não encontrada");
+                    }));
+        }
+        assertEquals(2, carregamentos.get());
+    }
+
+    @Test
+    void deveDespejarQuandoPassaDoTamanhoMaximo() {
+        // Act
+        for (int i = 0; i < 100; i++) {
+            cacheClientes.buscarPorNumeroConta("conta-" + i, this::carregar);
+        }
+        cacheClientes.getPorNumeroConta().cleanUp();
+
+        // Assert
+        assertTrue(cacheClientes.getPorNumeroConta().estimatedSize() <= 10);
+        assertTrue(cacheClientes.getPorNumeroConta().stats().evictionCount() >= 90);
+    }
+
+    @Test
+    void deveInvalidarSomenteAposOCommit() {
+        // Arrange
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cacheClientes.invalidarAposCommit("12345");
+
+        // Assert: antes do commit outras leituras continuam vendo o valor confirmado
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+        assertEquals(1, carregamentos.get());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+        assertEquals(2, carregamentos.get());
+    }
+
+    @Test
+    void deveInvalidarNaHoraSemTransacao() {
+        // Arrange
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+
+        // Act
+        cacheClientes.invalidarAposCommit("12345");
+        cacheClientes.buscarPorNumeroConta("12345", this::carregar);
+
+        // Assert
+        assertEquals(2, carregamentos.get());
+    }
+
+    @Test
+    void deveCompartilharAConsultaEmAndamentoSemCache() throws Exception {
+        // Arrange: a primeira leitura fica parada na consulta
+        cacheProperties.setHabilitado(false);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<ClienteResposta> primeira = CompletableFuture.supplyAsync(() ->
+                cacheClientes.carregarCompartilhado("12345", numero -> carregarApos(liberar, numero)));
+        aguardar(() -> carregamentos.get() == 1);
+
+        // Act: a segunda chega com a consulta em andamento
+        CompletableFuture<ClienteResposta> segunda = CompletableFuture.supplyAsync(() ->
+                cacheClientes.carregarCompartilhado("12345", this::carregar));
+        aguardar(() -> cacheClientes.getLeiturasCompartilhadas() == 1);
+        liberar.countDown();
+
+        // Assert: uma consulta, o mesmo resultado para as duas, e nada guardado depois dela
+        assertSame(primeira.get(5, TimeUnit.SECONDS), segunda.get(5, TimeUnit.SECONDS));
+        assertEquals(1, carregamentos.get());
+        cacheClientes.carregarCompartilhado("12345", this::carregar);
+        assertEquals(2, carregamentos.get());
+    }
+
+    @Test
+    void naoDeveCompartilharConsultaIniciadaAntesDoCommit() throws Exception {
+        // Arrange
+        cacheProperties.setHabilitado(false);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<ClienteResposta> antiga = CompletableFuture.supplyAsync(() ->
+                cacheClientes.carregarCompartilhado("12345", numero -> carregarApos(liberar, numero)));
+        aguardar(() -> carregamentos.get() == 1);
+
+        // Act: uma alteração da conta confirma enquanto a consulta antiga está em andamento
+        cacheClientes.invalidarAposCommit("12345");
+        ClienteResposta depois = cacheClientes.carregarCompartilhado("12345", this::carregar);
+        liberar.countDown();
+
+        // Assert
+        assertEquals(2, carregamentos.get());
+        assertEquals(0, cacheClientes.getLeiturasCompartilhadas());
+        assertNotSame(depois, antiga.get(5, TimeUnit.SECONDS));
+    }
+
+    private ClienteResposta carregarApos(CountDownLatch liberar, String numeroConta) {
+        ClienteResposta resposta = carregar(numeroConta);
+        try {
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return resposta;
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Tempo esgotado");
+            Thread.sleep(1);
+        }
+    }
+
+    private ClienteResposta carregar(String numeroConta) {
+        carregamentos.incrementAndGet();
+        return new ClienteResposta(1L, "João Silva", numeroConta, "001", new BigDecimal("100.00"), 0L);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mini_bank_api.service.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnelConsistenteTest {
+
+    private static final int CONTAS = 30_000;
+
+    @Test
+    void deveDividirAsContasDeFormaEquilibrada() {
+        // Arrange
+        AnelConsistente anel = new AnelConsistente(List.of("no-1", "no-2", "no-3"), 128);
+
+        // Act
+        Map<String, Integer> contasPorNo = new HashMap<>();
+        for (int i = 0; i < CONTAS; i++) {
+            contasPorNo.merge(anel.dono(String.format("%010d", i)), 1, Integer::sum);
+        }
+
+        // Assert: cada nó com um terço das contas, com folga de 25%
+        assertEquals(3, contasPorNo.size());
+        contasPorNo.forEach((no, contas) -> assertTrue(Math.abs(contas - CONTAS / 3) < CONTAS / 3 / 4,
+                no + " com " + contas + " contas"));
+    }
+
+    @Test
+    void deveMoverSoAsContasDoNovoNoAoCrescer() {
+        // Arrange
+        AnelConsistente tresNos = new AnelConsistente(List.of("no-1", "no-2", "no-3"), 128);
+        AnelConsistente quatroNos = new AnelConsistente(List.of("no-1", "no-2", "no-3", "no-4"), 128);
+
+        // Act
+        int movidas = 0;
+        for (int i = 0; i < CONTAS; i++) {
+            String numeroConta = String.format("%010d", i);
+            String antes = tresNos.dono(numeroConta);
+            String depois = quatroNos.dono(numeroConta);
+            if (!antes.equals(depois)) {
+                // Assert: nenhuma conta troca de dono entre os nós que já existiam
+                assertEquals("no-4", depois);
+                movidas++;
+            }
+        }
+
+        // Assert: cerca de 1/4 das contas passa para o novo nó
+        assertTrue(movidas > CONTAS * 0.15 && movidas < CONTAS * 0.35, movidas + " contas movidas");
+    }
+
+    @Test
+    void deveEscolherOMesmoDonoIndependenteDaOrdemDosNos() {
+        // Arrange
+        AnelConsistente anel = new AnelConsistente(List.of("no-1", "no-2", "no-3"), 128);
+        AnelConsistente outraOrdem = new AnelConsistente(List.of("no-3", "no-1", "no-2"), 128);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(anel.dono("conta-" + i), outraOrdem.dono("conta-" + i));
+        }
+    }
+}
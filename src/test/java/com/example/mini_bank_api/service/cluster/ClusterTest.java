@@ -0,0 +1,354 @@
+package com.example.mini_bank_api.service.cluster;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.repository.TransferenciaRecebidaRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dois nós na mesma JVM, cada um com a sua porta e o seu banco H2 em memória, conversando por HTTP.
+// Os nós são compartilhados pelos testes; cada teste cadastra as suas próprias contas.
+class ClusterTest {
+
+    private static final String SEGREDO = "segredo-dos-nos";
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private static final int[] portas = new int[2];
+
+    private static final ConfigurableApplicationContext[] nos = new ConfigurableApplicationContext[2];
+
+    private static final AtomicInteger proximaConta = new AtomicInteger();
+
+    @BeforeAll
+    static void iniciar() throws IOException {
+        for (int i = 0; i < portas.length; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                portas[i] = socket.getLocalPort();
+            }
+        }
+        for (int i = 0; i < nos.length; i++) {
+            nos[i] = iniciarNo(i);
+        }
+    }
+
+    @AfterAll
+    static void encerrar() {
+        for (ConfigurableApplicationContext no : nos) {
+            if (no != null && no.isActive()) {
+                no.close();
+            }
+        }
+    }
+
+    @Test
+    void deveGuardarCadaContaSoNoNoDonoEAtenderPorQualquerNo() throws Exception {
+        // Act: todas as contas cadastradas pelo primeiro nó
+        List<String> contas = cadastrarContas(20);
+
+        // Assert
+        ParticoesCluster particoes = nos[0].getBean(ParticoesCluster.class);
+        for (String numeroConta : contas) {
+            int dono = particoes.dono(numeroConta).equals("no-1") ? 0 : 1;
+            assertTrue(repositorio(dono).findByNumeroConta(numeroConta).isPresent());
+            assertTrue(repositorio(1 - dono).findByNumeroConta(numeroConta).isEmpty());
+            for (int entrada = 0; entrada < nos.length; entrada++) {
+                HttpResponse<String> resposta = get(entrada, "/api/clientes/conta/" + numeroConta);
+                assertEquals(200, resposta.statusCode());
+                assertTrue(resposta.body().contains("\"numeroConta\":\"" + numeroConta + "\""));
+            }
+        }
+    }
+
+    @Test
+    void deveEncaminharDepositoAoDonoDaConta() throws Exception {
+        // Arrange
+        List<String> contas = cadastrarContas(20);
+        String contaNo2 = contaDo(contas, "no-2");
+
+        // Act: depósito recebido pelo nó que não é o dono
+        HttpResponse<String> resposta = post(0, "/api/clientes/" + contaNo2 + "/deposito?valor=25.00");
+
+        // Assert
+        assertEquals(200, resposta.statusCode());
+        assertEquals(0, new BigDecimal("125.00").compareTo(saldo(1, contaNo2)));
+    }
+
+    @Test
+    void deveTransferirEntreContasDeNosDiferentes() throws Exception {
+        // Arrange
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-1");
+        String destino = contaDo(contas, "no-2");
+
+        // Act: recebida pelo nó do destino, coordenada pelo nó da origem
+        HttpResponse<String> resposta = post(1, "/api/clientes/transferir?contaOrigem=" + origem
+                + "&contaDestino=" + destino + "&valor=30.00");
+
+        // Assert
+        assertEquals(200, resposta.statusCode());
+        assertEquals("Transferência realizada com sucesso", resposta.body());
+        assertEquals(0, new BigDecimal("70.00").compareTo(saldo(0, origem)));
+        assertEquals(0, new BigDecimal("130.00").compareTo(saldo(1, destino)));
+    }
+
+    @Test
+    void deveEstornarQuandoAContaDeDestinoNaoExiste() throws Exception {
+        // Arrange
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-1");
+        String inexistente = semConta("no-2");
+
+        // Act
+        HttpResponse<String> resposta = post(0, "/api/clientes/transferir?contaOrigem=" + origem
+                + "&contaDestino=" + inexistente + "&valor=30.00");
+
+        // Assert: o erro do destino chega ao cliente e o débito foi desfeito
+        assertEquals(404, resposta.statusCode());
+        assertTrue(resposta.body().contains("Conta de destino não encontrada"));
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(0, origem)));
+    }
+
+    @Test
+    void deveResolverATransferenciaPendenteQuandoODestinoVolta() throws Exception {
+        // Arrange
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-1");
+        String destino = contaDo(contas, "no-2");
+        nos[1].close();
+
+        // Act: destino fora do ar, nem o crédito nem o cancelamento respondem
+        HttpResponse<String> resposta = post(0, "/api/clientes/transferir?contaOrigem=" + origem
+                + "&contaDestino=" + destino + "&valor=30.00");
+
+        // Assert: debitado e pendente até o destino voltar; ele não creditou, então o valor é estornado
+        assertEquals(200, resposta.statusCode());
+        assertTrue(resposta.body().contains("em processamento"));
+        assertEquals(0, new BigDecimal("70.00").compareTo(saldo(0, origem)));
+        TransferenciaDistribuida transferencias = nos[0].getBean(TransferenciaDistribuida.class);
+        assertEquals(1, transferencias.getPendentes());
+
+        nos[1] = iniciarNo(1);
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (transferencias.getPendentes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, transferencias.getPendentes());
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(0, origem)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(1, destino)));
+    }
+
+    @Test
+    void deveRetomarATransferenciaPendenteDepoisDeUmReinicioDaOrigem() throws Exception {
+        // Arrange: débito confirmado na origem com o destino fora do ar
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-1");
+        String destino = contaDo(contas, "no-2");
+        nos[1].close();
+        HttpResponse<String> resposta = post(0, "/api/clientes/transferir?contaOrigem=" + origem
+                + "&contaDestino=" + destino + "&valor=30.00");
+        assertEquals(200, resposta.statusCode());
+        assertEquals(0, new BigDecimal("70.00").compareTo(saldo(0, origem)));
+
+        // Act: a origem reinicia antes de resolver a transferência, e o destino volta
+        nos[0].close();
+        nos[1] = iniciarNo(1);
+        nos[0] = iniciarNo(0);
+
+        // Assert: a transferência gravada com o débito é retomada, o destino desiste e a origem estorna
+        TransferenciaDistribuida transferencias = nos[0].getBean(TransferenciaDistribuida.class);
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (transferencias.getPendentes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, transferencias.getPendentes());
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(0, origem)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(1, destino)));
+    }
+
+    @Test
+    void deveLembrarOCreditoDepoisDeUmReinicioDoDestino() throws Exception {
+        // Arrange: crédito confirmado no destino, e o destino reinicia antes do cancelamento chegar
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-1");
+        String destino = contaDo(contas, "no-2");
+        String id = "reinicio-" + destino;
+        HttpResponse<String> credito = postInterno(1, "/api/interno/transferencias/" + id + "/credito?contaOrigem="
+                + origem + "&contaDestino=" + destino + "&valor=30.00");
+        assertEquals(200, credito.statusCode(), credito.body());
+        nos[1].close();
+        nos[1] = iniciarNo(1);
+
+        // Act
+        HttpResponse<String> cancelamento = postInterno(1, "/api/interno/transferencias/" + id + "/cancelamento");
+        HttpResponse<String> repeticao = postInterno(1, "/api/interno/transferencias/" + id + "/credito?contaOrigem="
+                + origem + "&contaDestino=" + destino + "&valor=30.00");
+
+        // Assert: a origem não estorna e o crédito não se repete
+        assertEquals(200, cancelamento.statusCode());
+        assertEquals("\"CREDITADA\"", cancelamento.body());
+        assertEquals("\"CREDITADA\"", repeticao.body());
+        assertEquals(0, new BigDecimal("130.00").compareTo(saldo(1, destino)));
+    }
+
+    @Test
+    void deveRecusarOCreditoDeUmaTransferenciaCancelada() throws Exception {
+        // Arrange
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-1");
+        String destino = contaDo(contas, "no-2");
+        String id = "cancelada-" + destino;
+        assertEquals("\"CANCELADA\"", postInterno(1, "/api/interno/transferencias/" + id + "/cancelamento").body());
+
+        // Act
+        HttpResponse<String> credito = postInterno(1, "/api/interno/transferencias/" + id + "/credito?contaOrigem="
+                + origem + "&contaDestino=" + destino + "&valor=30.00");
+
+        // Assert
+        assertEquals(410, credito.statusCode());
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(1, destino)));
+    }
+
+    @Test
+    void deveRecusarChamadasInternasSemOSegredoDosNos() throws Exception {
+        // Arrange
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-1");
+        String destino = contaDo(contas, "no-2");
+        String credito = "/api/interno/transferencias/sem-segredo-" + destino + "/credito?contaOrigem=" + origem
+                + "&contaDestino=" + destino + "&valor=1000.00";
+
+        // Act
+        HttpResponse<String> semSegredo = post(1, credito);
+        HttpResponse<String> segredoErrado = http.send(HttpRequest.newBuilder(uri(1, credito))
+                .header(ClienteCluster.CABECALHO_SEGREDO, "outro-segredo")
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> cancelamento = post(1, "/api/interno/transferencias/sem-segredo-" + destino
+                + "/cancelamento");
+
+        // Assert: nada creditado nem decidido
+        assertEquals(401, semSegredo.statusCode());
+        assertEquals(401, segredoErrado.statusCode());
+        assertEquals(401, cancelamento.statusCode());
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(1, destino)));
+        assertTrue(nos[1].getBean(TransferenciaRecebidaRepository.class)
+                .findById("sem-segredo-" + destino).isEmpty());
+    }
+
+    @Test
+    void deveRecusarOCreditoDeUmaContaDeOutroNo() throws Exception {
+        // Arrange: a conta de destino é do nó 1, o crédito chega ao nó 2
+        List<String> contas = cadastrarContas(20);
+        String origem = contaDo(contas, "no-2");
+        String destino = contaDo(contas, "no-1");
+        String id = "outro-no-" + destino;
+
+        // Act
+        HttpResponse<String> credito = postInterno(1, "/api/interno/transferencias/" + id + "/credito?contaOrigem="
+                + origem + "&contaDestino=" + destino + "&valor=30.00");
+
+        // Assert
+        assertEquals(503, credito.statusCode());
+        assertEquals(0, new BigDecimal("100.00").compareTo(saldo(0, destino)));
+        assertTrue(nos[1].getBean(TransferenciaRecebidaRepository.class).findById(id).isEmpty());
+    }
+
+    // O banco sobrevive ao reinício do nó (DB_CLOSE_DELAY=-1 e schema atualizado, não recriado)
+    private static ConfigurableApplicationContext iniciarNo(int indice) {
+        return new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=" + portas[indice],
+                        "--spring.datasource.url=jdbc:h2:mem:cluster-" + indice
+                                + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.mini_bank_api.service.cluster=ERROR",
+                        "--mini-bank.cache.habilitado=false",
+                        "--mini-bank.cluster.habilitado=true",
+                        "--mini-bank.cluster.no=no-" + (indice + 1),
+                        "--mini-bank.cluster.nos.no-1=http://localhost:" + portas[0],
+                        "--mini-bank.cluster.nos.no-2=http://localhost:" + portas[1],
+                        "--mini-bank.cluster.segredo=" + SEGREDO,
+                        "--mini-bank.cluster.timeout=500ms",
+                        "--mini-bank.cluster.tentativas=2",
+                        "--mini-bank.cluster.intervalo-reconciliacao-ms=100");
+    }
+
+    private List<String> cadastrarContas(int quantidade) throws Exception {
+        List<String> contas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            String numeroConta = "cl-" + proximaConta.getAndIncrement();
+            HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(uri(0, "/api/clientes"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"nome\":\"Cliente " + i + "\",\"numeroConta\":\""
+                            + numeroConta + "\",\"agencia\":\"001\",\"saldo\":100.00}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, resposta.statusCode(), resposta.body());
+            contas.add(numeroConta);
+        }
+        return contas;
+    }
+
+    private String contaDo(List<String> contas, String no) {
+        ParticoesCluster particoes = nos[0].getBean(ParticoesCluster.class);
+        return contas.stream().filter(conta -> particoes.dono(conta).equals(no)).findFirst().orElseThrow();
+    }
+
+    private String semConta(String no) {
+        ParticoesCluster particoes = nos[0].getBean(ParticoesCluster.class);
+        for (int i = 0; ; i++) {
+            if (particoes.dono("inexistente-" + i).equals(no)) {
+                return "inexistente-" + i;
+            }
+        }
+    }
+
+    private BigDecimal saldo(int no, String numeroConta) {
+        return repositorio(no).findByNumeroConta(numeroConta).map(Cliente::getSaldo).orElseThrow();
+    }
+
+    private ClienteRepository repositorio(int no) {
+        return nos[no].getBean(ClienteRepository.class);
+    }
+
+    private HttpResponse<String> get(int no, String caminho) throws Exception {
+        return http.send(HttpRequest.newBuilder(uri(no, caminho)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(int no, String caminho) throws Exception {
+        return http.send(HttpRequest.newBuilder(uri(no, caminho)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> postInterno(int no, String caminho) throws Exception {
+        return http.send(HttpRequest.newBuilder(uri(no, caminho))
+                .header(ClienteCluster.CABECALHO_SEGREDO, SEGREDO)
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(int no, String caminho) {
+        return URI.create("http://localhost:" + portas[no] + caminho);
+    }
+}
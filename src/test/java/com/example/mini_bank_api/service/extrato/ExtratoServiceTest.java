@@ -0,0 +1,265 @@
+package com.example.mini_bank_api.service.extrato;
+
+import com.example.mini_bank_api.dto.PaginaExtrato;
+import com.example.mini_bank_api.dto.SaldoEmInstante;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.Movimento;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.ExtratoDesabilitadoException;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.repository.MovimentoRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:extrato", "mini-bank.extrato.habilitado=true"})
+class ExtratoServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDateTime FIM = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @Autowired
+    private ExtratoService extratoService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MovimentoRepository movimentoRepository;
+
+    @Autowired
+    private ConcorrenciaProperties concorrenciaProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restaurarConfiguracao() {
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.OTIMISTA);
+        concorrenciaProperties.setMaxTentativas(5);
+    }
+
+    @Test
+    void deveRegistrarMovimentosDeCadaOperacaoComSaldoApos() {
+        // Arrange
+        clienteService.cadastrarCliente(new Cliente(null, "Ana", "extrato-1", "001", new BigDecimal("100.00")));
+        clienteService.cadastrarCliente(new Cliente(null, "Bia", "extrato-2", "001", BigDecimal.ZERO));
+
+        // Act
+        clienteService.depositar("extrato-1", new BigDecimal("50.00"));
+        clienteService.sacar("extrato-1", new BigDecimal("20.00"));
+        clienteService.transferir("extrato-1", "extrato-2", new BigDecimal("30.00"));
+
+        // Assert
+        List<Movimento> movimentos = extratoService.buscarPagina("extrato-1", INICIO, FIM, null, 100).getMovimentos();
+        assertEquals(List.of(TipoMovimento.ABERTURA, TipoMovimento.DEPOSITO, TipoMovimento.SAQUE,
+                TipoMovimento.TRANSFERENCIA_ENVIADA), movimentos.stream().map(Movimento::getTipo).toList());
+        assertValores(List.of("100.00", "50.00", "-20.00", "-30.00"),
+                movimentos.stream().map(Movimento::getValor).toList());
+        assertValores(List.of("100.00", "150.00", "130.00", "100.00"),
+                movimentos.stream().map(Movimento::getSaldoApos).toList());
+        assertEquals("extrato-2", movimentos.get(3).getContaContraparte());
+
+        Movimento recebida = extratoService.buscarPagina("extrato-2", INICIO, FIM, null, 100).getMovimentos().get(1);
+        assertEquals(TipoMovimento.TRANSFERENCIA_RECEBIDA, recebida.getTipo());
+        assertEquals(0, new BigDecimal("30.00").compareTo(recebida.getSaldoApos()));
+        assertEquals("extrato-1", recebida.getContaContraparte());
+    }
+
+    @Test
+    void devePaginarPorCursorSemRepetirNemPularMovimentosComMesmaDataHora() {
+        // Arrange: 7 movimentos, 3 deles no mesmo instante
+        clienteRepository.save(new Cliente(null, "Caio", "extrato-3", "001", BigDecimal.ZERO));
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 10, 0);
+        List<LocalDateTime> instantes = List.of(base, base.plusMinutes(1), base.plusMinutes(1), base.plusMinutes(1),
+                base.plusMinutes(2), base.plusMinutes(3), base.plusMinutes(4));
+        List<Long> esperados = new ArrayList<>();
+        for (int i = 0; i < instantes.size(); i++) {
+            esperados.add(gravar("extrato-3", instantes.get(i), BigDecimal.valueOf(i + 1)).getId());
+        }
+
+        // Act: páginas de 2 dentro do período [base + 1min, base + 4min)
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaExtrato pagina = extratoService.buscarPagina("extrato-3", base.plusMinutes(1),
+                    base.plusMinutes(4), cursor, 2);
+            pagina.getMovimentos().forEach(movimento -> lidos.add(movimento.getId()));
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(esperados.subList(1, 6), lidos);
+        assertEquals(3, paginas);
+    }
+
+    @Test
+    void deveInformarSaldoEmInstantesPassados() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Davi", "extrato-4", "001", BigDecimal.ZERO));
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 12, 0);
+        gravar("extrato-4", base, new BigDecimal("10.00"));
+        Movimento segundo = gravar("extrato-4", base.plusDays(1), new BigDecimal("25.00"));
+        gravar("extrato-4", base.plusDays(2), new BigDecimal("5.00"));
+
+        // Act
+        SaldoEmInstante antes = extratoService.buscarSaldoEm("extrato-4", base.minusSeconds(1));
+        SaldoEmInstante exato = extratoService.buscarSaldoEm("extrato-4", base.plusDays(1));
+        SaldoEmInstante entre = extratoService.buscarSaldoEm("extrato-4", base.plusDays(1).plusHours(5));
+
+        // Assert
+        assertEquals(0, BigDecimal.ZERO.compareTo(antes.getSaldo()));
+        assertNull(antes.getMovimentoId());
+        assertEquals(0, new BigDecimal("25.00").compareTo(exato.getSaldo()));
+        assertEquals(segundo.getId(), entre.getMovimentoId());
+        assertEquals(0, new BigDecimal("25.00").compareTo(entre.getSaldo()));
+    }
+
+    @Test
+    void deveRejeitarContaInexistentePeriodoECursorInvalidos() {
+        // Act & Assert
+        assertThrows(ClienteNotFoundException.class,
+                () -> extratoService.buscarPagina("extrato-inexistente", INICIO, FIM, null, 10));
+        assertThrows(ClienteNotFoundException.class,
+                () -> extratoService.buscarSaldoEm("extrato-inexistente", FIM));
+        assertThrows(ValorInvalidoException.class,
+                () -> extratoService.buscarPagina("extrato-1", FIM, INICIO, null, 10));
+        assertThrows(ValorInvalidoException.class,
+                () -> extratoService.buscarPagina("extrato-1", INICIO, FIM, "cursor-invalido", 10));
+    }
+
+    @Test
+    void deveRecusarConsultasComOExtratoDesabilitado() {
+        // Arrange: sem movimentos gravados, um extrato vazio ou um saldo zero seriam enganosos
+        ExtratoService desabilitado = new ExtratoService(movimentoRepository, clienteRepository,
+                new ExtratoProperties());
+
+        // Act & Assert
+        assertThrows(ExtratoDesabilitadoException.class,
+                () -> desabilitado.buscarPagina("extrato-1", INICIO, FIM, null, 10));
+        assertThrows(ExtratoDesabilitadoException.class,
+                () -> desabilitado.validarConsulta("extrato-1", INICIO, FIM));
+        assertThrows(ExtratoDesabilitadoException.class,
+                () -> desabilitado.buscarSaldoEm("extrato-1", FIM));
+    }
+
+    @Test
+    void devePercorrerPeriodoEmStreaming() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Eva", "extrato-5", "001", BigDecimal.ZERO));
+        LocalDateTime base = LocalDateTime.of(2024, 7, 1, 0, 0);
+        for (int i = 0; i < 50; i++) {
+            gravar("extrato-5", base.plusHours(i), BigDecimal.valueOf(i));
+        }
+
+        // Act
+        List<BigDecimal> saldos = new ArrayList<>();
+        long total = extratoService.percorrerPeriodo("extrato-5", base.plusHours(10), base.plusHours(20),
+                movimento -> saldos.add(movimento.getSaldoApos()));
+
+        // Assert
+        assertEquals(10, total);
+        assertEquals(0, BigDecimal.TEN.compareTo(saldos.get(0)));
+    }
+
+    @Test
+    void deveLerExtratoESaldoNaOrdemDosIndices() {
+        // Act: as mesmas formas de consulta do MovimentoRepository
+        String planoExtrato = jdbcTemplate.queryForObject("explain select * from movimentos "
+                + "where numero_conta = 'x' and data_hora >= localtimestamp and data_hora < localtimestamp "
+                + "order by numero_conta, data_hora, id fetch first 100 rows only", String.class);
+        String planoSaldo = jdbcTemplate.queryForObject("explain select * from movimentos "
+                + "where numero_conta = 'x' and data_hora <= localtimestamp "
+                + "order by numero_conta, data_hora desc, id desc fetch first 1 rows only", String.class);
+
+        // Assert: sem ordenação à parte, a leitura para no limite da página
+        assertTrue(planoExtrato.contains("IDX_MOVIMENTOS_CONTA_DATA:") && planoExtrato.contains("index sorted"),
+                planoExtrato);
+        assertTrue(planoSaldo.contains("IDX_MOVIMENTOS_CONTA_DATA_DESC") && planoSaldo.contains("index sorted"),
+                planoSaldo);
+    }
+
+    // Em todas as estratégias, a ordem do extrato é a ordem em que os saldos foram alterados
+    @ParameterizedTest
+    @EnumSource(EstrategiaConcorrencia.class)
+    void deveManterSaldosDoExtratoEmOrdemSobConcorrencia(EstrategiaConcorrencia estrategia) throws Exception {
+        // Arrange
+        concorrenciaProperties.setEstrategia(estrategia);
+        concorrenciaProperties.setMaxTentativas(1_000);
+        String numeroConta = "extrato-concorrente-" + estrategia;
+        clienteService.cadastrarCliente(new Cliente(null, "Fabio", numeroConta, "001", BigDecimal.ZERO));
+        int threads = 4;
+        int depositosPorThread = 25;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futuros = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < depositosPorThread; i++) {
+                    clienteService.depositar(numeroConta, BigDecimal.ONE);
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert: após a abertura, o saldo sobe exatamente 1 a cada movimento
+        List<Movimento> movimentos = extratoService.buscarPagina(numeroConta, INICIO, FIM, null, 1000)
+                .getMovimentos();
+        assertEquals(threads * depositosPorThread + 1, movimentos.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < movimentos.size(); i++) {
+            assertEquals(0, BigDecimal.valueOf(i).compareTo(movimentos.get(i).getSaldoApos()),
+                    "Movimento " + i + " com saldo " + movimentos.get(i).getSaldoApos());
+            assertTrue(ids.add(movimentos.get(i).getId()));
+        }
+    }
+
+    private Movimento gravar(String numeroConta, LocalDateTime dataHora, BigDecimal saldoApos) {
+        return movimentoRepository.save(new Movimento(null, numeroConta, dataHora, TipoMovimento.DEPOSITO,
+                BigDecimal.ONE, saldoApos, null));
+    }
+
+    private static void assertValores(List<String> esperados, List<BigDecimal> valores) {
+        assertEquals(esperados.size(), valores.size());
+        for (int i = 0; i < esperados.size(); i++) {
+            assertEquals(0, new BigDecimal(esperados.get(i)).compareTo(valores.get(i)),
+                    "Esperado " + esperados.get(i) + " e recebido " + valores.get(i));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.mini_bank_api.service.fila;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.idempotencia.IdempotenciaProperties;
+import com.example.mini_bank_api.service.journal.JournalTransacoes;
+import com.example.mini_bank_api.service.journal.RegistroJournal;
+import com.example.mini_bank_api.service.journal.TipoOperacao;
+import com.example.mini_bank_api.service.ledger.LedgerProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Modo filas por conta: pedidos de uma conta disputada são aplicados em lotes por um único escritor
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"mini-bank.filas.habilitado=true", "spring.datasource.url=jdbc:h2:mem:filas",
+                "mini-bank.journal.habilitado=true", "mini-bank.journal.diretorio=target/journal-filas"})
+class FilasContasTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JournalTransacoes journalTransacoes;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @LocalServerPort
+    private int porta;
+
+    @Test
+    void deveAplicarDepositosConcorrentesNaMesmaContaEmLotes() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Loja", "fila-quente", "001", BigDecimal.ZERO));
+        DistributionSummary lotes = meterRegistry.get("minibank.filas.lote.tamanho").summary();
+        long lotesAntes = lotes.count();
+        int depositos = 2_000;
+
+        // Act
+        List<CompletableFuture<Cliente>> resultados = new ArrayList<>(depositos);
+        for (int i = 0; i < depositos; i++) {
+            resultados.add(clienteService.depositarAssincrono("fila-quente", BigDecimal.ONE));
+        }
+        CompletableFuture.allOf(resultados.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        // Assert: cada resposta traz o saldo logo após o seu depósito, e o banco tem a soma de todos
+        assertEquals(0, new BigDecimal("2000.00").compareTo(
+                clienteRepository.findByNumeroConta("fila-quente").orElseThrow().getSaldo()));
+        assertEquals(depositos, resultados.stream().map(CompletableFuture::join).map(Cliente::getSaldo).distinct()
+                .count());
+        long transacoes = lotes.count() - lotesAntes;
+        log.atDebug().log(() -> String.format("%d depósitos aplicados em %d transações", depositos, transacoes));
+        assertTrue(transacoes < depositos, "Transações: " + transacoes);
+    }
+
+    @Test
+    void deveRejeitarSomenteOSaqueSemSaldoDoLote() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Ana", "fila-saque", "001", new BigDecimal("10.00")));
+
+        // Act
+        CompletableFuture<Cliente> primeiro = clienteService.sacarAssincrono("fila-saque", new BigDecimal("8.00"));
+        CompletableFuture<Cliente> semSaldo = clienteService.sacarAssincrono("fila-saque", new BigDecimal("5.00"));
+        CompletableFuture<Cliente> deposito = clienteService.depositarAssincrono("fila-saque", new BigDecimal("1.50"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("2.00").compareTo(primeiro.get(10, TimeUnit.SECONDS).getSaldo()));
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> semSaldo.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(SaldoInsuficienteException.class, erro.getCause());
+        assertEquals(0, new BigDecimal("3.50").compareTo(deposito.get(10, TimeUnit.SECONDS).getSaldo()));
+        assertEquals(0, new BigDecimal("3.50").compareTo(
+                clienteRepository.findByNumeroConta("fila-saque").orElseThrow().getSaldo()));
+    }
+
+    @Test
+    void deveRegistrarNoJournalOsPedidosConfirmadosAntesDeConcluir() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Caio", "fila-journal", "001", new BigDecimal("10.00")));
+        long antes = journalTransacoes.getSequencia();
+
+        // Act
+        CompletableFuture<Cliente> deposito = clienteService.depositarAssincrono("fila-journal", new BigDecimal("5.00"));
+        CompletableFuture<Cliente> semSaldo = clienteService.sacarAssincrono("fila-journal", new BigDecimal("50.00"));
+        deposito.get(10, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class, () -> semSaldo.get(10, TimeUnit.SECONDS));
+
+        // Assert: o futuro só é concluído com o registro já no journal; o saque recusado não é registrado
+        List<RegistroJournal> registros = new ArrayList<>();
+        journalTransacoes.reproduzir(registro -> {
+            if (registro.sequencia() > antes) {
+                registros.add(registro);
+            }
+        });
+        assertEquals(1, registros.size());
+        assertEquals(TipoOperacao.DEPOSITO, registros.get(0).tipo());
+        assertEquals("fila-journal", registros.get(0).contaOrigem());
+        assertEquals(new BigDecimal("15.00"), registros.get(0).saldoOrigem());
+    }
+
+    @Test
+    void deveFalharPedidoDeContaInexistente() {
+        // Act
+        CompletableFuture<Cliente> resultado = clienteService.depositarAssincrono("fila-inexistente", BigDecimal.ONE);
+
+        // Assert
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> resultado.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(ClienteNotFoundException.class, erro.getCause());
+    }
+
+    @Test
+    void deveRecusarASubidaComIdempotenciaPersistida() {
+        // Arrange
+        FilasContasProperties filasProperties = new FilasContasProperties();
+        filasProperties.setHabilitado(true);
+        IdempotenciaProperties idempotenciaProperties = new IdempotenciaProperties();
+        idempotenciaProperties.setPersistir(true);
+
+        LedgerProperties ledgerProperties = new LedgerProperties();
+
+        // Act & Assert: recusada antes de usar qualquer outra dependência; com o ledger as filas não são usadas
+        assertThrows(IllegalStateException.class, () -> new FilasContas(filasProperties, null, null, null, null,
+                null, null, idempotenciaProperties, ledgerProperties, null));
+        ledgerProperties.setHabilitado(true);
+        assertDoesNotThrow(() -> new FilasContas(filasProperties, null, null, null, null, null, null,
+                idempotenciaProperties, ledgerProperties, null));
+    }
+
+    @Test
+    void deveResponderPelaApiDeFormaAssincrona() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Bia", "fila-http", "001", new BigDecimal("1.00")));
+        HttpClient http = HttpClient.newHttpClient();
+        String base = "http://localhost:" + porta + "/api/clientes/";
+
+        // Act
+        HttpResponse<String> deposito = http.send(HttpRequest.newBuilder(URI.create(base + "fila-http/deposito?valor=2"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> semSaldo = http.send(HttpRequest.newBuilder(URI.create(base + "fila-http/saque?valor=50"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> inexistente = http.send(HttpRequest.newBuilder(URI.create(base + "nao-existe/saque?valor=1"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(200, deposito.statusCode());
+        assertTrue(deposito.body().contains("\"saldo\":3.00"), deposito.body());
+        assertEquals(400, semSaldo.statusCode());
+        assertEquals(404, inexistente.statusCode());
+    }
+
+    @Test
+    void deveAtenderDepositoESaqueComOsHandlersDaFila() {
+        // Act
+        List<String> handlers = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(rota -> rota.getKey().getPatternValues().stream()
+                        .anyMatch(padrao -> padrao.endsWith("/deposito") || padrao.endsWith("/saque")))
+                .map(rota -> rota.getValue().getBeanType().getSimpleName() + "."
+                        + rota.getValue().getMethod().getName())
+                .sorted()
+                .toList();
+
+        // Assert: o controller síncrono só existe fora do modo filas
+        assertEquals(List.of("DepositoSaqueFilasController.depositar", "DepositoSaqueFilasController.sacar"),
+                handlers);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mini_bank_api.service.filtro;
+
+import com.example.mini_bank_api.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FiltroContasTest {
+
+    private static final int CONTAS = 100_000;
+
+    private final ClienteRepository clienteRepository = mock(ClienteRepository.class);
+
+    @Test
+    void deveConsiderarQueTodaContaPodeExistirAntesDaReconstrucao() {
+        // Arrange
+        FiltroContas filtro = novoFiltro(true);
+
+        // Act & Assert
+        assertFalse(filtro.isPronto());
+        assertTrue(filtro.talvezExista("nunca-cadastrada"));
+    }
+
+    @Test
+    void deveReconstruirDaTabelaSemFalsosNegativos() {
+        // Arrange
+        when(clienteRepository.streamNumerosConta())
+                .thenReturn(IntStream.range(0, CONTAS).mapToObj(i -> "conta-" + i));
+        FiltroContas filtro = novoFiltro(true);
+
+        // Act
+        filtro.reconstruir();
+        filtro.adicionar("cadastrada-depois");
+
+        // Assert
+        assertTrue(filtro.isPronto());
+        for (int i = 0; i < CONTAS; i++) {
+            assertTrue(filtro.talvezExista("conta-" + i));
+        }
+        assertTrue(filtro.talvezExista("cadastrada-depois"));
+    }
+
+    @Test
+    void deveDescartarQuaseTodosOsNumerosNovosNaCapacidadePrevista() {
+        // Arrange: filtro de 1% cheio até a capacidade
+        when(clienteRepository.streamNumerosConta())
+                .thenReturn(IntStream.range(0, CONTAS).mapToObj(i -> "conta-" + i));
+        FiltroContas filtro = novoFiltro(true);
+        filtro.reconstruir();
+
+        // Act
+        long falsosPositivos = IntStream.range(0, CONTAS)
+                .filter(i -> filtro.talvezExista("nova-" + i))
+                .count();
+
+        // Assert
+        double taxa = (double) falsosPositivos / CONTAS;
+        assertTrue(taxa < 0.015, "Taxa de falsos positivos " + taxa);
+        assertEquals(0.01, filtro.getTaxaFalsosPositivosEstimada(), 0.005);
+    }
+
+    @Test
+    void deveFicarSemEfeitoQuandoAReconstrucaoFalha() {
+        // Arrange
+        when(clienteRepository.streamNumerosConta()).thenReturn(Stream.of("conta-1")
+                .map(numero -> {
+                    throw new IllegalStateException("banco fora do ar");
+                }));
+        FiltroContas filtro = novoFiltro(true);
+
+        // Act
+        filtro.reconstruir();
+
+        // Assert
+        assertFalse(filtro.isPronto());
+        assertTrue(filtro.talvezExista("qualquer"));
+    }
+
+    @Test
+    void naoDeveDescartarNadaQuandoDesabilitado() {
+        // Arrange
+        FiltroContas filtro = novoFiltro(false);
+
+        // Act
+        filtro.reconstruirEmSegundoPlano();
+
+        // Assert
+        assertTrue(filtro.talvezExista("qualquer"));
+    }
+
+    private FiltroContas novoFiltro(boolean habilitado) {
+        FiltroContasProperties properties = new FiltroContasProperties();
+        properties.setHabilitado(habilitado);
+        properties.setCapacidade(CONTAS);
+        return new FiltroContas(properties, clienteRepository, mock(PlatformTransactionManager.class));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.mini_bank_api.service.idempotencia;
+
+import com.example.mini_bank_api.entity.ChaveIdempotencia;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ChaveIdempotenciaReutilizadaException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.repository.ChaveIdempotenciaRepository;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Chaves gravadas no banco: a repetição vale mesmo depois que o registro em memória é perdido (reinício)
+// Banco próprio: outro contexto no mesmo banco em memória recriaria as tabelas e as sequências de ids
+@SpringBootTest(properties = {
+        "mini-bank.idempotencia.persistir=true",
+        "spring.datasource.url=jdbc:h2:mem:idempotencia-persistencia"
+})
+class RegistroIdempotenciaPersistenciaTest {
+
+    @Autowired
+    private RegistroIdempotencia registroIdempotencia;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Autowired
+    private IdempotenciaProperties idempotenciaProperties;
+
+    @Autowired
+    private ConcorrenciaProperties concorrenciaProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deveRepetirRespostaGravadaAposPerderORegistroEmMemoria() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Ana", "idem-1", "001", new BigDecimal("100.00")));
+        Cliente original = registroIdempotencia.executar("idem-chave-1", "deposito:idem-1:50", Cliente.class,
+                () -> clienteService.depositar("idem-1", new BigDecimal("50"))).corpo();
+
+        // Act
+        registroIdempotencia.limpar();
+        RespostaIdempotente<Cliente> repetida = registroIdempotencia.executar("idem-chave-1", "deposito:idem-1:50",
+                Cliente.class, () -> clienteService.depositar("idem-1", new BigDecimal("50")));
+
+        // Assert
+        assertTrue(repetida.repetida());
+        assertEquals(original, repetida.corpo());
+        assertEquals(0, new BigDecimal("150.00").compareTo(
+                clienteRepository.findByNumeroConta("idem-1").orElseThrow().getSaldo()));
+        assertThrows(ChaveIdempotenciaReutilizadaException.class, () -> {
+            registroIdempotencia.limpar();
+            registroIdempotencia.executar("idem-chave-1", "deposito:idem-1:60", Cliente.class,
+                    () -> clienteService.depositar("idem-1", new BigDecimal("60")));
+        });
+    }
+
+    @Test
+    void naoDeveGravarChaveQuandoOperacaoFalha() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Bia", "idem-2", "001", new BigDecimal("10.00")));
+
+        // Act
+        assertThrows(SaldoInsuficienteException.class, () -> registroIdempotencia.executar("idem-chave-2",
+                "saque:idem-2:50", Cliente.class, () -> clienteService.sacar("idem-2", new BigDecimal("50"))));
+
+        // Assert
+        assertFalse(chaveIdempotenciaRepository.existsById("idem-chave-2"));
+    }
+
+    @Test
+    void deveRepetirATransacaoInteiraEmConflitoDeVersao() {
+        // Arrange: a primeira tentativa perde para um escritor concorrente
+        clienteRepository.save(new Cliente(null, "Caio", "idem-3", "001", new BigDecimal("10.00")));
+        AtomicInteger tentativas = new AtomicInteger();
+
+        // Act
+        RespostaIdempotente<Cliente> resposta = registroIdempotencia.executar("idem-chave-3", "deposito:idem-3:5",
+                Cliente.class, () -> {
+                    Cliente cliente = clienteService.depositar("idem-3", new BigDecimal("5"));
+                    if (tentativas.incrementAndGet() == 1) {
+                        throw new ObjectOptimisticLockingFailureException(Cliente.class, cliente.getId());
+                    }
+                    return cliente;
+                });
+
+        // Assert: só o depósito da segunda tentativa ficou, com a chave gravada junto
+        assertEquals(2, tentativas.get());
+        assertFalse(resposta.repetida());
+        assertEquals(0, new BigDecimal("15.00").compareTo(
+                clienteRepository.findByNumeroConta("idem-3").orElseThrow().getSaldo()));
+        assertTrue(chaveIdempotenciaRepository.existsById("idem-chave-3"));
+    }
+
+    @Test
+    void naoDeveAplicarDuasVezesQuandoOutraInstanciaGravaAChaveDepoisDaConsulta() {
+        // Arrange: outra instância, no mesmo banco, executa e confirma a mesma chave entre a consulta desta
+        // instância e a gravação da chave
+        clienteRepository.save(new Cliente(null, "Davi", "idem-4", "001", new BigDecimal("10.00")));
+        RegistroIdempotencia outraInstancia = new RegistroIdempotencia(idempotenciaProperties,
+                chaveIdempotenciaRepository, concorrenciaProperties, transactionManager);
+        AtomicBoolean consultada = new AtomicBoolean();
+        ChaveIdempotenciaRepository repositorio = mock(ChaveIdempotenciaRepository.class,
+                delegatesTo(chaveIdempotenciaRepository));
+        doAnswer(invocacao -> {
+            if (consultada.compareAndSet(false, true)) {
+                outraInstancia.executar("idem-chave-4", "deposito:idem-4:5", Cliente.class,
+                        () -> clienteService.depositar("idem-4", new BigDecimal("5")));
+                return Optional.empty();
+            }
+            return chaveIdempotenciaRepository.findById(invocacao.getArgument(0));
+        }).when(repositorio).findById(any());
+        RegistroIdempotencia registro = new RegistroIdempotencia(idempotenciaProperties, repositorio,
+                concorrenciaProperties, transactionManager);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        // Act
+        RespostaIdempotente<Cliente> resposta = registro.executar("idem-chave-4", "deposito:idem-4:5",
+                Cliente.class, () -> {
+                    execucoes.incrementAndGet();
+                    return clienteService.depositar("idem-4", new BigDecimal("5"));
+                });
+
+        // Assert: a chave recusada antes da operação, que nem chegou a executar aqui
+        assertTrue(resposta.repetida());
+        assertEquals(0, execucoes.get());
+        assertEquals(0, new BigDecimal("15.00").compareTo(
+                clienteRepository.findByNumeroConta("idem-4").orElseThrow().getSaldo()));
+    }
+
+    @Test
+    void deveExecutarDeNovoComUmaChaveVencidaAindaNaoApagada() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Eva", "idem-5", "001", new BigDecimal("10.00")));
+        chaveIdempotenciaRepository.save(new ChaveIdempotencia("idem-chave-5", "deposito:idem-5:5", "{}",
+                LocalDateTime.now().minusHours(25)));
+
+        // Act
+        RespostaIdempotente<Cliente> resposta = registroIdempotencia.executar("idem-chave-5", "deposito:idem-5:5",
+                Cliente.class, () -> clienteService.depositar("idem-5", new BigDecimal("5")));
+
+        // Assert
+        assertFalse(resposta.repetida());
+        assertEquals(0, new BigDecimal("15.00").compareTo(
+                clienteRepository.findByNumeroConta("idem-5").orElseThrow().getSaldo()));
+        assertTrue(chaveIdempotenciaRepository.findById("idem-chave-5").orElseThrow().getCriadaEm()
+                .isAfter(LocalDateTime.now().minusHours(1)));
+    }
+
+    @Test
+    void deveApagarChavesGravadasHaMaisQueOTtl() {
+        // Arrange
+        chaveIdempotenciaRepository.save(new ChaveIdempotencia("idem-vencida", "deposito:idem-x:1", "{}",
+                LocalDateTime.now().minusHours(25)));
+        chaveIdempotenciaRepository.save(new ChaveIdempotencia("idem-recente", "deposito:idem-x:1", "{}",
+                LocalDateTime.now().minusHours(1)));
+
+        // Act
+        int apagadas = registroIdempotencia.limparGravadas();
+
+        // Assert
+        assertTrue(apagadas >= 1);
+        assertFalse(chaveIdempotenciaRepository.existsById("idem-vencida"));
+        assertTrue(chaveIdempotenciaRepository.existsById("idem-recente"));
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.mini_bank_api.service.idempotencia;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.exception.ChaveIdempotenciaReutilizadaException;
+import com.example.mini_bank_api.exception.RequisicaoEmAndamentoException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.repository.ChaveIdempotenciaRepository;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@Slf4j
+class RegistroIdempotenciaTest {
+
+    private IdempotenciaProperties idempotenciaProperties;
+
+    private final AtomicLong agoraNanos = new AtomicLong();
+
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    private RegistroIdempotencia registro;
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaProperties = new IdempotenciaProperties();
+        idempotenciaProperties.setTtl(Duration.ofMinutes(10));
+        idempotenciaProperties.setTempoMaximoEspera(Duration.ofSeconds(5));
+        registro = criarRegistro();
+    }
+
+    @Test
+    void deveDevolverRespostaOriginalSemExecutarNovamente() {
+        // Act
+        RespostaIdempotente<String> primeira = registro.executar("k1", "deposito:1:10", String.class, this::operacao);
+        RespostaIdempotente<String> repetida = registro.executar("k1", "deposito:1:10", String.class, this::operacao);
+
+        // Assert
+        assertFalse(primeira.repetida());
+        assertTrue(repetida.repetida());
+        assertEquals(primeira.corpo(), repetida.corpo());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void deveRepetirRespostaDaContaComTodosOsCampos() {
+        // Arrange
+        ClienteResposta conta = new ClienteResposta(7L, "Ana", "12345", "001", new BigDecimal("100.50"), 3L);
+
+        // Act
+        registro.executar("k1", "deposito:12345:10", ClienteResposta.class, () -> conta);
+        RespostaIdempotente<ClienteResposta> repetida = registro.executar("k1", "deposito:12345:10",
+                ClienteResposta.class, () -> fail("Operação executada de novo"));
+
+        // Assert
+        assertTrue(repetida.repetida());
+        assertEquals(conta, repetida.corpo());
+    }
+
+    @Test
+    void deveFazerDuplicataConcorrenteEsperarPelaOriginal() throws Exception {
+        // Arrange
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        Future<RespostaIdempotente<String>> original = executor.submit(() ->
+                registro.executar("k1", "saque:1:5", String.class, () -> {
+                    iniciou.countDown();
+                    aguardar(liberar);
+                    return operacao();
+                }));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+        Future<RespostaIdempotente<String>> duplicata = executor.submit(() ->
+                registro.executar("k1", "saque:1:5", String.class, this::operacao));
+        Thread.sleep(100);
+        assertFalse(duplicata.isDone());
+        liberar.countDown();
+
+        // Assert
+        assertEquals(original.get(5, TimeUnit.SECONDS).corpo(), duplicata.get(5, TimeUnit.SECONDS).corpo());
+        assertTrue(duplicata.get().repetida());
+        assertEquals(1, execucoes.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void deveResponderEmAndamentoQuandoOriginalDemoraMaisQueOLimite() throws Exception {
+        // Arrange
+        idempotenciaProperties.setTempoMaximoEspera(Duration.ofMillis(50));
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<RespostaIdempotente<String>> original = executor.submit(() ->
+                registro.executar("k1", "saque:1:5", String.class, () -> {
+                    iniciou.countDown();
+                    aguardar(liberar);
+                    return operacao();
+                }));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(RequisicaoEmAndamentoException.class,
+                () -> registro.executar("k1", "saque:1:5", String.class, this::operacao));
+        liberar.countDown();
+        assertFalse(original.get(5, TimeUnit.SECONDS).repetida());
+        assertEquals(1, execucoes.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void deveRejeitarMesmaChaveComOutraAssinatura() {
+        // Arrange
+        registro.executar("k1", "deposito:1:10", String.class, this::operacao);
+
+        // Act & Assert
+        assertThrows(ChaveIdempotenciaReutilizadaException.class,
+                () -> registro.executar("k1", "deposito:1:20", String.class, this::operacao));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void deveLiberarChaveQuandoOperacaoFalha() {
+        // Arrange
+        assertThrows(SaldoInsuficienteException.class, () -> registro.executar("k1", "saque:1:5", String.class,
+                () -> {
+                    throw new SaldoInsuficienteException("Saldo insuficiente");
+                }));
+
+        // Act
+        RespostaIdempotente<String> resposta = registro.executar("k1", "saque:1:5", String.class, this::operacao);
+
+        // Assert
+        assertFalse(resposta.repetida());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void deveExpirarChavesAposTtl() {
+        // Arrange
+        registro.executar("k1", "deposito:1:10", String.class, this::operacao);
+
+        // Act
+        agoraNanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        RespostaIdempotente<String> resposta = registro.executar("k1", "deposito:1:10", String.class, this::operacao);
+
+        // Assert
+        assertFalse(resposta.repetida());
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void deveDespejarChavesAlemDoTamanhoMaximo() {
+        // Arrange
+        idempotenciaProperties.setTamanhoMaximo(100);
+        registro = criarRegistro();
+
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            registro.executar("k" + i, "deposito:1:1", String.class, this::operacao);
+        }
+
+        // Assert
+        assertTrue(registro.getQuantidadeChaves() <= 100, "Chaves retidas: " + registro.getQuantidadeChaves());
+    }
+
+    @Test
+    @Tag("lento")
+    void deveOcuparMemoriaLimitadaPorChave() {
+        // Arrange
+        int total = 100_000;
+        idempotenciaProperties.setTamanhoMaximo(total);
+        registro = criarRegistro();
+        long memoriaInicial = memoriaRetida();
+
+        // Act: chaves no formato de um UUID, respostas de tamanho semelhante ao de uma transferência
+        for (int i = 0; i < total; i++) {
+            registro.executar(String.format("%08x-0000-4000-8000-%012x", i, i), "deposito:" + i + ":10",
+                    String.class, this::operacao);
+        }
+        long bytesPorChave = (memoriaRetida() - memoriaInicial) / total;
+
+        // Assert
+        log.atDebug().log(() -> String.format(
+                "%d chaves de idempotência: ~%d bytes por chave", registro.getQuantidadeChaves(),
+                bytesPorChave));
+        assertEquals(total, registro.getQuantidadeChaves());
+        assertTrue(bytesPorChave < 1024, "Bytes por chave: " + bytesPorChave);
+    }
+
+    private String operacao() {
+        return "Transferência realizada com sucesso #" + execucoes.incrementAndGet();
+    }
+
+    private RegistroIdempotencia criarRegistro() {
+        Ticker ticker = agoraNanos::get;
+        return new RegistroIdempotencia(idempotenciaProperties, mock(ChaveIdempotenciaRepository.class),
+                new ConcorrenciaProperties(), mock(PlatformTransactionManager.class), ticker);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long memoriaRetida() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
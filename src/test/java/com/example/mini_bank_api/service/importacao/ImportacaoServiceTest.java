@@ -0,0 +1,244 @@
+package com.example.mini_bank_api.service.importacao;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.dto.ResultadoImportacao;
+import com.example.mini_bank_api.dto.ResultadoItemLote;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.repository.MovimentoRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.filtro.FiltroContas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:extrato", "mini-bank.extrato.habilitado=true"})
+class ImportacaoServiceTest {
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MovimentoRepository movimentoRepository;
+
+    @Autowired
+    private ImportacaoProperties importacaoProperties;
+
+    @Autowired
+    private FiltroContas filtroContas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restaurarConfiguracao() {
+        importacaoProperties.setTamanhoLote(1000);
+    }
+
+    @Test
+    void deveImportarCsvERejeitarLinhasInvalidasSemInterromper() {
+        // Arrange
+        clienteService.cadastrarCliente(new Cliente(null, "Existente", "imp-existente", "001", BigDecimal.ZERO));
+        String csv = """
+                nome,numeroConta,agencia,saldo
+                Ana,imp-1,001,100.50
+                "Silva, Bia \"\"B\"\"",imp-2,,0
+                Caio,imp-existente,001,10
+                Duda,imp-1,001,5
+                ,imp-3,001,5
+                Eva,imp-4,001,abc
+                Fábio,imp-5,001,1.999
+                Gil,imp-6,001
+                "Hugo
+                Neto",imp-7,002,-1
+                Iara,imp-8,002,
+                """;
+
+        // Act
+        ResultadoImportacao resultado = importacaoService.importar(csv(csv), FormatoArquivo.CSV);
+
+        // Assert
+        assertEquals(3, resultado.getTotalImportado());
+        assertEquals(7, resultado.getTotalRejeitado());
+        Map<Integer, String> erros = new HashMap<>();
+        resultado.getErros().forEach(erro -> erros.put(erro.getIndice(), erro.getMensagem()));
+        assertEquals("Número da conta já existe", erros.get(2));
+        assertEquals("Número da conta repetido no arquivo", erros.get(3));
+        assertEquals("Nome é obrigatório", erros.get(4));
+        assertEquals("Saldo inválido: abc", erros.get(5));
+        assertEquals("Valor deve ter no máximo 2 casas decimais", erros.get(6));
+        assertTrue(erros.get(7).startsWith("Linha deve ter 4 campos"));
+        assertEquals("Saldo inicial não pode ser negativo", erros.get(8));
+
+        ClienteResposta bia = clienteService.buscarPorNumeroConta("imp-2");
+        assertEquals("Silva, Bia \"B\"", bia.nome());
+        assertNull(bia.agencia());
+        assertEquals(0, new BigDecimal("100.50").compareTo(clienteService.buscarPorNumeroConta("imp-1").saldo()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(clienteService.buscarPorNumeroConta("imp-8").saldo()));
+        assertEquals(TipoMovimento.ABERTURA,
+                movimentoRepository.findFirstByNumeroContaAndDataHoraLessThanEqualOrderByNumeroContaAscDataHoraDescIdDesc(
+                        "imp-1", LocalDateTime.now()).orElseThrow().getTipo());
+    }
+
+    @Test
+    void deveRejeitarNumeroRepetidoEmLotesDiferentesDoMesmoArquivo() {
+        // Arrange: a repetição cai no lote seguinte e só é vista pela consulta ao banco
+        importacaoProperties.setTamanhoLote(2);
+        String csv = """
+                nome,numeroConta,agencia,saldo
+                Ana,imp-lote-1,001,1
+                Bia,imp-lote-2,001,2
+                Caio,imp-lote-1,001,3
+                Duda,imp-lote-3,001,4
+                Eva,imp-lote-4,001,5
+                """;
+
+        // Act
+        ResultadoImportacao resultado = importacaoService.importar(csv(csv), FormatoArquivo.CSV);
+
+        // Assert
+        assertEquals(4, resultado.getTotalImportado());
+        assertEquals(List.of(ResultadoItemLote.erro(2, "Número da conta já existe")), resultado.getErros());
+        assertEquals("Ana", clienteService.buscarPorNumeroConta("imp-lote-1").nome());
+        assertEquals(0, new BigDecimal("5").compareTo(clienteService.buscarPorNumeroConta("imp-lote-4").saldo()));
+    }
+
+    @Test
+    void deveRejeitarContaGravadaPorForaDoFiltro() {
+        // Arrange: a conta entra direto na tabela depois da reconstrução, então o filtro a descarta
+        filtroContas.reconstruir();
+        jdbcTemplate.update("insert into clientes (id, nome, numero_conta, agencia, saldo, versao) "
+                + "values (next value for clientes_seq, 'Externa', 'imp-externa', '001', 0, 0)");
+        assertFalse(filtroContas.talvezExista("imp-externa"));
+        String csv = """
+                nome,numeroConta,agencia,saldo
+                Ana,imp-externa,001,1
+                Bia,imp-filtro-1,001,2
+                """;
+
+        // Act: o índice único desfaz o lote e a nova tentativa confere todos os números no banco
+        ResultadoImportacao resultado = importacaoService.importar(csv(csv), FormatoArquivo.CSV);
+
+        // Assert
+        assertEquals(1, resultado.getTotalImportado());
+        assertEquals(List.of(ResultadoItemLote.erro(0, "Número da conta já existe")), resultado.getErros());
+        assertEquals("Externa", clienteService.buscarPorNumeroConta("imp-externa").nome());
+        assertTrue(filtroContas.talvezExista("imp-filtro-1"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoArquivo.class)
+    void deveLerNaImportacaoOQueAExportacaoEscreveu(FormatoArquivo formato) throws IOException {
+        // Arrange
+        String prefixo = "imp-exp-" + formato.name() + "-";
+        clienteService.cadastrarCliente(new Cliente(null, "Ana, \"A\"\nSilva", prefixo + "1", "001",
+                new BigDecimal("1234567.89")));
+        clienteService.cadastrarCliente(new Cliente(null, "Bia çãé", prefixo + "2", null, BigDecimal.ZERO));
+
+        // Act
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long exportados = importacaoService.exportar(saida, formato);
+        List<Cliente> lidos = new ArrayList<>();
+        try (LeitorClientes leitor = formato.leitor(new ByteArrayInputStream(saida.toByteArray()))) {
+            Cliente cliente;
+            while ((cliente = leitor.ler()) != null) {
+                lidos.add(cliente);
+            }
+        }
+
+        // Assert
+        assertEquals(clienteRepository.count(), exportados);
+        assertEquals(exportados, lidos.size());
+        for (ClienteResposta esperado : List.of(clienteService.buscarPorNumeroConta(prefixo + "1"),
+                clienteService.buscarPorNumeroConta(prefixo + "2"))) {
+            Cliente lido = lidos.stream()
+                    .filter(cliente -> cliente.getNumeroConta().equals(esperado.numeroConta()))
+                    .findFirst().orElseThrow();
+            assertEquals(esperado.nome(), lido.getNome());
+            assertEquals(esperado.agencia(), lido.getAgencia());
+            assertEquals(0, esperado.saldo().compareTo(lido.getSaldo()));
+        }
+    }
+
+    @Test
+    void deveImportarArquivoBinarioComIdsDistintos() throws IOException {
+        // Arrange
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (EscritorClientes escritor = FormatoArquivo.BINARIO.escritor(saida)) {
+            for (int i = 0; i < 120; i++) {
+                escritor.escrever(new ClienteResposta(null, "Cliente " + i, "imp-bin-" + i, "003",
+                        new BigDecimal(i), null));
+            }
+        }
+
+        // Act
+        ResultadoImportacao resultado = importacaoService.importar(
+                new ByteArrayInputStream(saida.toByteArray()), FormatoArquivo.BINARIO);
+
+        // Assert
+        assertEquals(120, resultado.getTotalImportado());
+        assertEquals(0, resultado.getTotalRejeitado());
+        List<String> numeros = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            numeros.add("imp-bin-" + i);
+        }
+        List<Cliente> importados = clienteRepository.findAllByNumeroContaIn(numeros);
+        assertEquals(120, importados.stream().map(Cliente::getId).distinct().count());
+        assertEquals(0, new BigDecimal("119").compareTo(clienteService.buscarPorNumeroConta("imp-bin-119").saldo()));
+    }
+
+    @Test
+    void deveRejeitarArquivoBinarioTruncado() throws IOException {
+        // Arrange
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (EscritorClientes escritor = FormatoArquivo.BINARIO.escritor(saida)) {
+            escritor.escrever(new ClienteResposta(null, "Ana", "imp-truncado-1", "001", BigDecimal.ONE, null));
+            escritor.escrever(new ClienteResposta(null, "Bia", "imp-truncado-2", "001", BigDecimal.ONE, null));
+        }
+        byte[] truncado = Arrays.copyOf(saida.toByteArray(), saida.size() - 3);
+
+        // Act & Assert
+        ValorInvalidoException ex = assertThrows(ValorInvalidoException.class,
+                () -> importacaoService.importar(new ByteArrayInputStream(truncado), FormatoArquivo.BINARIO));
+        assertTrue(ex.getMessage().contains("truncado"));
+        assertFalse(clienteRepository.existsByNumeroConta("imp-truncado-1"));
+    }
+
+    @Test
+    void deveRejeitarCsvSemCabecalho() {
+        // Act & Assert
+        assertThrows(ValorInvalidoException.class,
+                () -> importacaoService.importar(csv("Ana,imp-sem-cabecalho,001,1\n"), FormatoArquivo.CSV));
+        assertFalse(clienteRepository.existsByNumeroConta("imp-sem-cabecalho"));
+    }
+
+    private static ByteArrayInputStream csv(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.mini_bank_api.service.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class JournalTransacoesTest {
+
+    @TempDir
+    Path diretorio;
+
+    private JournalTransacoes journal;
+
+    @AfterEach
+    void fechar() {
+        if (journal != null) {
+            journal.fechar();
+        }
+    }
+
+    @Test
+    void deveReconstruirSaldosAposReabrir() {
+        // Arrange
+        journal = abrir(DataSize.ofKilobytes(64));
+        journal.registrar(TipoOperacao.CADASTRO, "12345", null, new BigDecimal("100.00"));
+        journal.registrar(TipoOperacao.CADASTRO, "67890", null, new BigDecimal("50.00"));
+        journal.registrar(TipoOperacao.DEPOSITO, "12345", null, new BigDecimal("25.50"));
+        journal.registrar(TipoOperacao.SAQUE, "67890", null, new BigDecimal("10"));
+        journal.registrar(TipoOperacao.TRANSFERENCIA, "12345", "67890", new BigDecimal("30.25"));
+        journal.fechar();
+
+        // Act
+        journal = abrir(DataSize.ofKilobytes(64));
+        Map<String, BigDecimal> saldos = journal.reconstruirSaldos();
+
+        // Assert
+        assertEquals(5, journal.getSequencia());
+        assertEquals(new BigDecimal("95.25"), saldos.get("12345"));
+        assertEquals(new BigDecimal("70.25"), saldos.get("67890"));
+    }
+
+    @Test
+    void deveRolarSegmentosQuandoCheios() throws IOException {
+        // Arrange: segmentos pequenos para forçar a troca
+        journal = abrir(DataSize.ofBytes(512));
+
+        // Act
+        journal.registrar(TipoOperacao.CADASTRO, "12345", null, BigDecimal.ZERO);
+        for (int i = 0; i < 100; i++) {
+            journal.registrar(TipoOperacao.DEPOSITO, "12345", null, BigDecimal.ONE);
+        }
+        journal.fechar();
+        journal = abrir(DataSize.ofBytes(512));
+        journal.registrar(TipoOperacao.DEPOSITO, "12345", null, BigDecimal.ONE);
+
+        // Assert
+        assertTrue(contarSegmentos() > 1);
+        assertEquals(102, journal.getSequencia());
+        assertEquals(new BigDecimal("101"), journal.reconstruirSaldos().get("12345"));
+
+        List<Long> sequencias = new ArrayList<>();
+        journal.reproduzir(registro -> sequencias.add(registro.sequencia()));
+        for (int i = 0; i < sequencias.size(); i++) {
+            assertEquals(i + 1, sequencias.get(i));
+        }
+    }
+
+    @Test
+    void deveReconstruirPeloSaldoResultanteMesmoSemOCadastro() {
+        // Arrange: conta cadastrada antes do journal; os registros do ledger levam o saldo depois da operação
+        journal = abrir(DataSize.ofKilobytes(64));
+        journal.registrar(TipoOperacao.DEPOSITO, "12345", null, new BigDecimal("10.00"),
+                new BigDecimal("110.00"), null);
+        journal.registrar(TipoOperacao.TRANSFERENCIA, "12345", "67890", new BigDecimal("30.00"),
+                new BigDecimal("80.00"), new BigDecimal("45.00"));
+        journal.registrar(TipoOperacao.CADASTRO, "12345", null, new BigDecimal("100.00"));
+
+        // Act
+        Map<String, BigDecimal> saldos = journal.reconstruirSaldos();
+
+        // Assert: o cadastro registrado fora de ordem não apaga o saldo já conhecido
+        assertEquals(new BigDecimal("80.00"), saldos.get("12345"));
+        assertEquals(new BigDecimal("45.00"), saldos.get("67890"));
+    }
+
+    @Test
+    void deveArquivarSegmentosAnterioresAoCheckpoint() throws IOException {
+        // Arrange
+        journal = abrir(DataSize.ofBytes(512));
+        journal.registrar(TipoOperacao.CADASTRO, "12345", null, BigDecimal.ZERO);
+        for (int i = 0; i < 100; i++) {
+            journal.registrar(TipoOperacao.DEPOSITO, "12345", null, BigDecimal.ONE);
+        }
+        long segmentosAntes = contarSegmentos();
+
+        // Act
+        long primeiroSegmento = journal.iniciarCheckpoint();
+        journal.registrarSaldo("12345", new BigDecimal("100"));
+        int arquivados = journal.arquivarAntes(primeiroSegmento);
+        journal.registrar(TipoOperacao.DEPOSITO, "12345", null, BigDecimal.ONE);
+        journal.fechar();
+        journal = abrir(DataSize.ofBytes(512));
+
+        // Assert: só o segmento do checkpoint fica no journal, a sequência continua e nenhum registro se perde
+        assertTrue(segmentosAntes > 1);
+        assertEquals(segmentosAntes, arquivados);
+        assertEquals(1, contarSegmentos());
+        assertEquals(103, journal.getSequencia());
+        assertEquals(new BigDecimal("101"), journal.reconstruirSaldos().get("12345"));
+        try (Stream<Path> arquivo = Files.list(journal.diretorioArquivo())) {
+            assertEquals(segmentosAntes, arquivo.count());
+        }
+    }
+
+    @Test
+    void deveIgnorarRegistroIncompletoNoFinal() throws IOException {
+        // Arrange
+        journal = abrir(DataSize.ofKilobytes(4));
+        journal.registrar(TipoOperacao.CADASTRO, "12345", null, new BigDecimal("10.00"));
+        journal.registrar(TipoOperacao.DEPOSITO, "12345", null, new BigDecimal("5.00"));
+        journal.fechar();
+        journal = null;
+
+        // Simula uma queda no meio da escrita: corrompe um byte do último registro
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.findFirst().orElseThrow();
+        }
+        List<Integer> posicoes = new ArrayList<>();
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            int posicao = 0;
+            int tamanho;
+            while ((tamanho = lerInt(arquivo, posicao)) > 0) {
+                posicoes.add(posicao);
+                posicao += Integer.BYTES * 2 + tamanho;
+            }
+            arquivo.seek(posicoes.get(1) + Integer.BYTES * 2 + 3);
+            arquivo.write(0x7F);
+        }
+
+        // Act
+        journal = abrir(DataSize.ofKilobytes(4));
+        journal.registrar(TipoOperacao.DEPOSITO, "12345", null, new BigDecimal("1.00"));
+
+        // Assert: o registro corrompido é descartado e a escrita continua a partir dele
+        assertEquals(new BigDecimal("11.00"), journal.reconstruirSaldos().get("12345"));
+        assertEquals(2, journal.getSequencia());
+    }
+
+    @Test
+    void deveAgruparSyncDeEscritasConcorrentes() throws Exception {
+        // Arrange
+        journal = abrir(DataSize.ofMegabytes(1));
+        journal.registrar(TipoOperacao.CADASTRO, "12345", null, BigDecimal.ZERO);
+        int threads = 8;
+        int registrosPorThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futuros = new ArrayList<>();
+
+        // Act
+        long inicio = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futuros.add(executor.submit(() -> {
+                for (int i = 0; i < registrosPorThread; i++) {
+                    journal.registrar(TipoOperacao.DEPOSITO, "12345", null, BigDecimal.ONE);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        // Assert
+        int total = threads * registrosPorThread;
+        assertEquals(total + 1, journal.getSequencia());
+        assertEquals(BigDecimal.valueOf(total), journal.reconstruirSaldos().get("12345"));
+        log.atDebug().log(() -> String.format("Journal: %d registros sincronizados em %d ms (%.0f registros/s)",
+                total, TimeUnit.NANOSECONDS.toMillis(duracao), total / (duracao / 1e9)));
+    }
+
+    private JournalTransacoes abrir(DataSize tamanhoSegmento) {
+        JournalProperties properties = new JournalProperties();
+        properties.setHabilitado(true);
+        properties.setDiretorio(diretorio.toString());
+        properties.setTamanhoSegmento(tamanhoSegmento);
+        JournalTransacoes novoJournal = new JournalTransacoes(properties);
+        novoJournal.abrir();
+        return novoJournal;
+    }
+
+    private long contarSegmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static int lerInt(RandomAccessFile arquivo, long posicao) throws IOException {
+        arquivo.seek(posicao);
+        return arquivo.readInt();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mini_bank_api.service.journal;
+
+import com.example.mini_bank_api.MiniBankApiApplication;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobe a aplicação com o ledger e um journal à frente do banco, como depois de uma queda antes do flush
+class RecuperacaoJournalTest {
+
+    private static final String BANCO = "--spring.datasource.url=jdbc:h2:mem:recuperacao-journal;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void naoDevePerderUmaOperacaoRecebidaDuranteASubida() throws Exception {
+        // Arrange: o banco tem 10.00; o journal, um depósito de 40.00 ainda não gravado no banco
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(BANCO, "--spring.jpa.hibernate.ddl-auto=update", "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN")) {
+            contexto.getBean(ClienteRepository.class)
+                    .save(new Cliente(null, "Rita", "recuperacao-1", "001", new BigDecimal("10.00")));
+        }
+        JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setHabilitado(true);
+        journalProperties.setDiretorio(diretorio.toString());
+        JournalTransacoes journal = new JournalTransacoes(journalProperties);
+        journal.abrir();
+        journal.registrar(TipoOperacao.DEPOSITO, "recuperacao-1", null, new BigDecimal("40.00"),
+                new BigDecimal("50.00"), null);
+        journal.fechar();
+
+        // Um depósito enviado assim que o servidor web aceita conexões, antes de a subida terminar
+        AtomicInteger status = new AtomicInteger();
+        ApplicationListener<ServletWebServerInitializedEvent> depositoNaSubida = evento -> {
+            HttpRequest deposito = HttpRequest.newBuilder(URI.create("http://localhost:"
+                            + evento.getWebServer().getPort() + "/api/clientes/recuperacao-1/deposito?valor=5.00"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            try {
+                status.set(HttpClient.newHttpClient().send(deposito, HttpResponse.BodyHandlers.discarding())
+                        .statusCode());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+
+        // Act
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MiniBankApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .listeners(depositoNaSubida)
+                .run(BANCO, "--spring.jpa.hibernate.ddl-auto=update", "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN", "--server.port=0",
+                        "--mini-bank.ledger.habilitado=true",
+                        "--mini-bank.journal.habilitado=true",
+                        "--mini-bank.journal.diretorio=" + diretorio)) {
+
+            // Assert: o depósito partiu do saldo restaurado do journal, não do saldo do banco
+            assertEquals(200, status.get());
+            assertEquals(new BigDecimal("55.00"), contexto.getBean(LedgerSaldos.class).buscar("recuperacao-1").saldo());
+        }
+    }
+}
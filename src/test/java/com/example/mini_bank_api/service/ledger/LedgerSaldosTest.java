@@ -0,0 +1,322 @@
+package com.example.mini_bank_api.service.ledger;
+
+import com.example.mini_bank_api.dto.ClienteResposta;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.entity.Movimento;
+import com.example.mini_bank_api.entity.TipoMovimento;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.repository.MovimentoRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.agregados.AgregadosProperties;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.concorrencia.EstrategiaConcorrencia;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.journal.JournalProperties;
+import com.example.mini_bank_api.service.journal.JournalTransacoes;
+import com.example.mini_bank_api.service.journal.RecuperacaoJournal;
+import com.example.mini_bank_api.service.journal.RegistroJournal;
+import com.example.mini_bank_api.service.journal.TipoOperacao;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Usa o contexto padrão com o extrato (ledger desabilitado) e cria um ledger próprio sobre o mesmo banco
+@Slf4j
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:extrato", "mini-bank.extrato.habilitado=true"})
+class LedgerSaldosTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERACOES_POR_THREAD = 250;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ClienteValidation clienteValidation;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ConcorrenciaProperties concorrenciaProperties;
+
+    @Autowired
+    private RegistroMovimentos registroMovimentos;
+
+    @Autowired
+    private MovimentoRepository movimentoRepository;
+
+    @Autowired
+    private JournalTransacoes journalTransacoes;
+
+    @TempDir
+    Path diretorioJournal;
+
+    private LedgerSaldos ledger;
+
+    @BeforeEach
+    void criarLedger() {
+        ledger = criarLedger(journalTransacoes);
+    }
+
+    private LedgerSaldos criarLedger(JournalTransacoes journal) {
+        LedgerProperties properties = new LedgerProperties();
+        properties.setHabilitado(true);
+        properties.setIntervaloFlushMs(50);
+        properties.setTamanhoLote(100);
+        // Agregados próprios e desligados: os do contexto não veem os flushes deste ledger
+        AgregadosProperties agregadosProperties = new AgregadosProperties();
+        agregadosProperties.setHabilitado(false);
+        LedgerSaldos novoLedger = new LedgerSaldos(properties, clienteRepository, clienteValidation,
+                registroMovimentos, new AgregadosAgencias(agregadosProperties), journal, transactionManager);
+        novoLedger.iniciar();
+        return novoLedger;
+    }
+
+    @AfterEach
+    void encerrarLedger() {
+        ledger.encerrar();
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.OTIMISTA);
+    }
+
+    @Test
+    void deveGravarSaldosNoBancoAposFlush() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Ana", "ledger-1", "001", new BigDecimal("100.00")));
+        clienteRepository.save(new Cliente(null, "Bia", "ledger-2", "001", new BigDecimal("10.00")));
+
+        // Act
+        ledger.creditar("ledger-1", new BigDecimal("50.00"));
+        ledger.transferir("ledger-1", "ledger-2", new BigDecimal("30.00"));
+        ledger.debitar("ledger-2", new BigDecimal("5.00"));
+        ledger.flush();
+
+        // Assert
+        assertEquals(0, ledger.getContasPendentes());
+        assertEquals(0, new BigDecimal("120.00").compareTo(saldoNoBanco("ledger-1")));
+        assertEquals(0, new BigDecimal("35.00").compareTo(saldoNoBanco("ledger-2")));
+
+        // Os movimentos adiados chegam ao banco no mesmo flush, na ordem em que foram aplicados
+        List<Movimento> movimentos = movimentoRepository.findAll().stream()
+                .filter(movimento -> movimento.getNumeroConta().equals("ledger-2"))
+                .toList();
+        assertEquals(List.of(TipoMovimento.TRANSFERENCIA_RECEBIDA, TipoMovimento.SAQUE),
+                movimentos.stream().map(Movimento::getTipo).toList());
+        assertEquals(0, new BigDecimal("40.00").compareTo(movimentos.get(0).getSaldoApos()));
+        assertEquals(0, new BigDecimal("-5.00").compareTo(movimentos.get(1).getValor()));
+        assertEquals(0, new BigDecimal("35.00").compareTo(movimentos.get(1).getSaldoApos()));
+        assertEquals(0, registroMovimentos.getMovimentosAdiados());
+    }
+
+    @Test
+    void deveMudarOMarcoSincronizadoACadaFlushQueGravaSaldos() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Duda", "ledger-4", "001", new BigDecimal("10.00")));
+        ledger.flush();
+        long antes = ledger.marcoSincronizado();
+
+        // Act
+        ledger.creditar("ledger-4", new BigDecimal("1.00"));
+        ledger.flush();
+        long depois = ledger.marcoSincronizado();
+        ledger.flush();
+
+        // Assert: um flush sem contas pendentes não muda o marco
+        assertTrue(antes >= 0);
+        assertTrue(depois > antes);
+        assertEquals(depois, ledger.marcoSincronizado());
+    }
+
+    @Test
+    void deveRejeitarSaqueSemSaldoSemAlterarLedger() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Caio", "ledger-3", "001", new BigDecimal("10.00")));
+
+        // Act & Assert
+        assertThrows(SaldoInsuficienteException.class,
+                () -> ledger.debitar("ledger-3", new BigDecimal("20.00")));
+        assertThrows(ClienteNotFoundException.class,
+                () -> ledger.creditar("ledger-inexistente", BigDecimal.ONE));
+
+        assertEquals(new BigDecimal("10.00"), ledger.buscar("ledger-3").saldo());
+        assertEquals(0, ledger.getContasPendentes());
+    }
+
+    @Test
+    void deveRegistrarNoJournalAntesDeAlterarOSaldo() {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Edu", "ledger-5", "001", new BigDecimal("10.00")));
+        clienteRepository.save(new Cliente(null, "Fabi", "ledger-6", "001", new BigDecimal("10.00")));
+        JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setHabilitado(true);
+        journalProperties.setDiretorio(diretorioJournal.toString());
+        JournalTransacoes journal = new JournalTransacoes(journalProperties);
+        journal.abrir();
+        ledger.encerrar();
+        ledger = criarLedger(journal);
+
+        // Act
+        ledger.creditar("ledger-5", new BigDecimal("5.00"));
+        ledger.transferir("ledger-5", "ledger-6", new BigDecimal("3.00"));
+        journal.fechar();
+
+        // Assert: cada registro leva o saldo resultante; sem journal a alteração não acontece
+        List<RegistroJournal> registros = new ArrayList<>();
+        journal.reproduzir(registros::add);
+        assertEquals(List.of(TipoOperacao.DEPOSITO, TipoOperacao.TRANSFERENCIA),
+                registros.stream().map(RegistroJournal::tipo).toList());
+        assertEquals(new BigDecimal("15.00"), registros.get(0).saldoOrigem());
+        assertEquals(new BigDecimal("12.00"), registros.get(1).saldoOrigem());
+        assertEquals(new BigDecimal("13.00"), registros.get(1).saldoDestino());
+
+        assertThrows(IllegalStateException.class, () -> ledger.debitar("ledger-5", new BigDecimal("1.00")));
+        assertEquals(new BigDecimal("12.00"), ledger.buscar("ledger-5").saldo());
+    }
+
+    @Test
+    void deveReconstruirOsSaldosDepoisDeUmCheckpoint() throws Exception {
+        // Arrange: segmentos pequenos, para o checkpoint ter o que arquivar
+        clienteRepository.save(new Cliente(null, "Gabi", "ledger-7", "001", new BigDecimal("10.00")));
+        clienteRepository.save(new Cliente(null, "Hugo", "ledger-8", "001", new BigDecimal("10.00")));
+        JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setHabilitado(true);
+        journalProperties.setDiretorio(diretorioJournal.toString());
+        journalProperties.setTamanhoSegmento(DataSize.ofBytes(512));
+        JournalTransacoes journal = new JournalTransacoes(journalProperties);
+        journal.abrir();
+        ledger.encerrar();
+        ledger = criarLedger(journal);
+        RecuperacaoJournal recuperacao = new RecuperacaoJournal(journal, ledger, journalProperties);
+        for (int i = 0; i < 20; i++) {
+            ledger.creditar("ledger-7", new BigDecimal("1.00"));
+        }
+
+        // Act
+        int arquivados = recuperacao.checkpoint();
+        ledger.creditar("ledger-8", new BigDecimal("2.00"));
+        journal.fechar();
+
+        // Assert: o ledger-7 só tem o registro do checkpoint; o ledger-8, só o depósito depois dele
+        Map<String, BigDecimal> saldos = journal.reconstruirSaldos();
+        assertTrue(arquivados > 0);
+        try (Stream<Path> segmentos = Files.list(diretorioJournal)) {
+            assertEquals(1, segmentos.filter(Files::isRegularFile).count());
+        }
+        try (Stream<Path> arquivo = Files.list(journal.diretorioArquivo())) {
+            assertEquals(arquivados, arquivo.count());
+        }
+        assertEquals(new BigDecimal("30.00"), saldos.get("ledger-7"));
+        assertEquals(new BigDecimal("12.00"), saldos.get("ledger-8"));
+    }
+
+    @Test
+    void naoDeveFazerCheckpointSemOLedger() {
+        // Arrange: sem o ledger o journal é só o histórico das operações confirmadas no banco
+        JournalProperties journalProperties = new JournalProperties();
+        journalProperties.setHabilitado(true);
+        journalProperties.setDiretorio(diretorioJournal.toString());
+        journalProperties.setTamanhoSegmento(DataSize.ofBytes(512));
+        JournalTransacoes journal = new JournalTransacoes(journalProperties);
+        journal.abrir();
+        for (int i = 0; i < 20; i++) {
+            journal.registrar(TipoOperacao.DEPOSITO, "ledger-9", null, BigDecimal.ONE);
+        }
+        AgregadosProperties agregadosProperties = new AgregadosProperties();
+        agregadosProperties.setHabilitado(false);
+        LedgerSaldos ledgerDesligado = new LedgerSaldos(new LedgerProperties(), clienteRepository,
+                clienteValidation, registroMovimentos, new AgregadosAgencias(agregadosProperties), journal,
+                transactionManager);
+        RecuperacaoJournal recuperacao = new RecuperacaoJournal(journal, ledgerDesligado, journalProperties);
+
+        // Act
+        int arquivados = recuperacao.checkpoint();
+
+        // Assert: todos os depósitos continuam no journal
+        List<RegistroJournal> registros = new ArrayList<>();
+        journal.reproduzir(registros::add);
+        journal.fechar();
+        assertEquals(0, arquivados);
+        assertEquals(20, registros.size());
+    }
+
+    @Test
+    @Tag("lento")
+    void deveSerMaisRapidoQueCaminhoJpaSemPerderAtualizacoes() throws Exception {
+        // Arrange: o caminho JPA mais rápido sob contenção é o bloqueio pessimista
+        concorrenciaProperties.setEstrategia(EstrategiaConcorrencia.PESSIMISTA);
+        clienteRepository.save(new Cliente(null, "Jpa", "bench-jpa", "001", BigDecimal.ZERO));
+        clienteRepository.save(new Cliente(null, "Ledger", "bench-ledger", "001", BigDecimal.ZERO));
+
+        // Act
+        long nanosJpa = executarConcorrente(() -> clienteService.depositar("bench-jpa", BigDecimal.ONE));
+        long nanosLedger = executarConcorrente(() -> ledger.creditar("bench-ledger", BigDecimal.ONE));
+        ledger.flush();
+
+        // Assert
+        BigDecimal esperado = BigDecimal.valueOf((long) THREADS * OPERACOES_POR_THREAD);
+        assertEquals(0, esperado.compareTo(saldoNoBanco("bench-jpa")));
+        assertEquals(0, esperado.compareTo(saldoNoBanco("bench-ledger")));
+
+        int total = THREADS * OPERACOES_POR_THREAD;
+        log.atDebug().log(() -> String.format("Depósitos concorrentes: JPA %.0f ops/s | ledger %.0f ops/s",
+                total / (nanosJpa / 1e9), total / (nanosLedger / 1e9)));
+        assertTrue(nanosLedger < nanosJpa);
+    }
+
+    private long executarConcorrente(Callable<?> operacao) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    operacao.call();
+                }
+                return null;
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+        return duracao;
+    }
+
+    private BigDecimal saldoNoBanco(String numeroConta) {
+        return clienteRepository.findByNumeroConta(numeroConta).orElseThrow().getSaldo();
+    }
+}
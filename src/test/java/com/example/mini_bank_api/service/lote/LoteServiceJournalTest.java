@@ -0,0 +1,101 @@
+package com.example.mini_bank_api.service.lote;
+
+import com.example.mini_bank_api.dto.OperacaoLote;
+import com.example.mini_bank_api.dto.ResultadoLote;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.example.mini_bank_api.service.agregados.AgregadosAgencias;
+import com.example.mini_bank_api.service.cache.CacheClientes;
+import com.example.mini_bank_api.service.concorrencia.ConcorrenciaProperties;
+import com.example.mini_bank_api.service.extrato.RegistroMovimentos;
+import com.example.mini_bank_api.service.journal.JournalTransacoes;
+import com.example.mini_bank_api.service.ledger.LedgerSaldos;
+import com.example.mini_bank_api.validation.ClienteValidation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Lote com o journal habilitado: um fsync por chunk, não um por item
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:lote-journal",
+        "mini-bank.journal.habilitado=true", "mini-bank.journal.diretorio=target/journal-lote"})
+class LoteServiceJournalTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ClienteValidation clienteValidation;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ConcorrenciaProperties concorrenciaProperties;
+
+    @Autowired
+    private LoteProperties loteProperties;
+
+    @Autowired
+    private LedgerSaldos ledgerSaldos;
+
+    @Autowired
+    private JournalTransacoes journalTransacoes;
+
+    @Autowired
+    private CacheClientes cacheClientes;
+
+    @Autowired
+    private RegistroMovimentos registroMovimentos;
+
+    @Autowired
+    private AgregadosAgencias agregadosAgencias;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deveAguardarUmUnicoFsyncPorChunk() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Davi", "lote-journal-1", "001", new BigDecimal("100.00")));
+        clienteRepository.save(new Cliente(null, "Eva", "lote-journal-2", "001", new BigDecimal("100.00")));
+        List<OperacaoLote> operacoes = List.of(
+                new OperacaoLote(OperacaoLote.Tipo.DEPOSITO, "lote-journal-1", null, null, new BigDecimal("10.00")),
+                new OperacaoLote(OperacaoLote.Tipo.SAQUE, "lote-journal-2", null, null, new BigDecimal("5.00")),
+                new OperacaoLote(OperacaoLote.Tipo.TRANSFERENCIA, null, "lote-journal-1", "lote-journal-2",
+                        new BigDecimal("20.00")));
+        // O mock repassa as chamadas ao journal real e só conta quantas vezes cada método foi chamado
+        JournalTransacoes journal = mock(JournalTransacoes.class, delegatesTo(journalTransacoes));
+        LoteService loteService = new LoteService(clienteRepository, clienteValidation, clienteService,
+                concorrenciaProperties, loteProperties, ledgerSaldos, journal, cacheClientes, registroMovimentos,
+                agregadosAgencias, objectMapper, transactionManager);
+        long antes = journalTransacoes.getSequencia();
+
+        // Act
+        ResultadoLote resultado = loteService.processar(
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(operacoes)), false);
+
+        // Assert
+        assertEquals(3, resultado.getTotalOk());
+        verify(journal, times(3)).registrarSemAguardar(any(), any(), any(), any(), any(), any());
+        verify(journal, times(1)).aguardarSincronizacao(anyLong());
+        assertEquals(antes + 3, journalTransacoes.getSequencia());
+    }
+}
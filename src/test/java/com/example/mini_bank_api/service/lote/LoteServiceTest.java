@@ -0,0 +1,173 @@
+package com.example.mini_bank_api.service.lote;
+
+import com.example.mini_bank_api.dto.OperacaoLote;
+import com.example.mini_bank_api.dto.ResultadoItemLote;
+import com.example.mini_bank_api.dto.ResultadoLote;
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import com.example.mini_bank_api.repository.ClienteRepository;
+import com.example.mini_bank_api.service.ClienteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+class LoteServiceTest {
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void deveAplicarItensValidosERejeitarInvalidosIndividualmente() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Ana", "lote-1", "001", new BigDecimal("100.00")));
+        clienteRepository.save(new Cliente(null, "Bia", "lote-2", "001", new BigDecimal("10.00")));
+        List<OperacaoLote> operacoes = List.of(
+                deposito("lote-1", "50.00"),
+                saque("lote-2", "20.00"),                  // saldo insuficiente
+                transferencia("lote-1", "lote-2", "30.00"),
+                deposito("lote-inexistente", "1.00"),      // conta não encontrada
+                deposito("lote-2", "-5.00"),               // valor inválido
+                transferencia("lote-2", "lote-2", "1.00")  // mesma conta
+        );
+
+        // Act
+        ResultadoLote resultado = loteService.processar(json(operacoes), false);
+
+        // Assert
+        assertTrue(resultado.isConfirmado());
+        assertEquals(2, resultado.getTotalOk());
+        assertEquals(4, resultado.getTotalErro());
+        assertEquals(ResultadoItemLote.Status.OK, resultado.getItens().get(0).getStatus());
+        assertEquals("Saldo insuficiente", resultado.getItens().get(1).getMensagem());
+        assertEquals(new BigDecimal("120.00"), resultado.getItens().get(2).getSaldo());
+        assertEquals("Conta não encontrada", resultado.getItens().get(3).getMensagem());
+        assertEquals(0, new BigDecimal("120.00").compareTo(saldo("lote-1")));
+        assertEquals(0, new BigDecimal("40.00").compareTo(saldo("lote-2")));
+    }
+
+    @Test
+    void deveDesfazerLoteAtomicoQuandoUmItemFalha() throws Exception {
+        // Arrange: chunks pequenos para o item inválido cair em um chunk posterior
+        clienteRepository.save(new Cliente(null, "Caio", "lote-3", "001", new BigDecimal("10.00")));
+        List<OperacaoLote> operacoes = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            operacoes.add(deposito("lote-3", "1.00"));
+        }
+        operacoes.add(saque("lote-3", "5000.00"));
+
+        // Act
+        ResultadoLote resultado = loteService.processar(json(operacoes), true);
+
+        // Assert
+        assertFalse(resultado.isConfirmado());
+        assertEquals(0, resultado.getTotalOk());
+        assertEquals(1, resultado.getTotalErro());
+        assertEquals(ResultadoItemLote.Status.DESFEITO, resultado.getItens().get(0).getStatus());
+        assertEquals(1_200, resultado.getItens().get(1_200).getIndice());
+        assertEquals(0, new BigDecimal("10.00").compareTo(saldo("lote-3")));
+    }
+
+    @Test
+    void deveConfirmarLoteAtomicoValido() throws Exception {
+        // Arrange
+        clienteRepository.save(new Cliente(null, "Davi", "lote-4", "001", new BigDecimal("10.00")));
+        clienteRepository.save(new Cliente(null, "Eva", "lote-5", "001", BigDecimal.ZERO));
+
+        // Act
+        ResultadoLote resultado = loteService.processar(json(List.of(
+                deposito("lote-4", "90.00"),
+                transferencia("lote-4", "lote-5", "60.00"))), true);
+
+        // Assert
+        assertTrue(resultado.isConfirmado());
+        assertEquals(0, new BigDecimal("40.00").compareTo(saldo("lote-4")));
+        assertEquals(0, new BigDecimal("60.00").compareTo(saldo("lote-5")));
+    }
+
+    @Test
+    void deveRejeitarCorpoQueNaoSejaArray() {
+        InputStream corpo = new ByteArrayInputStream("{\"tipo\":\"DEPOSITO\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValorInvalidoException.class, () -> loteService.processar(corpo, false));
+    }
+
+    @Test
+    @Tag("lento")
+    void deveProcessarLoteMaisRapidoQueChamadasIndividuais() throws Exception {
+        // Arrange: folha de pagamento com depósitos espalhados por 200 contas
+        int contas = 200;
+        int operacoesPorModo = 4_000;
+        for (int i = 0; i < contas; i++) {
+            clienteRepository.save(new Cliente(null, "Func " + i, "folha-" + i, "001", BigDecimal.ZERO));
+        }
+        List<OperacaoLote> operacoes = new ArrayList<>();
+        for (int i = 0; i < operacoesPorModo; i++) {
+            operacoes.add(deposito("folha-" + (i % contas), "1.00"));
+        }
+
+        // Act
+        long inicioIndividual = System.nanoTime();
+        for (OperacaoLote operacao : operacoes) {
+            clienteService.depositar(operacao.getNumeroConta(), operacao.getValor());
+        }
+        long nanosIndividual = System.nanoTime() - inicioIndividual;
+
+        InputStream corpo = json(operacoes);
+        long inicioLote = System.nanoTime();
+        ResultadoLote resultado = loteService.processar(corpo, false);
+        long nanosLote = System.nanoTime() - inicioLote;
+
+        // Assert
+        assertEquals(operacoesPorModo, resultado.getTotalOk());
+        BigDecimal esperado = BigDecimal.valueOf(2L * operacoesPorModo / contas);
+        for (int i = 0; i < contas; i += 37) {
+            assertEquals(0, esperado.compareTo(saldo("folha-" + i)));
+        }
+        log.atDebug().log(() -> String.format("Depósitos: individual %.0f ops/s | lote %.0f ops/s",
+                operacoesPorModo / (nanosIndividual / 1e9), operacoesPorModo / (nanosLote / 1e9)));
+        assertTrue(nanosLote < nanosIndividual);
+    }
+
+    private InputStream json(List<OperacaoLote> operacoes) throws Exception {
+        return new ByteArrayInputStream(objectMapper.writeValueAsBytes(operacoes));
+    }
+
+    private BigDecimal saldo(String numeroConta) {
+        return clienteRepository.findByNumeroConta(numeroConta).orElseThrow().getSaldo();
+    }
+
+    private static OperacaoLote deposito(String numeroConta, String valor) {
+        return new OperacaoLote(OperacaoLote.Tipo.DEPOSITO, numeroConta, null, null, new BigDecimal(valor));
+    }
+
+    private static OperacaoLote saque(String numeroConta, String valor) {
+        return new OperacaoLote(OperacaoLote.Tipo.SAQUE, numeroConta, null, null, new BigDecimal(valor));
+    }
+
+    private static OperacaoLote transferencia(String origem, String destino, String valor) {
+        return new OperacaoLote(OperacaoLote.Tipo.TRANSFERENCIA, null, origem, destino, new BigDecimal(valor));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.mini_bank_api.service.metricas;
+
+import com.example.mini_bank_api.entity.Cliente;
+import com.example.mini_bank_api.exception.ClienteNotFoundException;
+import com.example.mini_bank_api.exception.SaldoInsuficienteException;
+import com.example.mini_bank_api.service.ClienteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MetricasOperacoesTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void deveMedirOperacaoComSucessoETempoDeBanco() {
+        // Arrange
+        clienteService.cadastrarCliente(new Cliente(null, "Métricas", "metricas-1", "001", BigDecimal.ZERO));
+        long depositosAntes = timer("deposito", MetricasOperacoes.RESULTADO_SUCESSO).count();
+        double bancoAntes = meterRegistry.get(MetricasOperacoes.TIMER_BANCO)
+                .tag("operacao", "deposito").timer().totalTime(TimeUnit.NANOSECONDS);
+
+        // Act
+        clienteService.depositar("metricas-1", new BigDecimal("10.00"));
+
+        // Assert
+        Timer total = timer("deposito", MetricasOperacoes.RESULTADO_SUCESSO);
+        Timer banco = meterRegistry.get(MetricasOperacoes.TIMER_BANCO).tag("operacao", "deposito").timer();
+        assertEquals(depositosAntes + 1, total.count());
+        assertTrue(banco.totalTime(TimeUnit.NANOSECONDS) > bancoAntes);
+        assertTrue(banco.totalTime(TimeUnit.NANOSECONDS) <= total.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void deveContarFalhasPorTipoDeExcecao() {
+        // Arrange
+        clienteService.cadastrarCliente(new Cliente(null, "Métricas", "metricas-2", "001", BigDecimal.ZERO));
+
+        // Act
+        assertThrows(SaldoInsuficienteException.class,
+                () -> clienteService.sacar("metricas-2", new BigDecimal("50.00")));
+        assertThrows(ClienteNotFoundException.class,
+                () -> clienteService.buscarPorNumeroConta("metricas-inexistente"));
+
+        // Assert
+        assertTrue(timer("saque", "SaldoInsuficienteException").count() >= 1);
+        assertTrue(timer("consulta", "ClienteNotFoundException").count() >= 1);
+    }
+
+    private Timer timer(String operacao, String resultado) {
+        return meterRegistry.get(MetricasOperacoes.TIMER_OPERACAO)
+                .tag("operacao", operacao)
+                .tag("resultado", resultado)
+                .timer();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mini_bank_api.util;
+
+import com.example.mini_bank_api.exception.ValorInvalidoException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentavosTest {
+
+    @Test
+    void deveConverterValorExatoParaCentavos() {
+        // Act & Assert
+        assertEquals(10050, Centavos.deValor(new BigDecimal("100.50")));
+        assertEquals(10050, Centavos.deValor(new BigDecimal("100.500")));
+        assertEquals(10000, Centavos.deValor(new BigDecimal("100")));
+        assertEquals(1, Centavos.deValor(new BigDecimal("0.01")));
+        assertEquals(-250, Centavos.deValor(new BigDecimal("-2.5")));
+    }
+
+    @Test
+    void deveRejeitarValorQuePrecisariaDeArredondamento() {
+        // Act & Assert
+        ValorInvalidoException exception = assertThrows(ValorInvalidoException.class,
+                () -> Centavos.deValor(new BigDecimal("0.001")));
+        assertEquals("Valor deve ter no máximo 2 casas decimais", exception.getMessage());
+    }
+
+    @Test
+    void deveRejeitarValorForaDoLimite() {
+        // Act & Assert
+        assertThrows(ValorInvalidoException.class,
+                () -> Centavos.deValor(new BigDecimal("100000000000000000000.00")));
+        assertThrows(ValorInvalidoException.class, () -> Centavos.somar(Long.MAX_VALUE, 1));
+        assertThrows(ValorInvalidoException.class, () -> Centavos.subtrair(Long.MIN_VALUE, 1));
+    }
+
+    @Test
+    void deveVoltarParaBigDecimalComDuasCasas() {
+        // Act
+        BigDecimal valor = Centavos.paraValor(Centavos.somar(10050, 25));
+
+        // Assert
+        assertEquals(new BigDecimal("100.75"), valor);
+        assertEquals(2, valor.scale());
+    }
+}